@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.sql;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A {@link ResettableDataSource} that holds the rows of another data source in memory the first time that all of them are read, so that
+ * the data source can be reset any number of times, for instance to run several queries against the same data, while the underlying data
+ * is read and parsed only once.
+ * </p>
+ *
+ * <p>
+ * At most the given number of rows is held in memory. If the underlying data source provides more rows than that, the rows are not held,
+ * and every reset reads the underlying data source again, as if the rows had never been buffered. Likewise, the rows are held only once
+ * a {@link RowStream} has provided all of them: if a RowStream is closed before reaching the end of the data, the rows that it has read
+ * are discarded, and the next reset reads the underlying data source again.
+ * </p>
+ */
+public class BufferedDataSource implements ResettableDataSource {
+    private final ResettableDataSource dataSource;
+    private final int maxBufferedRows;
+
+    private List<Object[]> bufferedRows = null;
+    private boolean buffering = false;
+    private boolean bufferExceeded = false;
+
+    /**
+     * @param dataSource the data source whose rows should be buffered
+     * @param maxBufferedRows the maximum number of rows to hold in memory
+     */
+    public BufferedDataSource(final ResettableDataSource dataSource, final int maxBufferedRows) {
+        this.dataSource = dataSource;
+        this.maxBufferedRows = maxBufferedRows;
+    }
+
+    @Override
+    public NiFiTableSchema getSchema() {
+        return dataSource.getSchema();
+    }
+
+    @Override
+    public synchronized RowStream reset() throws IOException {
+        if (bufferedRows != null) {
+            return new IterableRowStream<>(bufferedRows, Function.identity());
+        }
+
+        final RowStream rowStream = dataSource.reset();
+
+        // Only a single RowStream buffers the rows at a time; any other RowStream that is established while it does so reads the
+        // underlying data source directly.
+        if (buffering || bufferExceeded) {
+            return rowStream;
+        }
+
+        buffering = true;
+        return new BufferingRowStream(rowStream);
+    }
+
+    /**
+     * @return <code>true</code> if all rows of the underlying data source are held in memory, <code>false</code> otherwise
+     */
+    public synchronized boolean isBuffered() {
+        return bufferedRows != null;
+    }
+
+    private synchronized void onBufferComplete(final List<Object[]> rows) {
+        bufferedRows = rows;
+        buffering = false;
+    }
+
+    private synchronized void onBufferDiscarded(final boolean exceeded) {
+        buffering = false;
+        bufferExceeded = bufferExceeded || exceeded;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedDataSource[dataSource=" + dataSource + ", maxBufferedRows=" + maxBufferedRows + "]";
+    }
+
+    private class BufferingRowStream implements RowStream {
+        private final RowStream rowStream;
+        private List<Object[]> rows = new ArrayList<>();
+
+        private BufferingRowStream(final RowStream rowStream) {
+            this.rowStream = rowStream;
+        }
+
+        @Override
+        public Object[] nextRow() throws IOException {
+            final Object[] row = rowStream.nextRow();
+            if (rows == null) {
+                return row;
+            }
+
+            if (row == null) {
+                onBufferComplete(rows);
+                rows = null;
+            } else if (rows.size() >= maxBufferedRows) {
+                rows = null;
+                onBufferDiscarded(true);
+            } else {
+                rows.add(row);
+            }
+
+            return row;
+        }
+
+        @Override
+        public int getRowsSkipped() {
+            return rowStream.getRowsSkipped();
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (rows != null) {
+                rows = null;
+                onBufferDiscarded(false);
+            }
+
+            rowStream.close();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.sql;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A comparison of the value of a column with a constant, which is derived from the WHERE clause of a query. A {@link ResettableDataSource}
+ * may use the predicates that it is given in order to omit rows that cannot be part of the result of the query. The query still evaluates
+ * its complete condition against every row that the data source does provide, so a data source is free to ignore any predicate.
+ * </p>
+ *
+ * <p>
+ * String values are compared with Strings, Boolean values with Booleans and numeric values with numbers, which are always provided as
+ * {@link BigDecimal}. If the value of a column cannot be compared with the constant, the predicate is considered to be satisfied.
+ * </p>
+ */
+public class ColumnPredicate {
+    private final int column;
+    private final Operator operator;
+    private final Object value;
+
+    /**
+     * Creates a predicate that compares the value of the given column with the given constant
+     *
+     * @param column   the index of the column in the schema of the table
+     * @param operator the comparison to perform
+     * @param value    the constant to compare the value of the column with, or <code>null</code> if the operator does not take a constant
+     */
+    public ColumnPredicate(final int column, final Operator operator, final Object value) {
+        this.column = column;
+        this.operator = Objects.requireNonNull(operator);
+        this.value = value;
+    }
+
+    /**
+     * @return the index of the column in the schema of the table
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Evaluates the predicate against the given row
+     *
+     * @param row a row that adheres to the schema of the table
+     * @return <code>false</code> if the row cannot be part of the result of the query, <code>true</code> otherwise
+     */
+    public boolean test(final Object[] row) {
+        final Object columnValue = row[column];
+        if (operator == Operator.IS_NULL) {
+            return columnValue == null;
+        }
+        if (operator == Operator.IS_NOT_NULL) {
+            return columnValue != null;
+        }
+
+        // A comparison with null is never true
+        if (columnValue == null) {
+            return false;
+        }
+
+        final Integer comparison = compare(columnValue, value);
+        if (comparison == null) {
+            return true;
+        }
+
+        return switch (operator) {
+            case EQUALS -> comparison == 0;
+            case NOT_EQUALS -> comparison != 0;
+            case LESS_THAN -> comparison < 0;
+            case LESS_THAN_OR_EQUAL -> comparison <= 0;
+            case GREATER_THAN -> comparison > 0;
+            case GREATER_THAN_OR_EQUAL -> comparison >= 0;
+            default -> true;
+        };
+    }
+
+    private static Integer compare(final Object columnValue, final Object constant) {
+        if (columnValue instanceof String stringValue && constant instanceof String stringConstant) {
+            return stringValue.compareTo(stringConstant);
+        }
+        if (columnValue instanceof Boolean booleanValue && constant instanceof Boolean booleanConstant) {
+            return Boolean.compare(booleanValue, booleanConstant);
+        }
+        if (columnValue instanceof Number number && constant instanceof BigDecimal decimalConstant) {
+            return compare(number, decimalConstant);
+        }
+
+        return null;
+    }
+
+    private static Integer compare(final Number number, final BigDecimal constant) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return BigDecimal.valueOf(number.longValue()).compareTo(constant);
+        }
+        if (number instanceof BigInteger bigInteger) {
+            return new BigDecimal(bigInteger).compareTo(constant);
+        }
+        if (number instanceof BigDecimal bigDecimal) {
+            return bigDecimal.compareTo(constant);
+        }
+        if (number instanceof Double) {
+            // Floating-point values are compared the way that the query compares them, rather than exactly
+            final double doubleValue = number.doubleValue();
+            final double doubleConstant = constant.doubleValue();
+            if (Double.isNaN(doubleValue)) {
+                return null;
+            }
+
+            return doubleValue < doubleConstant ? -1 : (doubleValue > doubleConstant ? 1 : 0);
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+
+        final ColumnPredicate that = (ColumnPredicate) other;
+        return column == that.column && operator == that.operator && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(column, operator, value);
+    }
+
+    @Override
+    public String toString() {
+        return switch (operator) {
+            case IS_NULL, IS_NOT_NULL -> "$" + column + " " + operator.getSymbol();
+            default -> "$" + column + " " + operator.getSymbol() + " " + value;
+        };
+    }
+
+    public enum Operator {
+        EQUALS("="),
+        NOT_EQUALS("<>"),
+        LESS_THAN("<"),
+        LESS_THAN_OR_EQUAL("<="),
+        GREATER_THAN(">"),
+        GREATER_THAN_OR_EQUAL(">="),
+        IS_NULL("IS NULL"),
+        IS_NOT_NULL("IS NOT NULL");
+
+        private final String symbol;
+
+        Operator(final String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * @return the operator that gives the same result when the operands are swapped
+         */
+        public Operator reverse() {
+            return switch (this) {
+                case LESS_THAN -> GREATER_THAN;
+                case LESS_THAN_OR_EQUAL -> GREATER_THAN_OR_EQUAL;
+                case GREATER_THAN -> LESS_THAN;
+                case GREATER_THAN_OR_EQUAL -> LESS_THAN_OR_EQUAL;
+                default -> this;
+            };
+        }
+    }
+}
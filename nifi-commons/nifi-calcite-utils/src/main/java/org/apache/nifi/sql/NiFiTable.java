@@ -153,20 +153,22 @@ public class NiFiTable implements Closeable {
 
     private class NiFiTableEnumerable extends AbstractEnumerable<Object> {
         private final int[] fields;
+        private final List<ColumnPredicate> predicates;
 
-        public NiFiTableEnumerable(final int[] fields) {
+        public NiFiTableEnumerable(final int[] fields, final List<ColumnPredicate> predicates) {
             this.fields = fields;
+            this.predicates = predicates;
         }
 
         @Override
         public Enumerator<Object> enumerator() {
-            final NiFiTableEnumerator flowFileEnumerator = new NiFiTableEnumerator(dataSource, logger, fields, this::onFinish, enumerators::remove);
+            final NiFiTableEnumerator flowFileEnumerator = new NiFiTableEnumerator(dataSource, logger, fields, predicates, this::onFinish, enumerators::remove);
             enumerators.add(flowFileEnumerator);
             return flowFileEnumerator;
         }
 
-        private void onFinish() {
-            final int recordCount = maxRecordsRead;
+        private void onFinish(final NiFiTableEnumerator enumerator) {
+            final int recordCount = enumerator.getRecordsRead();
             if (recordCount > maxRecordsRead) {
                 maxRecordsRead = recordCount;
             }
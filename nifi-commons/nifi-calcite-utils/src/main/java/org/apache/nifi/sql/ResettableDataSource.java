@@ -18,6 +18,7 @@
 package org.apache.nifi.sql;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * A Source of data for a database
@@ -36,4 +37,19 @@ public interface ResettableDataSource {
      * @throws IOException if unable to obtain a RowStream due to IO failures
      */
     RowStream reset() throws IOException;
+
+    /**
+     * Resets the data source and establishes a {@link RowStream} for a query that needs only the given columns of the rows that satisfy all of
+     * the given predicates. The rows that are returned must still adhere to the schema of the data source, but the value of a column that is
+     * not needed may be <code>null</code>, and rows that do not satisfy the predicates may be omitted. The default implementation ignores the
+     * columns and predicates and returns all of the data, as {@link #reset()} does.
+     *
+     * @param columns    the indices of the columns that are needed
+     * @param predicates the predicates that every row in the result of the query satisfies
+     * @return the newly established RowStream
+     * @throws IOException if unable to obtain a RowStream due to IO failures
+     */
+    default RowStream reset(final int[] columns, final List<ColumnPredicate> predicates) throws IOException {
+        return reset();
+    }
 }
@@ -33,4 +33,15 @@ public interface RowStream extends AutoCloseable {
      */
     Object[] nextRow() throws IOException;
 
+    /**
+     * Returns the number of rows that this RowStream has read but not returned from {@link #nextRow()} because they do not satisfy the predicates
+     * that the RowStream was established with. The default implementation returns 0, which is correct for any RowStream that returns every row
+     * that it reads.
+     *
+     * @return the number of rows that were read but not returned
+     */
+    default int getRowsSkipped() {
+        return 0;
+    }
+
 }
@@ -31,8 +31,12 @@ import org.apache.calcite.schema.SchemaPlus;
 import org.apache.calcite.schema.Schemas;
 import org.apache.calcite.schema.TranslatableTable;
 import org.apache.calcite.schema.impl.AbstractTable;
+import org.apache.nifi.sql.ColumnPredicate;
 
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -43,17 +47,18 @@ import java.util.function.Function;
  */
 public class CalciteTable extends AbstractTable implements QueryableTable, TranslatableTable {
     private final Function<RelDataTypeFactory, RelDataType> tableDefinitionFactory;
-    private final Function<int[], Enumerable<Object>> projectionFactory;
+    private final BiFunction<int[], List<ColumnPredicate>, Enumerable<Object>> projectionFactory;
 
-    public CalciteTable(final Function<RelDataTypeFactory, RelDataType> tableDefinitionFactory, final Function<int[], Enumerable<Object>> projectionFactory) {
+    public CalciteTable(final Function<RelDataTypeFactory, RelDataType> tableDefinitionFactory,
+                        final BiFunction<int[], List<ColumnPredicate>, Enumerable<Object>> projectionFactory) {
         this.tableDefinitionFactory = tableDefinitionFactory;
         this.projectionFactory = projectionFactory;
     }
 
-    // Returns an enumerable over a given projection of the fields.
+    // Returns an enumerable over a given projection of the fields, of the rows that may satisfy the given predicates.
     // Called from generated code. While the DataContent is not used, it is provided by the calling code and must be present.
-    public Enumerable<Object> project(final DataContext dataContext, final int[] fields) {
-        return projectionFactory.apply(fields);
+    public Enumerable<Object> project(final DataContext dataContext, final int[] fields, final ColumnPredicate[] predicates) {
+        return projectionFactory.apply(fields, List.of(predicates));
     }
 
     @Override
@@ -80,7 +85,7 @@ public class CalciteTable extends AbstractTable implements QueryableTable, Trans
             fields[i] = i;
         }
 
-        return new NiFiTableScan(context.getCluster(), relOptTable, fields);
+        return new NiFiTableScan(context.getCluster(), relOptTable, fields, Collections.emptyList());
     }
 
     @Override
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.sql.internal;
+
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.RelFactories;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.tools.RelBuilderFactory;
+import org.apache.nifi.sql.ColumnPredicate;
+import org.apache.nifi.sql.ColumnPredicate.Operator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pushes the simple comparisons of the condition of a Filter, such as <code>name = 'John Doe'</code>, into the NiFiTableScan that the Filter
+ * applies to, so that the data source is able to omit rows that do not satisfy them. The Filter itself is retained.
+ */
+public class NiFiFilterTableScanRule extends RelRule<NiFiFilterTableScanRule.Config> {
+
+    // Types whose values are not changed by a cast to the same type
+    private static final Set<SqlTypeName> CAST_PRESERVING_TYPES = EnumSet.of(SqlTypeName.BOOLEAN, SqlTypeName.TINYINT, SqlTypeName.SMALLINT,
+        SqlTypeName.INTEGER, SqlTypeName.BIGINT, SqlTypeName.DOUBLE, SqlTypeName.VARCHAR);
+
+    NiFiFilterTableScanRule(final Config config) {
+        super(config);
+    }
+
+    @Override
+    public void onMatch(final RelOptRuleCall call) {
+        final Filter filter = call.rel(0);
+        final NiFiTableScan scan = call.rel(1);
+
+        if (!scan.getPredicates().isEmpty()) {
+            // Predicates have already been pushed into the scan.
+            return;
+        }
+
+        final List<ColumnPredicate> predicates = new ArrayList<>();
+        for (final RexNode conjunction : RelOptUtil.conjunctions(filter.getCondition())) {
+            final ColumnPredicate predicate = getColumnPredicate(conjunction, scan.getFields());
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+
+        if (predicates.isEmpty()) {
+            return;
+        }
+
+        // The data source is not required to apply the predicates, so the condition must still be evaluated.
+        final NiFiTableScan tableScan = new NiFiTableScan(scan.getCluster(), scan.getTable(), scan.getFields(), List.copyOf(predicates));
+        call.transformTo(filter.copy(filter.getTraitSet(), tableScan, filter.getCondition()));
+    }
+
+
+    private static ColumnPredicate getColumnPredicate(final RexNode expression, final int[] scanFields) {
+        if (!(expression instanceof RexCall call)) {
+            return null;
+        }
+
+        final List<RexNode> operands = call.getOperands();
+        final SqlKind kind = call.getKind();
+        if (kind == SqlKind.IS_NULL || kind == SqlKind.IS_NOT_NULL) {
+            final Integer column = getColumn(operands.get(0), scanFields);
+            if (column == null) {
+                return null;
+            }
+
+            return new ColumnPredicate(column, kind == SqlKind.IS_NULL ? Operator.IS_NULL : Operator.IS_NOT_NULL, null);
+        }
+
+        final Operator operator = getOperator(kind);
+        if (operator == null || operands.size() != 2) {
+            return null;
+        }
+
+        final Integer leftColumn = getColumn(operands.get(0), scanFields);
+        if (leftColumn != null && operands.get(1) instanceof RexLiteral literal) {
+            final Object value = getValue(literal);
+            return value == null ? null : new ColumnPredicate(leftColumn, operator, value);
+        }
+
+        final Integer rightColumn = getColumn(operands.get(1), scanFields);
+        if (rightColumn != null && operands.get(0) instanceof RexLiteral literal) {
+            final Object value = getValue(literal);
+            return value == null ? null : new ColumnPredicate(rightColumn, operator.reverse(), value);
+        }
+
+        return null;
+    }
+
+    // Returns the index of the table's column that the expression refers to, allowing for a cast that does not change the value of the column.
+    private static Integer getColumn(final RexNode expression, final int[] scanFields) {
+        RexNode reference = expression;
+        if (expression.getKind() == SqlKind.CAST) {
+            reference = ((RexCall) expression).getOperands().get(0);
+            if (!isValuePreserving(reference.getType(), expression.getType())) {
+                return null;
+            }
+        }
+
+        if (reference instanceof RexInputRef inputRef) {
+            return scanFields[inputRef.getIndex()];
+        }
+
+        return null;
+    }
+
+    private static boolean isValuePreserving(final RelDataType fromType, final RelDataType toType) {
+        final SqlTypeName typeName = toType.getSqlTypeName();
+        if (fromType.getSqlTypeName() != typeName || !CAST_PRESERVING_TYPES.contains(typeName)) {
+            return false;
+        }
+
+        // A cast to a VARCHAR of limited length may truncate the value.
+        return typeName != SqlTypeName.VARCHAR || toType.getPrecision() == RelDataType.PRECISION_NOT_SPECIFIED;
+    }
+
+    private static Operator getOperator(final SqlKind kind) {
+        return switch (kind) {
+            case EQUALS -> Operator.EQUALS;
+            case NOT_EQUALS -> Operator.NOT_EQUALS;
+            case LESS_THAN -> Operator.LESS_THAN;
+            case LESS_THAN_OR_EQUAL -> Operator.LESS_THAN_OR_EQUAL;
+            case GREATER_THAN -> Operator.GREATER_THAN;
+            case GREATER_THAN_OR_EQUAL -> Operator.GREATER_THAN_OR_EQUAL;
+            default -> null;
+        };
+    }
+
+    private static Object getValue(final RexLiteral literal) {
+        if (literal.isNull()) {
+            return null;
+        }
+
+        return switch (literal.getType().getSqlTypeName()) {
+            case VARCHAR -> literal.getValueAs(String.class);
+            case BOOLEAN -> literal.getValueAs(Boolean.class);
+            case TINYINT, SMALLINT, INTEGER, BIGINT, DECIMAL, DOUBLE -> literal.getValueAs(BigDecimal.class);
+            default -> null;
+        };
+    }
+
+    public interface Config extends RelRule.Config {
+        Config DEFAULT = new StandardConfig()
+            .withOperandSupplier(b0 -> b0.operand(Filter.class)
+                .oneInput(b1 -> b1.operand(NiFiTableScan.class).noInputs()));
+
+
+        @Override
+        default NiFiFilterTableScanRule toRule() {
+            return new NiFiFilterTableScanRule(this);
+        }
+    }
+
+    private static class StandardConfig implements Config {
+        private RelBuilderFactory relBuilderFactory = RelFactories.LOGICAL_BUILDER;
+        private String description;
+        private OperandTransform operandTransform;
+
+
+        @Override
+        public StandardConfig withRelBuilderFactory(final RelBuilderFactory factory) {
+            this.relBuilderFactory = factory;
+            return this;
+        }
+
+        @Override
+        public StandardConfig withDescription(final String description) {
+            this.description = description;
+            return this;
+        }
+
+        @Override
+        public StandardConfig withOperandSupplier(final OperandTransform transform) {
+            this.operandTransform = transform;
+            return this;
+        }
+
+        @Override
+        public RelBuilderFactory relBuilderFactory() {
+            return relBuilderFactory;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+
+
+        @Override
+        public OperandTransform operandSupplier() {
+            return this.operandTransform;
+        }
+    }
+
+}
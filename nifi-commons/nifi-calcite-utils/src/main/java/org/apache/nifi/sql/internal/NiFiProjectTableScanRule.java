@@ -18,12 +18,15 @@
 package org.apache.nifi.sql.internal;
 
 import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.plan.RelRule;
 import org.apache.calcite.rel.core.Project;
 import org.apache.calcite.rel.core.RelFactories;
 import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
 import org.apache.calcite.tools.RelBuilderFactory;
+import org.apache.calcite.util.ImmutableBitSet;
 
 import java.util.List;
 
@@ -36,30 +39,50 @@ public class NiFiProjectTableScanRule extends RelRule<NiFiProjectTableScanRule.C
     @Override
     public void onMatch(final RelOptRuleCall call) {
         final Project project = call.rel(0);
+        final NiFiTableScan scan = call.rel(1);
 
-        // Attempt to locate NiFiTableScan as immediate input
-        if (!(project.getInput() instanceof NiFiTableScan scan)) {
+        final int[] fields = getProjectionFields(project.getProjects(), scan.getFields());
+        if (fields != null) {
+            final NiFiTableScan tableScan = new NiFiTableScan(scan.getCluster(), scan.getTable(), fields, scan.getPredicates());
+            call.transformTo(tableScan);
             return;
         }
 
-        final int[] fields = getProjectionFields(project.getProjects());
-        if (fields == null) {
-            // Project contains expressions more complex than just field references.
+        // Project contains expressions more complex than just field references. Scan only the fields that the expressions refer to.
+        final int[] scanFields = scan.getFields();
+        final ImmutableBitSet referencedFields = RelOptUtil.InputFinder.bits(project.getProjects(), null);
+        if (referencedFields.isEmpty() || referencedFields.cardinality() == scanFields.length) {
             return;
         }
 
-        final NiFiTableScan tableScan = new NiFiTableScan(scan.getCluster(), scan.getTable(), fields);
-        call.transformTo(tableScan);
+        final int[] referencedScanFields = new int[referencedFields.cardinality()];
+        final int[] positions = new int[scanFields.length];
+        int position = 0;
+        for (final int index : referencedFields) {
+            referencedScanFields[position] = scanFields[index];
+            positions[index] = position++;
+        }
+
+        final List<RexNode> projects = new RexShuttle() {
+            @Override
+            public RexNode visitInputRef(final RexInputRef inputRef) {
+                return new RexInputRef(positions[inputRef.getIndex()], inputRef.getType());
+            }
+        }.apply(project.getProjects());
+
+        final NiFiTableScan tableScan = new NiFiTableScan(scan.getCluster(), scan.getTable(), referencedScanFields, scan.getPredicates());
+        call.transformTo(project.copy(project.getTraitSet(), tableScan, projects, project.getRowType()));
     }
 
 
-    private static int[] getProjectionFields(final List<RexNode> expressions) {
+    private static int[] getProjectionFields(final List<RexNode> expressions, final int[] scanFields) {
         final int[] fields = new int[expressions.size()];
         for (int i = 0; i < expressions.size(); i++) {
             final RexNode exp = expressions.get(i);
 
             if (exp instanceof RexInputRef) {
-                fields[i] = ((RexInputRef) exp).getIndex();
+                // The scan may itself provide only some of the fields of the table, so refer to the table's fields
+                fields[i] = scanFields[((RexInputRef) exp).getIndex()];
             } else {
                 // not a simple projection
                 return null;
@@ -71,7 +94,8 @@ public class NiFiProjectTableScanRule extends RelRule<NiFiProjectTableScanRule.C
 
     public interface Config extends RelRule.Config {
         Config DEFAULT = new StandardConfig()
-            .withOperandSupplier(b0 -> b0.operand(Project.class).anyInputs());
+            .withOperandSupplier(b0 -> b0.operand(Project.class)
+                .oneInput(b1 -> b1.operand(NiFiTableScan.class).noInputs()));
 
 
         @Override
@@ -20,6 +20,7 @@ package org.apache.nifi.sql.internal;
 import org.apache.calcite.linq4j.Enumerator;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.sql.ColumnPredicate;
 import org.apache.nifi.sql.ResettableDataSource;
 import org.apache.nifi.sql.RowStream;
 
@@ -32,7 +33,8 @@ public class NiFiTableEnumerator implements Enumerator<Object> {
     private final ResettableDataSource dataSource;
     private final ComponentLog logger;
     private final int[] fields;
-    private final Runnable onFinishCallback;
+    private final List<ColumnPredicate> predicates;
+    private final Consumer<NiFiTableEnumerator> onFinishCallback;
     private final Consumer<NiFiTableEnumerator> onCloseCallback;
 
 
@@ -41,11 +43,12 @@ public class NiFiTableEnumerator implements Enumerator<Object> {
     private int recordsRead = 0;
 
 
-    public NiFiTableEnumerator(final ResettableDataSource dataSource, final ComponentLog logger, final int[] fields, final Runnable onFinishCallback,
-                               final Consumer<NiFiTableEnumerator> onCloseCallback) {
+    public NiFiTableEnumerator(final ResettableDataSource dataSource, final ComponentLog logger, final int[] fields, final List<ColumnPredicate> predicates,
+                               final Consumer<NiFiTableEnumerator> onFinishCallback, final Consumer<NiFiTableEnumerator> onCloseCallback) {
         this.dataSource = dataSource;
         this.logger = logger;
         this.fields = fields;
+        this.predicates = predicates;
         this.onFinishCallback = onFinishCallback;
         this.onCloseCallback = onCloseCallback;
         reset();
@@ -86,13 +89,17 @@ public class NiFiTableEnumerator implements Enumerator<Object> {
         return true;
     }
 
+    /**
+     * @return the number of rows that were read from the data source, including rows that the data source read but did not return because they
+     * do not satisfy the predicates of the query
+     */
     public int getRecordsRead() {
-        return recordsRead;
+        return recordsRead + rowStream.getRowsSkipped();
     }
 
     private void onFinish() {
         if (onFinishCallback != null) {
-            onFinishCallback.run();
+            onFinishCallback.accept(this);
         }
     }
 
@@ -147,8 +154,9 @@ public class NiFiTableEnumerator implements Enumerator<Object> {
             }
         }
 
+        recordsRead = 0;
         try {
-            rowStream = dataSource.reset();
+            rowStream = dataSource.reset(fields, predicates);
         } catch (final Exception e) {
             throw new RuntimeException("Failed to data stream from " + dataSource, e);
         }
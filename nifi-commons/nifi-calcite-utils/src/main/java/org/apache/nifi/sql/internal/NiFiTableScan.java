@@ -34,11 +34,14 @@ import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
 import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.util.ImmutableIntList;
+import org.apache.nifi.sql.ColumnPredicate;
 
 import java.util.Collections;
 import java.util.List;
@@ -46,15 +49,17 @@ import java.util.List;
 class NiFiTableScan extends TableScan implements EnumerableRel {
     private final ConstantExpression fieldExpression;
     private final int[] fields;
+    private final List<ColumnPredicate> predicates;
 
-    protected NiFiTableScan(final RelOptCluster cluster, final RelOptTable table, final int[] fields) {
+    protected NiFiTableScan(final RelOptCluster cluster, final RelOptTable table, final int[] fields, final List<ColumnPredicate> predicates) {
         super(cluster, cluster.traitSetOf(EnumerableConvention.INSTANCE), Collections.emptyList(), table);
         this.fields = fields;
+        this.predicates = predicates;
         fieldExpression = Expressions.constant(fields);
-        // Ensure projection pushdown rule is registered with the planner, as some Calcite versions
+        // Ensure pushdown rules are registered with the planner, as some Calcite versions
         // may not invoke the RelNode#register() method.
         try {
-            cluster.getPlanner().addRule(new NiFiProjectTableScanRule(NiFiProjectTableScanRule.Config.DEFAULT));
+            registerRules(cluster.getPlanner());
         } catch (Exception ignored) {
             // Rule may already be registered; intentionally ignored to avoid duplicate registration errors.
         }
@@ -62,7 +67,33 @@ class NiFiTableScan extends TableScan implements EnumerableRel {
 
     @Override
     public void register(final RelOptPlanner planner) {
+        registerRules(planner);
+    }
+
+    private static void registerRules(final RelOptPlanner planner) {
         planner.addRule(new NiFiProjectTableScanRule(NiFiProjectTableScanRule.Config.DEFAULT));
+        planner.addRule(new NiFiFilterTableScanRule(NiFiFilterTableScanRule.Config.DEFAULT));
+    }
+
+    /**
+     * @return the indices of the columns of the table that the scan provides, in the order in which it provides them
+     */
+    int[] getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the predicates that every row that is provided by the scan must satisfy, which are applied by the data source if it is able
+     */
+    List<ColumnPredicate> getPredicates() {
+        return predicates;
+    }
+
+    @Override
+    public RelWriter explainTerms(final RelWriter pw) {
+        return super.explainTerms(pw)
+            .item("fields", ImmutableIntList.of(fields))
+            .itemIf("predicates", predicates, !predicates.isEmpty());
     }
 
     @Override
@@ -85,9 +116,12 @@ class NiFiTableScan extends TableScan implements EnumerableRel {
         //
         // For example, if table has 3 fields, project has 1 field,
         // then factor = (1 + 2) / (3 + 2) = 0.6
-        return super.computeSelfCost(planner, mq)
+        final RelOptCost cost = super.computeSelfCost(planner, mq)
             .multiplyBy(((double) fields.length + 2D)
                 / ((double) table.getRowType().getFieldCount() + 2D));
+
+        // A scan that is able to omit rows is more attractive than one that is not.
+        return predicates.isEmpty() ? cost : cost.multiplyBy(0.5D);
     }
 
     @Override
@@ -97,7 +131,8 @@ class NiFiTableScan extends TableScan implements EnumerableRel {
         final PhysType physType = PhysTypeImpl.of(typeFactory, getRowType(), pref.preferArray());
 
         final Expression tableExpression = table.getExpression(CalciteTable.class);
-        final MethodCallExpression methodCallExpression = Expressions.call(tableExpression, "project", rootExpression, fieldExpression);
+        final Expression predicateExpression = implementor.stash(predicates.toArray(new ColumnPredicate[0]), ColumnPredicate[].class);
+        final MethodCallExpression methodCallExpression = Expressions.call(tableExpression, "project", rootExpression, fieldExpression, predicateExpression);
         final BlockStatement blockStatement = Blocks.toBlock(methodCallExpression);
         return implementor.result(physType, blockStatement);
     }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.sql;
+
+import org.apache.nifi.logging.ComponentLog;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class TestBufferedDataSource {
+
+    private static final NiFiTableSchema TABLE_SCHEMA = new NiFiTableSchema(List.of(
+        new ColumnSchema("name", String.class, false),
+        new ColumnSchema("number", int.class, false)
+    ));
+
+    private static final List<Object[]> ROWS = List.of(
+        new Object[] {"Mark", 192},
+        new Object[] {"John Doe", 41},
+        new Object[] {"Jane Doe", 2910},
+        new Object[] {"Other", -42}
+    );
+
+    @Test
+    public void testQueriesReadDataOnce() throws SQLException, IOException {
+        final CountingDataSource countingDataSource = new CountingDataSource();
+        final BufferedDataSource bufferedDataSource = new BufferedDataSource(countingDataSource, 10);
+
+        try (final CalciteDatabase database = new CalciteDatabase()) {
+            database.addTable(new NiFiTable("CANNED_DATA", bufferedDataSource, mock(ComponentLog.class)));
+
+            assertEquals(List.of("Mark", "Jane Doe"), query(database, "SELECT name FROM CANNED_DATA WHERE number > 100"));
+            assertTrue(bufferedDataSource.isBuffered());
+
+            assertEquals(List.of("John Doe", "Other"), query(database, "SELECT name FROM CANNED_DATA WHERE number < 100"));
+            assertEquals(List.of("Other"), query(database, "SELECT name FROM CANNED_DATA WHERE number < 0"));
+        }
+
+        assertEquals(1, countingDataSource.getResetCount());
+    }
+
+    @Test
+    public void testBufferExceeded() throws Exception {
+        final CountingDataSource countingDataSource = new CountingDataSource();
+        final BufferedDataSource bufferedDataSource = new BufferedDataSource(countingDataSource, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ROWS.size(), readAll(bufferedDataSource));
+            assertFalse(bufferedDataSource.isBuffered());
+        }
+
+        assertEquals(3, countingDataSource.getResetCount());
+    }
+
+    @Test
+    public void testStreamClosedBeforeEnd() throws Exception {
+        final CountingDataSource countingDataSource = new CountingDataSource();
+        final BufferedDataSource bufferedDataSource = new BufferedDataSource(countingDataSource, 10);
+
+        try (final RowStream rowStream = bufferedDataSource.reset()) {
+            assertEquals("Mark", rowStream.nextRow()[0]);
+        }
+        assertFalse(bufferedDataSource.isBuffered());
+
+        assertEquals(ROWS.size(), readAll(bufferedDataSource));
+        assertTrue(bufferedDataSource.isBuffered());
+
+        assertEquals(ROWS.size(), readAll(bufferedDataSource));
+        assertEquals(2, countingDataSource.getResetCount());
+    }
+
+    @Test
+    public void testConcurrentStreams() throws Exception {
+        final CountingDataSource countingDataSource = new CountingDataSource();
+        final BufferedDataSource bufferedDataSource = new BufferedDataSource(countingDataSource, 10);
+
+        try (final RowStream first = bufferedDataSource.reset();
+             final RowStream second = bufferedDataSource.reset()) {
+
+            for (final Object[] row : ROWS) {
+                assertEquals(row[0], first.nextRow()[0]);
+                assertEquals(row[0], second.nextRow()[0]);
+            }
+
+            assertNull(second.nextRow());
+            assertFalse(bufferedDataSource.isBuffered());
+            assertNull(first.nextRow());
+            assertTrue(bufferedDataSource.isBuffered());
+        }
+
+        assertEquals(2, countingDataSource.getResetCount());
+    }
+
+    private List<String> query(final CalciteDatabase database, final String sql) throws SQLException {
+        final List<String> names = new ArrayList<>();
+        try (final PreparedStatement stmt = database.getConnection().prepareStatement(sql);
+             final ResultSet resultSet = stmt.executeQuery()) {
+
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+
+        return names;
+    }
+
+    private int readAll(final ResettableDataSource dataSource) throws Exception {
+        int count = 0;
+        try (final RowStream rowStream = dataSource.reset()) {
+            while (rowStream.nextRow() != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static class CountingDataSource implements ResettableDataSource {
+        private int resetCount = 0;
+
+        @Override
+        public NiFiTableSchema getSchema() {
+            return TABLE_SCHEMA;
+        }
+
+        @Override
+        public RowStream reset() {
+            resetCount++;
+            return new IterableRowStream<>(ROWS, row -> row);
+        }
+
+        public int getResetCount() {
+            return resetCount;
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.nifi.sql;
 
 import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.sql.ColumnPredicate.Operator;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -25,9 +26,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -136,6 +140,59 @@ public class TestCalciteDatabase {
         }
     }
 
+    @Test
+    public void testProjectionAndPredicatesPushedToDataSource() throws Exception {
+        final NiFiTableSchema tableSchema = new NiFiTableSchema(List.of(
+            new ColumnSchema("a", String.class, true),
+            new ColumnSchema("b", Integer.class, true),
+            new ColumnSchema("c", String.class, true),
+            new ColumnSchema("d", String.class, true)
+        ));
+
+        final List<Object[]> rows = List.of(
+            new Object[] {"a1", 1, "x", "d1"},
+            new Object[] {"a2", 2, "y", "d2"},
+            new Object[] {"a3", 3, "x", "d3"},
+            new Object[] {"a4", null, "x", "d4"}
+        );
+
+        final PushdownDataSource dataSource = new PushdownDataSource(tableSchema, rows);
+        try (final CalciteDatabase database = new CalciteDatabase()) {
+            database.addTable(new NiFiTable("CANNED_DATA", dataSource, mock(ComponentLog.class)));
+
+            try (final PreparedStatement stmt = database.getConnection().prepareStatement("SELECT a, b FROM CANNED_DATA WHERE c = 'x'");
+                 final ResultSet resultSet = stmt.executeQuery()) {
+
+                assertTrue(resultSet.next());
+                assertEquals("a1", resultSet.getString(1));
+                assertEquals(1, resultSet.getInt(2));
+                assertTrue(resultSet.next());
+                assertEquals("a3", resultSet.getString(1));
+                assertEquals(3, resultSet.getInt(2));
+                assertTrue(resultSet.next());
+                assertEquals("a4", resultSet.getString(1));
+                assertFalse(resultSet.next());
+            }
+
+            assertFalse(Arrays.stream(dataSource.columns).anyMatch(column -> column == 3));
+            assertEquals(List.of(new ColumnPredicate(2, Operator.EQUALS, "x")), dataSource.predicates);
+
+            try (final PreparedStatement stmt = database.getConnection().prepareStatement("SELECT UPPER(a) FROM CANNED_DATA WHERE 1 < b AND d IS NOT NULL");
+                 final ResultSet resultSet = stmt.executeQuery()) {
+
+                assertTrue(resultSet.next());
+                assertEquals("A2", resultSet.getString(1));
+                assertTrue(resultSet.next());
+                assertEquals("A3", resultSet.getString(1));
+                assertFalse(resultSet.next());
+            }
+
+            assertArrayEquals(new int[] {0, 1, 3}, dataSource.columns);
+            assertEquals(List.of(new ColumnPredicate(1, Operator.GREATER_THAN, BigDecimal.ONE), new ColumnPredicate(3, Operator.IS_NOT_NULL, null)),
+                dataSource.predicates);
+        }
+    }
+
     public static class ToUpperCase {
         public String invoke(final String value) {
             return value.toUpperCase();
@@ -203,4 +260,46 @@ public class TestCalciteDatabase {
             return new IterableRowStream<>(rows, row -> row);
         }
     }
+
+    // Applies the columns and predicates that it is given, in order to verify that the query does not depend on the omitted data
+    private static class PushdownDataSource implements ResettableDataSource {
+        private final NiFiTableSchema schema;
+        private final List<Object[]> rows;
+        private int[] columns;
+        private List<ColumnPredicate> predicates;
+
+        public PushdownDataSource(final NiFiTableSchema schema, final List<Object[]> rows) {
+            this.schema = schema;
+            this.rows = rows;
+        }
+
+        @Override
+        public NiFiTableSchema getSchema() {
+            return schema;
+        }
+
+        @Override
+        public RowStream reset() {
+            return new IterableRowStream<>(rows, row -> row);
+        }
+
+        @Override
+        public RowStream reset(final int[] columns, final List<ColumnPredicate> predicates) {
+            this.columns = columns;
+            this.predicates = predicates;
+
+            final List<Object[]> matchingRows = new ArrayList<>();
+            for (final Object[] row : rows) {
+                if (predicates.stream().allMatch(predicate -> predicate.test(row))) {
+                    final Object[] projected = new Object[row.length];
+                    for (final int column : columns) {
+                        projected[column] = row[column];
+                    }
+                    matchingRows.add(projected);
+                }
+            }
+
+            return new IterableRowStream<>(matchingRows, row -> row);
+        }
+    }
 }
@@ -0,0 +1,486 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.EvaluationContext;
+import org.apache.nifi.attribute.expression.language.evaluation.BooleanEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.BooleanQueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.WholeNumberEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.WholeNumberQueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.cast.NumberCastEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.cast.WholeNumberCastEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.AndEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ContainsEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.EndsWithEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.EqualsEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.EqualsIgnoreCaseEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.GreaterThanEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.GreaterThanOrEqualEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.IsEmptyEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.IsNullEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.LengthEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.LessThanEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.LessThanOrEqualEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.NotEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.NotNullEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.OrEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.StartsWithEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.BooleanLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.WholeNumberLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.reduce.ReduceEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.AttributeEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.IteratingEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.MappingEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.util.NumberParsing;
+import org.apache.nifi.expression.AttributeExpression.ResultType;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * Compiles a tree of {@link Evaluator}s whose result is a Boolean or a Whole Number into a tree of type-specialized closures. Boolean and
+ * whole number operands are passed between the closures as primitives, and no {@link QueryResult} is created for intermediate values, so
+ * evaluating a specialized expression such as <code>${fileSize:gt(1024):and(${filename:endsWith('.csv')})}</code> does not allocate.
+ * </p>
+ *
+ * <p>
+ * Only a subset of the Expression Language functions has a specialized form. Any other function is evaluated by the original
+ * {@link Evaluator}, and its result is handed to the enclosing closure, so the specialized tree always produces the same result as the
+ * interpreted tree. Expressions that select multiple attributes, or that reduce them, are never specialized.
+ * </p>
+ */
+public final class EvaluatorSpecializer {
+
+    /**
+     * The name of the System Property that enables specialized evaluation of Expressions compiled by the default {@link ExpressionCompiler}
+     */
+    public static final String SPECIALIZED_EVALUATION_PROPERTY = "nifi.expression.language.specialized.evaluation";
+
+    private static final BooleanQueryResult TRUE_RESULT = new BooleanQueryResult(true);
+    private static final BooleanQueryResult FALSE_RESULT = new BooleanQueryResult(false);
+
+    private EvaluatorSpecializer() {
+    }
+
+    /**
+     * @return <code>true</code> if the {@link #SPECIALIZED_EVALUATION_PROPERTY} System Property is set to <code>true</code>
+     */
+    public static boolean isEnabledBySystemProperty() {
+        return Boolean.getBoolean(SPECIALIZED_EVALUATION_PROPERTY);
+    }
+
+    /**
+     * Specializes the given root Evaluator, if possible
+     *
+     * @param rootEvaluator the root of the Evaluator tree
+     * @param allEvaluators all Evaluators that make up the tree
+     * @return an Evaluator that evaluates the specialized tree, or the given root Evaluator if the tree cannot be specialized
+     */
+    public static Evaluator<?> specialize(final Evaluator<?> rootEvaluator, final Collection<Evaluator<?>> allEvaluators) {
+        for (final Evaluator<?> evaluator : allEvaluators) {
+            if (evaluator instanceof IteratingEvaluator || evaluator instanceof ReduceEvaluator || evaluator instanceof MappingEvaluator) {
+                return rootEvaluator;
+            }
+        }
+
+        if (rootEvaluator.getResultType() == ResultType.BOOLEAN && !(rootEvaluator instanceof BooleanLiteralEvaluator)) {
+            final Predicate<EvaluationContext> predicate = toPredicate(rootEvaluator);
+            if (predicate != null) {
+                return new SpecializedBooleanEvaluator(rootEvaluator, predicate);
+            }
+        } else if (rootEvaluator.getResultType() == ResultType.WHOLE_NUMBER && !(rootEvaluator instanceof WholeNumberLiteralEvaluator)) {
+            final ToLongFunction<EvaluationContext> function = toLongFunction(rootEvaluator);
+            if (function != null) {
+                return new SpecializedWholeNumberEvaluator(rootEvaluator, function);
+            }
+        }
+
+        return rootEvaluator;
+    }
+
+    /**
+     * @return a predicate that is equivalent to the given Boolean Evaluator, or <code>null</code> if the Evaluator has no specialized form.
+     * A specialized predicate is only created for Evaluators that never produce a <code>null</code> result.
+     */
+    private static Predicate<EvaluationContext> toPredicate(final Evaluator<?> evaluator) {
+        if (evaluator instanceof BooleanLiteralEvaluator literal) {
+            final boolean value = literal.getValue();
+            return context -> value;
+        }
+
+        if (evaluator instanceof AndEvaluator and) {
+            final Predicate<EvaluationContext> subject = toPredicate(and.getSubjectEvaluator());
+            final Predicate<EvaluationContext> rhs = toPredicate(and.getRhsEvaluator());
+            return subject == null || rhs == null ? null : context -> subject.test(context) && rhs.test(context);
+        }
+
+        if (evaluator instanceof OrEvaluator or) {
+            final Predicate<EvaluationContext> subject = toPredicate(or.getSubjectEvaluator());
+            final Predicate<EvaluationContext> rhs = toPredicate(or.getRhsEvaluator());
+            return subject == null || rhs == null ? null : context -> subject.test(context) || rhs.test(context);
+        }
+
+        if (evaluator instanceof NotEvaluator not) {
+            final Predicate<EvaluationContext> subject = toPredicate(not.getSubjectEvaluator());
+            return subject == null ? null : context -> !subject.test(context);
+        }
+
+        if (evaluator instanceof IsNullEvaluator isNull) {
+            final Function<EvaluationContext, ?> subject = toFunction(isNull.getSubjectEvaluator());
+            return context -> subject.apply(context) == null;
+        }
+
+        if (evaluator instanceof NotNullEvaluator notNull) {
+            final Function<EvaluationContext, ?> subject = toFunction(notNull.getSubjectEvaluator());
+            return context -> subject.apply(context) != null;
+        }
+
+        if (evaluator instanceof IsEmptyEvaluator isEmpty) {
+            final Function<EvaluationContext, ?> subject = toFunction(isEmpty.getSubjectEvaluator());
+            return context -> {
+                final Object value = subject.apply(context);
+                return value == null || value.toString().isBlank();
+            };
+        }
+
+        if (evaluator instanceof StartsWithEvaluator startsWith) {
+            return toStringPredicate(startsWith.getSubjectEvaluator(), startsWith.getSearchEvaluator(), String::startsWith);
+        }
+
+        if (evaluator instanceof EndsWithEvaluator endsWith) {
+            return toStringPredicate(endsWith.getSubjectEvaluator(), endsWith.getSearchEvaluator(), String::endsWith);
+        }
+
+        if (evaluator instanceof ContainsEvaluator contains) {
+            return toStringPredicate(contains.getSubjectEvaluator(), contains.getSearchEvaluator(), String::contains);
+        }
+
+        if (evaluator instanceof EqualsEvaluator equals) {
+            return toEqualsPredicate(equals.getSubjectEvaluator(), equals.getCompareToEvaluator());
+        }
+
+        if (evaluator instanceof EqualsIgnoreCaseEvaluator equalsIgnoreCase) {
+            final Function<EvaluationContext, ?> subject = toFunction(equalsIgnoreCase.getSubjectEvaluator());
+            final Function<EvaluationContext, ?> compareTo = toFunction(equalsIgnoreCase.getCompareToEvaluator());
+            return context -> {
+                final Object a = subject.apply(context);
+                if (a == null) {
+                    return false;
+                }
+
+                final Object b = compareTo.apply(context);
+                if (b == null) {
+                    return false;
+                }
+
+                if (a instanceof String aString && b instanceof String bString) {
+                    return aString.equalsIgnoreCase(bString);
+                }
+
+                return a.equals(b);
+            };
+        }
+
+        if (evaluator instanceof GreaterThanEvaluator greaterThan) {
+            return toComparisonPredicate(greaterThan.getSubjectEvaluator(), greaterThan.getComparisonEvaluator(), Comparison.GREATER_THAN);
+        }
+
+        if (evaluator instanceof GreaterThanOrEqualEvaluator greaterThanOrEqual) {
+            return toComparisonPredicate(greaterThanOrEqual.getSubjectEvaluator(), greaterThanOrEqual.getComparisonEvaluator(), Comparison.GREATER_THAN_OR_EQUAL);
+        }
+
+        if (evaluator instanceof LessThanEvaluator lessThan) {
+            return toComparisonPredicate(lessThan.getSubjectEvaluator(), lessThan.getComparisonEvaluator(), Comparison.LESS_THAN);
+        }
+
+        if (evaluator instanceof LessThanOrEqualEvaluator lessThanOrEqual) {
+            return toComparisonPredicate(lessThanOrEqual.getSubjectEvaluator(), lessThanOrEqual.getComparisonEvaluator(), Comparison.LESS_THAN_OR_EQUAL);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return a function that is equivalent to the given Whole Number Evaluator, or <code>null</code> if the Evaluator has no specialized form.
+     * A specialized function is only created for Evaluators that never produce a <code>null</code> result.
+     */
+    private static ToLongFunction<EvaluationContext> toLongFunction(final Evaluator<?> evaluator) {
+        if (evaluator instanceof WholeNumberLiteralEvaluator literal) {
+            final long value = literal.getValue();
+            return context -> value;
+        }
+
+        if (evaluator instanceof LengthEvaluator length) {
+            final Function<EvaluationContext, ?> subject = toFunction(length.getSubjectEvaluator());
+            return context -> {
+                final Object value = subject.apply(context);
+                return value == null ? 0L : ((String) value).length();
+            };
+        }
+
+        // Casting a Whole Number to a Number or a Whole Number does not change its value
+        if (evaluator instanceof WholeNumberCastEvaluator || evaluator instanceof NumberCastEvaluator) {
+            final Evaluator<?> subjectEvaluator = evaluator.getSubjectEvaluator();
+            if (subjectEvaluator.getResultType() == ResultType.WHOLE_NUMBER) {
+                return toLongFunction(subjectEvaluator);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return a function that is equivalent to the given Evaluator. If the Evaluator has no specialized form, the function delegates to the Evaluator.
+     */
+    private static Function<EvaluationContext, ?> toFunction(final Evaluator<?> evaluator) {
+        if (evaluator instanceof StringLiteralEvaluator literal) {
+            final String value = literal.getValue();
+            return context -> value;
+        }
+
+        if (evaluator instanceof AttributeEvaluator attribute && attribute.getNameEvaluator() instanceof StringLiteralEvaluator nameLiteral) {
+            final String attributeName = nameLiteral.getValue();
+            return context -> context.getExpressionValue(attributeName);
+        }
+
+        if (evaluator instanceof NumberCastEvaluator && evaluator.getSubjectEvaluator().getResultType() == ResultType.STRING) {
+            final Function<EvaluationContext, ?> subject = toFunction(evaluator.getSubjectEvaluator());
+            return context -> parseNumber((String) subject.apply(context));
+        }
+
+        if (evaluator.getResultType() == ResultType.BOOLEAN) {
+            final Predicate<EvaluationContext> predicate = toPredicate(evaluator);
+            if (predicate != null) {
+                return context -> predicate.test(context);
+            }
+        } else {
+            final ToLongFunction<EvaluationContext> function = toLongFunction(evaluator);
+            if (function != null) {
+                return context -> function.applyAsLong(context);
+            }
+        }
+
+        return context -> evaluator.evaluate(context).getValue();
+    }
+
+    private static Predicate<EvaluationContext> toStringPredicate(final Evaluator<?> subjectEvaluator, final Evaluator<?> searchEvaluator, final StringTest test) {
+        final Function<EvaluationContext, ?> subject = toFunction(subjectEvaluator);
+        final Function<EvaluationContext, ?> search = toFunction(searchEvaluator);
+        return context -> {
+            final String subjectValue = (String) subject.apply(context);
+            if (subjectValue == null) {
+                return false;
+            }
+
+            final String searchValue = (String) search.apply(context);
+            return searchValue != null && test.test(subjectValue, searchValue);
+        };
+    }
+
+    private static Predicate<EvaluationContext> toEqualsPredicate(final Evaluator<?> subjectEvaluator, final Evaluator<?> compareToEvaluator) {
+        // Values of different types are compared by the String representation, which is left to the interpreter
+        if (subjectEvaluator.getResultType() != compareToEvaluator.getResultType()) {
+            return null;
+        }
+
+        final ToLongFunction<EvaluationContext> subjectLong = toLongFunction(subjectEvaluator);
+        final ToLongFunction<EvaluationContext> compareToLong = toLongFunction(compareToEvaluator);
+        if (subjectLong != null && compareToLong != null) {
+            return context -> subjectLong.applyAsLong(context) == compareToLong.applyAsLong(context);
+        }
+
+        final Function<EvaluationContext, ?> subject = toFunction(subjectEvaluator);
+        final Function<EvaluationContext, ?> compareTo = toFunction(compareToEvaluator);
+        return context -> {
+            final Object a = subject.apply(context);
+            if (a == null) {
+                return false;
+            }
+
+            final Object b = compareTo.apply(context);
+            return b != null && a.equals(b);
+        };
+    }
+
+    private static Predicate<EvaluationContext> toComparisonPredicate(final Evaluator<?> subjectEvaluator, final Evaluator<?> comparisonEvaluator, final Comparison comparison) {
+        final ToLongFunction<EvaluationContext> subjectLong = toLongFunction(subjectEvaluator);
+        final ToLongFunction<EvaluationContext> comparisonLong = toLongFunction(comparisonEvaluator);
+        if (subjectLong != null && comparisonLong != null) {
+            return context -> comparison.test(subjectLong.applyAsLong(context), comparisonLong.applyAsLong(context));
+        }
+
+        final Function<EvaluationContext, ?> subject = toFunction(subjectEvaluator);
+        if (comparisonLong != null) {
+            return context -> {
+                final Number subjectValue = (Number) subject.apply(context);
+                if (subjectValue == null) {
+                    return false;
+                }
+
+                final long comparisonValue = comparisonLong.applyAsLong(context);
+                if (subjectValue instanceof Double) {
+                    return comparison.test(subjectValue.doubleValue(), comparisonValue);
+                }
+                return comparison.test(subjectValue.longValue(), comparisonValue);
+            };
+        }
+
+        final Function<EvaluationContext, ?> comparisonFunction = toFunction(comparisonEvaluator);
+        return context -> {
+            final Number subjectValue = (Number) subject.apply(context);
+            if (subjectValue == null) {
+                return false;
+            }
+
+            final Number comparisonValue = (Number) comparisonFunction.apply(context);
+            if (comparisonValue == null) {
+                return false;
+            }
+
+            if (subjectValue instanceof Double || comparisonValue instanceof Double) {
+                return comparison.test(subjectValue.doubleValue(), comparisonValue.doubleValue());
+            }
+            return comparison.test(subjectValue.longValue(), comparisonValue.longValue());
+        };
+    }
+
+    /**
+     * Converts a String to a Number in the same way as {@link NumberCastEvaluator}
+     */
+    private static Number parseNumber(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final String trimmed = value.trim();
+        return switch (NumberParsing.parse(trimmed)) {
+            case DECIMAL -> Double.valueOf(trimmed);
+            case WHOLE_NUMBER -> {
+                try {
+                    yield Long.valueOf(trimmed);
+                } catch (final NumberFormatException e) {
+                    // Will only occur if trimmed is a hex number
+                    yield Long.decode(trimmed);
+                }
+            }
+            case NOT_NUMBER -> null;
+        };
+    }
+
+    private interface StringTest {
+        boolean test(String subject, String search);
+    }
+
+    private enum Comparison {
+        GREATER_THAN {
+            @Override
+            boolean test(final long a, final long b) {
+                return a > b;
+            }
+
+            @Override
+            boolean test(final double a, final double b) {
+                return a > b;
+            }
+        },
+        GREATER_THAN_OR_EQUAL {
+            @Override
+            boolean test(final long a, final long b) {
+                return a >= b;
+            }
+
+            @Override
+            boolean test(final double a, final double b) {
+                return a >= b;
+            }
+        },
+        LESS_THAN {
+            @Override
+            boolean test(final long a, final long b) {
+                return a < b;
+            }
+
+            @Override
+            boolean test(final double a, final double b) {
+                return a < b;
+            }
+        },
+        LESS_THAN_OR_EQUAL {
+            @Override
+            boolean test(final long a, final long b) {
+                return a <= b;
+            }
+
+            @Override
+            boolean test(final double a, final double b) {
+                return a <= b;
+            }
+        };
+
+        abstract boolean test(long a, long b);
+
+        abstract boolean test(double a, double b);
+    }
+
+    private static class SpecializedBooleanEvaluator extends BooleanEvaluator {
+        private final Evaluator<?> interpretedEvaluator;
+        private final Predicate<EvaluationContext> predicate;
+
+        SpecializedBooleanEvaluator(final Evaluator<?> interpretedEvaluator, final Predicate<EvaluationContext> predicate) {
+            this.interpretedEvaluator = interpretedEvaluator;
+            this.predicate = predicate;
+            setToken(interpretedEvaluator.getToken());
+        }
+
+        @Override
+        public QueryResult<Boolean> evaluate(final EvaluationContext evaluationContext) {
+            return predicate.test(evaluationContext) ? TRUE_RESULT : FALSE_RESULT;
+        }
+
+        @Override
+        public Evaluator<?> getSubjectEvaluator() {
+            return interpretedEvaluator.getSubjectEvaluator();
+        }
+    }
+
+    private static class SpecializedWholeNumberEvaluator extends WholeNumberEvaluator {
+        private final Evaluator<?> interpretedEvaluator;
+        private final ToLongFunction<EvaluationContext> function;
+
+        SpecializedWholeNumberEvaluator(final Evaluator<?> interpretedEvaluator, final ToLongFunction<EvaluationContext> function) {
+            this.interpretedEvaluator = interpretedEvaluator;
+            this.function = function;
+            setToken(interpretedEvaluator.getToken());
+        }
+
+        @Override
+        public QueryResult<Long> evaluate(final EvaluationContext evaluationContext) {
+            return new WholeNumberQueryResult(function.applyAsLong(evaluationContext));
+        }
+
+        @Override
+        public Evaluator<?> getSubjectEvaluator() {
+            return interpretedEvaluator.getSubjectEvaluator();
+        }
+    }
+}
@@ -272,6 +272,22 @@ import static org.apache.nifi.attribute.expression.language.antlr.AttributeExpre
 
 public class ExpressionCompiler {
     private final Set<Evaluator<?>> evaluators = new HashSet<>();
+    private final boolean specializeEvaluators;
+
+    /**
+     * Creates an ExpressionCompiler that specializes the compiled Evaluators only if enabled by the
+     * {@link EvaluatorSpecializer#SPECIALIZED_EVALUATION_PROPERTY} System Property
+     */
+    public ExpressionCompiler() {
+        this(EvaluatorSpecializer.isEnabledBySystemProperty());
+    }
+
+    /**
+     * @param specializeEvaluators whether or not compiled Evaluators should be specialized by the {@link EvaluatorSpecializer}
+     */
+    public ExpressionCompiler(final boolean specializeEvaluators) {
+        this.specializeEvaluators = specializeEvaluators;
+    }
 
     public CompiledExpression compile(final String expression) {
         try {
@@ -289,7 +305,8 @@ public class ExpressionCompiler {
             final Set<Evaluator<?>> allEvaluators = new HashSet<>(evaluators);
             this.evaluators.clear();
 
-            return new CompiledExpression(expression, evaluator, tree, allEvaluators);
+            final Evaluator<?> rootEvaluator = specializeEvaluators ? EvaluatorSpecializer.specialize(evaluator, allEvaluators) : evaluator;
+            return new CompiledExpression(expression, rootEvaluator, tree, allEvaluators);
         } catch (final AttributeExpressionLanguageParsingException e) {
             throw e;
         } catch (final Exception e) {
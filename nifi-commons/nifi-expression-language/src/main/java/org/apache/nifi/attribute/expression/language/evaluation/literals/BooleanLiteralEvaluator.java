@@ -40,4 +40,8 @@ public class BooleanLiteralEvaluator extends BooleanEvaluator {
         return null;
     }
 
+    public boolean getValue() {
+        return value;
+    }
+
 }
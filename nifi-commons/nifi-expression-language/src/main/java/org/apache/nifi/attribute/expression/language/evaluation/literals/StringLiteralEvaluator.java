@@ -77,4 +77,8 @@ public class StringLiteralEvaluator extends StringEvaluator {
         return null;
     }
 
+    public String getValue() {
+        return value;
+    }
+
 }
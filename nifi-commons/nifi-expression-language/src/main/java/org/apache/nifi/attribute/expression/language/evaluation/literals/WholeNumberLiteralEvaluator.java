@@ -40,4 +40,8 @@ public class WholeNumberLiteralEvaluator extends WholeNumberEvaluator {
         return null;
     }
 
+    public long getValue() {
+        return literal;
+    }
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.CompiledExpression;
+import org.apache.nifi.attribute.expression.language.StandardEvaluationContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestEvaluatorSpecializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestEvaluatorSpecializer.class);
+
+    private static final List<String> SPECIALIZED_EXPRESSIONS = List.of(
+        "${fileSize:gt(1024)}",
+        "${fileSize:ge(100):and(${fileSize:lt(2048)})}",
+        "${fileSize:le(10):or(${filename:endsWith('.csv')})}",
+        "${filename:startsWith('data'):and(${filename:contains('2024')}):not()}",
+        "${filename:equals('data-2024.csv')}",
+        "${filename:equalsIgnoreCase('DATA-2024.CSV')}",
+        "${filename:length():gt(5)}",
+        "${filename:length()}",
+        "${missing:isNull():and(${filename:notNull()})}",
+        "${empty:isEmpty()}",
+        "${ratio:gt(0)}",
+        "${ratio:lt(${fileSize})}",
+        "${filename:substringBefore('-'):equals('data')}",
+        "${fileSize:toNumber():equals(2000)}",
+        "${filename:length():equals(${filename:length()})}"
+    );
+
+    private static final List<String> INTERPRETED_EXPRESSIONS = List.of(
+        "${filename}",
+        "${filename:toUpper()}",
+        "${anyAttribute('filename', 'missing'):isNull()}",
+        "${allMatchingAttributes('file.*'):notNull()}",
+        "${filename:matches('.*csv'):and(${fileSize:gt(0)})}",
+        "${fileSize:plus(1)}",
+        "${literal(true)}"
+    );
+
+    @Test
+    public void testSpecializedResultsMatchInterpreter() {
+        for (final Map<String, String> attributes : createAttributeSets()) {
+            for (final String expression : SPECIALIZED_EXPRESSIONS) {
+                final CompiledExpression interpreted = new ExpressionCompiler(false).compile(expression);
+                final CompiledExpression specialized = new ExpressionCompiler(true).compile(expression);
+
+                assertNotSame(interpreted.getRootEvaluator().getClass(), specialized.getRootEvaluator().getClass(), expression);
+                assertEquals(interpreted.getRootEvaluator().getResultType(), specialized.getRootEvaluator().getResultType(), expression);
+                assertEquals(evaluate(interpreted, attributes), evaluate(specialized, attributes), expression + " with " + attributes);
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedExpressionsAreInterpreted() {
+        for (final Map<String, String> attributes : createAttributeSets()) {
+            for (final String expression : INTERPRETED_EXPRESSIONS) {
+                final CompiledExpression interpreted = new ExpressionCompiler(false).compile(expression);
+                final CompiledExpression specialized = new ExpressionCompiler(true).compile(expression);
+
+                assertSame(interpreted.getRootEvaluator().getClass(), specialized.getRootEvaluator().getClass(), expression);
+                assertEquals(evaluate(interpreted, attributes), evaluate(specialized, attributes), expression + " with " + attributes);
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nifi.test.performance", matches = "true",
+            disabledReason = "Intended for manual performance testing; should not be run in an automated environment")
+    public void testSpecializedEvaluationPerformance() {
+        final Map<String, String> attributes = createAttributeSets().get(0);
+        final int iterations = 2_000_000;
+
+        for (final String expression : SPECIALIZED_EXPRESSIONS) {
+            final CompiledExpression interpreted = new ExpressionCompiler(false).compile(expression);
+            final CompiledExpression specialized = new ExpressionCompiler(true).compile(expression);
+
+            // Alternate between the two forms and keep the best time of each, so that neither benefits from warm-up or suffers from a collection
+            long interpretedNanos = Long.MAX_VALUE;
+            long specializedNanos = Long.MAX_VALUE;
+            for (int i = 0; i < 5; i++) {
+                interpretedNanos = Math.min(interpretedNanos, time(interpreted, attributes, iterations));
+                specializedNanos = Math.min(specializedNanos, time(specialized, attributes, iterations));
+            }
+            logger.info("{}: interpreted {} ms, specialized {} ms", expression, TimeUnit.NANOSECONDS.toMillis(interpretedNanos), TimeUnit.NANOSECONDS.toMillis(specializedNanos));
+        }
+    }
+
+    private long time(final CompiledExpression expression, final Map<String, String> attributes, final int iterations) {
+        final long start = System.nanoTime();
+        int trueCount = 0;
+        for (int i = 0; i < iterations; i++) {
+            // A new context is needed for each evaluation because the interpreter caches the results of some functions in the context
+            if ("true".equals(expression.evaluate(new StandardEvaluationContext(attributes), null))) {
+                trueCount++;
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+        logger.debug("{} evaluated to true {} times", expression.getExpression(), trueCount);
+        return nanos;
+    }
+
+    private String evaluate(final CompiledExpression expression, final Map<String, String> attributes) {
+        return expression.evaluate(new StandardEvaluationContext(attributes), null);
+    }
+
+    private List<Map<String, String>> createAttributeSets() {
+        final Map<String, String> csv = new HashMap<>();
+        csv.put("filename", "data-2024.csv");
+        csv.put("fileSize", "2000");
+        csv.put("ratio", "0.75");
+        csv.put("empty", "  ");
+
+        final Map<String, String> small = new HashMap<>();
+        small.put("filename", "log.txt");
+        small.put("fileSize", "8");
+        small.put("ratio", "-1.5");
+        small.put("empty", "not empty");
+
+        final Map<String, String> invalid = new HashMap<>();
+        invalid.put("filename", "");
+        invalid.put("fileSize", "not a number");
+        invalid.put("ratio", "0x1F");
+
+        return List.of(csv, small, invalid, Map.of());
+    }
+}
@@ -81,6 +81,7 @@ public class NiFiProperties extends ApplicationProperties {
     public static final String REMOTE_CONTENTS_CACHE_EXPIRATION = "nifi.remote.contents.cache.expiration";
     public static final String ADMINISTRATIVE_YIELD_DURATION = "nifi.administrative.yield.duration";
     public static final String BORED_YIELD_DURATION = "nifi.bored.yield.duration";
+    public static final String BORED_YIELD_WAKE_ON_ENQUEUE = "nifi.bored.yield.wake.on.enqueue";
     public static final String PROCESSOR_SCHEDULING_TIMEOUT = "nifi.processor.scheduling.timeout";
     public static final String BACKPRESSURE_COUNT = "nifi.queue.backpressure.count";
     public static final String BACKPRESSURE_SIZE = "nifi.queue.backpressure.size";
@@ -95,10 +96,13 @@ public class NiFiProperties extends ApplicationProperties {
     public static final String CONTENT_ARCHIVE_BACK_PRESSURE_PERCENTAGE = "nifi.content.repository.archive.backpressure.percentage";
     public static final String CONTENT_ARCHIVE_ENABLED = "nifi.content.repository.archive.enabled";
     public static final String CONTENT_ARCHIVE_CLEANUP_FREQUENCY = "nifi.content.repository.archive.cleanup.frequency";
+    public static final String CONTENT_REPOSITORY_MEMORY_MAPPED_READS = "nifi.content.repository.memory.mapped.reads";
+    public static final String CONTENT_REPOSITORY_MEMORY_MAPPED_MAX_FILES = "nifi.content.repository.memory.mapped.max.files";
 
     // flowfile repository properties
     public static final String FLOWFILE_REPOSITORY_IMPLEMENTATION = "nifi.flowfile.repository.implementation";
     public static final String FLOWFILE_REPOSITORY_ALWAYS_SYNC = "nifi.flowfile.repository.always.sync";
+    public static final String FLOWFILE_REPOSITORY_GROUP_COMMIT_DELAY = "nifi.flowfile.repository.group.commit.delay";
     public static final String FLOWFILE_REPOSITORY_DIRECTORY = "nifi.flowfile.repository.directory";
     public static final String FLOWFILE_REPOSITORY_CHECKPOINT_INTERVAL = "nifi.flowfile.repository.checkpoint.interval";
     public static final String FLOWFILE_SWAP_MANAGER_IMPLEMENTATION = "nifi.swap.manager.implementation";
@@ -279,6 +283,7 @@ public class NiFiProperties extends ApplicationProperties {
     public static final String ANALYTICS_PREDICTION_ENABLED = "nifi.analytics.predict.enabled";
     public static final String ANALYTICS_PREDICTION_INTERVAL = "nifi.analytics.predict.interval";
     public static final String ANALYTICS_QUERY_INTERVAL = "nifi.analytics.query.interval";
+    public static final String ANALYTICS_PREDICTION_BUDGET = "nifi.analytics.predict.budget";
     public static final String ANALYTICS_CONNECTION_MODEL_IMPLEMENTATION = "nifi.analytics.connection.model.implementation";
     public static final String ANALYTICS_CONNECTION_MODEL_SCORE_NAME = "nifi.analytics.connection.model.score.name";
     public static final String ANALYTICS_CONNECTION_MODEL_SCORE_THRESHOLD = "nifi.analytics.connection.model.score.threshold";
@@ -349,12 +354,15 @@ public class NiFiProperties extends ApplicationProperties {
     public static final String DEFAULT_NAR_LIBRARY_AUTOLOAD_DIR = "./extensions";
     public static final String DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL = "20 secs";
     public static final String DEFAULT_MAX_APPENDABLE_CLAIM_SIZE = "50 KB";
+    public static final String DEFAULT_CONTENT_REPOSITORY_MEMORY_MAPPED_READS = "false";
+    public static final int DEFAULT_CONTENT_REPOSITORY_MEMORY_MAPPED_MAX_FILES = 256;
     public static final int DEFAULT_QUEUE_SWAP_THRESHOLD = 20000;
     public static final long DEFAULT_BACKPRESSURE_COUNT = 10_000L;
     public static final String DEFAULT_BACKPRESSURE_SIZE = "1 GB";
     public static final String DEFAULT_ADMINISTRATIVE_YIELD_DURATION = "30 sec";
     public static final String DEFAULT_COMPONENT_STATUS_SNAPSHOT_FREQUENCY = "5 mins";
     public static final String DEFAULT_BORED_YIELD_DURATION = "10 millis";
+    public static final String DEFAULT_BORED_YIELD_WAKE_ON_ENQUEUE = "false";
     public static final String DEFAULT_ZOOKEEPER_CONNECT_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_SESSION_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_ROOT_NODE = "/nifi";
@@ -420,7 +428,8 @@ public class NiFiProperties extends ApplicationProperties {
     public static final String DEFAULT_ANALYTICS_PREDICTION_ENABLED = "false";
     public static final String DEFAULT_ANALYTICS_PREDICTION_INTERVAL = "3 mins";
     public static final String DEFAULT_ANALYTICS_QUERY_INTERVAL = "3 mins";
-    public final static String DEFAULT_ANALYTICS_CONNECTION_MODEL_IMPLEMENTATION = "org.apache.nifi.controller.status.analytics.models.OrdinaryLeastSquares";
+    public static final String DEFAULT_ANALYTICS_PREDICTION_BUDGET = "5 secs";
+    public final static String DEFAULT_ANALYTICS_CONNECTION_MODEL_IMPLEMENTATION = "org.apache.nifi.controller.status.analytics.models.IncrementalOrdinaryLeastSquares";
     public static final String DEFAULT_ANALYTICS_CONNECTION_SCORE_NAME = "rSquared";
     public static final double DEFAULT_ANALYTICS_CONNECTION_SCORE_THRESHOLD = .90;
 
@@ -613,6 +622,17 @@ public class NiFiProperties extends ApplicationProperties {
         return getProperty(FLOWFILE_REPOSITORY_CHECKPOINT_INTERVAL, DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL);
     }
 
+    /**
+     * Returns the maximum amount of time that a synchronized update to the FlowFile Repository may wait so that
+     * its sync to disk can be shared with other concurrent updates.
+     *
+     * @return the group commit delay or null if group commit is not configured
+     */
+    public String getFlowFileRepositoryGroupCommitDelay() {
+        final String delay = getProperty(FLOWFILE_REPOSITORY_GROUP_COMMIT_DELAY);
+        return (delay == null || delay.isBlank()) ? null : delay.trim();
+    }
+
     /**
      * @return the restore directory or null if not configured
      */
@@ -1422,6 +1442,26 @@ public class NiFiProperties extends ApplicationProperties {
         return getProperty(MAX_APPENDABLE_CLAIM_SIZE, DEFAULT_MAX_APPENDABLE_CLAIM_SIZE);
     }
 
+    /**
+     * Whether the content repository should serve reads of completed content claims from memory-mapped files.
+     * Default is {@link #DEFAULT_CONTENT_REPOSITORY_MEMORY_MAPPED_READS}
+     *
+     * @return true if memory-mapped reads are enabled
+     */
+    public boolean isContentRepositoryMemoryMappedReads() {
+        return Boolean.parseBoolean(getProperty(CONTENT_REPOSITORY_MEMORY_MAPPED_READS, DEFAULT_CONTENT_REPOSITORY_MEMORY_MAPPED_READS));
+    }
+
+    /**
+     * The maximum number of content repository files to keep memory-mapped at once when memory-mapped reads are enabled.
+     * Default is {@link #DEFAULT_CONTENT_REPOSITORY_MEMORY_MAPPED_MAX_FILES}
+     *
+     * @return the maximum number of memory-mapped files
+     */
+    public int getContentRepositoryMemoryMappedMaxFiles() {
+        return getIntegerProperty(CONTENT_REPOSITORY_MEMORY_MAPPED_MAX_FILES, DEFAULT_CONTENT_REPOSITORY_MEMORY_MAPPED_MAX_FILES);
+    }
+
     @Override
     public String getProperty(final String key, final String defaultValue) {
         final String value = getProperty(key);
@@ -1432,6 +1472,14 @@ public class NiFiProperties extends ApplicationProperties {
         return getProperty(BORED_YIELD_DURATION, DEFAULT_BORED_YIELD_DURATION);
     }
 
+    /**
+     * @return <code>true</code> if components that were yielded for lack of work should be triggered as soon as
+     * FlowFiles are enqueued into one of their incoming connections, rather than waiting for the bored yield duration to elapse
+     */
+    public boolean isBoredYieldWakeOnEnqueue() {
+        return Boolean.parseBoolean(getProperty(BORED_YIELD_WAKE_ON_ENQUEUE, DEFAULT_BORED_YIELD_WAKE_ON_ENQUEUE));
+    }
+
     public File getStateManagementConfigFile() {
         return new File(getProperty(STATE_MANAGEMENT_CONFIG_FILE, DEFAULT_STATE_MANAGEMENT_CONFIG_FILE));
     }
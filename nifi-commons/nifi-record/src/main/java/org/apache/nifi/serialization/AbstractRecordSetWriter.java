@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Map;
 
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSet;
 
 public abstract class AbstractRecordSetWriter implements RecordSetWriter {
@@ -97,6 +98,28 @@ public abstract class AbstractRecordSetWriter implements RecordSetWriter {
         return ++recordCount;
     }
 
+    protected int incrementRecordCount(final int count) {
+        recordCount += count;
+        return recordCount;
+    }
+
+    /**
+     * Writes each Record of the given batch individually by calling {@link #write(Record)}. Writers that implement {@link BatchRecordWriter}
+     * may use this for any batch that they are not able to write by column, such as a batch whose schema is not the schema of the writer.
+     *
+     * @param batch the batch of Records to write
+     * @return the results of writing the data
+     * @throws IOException if unable to write to the underlying stream
+     */
+    protected WriteResult writeRecords(final RecordBatch batch) throws IOException {
+        WriteResult writeResult = WriteResult.of(recordCount, Collections.emptyMap());
+        for (int row = 0; row < batch.size(); row++) {
+            writeResult = write(batch.getRecord(row));
+        }
+
+        return writeResult;
+    }
+
     /**
      * Method that is called as a result of {@link #beginRecordSet()} being called. This gives subclasses
      * the chance to react to a new RecordSet beginning but prevents the subclass from changing how this
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization;
+
+import org.apache.nifi.serialization.record.RecordBatch;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * A {@link RecordReader} that is able to read many Records at once into a column-oriented {@link RecordBatch}, without creating a Record
+ * object for each of them. Callers that support batches should check whether a RecordReader implements this interface and, if so,
+ * may read the Records in batches instead of by calling {@link RecordReader#nextRecord()}. A caller should not interleave calls to
+ * {@link #readBatch(RecordBatch)} and {@link RecordReader#nextRecord()}.
+ * </p>
+ *
+ * <p>
+ * PLEASE NOTE: This interface is still considered 'unstable' and may change in a non-backward-compatible
+ * manner between minor or incremental releases of NiFi.
+ * </p>
+ */
+public interface BatchRecordReader {
+
+    /**
+     * Clears the given batch and reads as many Records into it as it can hold or as are available. Types are coerced and unknown
+     * fields are dropped, as they are by {@link RecordReader#nextRecord()}.
+     *
+     * @param batch the batch to read Records into, whose schema must be the schema of the Record Reader
+     * @return the number of Records that were read, or <code>0</code> if no more Records are available
+     *
+     * @throws IOException if unable to read from the underlying data
+     * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse a Record
+     * @throws IllegalArgumentException if the schema of the batch is not the schema of the Record Reader
+     */
+    int readBatch(RecordBatch batch) throws IOException, MalformedRecordException;
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization;
+
+import org.apache.nifi.serialization.record.RecordBatch;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * A {@link RecordWriter} that is able to write all Records of a column-oriented {@link RecordBatch} at once. Callers that support batches
+ * should check whether a RecordWriter implements this interface and, if so, may write batches of Records instead of calling
+ * {@link RecordWriter#write(org.apache.nifi.serialization.record.Record)} for each Record.
+ * </p>
+ *
+ * <p>
+ * PLEASE NOTE: This interface is still considered 'unstable' and may change in a non-backward-compatible
+ * manner between minor or incremental releases of NiFi.
+ * </p>
+ */
+public interface BatchRecordWriter {
+
+    /**
+     * Writes all Records of the given batch, producing the same output as writing each of the Records individually would
+     *
+     * @param batch the batch of Records to write
+     * @return the results of writing the data
+     * @throws IOException if unable to write to the underlying stream
+     */
+    WriteResult writeBatch(RecordBatch batch) throws IOException;
+
+    /**
+     * Indicates whether Records may be passed to this writer in batches. A writer whose output depends on more than the values of each Record,
+     * such as on which fields were present in the input data, returns <code>false</code>, and callers should then write each Record individually
+     * so that the writer has access to the Record objects. Such a writer still accepts batches, writing them as Records that hold only the
+     * values of the batch.
+     *
+     * @return <code>true</code> if Records may be passed to this writer in batches without changing its output
+     */
+    default boolean isBatchWriteSupported() {
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization;
+
+import java.util.Set;
+
+/**
+ * <p>
+ * A {@link RecordReader} that is able to skip the work of converting the values of fields that the caller does not need. Callers that
+ * need only some of the fields of each Record, such as a SQL query that references only some of the columns, should check whether a
+ * RecordReader implements this interface and, if so, may call {@link #setProjectedFields(Set)} before reading any Records.
+ * </p>
+ *
+ * <p>
+ * PLEASE NOTE: This interface is still considered 'unstable' and may change in a non-backward-compatible
+ * manner between minor or incremental releases of NiFi.
+ * </p>
+ */
+public interface ProjectableRecordReader {
+
+    /**
+     * Indicates which fields of the Record Reader's schema the caller needs. Records that are read after this method is called still adhere
+     * to the schema of the Record Reader, but the value of any field that is not projected may be <code>null</code>, regardless of whether
+     * the field is nullable, and the Records may not retain their serialized form. Field names that are not in the schema are ignored.
+     *
+     * @param fieldNames the names of the top-level fields that are needed, or <code>null</code> to read all fields
+     */
+    void setProjectedFields(Set<String> fieldNames);
+}
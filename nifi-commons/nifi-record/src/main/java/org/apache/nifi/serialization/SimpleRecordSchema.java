@@ -33,6 +33,7 @@ import java.util.concurrent.atomic.AtomicReference;
 public class SimpleRecordSchema implements RecordSchema {
     private List<RecordField> fields = null;
     private Map<String, RecordField> fieldMap = null;
+    private Map<String, Integer> fieldIndices = null;
     private boolean textAvailable;
     private final AtomicReference<String> text = new AtomicReference<>();
     private String schemaFormat;
@@ -103,8 +104,11 @@ public class SimpleRecordSchema implements RecordSchema {
         this.hashCode = 0;
         this.fields = List.copyOf(fields);
         this.fieldMap = new HashMap<>(fields.size() * 2);
+        this.fieldIndices = new HashMap<>(fields.size() * 2);
 
         for (final RecordField field : fields) {
+            fieldIndices.put(field.getFieldName(), fieldIndices.size());
+
             RecordField previousValue = fieldMap.put(field.getFieldName(), field);
             if (previousValue != null) {
                 throw new IllegalArgumentException("Two fields are given with the same name (or alias) of '" + field.getFieldName() + "'");
@@ -161,6 +165,12 @@ public class SimpleRecordSchema implements RecordSchema {
         return Optional.ofNullable(fieldMap.get(fieldName));
     }
 
+    @Override
+    public int getFieldIndex(final String fieldName) {
+        final Integer index = fieldIndices.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+/**
+ * <p>
+ * A {@link MapRecord} whose values are held in an {@link IndexedValueMap}, so that the value of each field in the Record's schema is held
+ * in an array at the position of the field, rather than in an entry of a LinkedHashMap. Record Readers that know the schema before
+ * creating a Record should prefer this implementation, as it avoids creating an entry object for every field of every Record.
+ * </p>
+ *
+ * <p>
+ * As long as the Record's schema is not changed, {@link #getValues()} provides the values by position without looking up each field
+ * by name, which allows Record Writers whose schema is the Record's schema to iterate over the values by position.
+ * </p>
+ */
+public class ArrayRecord extends MapRecord {
+    private final IndexedValueMap indexedValues;
+
+    public ArrayRecord(final RecordSchema schema, final IndexedValueMap values) {
+        this(schema, values, false, false);
+    }
+
+    public ArrayRecord(final RecordSchema schema, final IndexedValueMap values, final boolean checkTypes, final boolean dropUnknownFields) {
+        super(schema, values, checkTypes, dropUnknownFields);
+        this.indexedValues = values;
+    }
+
+    public ArrayRecord(final RecordSchema schema, final IndexedValueMap values, final SerializedForm serializedForm) {
+        this(schema, values, serializedForm, false, false);
+    }
+
+    public ArrayRecord(final RecordSchema schema, final IndexedValueMap values, final SerializedForm serializedForm, final boolean checkTypes, final boolean dropUnknownFields) {
+        super(schema, values, serializedForm, checkTypes, dropUnknownFields);
+        this.indexedValues = values;
+    }
+
+    /**
+     * Provides the values of the given Record by position of the fields in the given schema, if the Record holds its values by position.
+     * Each value is the same value that {@link Record#getValue(RecordField)} returns for the field at the same position.
+     *
+     * @param record the Record whose values are needed
+     * @param schema the schema whose fields the values must correspond to
+     * @return the values of the Record, or <code>null</code> if the values cannot be provided without looking up each field by name
+     */
+    public static Object[] getValuesByPosition(final Record record, final RecordSchema schema) {
+        if (!(record instanceof final ArrayRecord arrayRecord) || record.getSchema() != schema) {
+            return null;
+        }
+
+        final IndexedValueMap values = arrayRecord.indexedValues;
+        if (!values.isIndexedBy(schema) || values.hasAdditionalValues()) {
+            return null;
+        }
+
+        return arrayRecord.getValues();
+    }
+
+    @Override
+    public Object[] getValues() {
+        final RecordSchema schema = getSchema();
+
+        // Values that are held by name may be the values of aliases, which must be considered when the value of a field is null
+        if (!indexedValues.isIndexedBy(schema) || indexedValues.hasAdditionalValues()) {
+            return super.getValues();
+        }
+
+        final int fieldCount = schema.getFieldCount();
+        final Object[] values = new Object[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            final Object value = indexedValues.get(i);
+            values[i] = value == null ? schema.getField(i).getDefaultValue() : value;
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * A Map of field values that holds the value of each field of a {@link RecordSchema} in an array, at the position of the field in the schema.
+ * Values for any other name, such as an alias or a field that is not part of the schema, are held in a separate Map. Unlike a
+ * LinkedHashMap, this Map does not need an entry object for each value, and a Record that is backed by this Map can provide its values
+ * by position without looking up each field by name.
+ * </p>
+ *
+ * <p>
+ * The positions are fixed when the Map is created. If the schema is later changed, for instance by renaming or removing a field, the Map
+ * continues to use the original positions. As with a LinkedHashMap, entries are iterated in the order in which they were added. Values that
+ * are added in the order of the schema's fields, followed by any other values, are iterated by position; otherwise, the names of the
+ * entries are also held in the order in which they were added.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IndexedValueMap extends AbstractMap<String, Object> {
+    private static final Object ABSENT = new Object();
+
+    private final RecordSchema schema;
+    private final List<RecordField> fields;
+    private final Object[] values;
+    private int indexedCount = 0;
+    private Map<String, Object> additionalValues = null;
+    private Set<Map.Entry<String, Object>> entrySet = null;
+
+    // The position of the last value added, as long as values have been added in the order of the schema's fields and before any other
+    // values. Once a value is added out of that order, the names of all entries are held in the order in which they were added.
+    private int lastAddedIndex = -1;
+    private Set<String> insertionOrder = null;
+
+    public IndexedValueMap(final RecordSchema schema) {
+        this.schema = Objects.requireNonNull(schema);
+        this.fields = schema.getFields();
+        this.values = new Object[fields.size()];
+        Arrays.fill(values, ABSENT);
+    }
+
+    /**
+     * @param schema the schema to check
+     * @return <code>true</code> if the positions of the values in this Map are the positions of the fields in the given schema
+     */
+    public boolean isIndexedBy(final RecordSchema schema) {
+        return schema == this.schema && schema.getFields() == fields;
+    }
+
+    /**
+     * @param fieldName the name of the field
+     * @return the position of the value of the field with the given name, or <code>-1</code> if the value is not held by position
+     */
+    public int indexOf(final String fieldName) {
+        if (schema.getFields() == fields) {
+            return schema.getFieldIndex(fieldName);
+        }
+
+        // The schema has been changed since this Map was created, so the original field positions must be searched
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getFieldName().equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index the position of the field
+     * @return the value of the field at the given position, or <code>null</code> if no value has been set
+     */
+    public Object get(final int index) {
+        final Object value = values[index];
+        return value == ABSENT ? null : value;
+    }
+
+    /**
+     * Sets the value of the field at the given position
+     *
+     * @param index the position of the field
+     * @param value the value to set
+     * @return the previous value of the field, or <code>null</code> if no value had been set
+     */
+    public Object put(final int index, final Object value) {
+        final Object previous = values[index];
+        if (previous == ABSENT) {
+            onIndexedValueAdded(index);
+            indexedCount++;
+        }
+
+        values[index] = value;
+        return previous == ABSENT ? null : previous;
+    }
+
+    /**
+     * Records that a value is about to be added at the given position, where no value is currently held
+     */
+    private void onIndexedValueAdded(final int index) {
+        if (insertionOrder == null) {
+            if (index > lastAddedIndex && !hasAdditionalValues()) {
+                lastAddedIndex = index;
+                return;
+            }
+
+            // The value is not being added in the order of the schema's fields, so the order of the existing entries must be held by name
+            insertionOrder = new LinkedHashSet<>(keySet());
+        }
+
+        insertionOrder.add(fields.get(index).getFieldName());
+    }
+
+    /**
+     * @return <code>true</code> if this Map holds any value that is not held by position
+     */
+    public boolean hasAdditionalValues() {
+        return additionalValues != null && !additionalValues.isEmpty();
+    }
+
+    @Override
+    public Object get(final Object key) {
+        if (!(key instanceof String fieldName)) {
+            return null;
+        }
+
+        final int index = indexOf(fieldName);
+        if (index >= 0) {
+            return get(index);
+        }
+
+        return additionalValues == null ? null : additionalValues.get(fieldName);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        if (!(key instanceof String fieldName)) {
+            return false;
+        }
+
+        final int index = indexOf(fieldName);
+        if (index >= 0) {
+            return values[index] != ABSENT;
+        }
+
+        return additionalValues != null && additionalValues.containsKey(fieldName);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return put(index, value);
+        }
+
+        if (additionalValues == null) {
+            additionalValues = new LinkedHashMap<>();
+        }
+        if (insertionOrder != null) {
+            insertionOrder.add(key);
+        }
+        return additionalValues.put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        if (!(key instanceof String fieldName)) {
+            return null;
+        }
+
+        if (insertionOrder != null) {
+            insertionOrder.remove(fieldName);
+        }
+
+        return removeValue(fieldName);
+    }
+
+    /**
+     * Removes the value with the given name without updating the order of the entries
+     */
+    private Object removeValue(final String fieldName) {
+        final int index = indexOf(fieldName);
+        if (index >= 0) {
+            return removeIndex(index);
+        }
+
+        return additionalValues == null ? null : additionalValues.remove(fieldName);
+    }
+
+    private Object removeIndex(final int index) {
+        final Object previous = values[index];
+        if (previous == ABSENT) {
+            return null;
+        }
+
+        values[index] = ABSENT;
+        indexedCount--;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return indexedCount + (additionalValues == null ? 0 : additionalValues.size());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+        indexedCount = 0;
+        additionalValues = null;
+        lastAddedIndex = -1;
+        insertionOrder = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return insertionOrder == null ? new EntryIterator() : new InsertionOrderIterator();
+        }
+
+        @Override
+        public int size() {
+            return IndexedValueMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            IndexedValueMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int nextIndex = advance(0);
+        private int lastIndex = -1;
+        private Iterator<Map.Entry<String, Object>> additionalIterator = null;
+        private boolean lastFromAdditional = false;
+
+        private int advance(final int start) {
+            int index = start;
+            while (index < values.length && values[index] == ABSENT) {
+                index++;
+            }
+            return index;
+        }
+
+        private Iterator<Map.Entry<String, Object>> getAdditionalIterator() {
+            if (additionalIterator == null) {
+                additionalIterator = additionalValues == null ? null : additionalValues.entrySet().iterator();
+            }
+            return additionalIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextIndex < values.length) {
+                return true;
+            }
+
+            final Iterator<Map.Entry<String, Object>> iterator = getAdditionalIterator();
+            return iterator != null && iterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (nextIndex < values.length) {
+                lastIndex = nextIndex;
+                lastFromAdditional = false;
+                nextIndex = advance(nextIndex + 1);
+                return new IndexedEntry(lastIndex);
+            }
+
+            final Iterator<Map.Entry<String, Object>> iterator = getAdditionalIterator();
+            if (iterator == null) {
+                throw new NoSuchElementException();
+            }
+
+            final Map.Entry<String, Object> entry = iterator.next();
+            lastFromAdditional = true;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastFromAdditional) {
+                additionalIterator.remove();
+                lastFromAdditional = false;
+                return;
+            }
+
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+
+            removeIndex(lastIndex);
+            lastIndex = -1;
+        }
+    }
+
+    /**
+     * Iterates over the entries by name, in the order in which they were added, once values have been added out of the order of the schema's fields
+     */
+    private class InsertionOrderIterator implements Iterator<Map.Entry<String, Object>> {
+        private final Iterator<String> nameIterator = insertionOrder.iterator();
+        private String lastName = null;
+
+        @Override
+        public boolean hasNext() {
+            return nameIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            lastName = nameIterator.next();
+
+            final int index = indexOf(lastName);
+            return index >= 0 ? new IndexedEntry(index) : new AdditionalEntry(lastName);
+        }
+
+        @Override
+        public void remove() {
+            if (lastName == null) {
+                throw new IllegalStateException();
+            }
+
+            nameIterator.remove();
+            removeValue(lastName);
+            lastName = null;
+        }
+    }
+
+    private abstract static class ValueEntry implements Map.Entry<String, Object> {
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof final Map.Entry<?, ?> other)) {
+                return false;
+            }
+            return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private class IndexedEntry extends ValueEntry {
+        private final int index;
+
+        private IndexedEntry(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return fields.get(index).getFieldName();
+        }
+
+        @Override
+        public Object getValue() {
+            return get(index);
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            return put(index, value);
+        }
+    }
+
+    private class AdditionalEntry extends ValueEntry {
+        private final String name;
+
+        private AdditionalEntry(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getKey() {
+            return name;
+        }
+
+        @Override
+        public Object getValue() {
+            return additionalValues.get(name);
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            return additionalValues.put(name, value);
+        }
+    }
+}
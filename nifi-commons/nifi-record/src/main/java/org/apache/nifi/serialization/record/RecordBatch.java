@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A batch of Records that share a schema, held by column rather than by row: the values of each field of the schema are held together
+ * in an array, at the position of the Record within the batch. This allows a Record Reader to hand a large number of Records to a Record
+ * Writer without creating a Record object for each of them, and allows the Writer to resolve everything that depends only on the field,
+ * such as its format, once per batch rather than once per value.
+ * </p>
+ *
+ * <p>
+ * The value that is held for a field is the value that {@link Record#getValue(RecordField)} would return for that field: if a
+ * <code>null</code> value is set, the field's default value is held instead. Only the fields of the schema are held.
+ * </p>
+ *
+ * <p>
+ * A batch is intended to be filled, consumed, cleared, and filled again, so that the arrays are allocated only once.
+ * This class is not thread-safe.
+ * </p>
+ */
+public class RecordBatch {
+    private final RecordSchema schema;
+    private final List<RecordField> fields;
+    private final Object[] defaultValues;
+    private final Object[][] columns;
+    private final int capacity;
+    private int size = 0;
+
+    public RecordBatch(final RecordSchema schema, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of a Record Batch must be positive but was " + capacity);
+        }
+
+        this.schema = Objects.requireNonNull(schema);
+        this.fields = schema.getFields();
+        this.capacity = capacity;
+
+        final int fieldCount = fields.size();
+        this.defaultValues = new Object[fieldCount];
+        this.columns = new Object[fieldCount][];
+        for (int i = 0; i < fieldCount; i++) {
+            defaultValues[i] = fields.get(i).getDefaultValue();
+            columns[i] = new Object[capacity];
+        }
+    }
+
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return the maximum number of Records that the batch can hold
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of Records in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Provides the values of the field at the given position of the schema. The array has a length of {@link #getCapacity()}, but only the
+     * first {@link #size()} elements hold values of Records in the batch. The array must not be modified.
+     *
+     * @param fieldIndex the position of the field in the schema
+     * @return the values of the field
+     */
+    public Object[] getColumn(final int fieldIndex) {
+        return columns[fieldIndex];
+    }
+
+    /**
+     * @param row the position of the Record in the batch
+     * @param fieldIndex the position of the field in the schema
+     * @return the value of the field for the Record at the given position
+     */
+    public Object getValue(final int row, final int fieldIndex) {
+        checkRow(row);
+        return columns[fieldIndex][row];
+    }
+
+    /**
+     * Sets the value of a field for the Record at the given position. If the value is <code>null</code>, the field's default value is held instead.
+     *
+     * @param row the position of the Record in the batch
+     * @param fieldIndex the position of the field in the schema
+     * @param value the value of the field
+     */
+    public void setValue(final int row, final int fieldIndex, final Object value) {
+        checkRow(row);
+        columns[fieldIndex][row] = value == null ? defaultValues[fieldIndex] : value;
+    }
+
+    /**
+     * Adds a Record to the batch whose fields all have their default values
+     *
+     * @return the position of the new Record in the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public int addRow() {
+        if (isFull()) {
+            throw new IllegalStateException("Cannot add a Record to a Record Batch that already holds " + capacity + " Records");
+        }
+
+        final int row = size++;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i][row] = defaultValues[i];
+        }
+
+        return row;
+    }
+
+    /**
+     * Adds the values of the given Record to the batch. Any value whose field is not part of the batch's schema is not added.
+     *
+     * @param record the Record to add
+     * @return the position of the new Record in the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public int addRecord(final Record record) {
+        final int row = addRow();
+        final Object[] values = ArrayRecord.getValuesByPosition(record, schema);
+        for (int i = 0; i < columns.length; i++) {
+            final Object value = values == null ? record.getValue(fields.get(i)) : values[i];
+            if (value != null) {
+                columns[i][row] = value;
+            }
+        }
+
+        return row;
+    }
+
+    /**
+     * Creates a Record that holds the values of the Record at the given position of the batch. The Record does not share any state with the batch.
+     *
+     * @param row the position of the Record in the batch
+     * @return a Record that holds the values of the Record at the given position
+     */
+    public Record getRecord(final int row) {
+        checkRow(row);
+
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        for (int i = 0; i < columns.length; i++) {
+            final Object value = columns[i][row];
+            if (value != null) {
+                values.put(i, value);
+            }
+        }
+
+        return new ArrayRecord(schema, values);
+    }
+
+    /**
+     * Verifies that the values of the Record at the given position are valid according to the schema, in the same way that a {@link MapRecord}
+     * that is created with type checking enabled does
+     *
+     * @param row the position of the Record in the batch
+     * @throws SchemaValidationException if a value is <code>null</code> but its field is not nullable, or a value is not compatible with the type of its field
+     */
+    public void checkTypes(final int row) {
+        checkRow(row);
+
+        for (int i = 0; i < columns.length; i++) {
+            final RecordField field = fields.get(i);
+            final Object value = columns[i][row];
+            if (value == null) {
+                if (field.isNullable()) {
+                    continue;
+                }
+
+                throw new SchemaValidationException("Field " + field.getFieldName() + " cannot be null");
+            }
+
+            if (!DataTypeUtils.isCompatibleDataType(value, field.getDataType())) {
+                throw new SchemaValidationException("Field " + field.getFieldName() + " has a value of " + value
+                    + ", which cannot be coerced into the appropriate data type of " + field.getDataType());
+            }
+        }
+    }
+
+    /**
+     * Removes all Records from the batch
+     */
+    public void clear() {
+        for (final Object[] column : columns) {
+            Arrays.fill(column, 0, size, null);
+        }
+
+        size = 0;
+    }
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Record Batch holds " + size + " Records but Record " + row + " was requested");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RecordBatch[size=" + size + ", capacity=" + capacity + ", schema=" + schema + "]";
+    }
+}
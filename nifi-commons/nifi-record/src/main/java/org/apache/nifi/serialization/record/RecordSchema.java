@@ -72,6 +72,20 @@ public interface RecordSchema {
      */
     Optional<RecordField> getField(String fieldName);
 
+    /**
+     * @param fieldName the name of the field
+     * @return the position of the field whose name is equal to the given name, or <code>-1</code> if there is no such field. Aliases are not considered.
+     */
+    default int getFieldIndex(final String fieldName) {
+        final List<RecordField> fields = getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getFieldName().equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * @return the SchemaIdentifier, which provides various attributes for identifying a schema
      */
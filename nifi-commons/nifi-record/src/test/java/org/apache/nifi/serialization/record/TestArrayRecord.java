@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestArrayRecord {
+
+    private static final List<RecordField> FIELDS = List.of(
+        new RecordField("id", RecordFieldType.INT.getDataType()),
+        new RecordField("name", RecordFieldType.STRING.getDataType(), "unknown", Set.of("fullName")),
+        new RecordField("balance", RecordFieldType.DOUBLE.getDataType())
+    );
+
+    @Test
+    void testValuesByPosition() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        values.put(2, 12.5D);
+        values.put("id", 48);
+
+        final Record record = new ArrayRecord(schema, values);
+        assertArrayEquals(new Object[] {48, "unknown", 12.5D}, record.getValues());
+        assertEquals(48, record.getValue("id"));
+        assertEquals("unknown", record.getValue("name"));
+        assertEquals(12.5D, record.getAsDouble("balance"));
+        assertEquals(List.of("balance", "id"), List.copyOf(record.getRawFieldNames()));
+    }
+
+    @Test
+    void testAliasesAndUnknownFields() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        values.put("id", 48);
+        values.put("fullName", "John Doe");
+        values.put("other", "value");
+
+        final Record record = new ArrayRecord(schema, values);
+        assertTrue(values.hasAdditionalValues());
+        assertEquals("John Doe", record.getValue("name"));
+        assertEquals("value", record.getValue("other"));
+        assertArrayEquals(new Object[] {48, "John Doe", null}, record.getValues());
+        assertEquals(List.of("id", "fullName", "other"), List.copyOf(record.getRawFieldNames()));
+    }
+
+    @Test
+    void testEquivalentToMapRecord() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        final Map<String, Object> mapValues = new LinkedHashMap<>();
+        for (final Map<String, Object> map : List.of(values, mapValues)) {
+            map.put("id", 1);
+            map.put("name", null);
+            map.put("balance", 3.5D);
+            map.put("other", "value");
+        }
+
+        final Record arrayRecord = new ArrayRecord(schema, values);
+        final Record mapRecord = new MapRecord(schema, mapValues);
+        assertEquals(mapRecord, arrayRecord);
+        assertEquals(arrayRecord, mapRecord);
+        assertEquals(mapRecord.hashCode(), arrayRecord.hashCode());
+        assertEquals(mapRecord.toMap(), arrayRecord.toMap());
+        assertEquals(mapValues.toString(), values.toString());
+        assertEquals(4, values.size());
+        assertTrue(values.containsKey("name"));
+    }
+
+    @Test
+    void testRenameAndRemove() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        values.put("id", 1);
+        values.put("name", "John Doe");
+        values.put("balance", 3.5D);
+
+        final Record record = new ArrayRecord(schema, values);
+        assertTrue(record.rename(schema.getField("name").get(), "customer"));
+        assertEquals("John Doe", record.getValue("customer"));
+        assertNull(record.getValue("name"));
+        assertFalse(values.isIndexedBy(record.getSchema()));
+        assertEquals(Arrays.asList(1, "John Doe", 3.5D), Arrays.asList(record.getValues()));
+
+        record.remove(record.getSchema().getField("balance").get());
+        assertNull(record.getValue("balance"));
+        assertEquals(2, values.size());
+        assertEquals(List.of("id", "customer"), List.copyOf(record.getRawFieldNames()));
+    }
+
+    @Test
+    void testInsertionOrderMatchesMapRecord() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        final Map<String, Object> mapValues = new LinkedHashMap<>();
+        for (final Map<String, Object> map : List.of(values, mapValues)) {
+            map.put("name", "John Doe");
+            map.put("other", "value");
+            map.put("id", 1);
+            map.put("balance", 3.5D);
+            map.remove("name");
+            map.put("name", "Jane Doe");
+            map.put("other", "updated");
+        }
+
+        assertEquals(List.copyOf(mapValues.entrySet()), List.copyOf(values.entrySet()));
+        assertEquals(List.of("other", "id", "balance", "name"), List.copyOf(new ArrayRecord(schema, values).getRawFieldNames()));
+
+        values.entrySet().removeIf(entry -> entry.getKey().equals("id") || entry.getKey().equals("other"));
+        values.put("id", 2);
+        assertEquals(List.of("balance", "name", "id"), List.copyOf(values.keySet()));
+        assertEquals(Map.of("balance", 3.5D, "name", "Jane Doe", "id", 2), values);
+        assertFalse(values.hasAdditionalValues());
+
+        values.clear();
+        values.put("id", 3);
+        values.put("balance", 4.5D);
+        assertEquals(List.of("id", "balance"), List.copyOf(values.keySet()));
+    }
+
+    @Test
+    void testEntryIteratorRemove() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final IndexedValueMap values = new IndexedValueMap(schema);
+        values.put("id", 1);
+        values.put("balance", 3.5D);
+        values.put("other", "value");
+
+        values.entrySet().removeIf(entry -> !entry.getKey().equals("balance"));
+        assertEquals(Map.of("balance", 3.5D), values);
+        assertFalse(values.hasAdditionalValues());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestRecordBatch {
+
+    private static final List<RecordField> FIELDS = List.of(
+        new RecordField("id", RecordFieldType.INT.getDataType(), false),
+        new RecordField("name", RecordFieldType.STRING.getDataType(), "unknown", Set.of("fullName")),
+        new RecordField("balance", RecordFieldType.DOUBLE.getDataType())
+    );
+
+    @Test
+    void testAddRowAndSetValues() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final RecordBatch batch = new RecordBatch(schema, 2);
+        assertTrue(batch.isEmpty());
+
+        final int first = batch.addRow();
+        batch.setValue(first, 0, 1);
+        batch.setValue(first, 1, "John Doe");
+        batch.setValue(first, 2, 12.5D);
+
+        final int second = batch.addRow();
+        batch.setValue(second, 0, 2);
+        batch.setValue(second, 1, null);
+
+        assertTrue(batch.isFull());
+        assertEquals(2, batch.size());
+        assertEquals("unknown", batch.getValue(second, 1));
+        assertNull(batch.getValue(second, 2));
+        assertEquals(12.5D, batch.getColumn(2)[first]);
+        assertThrows(IllegalStateException.class, batch::addRow);
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getValue(2, 0));
+    }
+
+    @Test
+    void testRecordsMatchValues() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 48);
+        values.put("fullName", "John Doe");
+        values.put("other", "value");
+        final Record mapRecord = new MapRecord(schema, values);
+
+        final RecordBatch batch = new RecordBatch(schema, 4);
+        final int row = batch.addRecord(mapRecord);
+        assertArrayEquals(mapRecord.getValues(), batch.getRecord(row).getValues());
+
+        final Record batchRecord = batch.getRecord(row);
+        final int copiedRow = batch.addRecord(batchRecord);
+        assertArrayEquals(new Object[] {48, "John Doe", null}, batch.getRecord(copiedRow).getValues());
+        assertNull(batchRecord.getValue("other"));
+    }
+
+    @Test
+    void testCheckTypes() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final RecordBatch batch = new RecordBatch(schema, 4);
+
+        final int valid = batch.addRow();
+        batch.setValue(valid, 0, 1);
+        batch.checkTypes(valid);
+
+        final int missingId = batch.addRow();
+        assertThrows(SchemaValidationException.class, () -> batch.checkTypes(missingId));
+
+        final int invalidBalance = batch.addRow();
+        batch.setValue(invalidBalance, 0, 3);
+        batch.setValue(invalidBalance, 2, "twelve");
+        assertThrows(SchemaValidationException.class, () -> batch.checkTypes(invalidBalance));
+    }
+
+    @Test
+    void testClear() {
+        final RecordSchema schema = new SimpleRecordSchema(FIELDS);
+        final RecordBatch batch = new RecordBatch(schema, 1);
+        batch.setValue(batch.addRow(), 2, 12.5D);
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+        assertFalse(batch.isFull());
+        assertNull(batch.getColumn(2)[0]);
+
+        final int row = batch.addRow();
+        assertEquals(0, row);
+        assertArrayEquals(new Object[] {null, "unknown", null}, batch.getRecord(row).getValues());
+    }
+}
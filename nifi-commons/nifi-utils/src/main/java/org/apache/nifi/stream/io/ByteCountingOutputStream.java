@@ -54,6 +54,15 @@ public class ByteCountingOutputStream extends OutputStream {
         return bytesWritten;
     }
 
+    /**
+     * Accounts for bytes that were written directly to the wrapped stream, such as through its channel, rather than through this stream
+     *
+     * @param count the number of bytes that were written
+     */
+    public void incrementBytesWritten(final long count) {
+        bytesWritten += count;
+    }
+
     @Override
     public void flush() throws IOException {
         out.flush();
@@ -44,6 +44,11 @@ public class SynchronizedByteCountingOutputStream extends ByteCountingOutputStre
         return super.getBytesWritten();
     }
 
+    @Override
+    public synchronized void incrementBytesWritten(final long count) {
+        super.incrementBytesWritten(count);
+    }
+
     @Override
     public synchronized OutputStream getWrappedStream() {
         return super.getWrappedStream();
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+/**
+ * A point-in-time view of the cumulative statistics of a {@link GroupCommitSync}
+ */
+public class GroupCommitStatistics {
+    private final long maxDelayNanos;
+    private final long syncCount;
+    private final long transactionCount;
+    private final long totalWaitNanos;
+    private final long totalSyncNanos;
+    private final int largestBatchSize;
+
+    public GroupCommitStatistics(final long maxDelayNanos, final long syncCount, final long transactionCount, final long totalWaitNanos, final long totalSyncNanos,
+                                 final int largestBatchSize) {
+        this.maxDelayNanos = maxDelayNanos;
+        this.syncCount = syncCount;
+        this.transactionCount = transactionCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.totalSyncNanos = totalSyncNanos;
+        this.largestBatchSize = largestBatchSize;
+    }
+
+    /**
+     * @return the maximum amount of time that a batch waits for additional transactions before syncing
+     */
+    public long getMaxDelayNanos() {
+        return maxDelayNanos;
+    }
+
+    /**
+     * @return the number of times that the journal has been synced to disk
+     */
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * @return the number of transactions that have been made durable
+     */
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * @return the total amount of time that writers have spent waiting for their transactions to become durable
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    /**
+     * @return the total amount of time spent syncing the journal to disk
+     */
+    public long getTotalSyncNanos() {
+        return totalSyncNanos;
+    }
+
+    /**
+     * @return the largest number of transactions that were made durable by a single sync
+     */
+    public int getLargestBatchSize() {
+        return largestBatchSize;
+    }
+
+    public double getAverageBatchSize() {
+        return syncCount == 0 ? 0D : (double) transactionCount / syncCount;
+    }
+
+    public long getAverageWaitNanos() {
+        return transactionCount == 0 ? 0L : totalWaitNanos / transactionCount;
+    }
+
+    public long getAverageSyncNanos() {
+        return syncCount == 0 ? 0L : totalSyncNanos / syncCount;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitStatistics[syncs=" + syncCount + ", transactions=" + transactionCount + ", averageBatchSize=" + getAverageBatchSize()
+            + ", largestBatchSize=" + largestBatchSize + ", averageWaitNanos=" + getAverageWaitNanos() + ", averageSyncNanos=" + getAverageSyncNanos() + "]";
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+import java.io.IOException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Coordinates the syncing of a journal to disk on behalf of many concurrent writers, so that a single fsync is
+ * shared by every transaction that was written before the fsync began.
+ * </p>
+ *
+ * <p>
+ * A writer first writes its transaction to the journal and then calls {@link #register()}, followed by
+ * {@link #awaitDurable(long, SyncAction)}. If no sync is in progress, the caller becomes the leader of the next
+ * batch: it waits up to the configured delay so that other writers may join the batch, and then performs the sync.
+ * All other callers block until a sync that covers their transaction has completed.
+ * </p>
+ */
+public class GroupCommitSync {
+    private final long maxDelayNanos;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition durableCondition = lock.newCondition();
+    private final Condition delayCondition = lock.newCondition();
+
+    // All guarded by lock
+    private long writtenSequence = 0L;
+    private long durableSequence = 0L;
+    private boolean syncInProgress = false;
+    private long syncCount = 0L;
+    private long transactionCount = 0L;
+    private long totalWaitNanos = 0L;
+    private long totalSyncNanos = 0L;
+    private int largestBatchSize = 0;
+
+    public GroupCommitSync(final long maxDelayNanos) {
+        if (maxDelayNanos < 0) {
+            throw new IllegalArgumentException("Group commit delay cannot be negative");
+        }
+
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Registers a transaction that has been written, but not necessarily synced, to the journal
+     *
+     * @return the sequence number of the transaction, to be provided to {@link #awaitDurable(long, SyncAction)}
+     */
+    public long register() {
+        lock.lock();
+        try {
+            return ++writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the transaction with the given sequence number has been synced to disk, performing the sync if no other thread is doing so
+     *
+     * @param sequence the sequence number returned from {@link #register()}
+     * @param syncAction the action that syncs the journal to disk
+     * @throws IOException if the sync that was performed by this thread failed
+     */
+    public void awaitDurable(final long sequence, final SyncAction syncAction) throws IOException {
+        final long start = System.nanoTime();
+        boolean interrupted = false;
+
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (syncInProgress) {
+                    durableCondition.awaitUninterruptibly();
+                    continue;
+                }
+
+                syncInProgress = true;
+                interrupted |= awaitBatch();
+
+                final long batchStart = durableSequence;
+                final long batchEnd = writtenSequence;
+                final long syncStart = System.nanoTime();
+                boolean synced = false;
+
+                lock.unlock();
+                try {
+                    syncAction.sync();
+                    synced = true;
+                } finally {
+                    lock.lock();
+                    syncInProgress = false;
+
+                    if (synced) {
+                        durableSequence = batchEnd;
+                        syncCount++;
+                        totalSyncNanos += System.nanoTime() - syncStart;
+                        largestBatchSize = (int) Math.max(largestBatchSize, batchEnd - batchStart);
+                    }
+
+                    durableCondition.signalAll();
+                }
+            }
+
+            transactionCount++;
+            totalWaitNanos += System.nanoTime() - start;
+        } finally {
+            lock.unlock();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits up to the configured delay, with the lock released, so that other writers have a chance to join the batch.
+     *
+     * @return <code>true</code> if the thread was interrupted while waiting
+     */
+    private boolean awaitBatch() {
+        long remaining = maxDelayNanos;
+        while (remaining > 0) {
+            try {
+                remaining = delayCondition.awaitNanos(remaining);
+            } catch (final InterruptedException ie) {
+                // Stop delaying and sync immediately; the transaction has already been written so it must still be made durable.
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public GroupCommitStatistics getStatistics() {
+        lock.lock();
+        try {
+            return new GroupCommitStatistics(maxDelayNanos, syncCount, transactionCount, totalWaitNanos, totalSyncNanos, largestBatchSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public interface SyncAction {
+        void sync() throws IOException;
+    }
+}
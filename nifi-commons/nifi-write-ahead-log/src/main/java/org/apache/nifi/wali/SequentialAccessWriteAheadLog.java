@@ -53,6 +53,12 @@ import java.util.regex.Pattern;
  * that records are recovered correctly if two threads simultaneously update the write-ahead log
  * with updates for the same record.
  * </p>
+ *
+ * <p>
+ * If a group commit delay is configured, updates that request a sync do not each sync the journal. Instead, concurrent updates
+ * share a single sync, waiting at most the configured delay for other updates to join, and each caller blocks only until the
+ * sync covering its update has completed.
+ * </p>
  */
 public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T> {
     private static final int PARTITION_INDEX = 0;
@@ -65,6 +71,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     private final File journalsDirectory;
     protected final SerDeFactory<T> serdeFactory;
     private final SyncListener syncListener;
+    private final GroupCommitSync groupCommitSync;
     private final Set<String> recoveredSwapLocations = new HashSet<>();
 
     private final ReadWriteLock journalRWLock = new ReentrantReadWriteLock();
@@ -88,6 +95,19 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     }
 
     public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener) throws IOException {
+        this(storageDirectory, serdeFactory, syncListener, -1L);
+    }
+
+    /**
+     * @param storageDirectory the directory to write the journals and snapshot to
+     * @param serdeFactory the factory for the serializer/deserializer of records
+     * @param syncListener the listener to notify when the journal is synced to disk
+     * @param groupCommitDelayNanos the maximum number of nanoseconds that an update requesting a sync may wait for other updates to share
+     *            the sync with, or a negative number to sync the journal separately for each such update
+     * @throws IOException if unable to create the storage directory
+     */
+    public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener,
+                                         final long groupCommitDelayNanos) throws IOException {
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new IOException("Directory " + storageDirectory + " does not exist and cannot be created");
         }
@@ -109,6 +129,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
 
         this.serdeFactory = serdeFactory;
         this.syncListener = (syncListener == null) ? SyncListener.NOP_SYNC_LISTENER : syncListener;
+        this.groupCommitSync = (groupCommitDelayNanos < 0) ? null : new GroupCommitSync(groupCommitDelayNanos);
     }
 
     @Override
@@ -122,7 +143,15 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
             journal.update(records, recordLookup);
 
             if (forceSync) {
-                journal.fsync();
+                if (groupCommitSync == null) {
+                    journal.fsync();
+                } else {
+                    // The read lock prevents the journal from being rolled over until every update in the batch is durable,
+                    // so whichever thread performs the sync is syncing the journal that this update was written to.
+                    final long sequence = groupCommitSync.register();
+                    groupCommitSync.awaitDurable(sequence, this::syncJournal);
+                }
+
                 syncListener.onSync(PARTITION_INDEX);
             }
 
@@ -134,6 +163,23 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
         return PARTITION_INDEX;
     }
 
+    private void syncJournal() throws IOException {
+        journal.fsync();
+
+        // If the sync fails, the journal is poisoned rather than an Exception being thrown. Because other threads are relying
+        // on this sync, we must not let them believe that their updates are durable.
+        if (!journal.isHealthy()) {
+            throw new IOException("Failed to sync Write-Ahead Log's journal to disk at " + storageDirectory);
+        }
+    }
+
+    /**
+     * @return statistics about the syncs that have been shared between concurrent updates, or <code>null</code> if group commit is not enabled
+     */
+    public GroupCommitStatistics getGroupCommitStatistics() {
+        return groupCommitSync == null ? null : groupCommitSync.getStatistics();
+    }
+
     @Override
     public synchronized Collection<T> recoverRecords() throws IOException {
         if (recovered) {
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(value = 30)
+public class TestGroupCommitSync {
+
+    @Test
+    public void testSingleWriterSyncs() throws IOException {
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(0L);
+        final AtomicInteger syncs = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            groupCommitSync.awaitDurable(groupCommitSync.register(), syncs::incrementAndGet);
+        }
+
+        assertEquals(3, syncs.get());
+
+        final GroupCommitStatistics statistics = groupCommitSync.getStatistics();
+        assertEquals(3, statistics.getSyncCount());
+        assertEquals(3, statistics.getTransactionCount());
+        assertEquals(1, statistics.getLargestBatchSize());
+    }
+
+    @Test
+    public void testConcurrentWritersShareSync() throws Exception {
+        final int writers = 10;
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(TimeUnit.MILLISECONDS.toNanos(200L));
+        final AtomicInteger syncs = new AtomicInteger();
+        final CountDownLatch registered = new CountDownLatch(writers);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                futures.add(executor.submit(() -> {
+                    final long sequence = groupCommitSync.register();
+                    registered.countDown();
+                    registered.await();
+                    groupCommitSync.awaitDurable(sequence, syncs::incrementAndGet);
+                    return null;
+                }));
+            }
+
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every writer registered before any sync could begin, so a single sync covers all of them.
+        assertEquals(1, syncs.get());
+
+        final GroupCommitStatistics statistics = groupCommitSync.getStatistics();
+        assertEquals(1, statistics.getSyncCount());
+        assertEquals(writers, statistics.getTransactionCount());
+        assertEquals(writers, statistics.getLargestBatchSize());
+        assertTrue(statistics.getAverageWaitNanos() > 0);
+    }
+
+    @Test
+    public void testFailedSyncIsNotDurable() throws IOException {
+        final GroupCommitSync groupCommitSync = new GroupCommitSync(0L);
+
+        final long sequence = groupCommitSync.register();
+        assertThrows(IOException.class, () -> groupCommitSync.awaitDurable(sequence, () -> {
+            throw new IOException("Intentional Unit Test Exception");
+        }));
+        assertEquals(0, groupCommitSync.getStatistics().getSyncCount());
+
+        // A subsequent successful sync covers the transaction whose sync failed.
+        final AtomicInteger syncs = new AtomicInteger();
+        groupCommitSync.awaitDurable(sequence, syncs::incrementAndGet);
+        assertEquals(1, syncs.get());
+    }
+}
@@ -26,6 +26,7 @@ import org.wali.DummyRecord;
 import org.wali.DummyRecordSerde;
 import org.wali.SerDeFactory;
 import org.wali.SingletonSerDeFactory;
+import org.wali.SyncListener;
 import org.wali.UpdateType;
 import org.wali.WriteAheadRepository;
 
@@ -218,6 +219,55 @@ public class TestSequentialAccessWriteAheadLog {
         return repo;
     }
 
+    @Test
+    public void testGroupCommitUpdatesRecovered(TestInfo testInfo) throws IOException, InterruptedException {
+        final File storageDir = new File(new File("target"), testInfo.getTestMethod().get().getName());
+        deleteRecursively(storageDir);
+        assertTrue(storageDir.mkdirs());
+
+        final SerDeFactory<DummyRecord> serdeFactory = new SingletonSerDeFactory<>(new DummyRecordSerde());
+        final SequentialAccessWriteAheadLog<DummyRecord> repo = new SequentialAccessWriteAheadLog<>(storageDir, serdeFactory, SyncListener.NOP_SYNC_LISTENER,
+            TimeUnit.MILLISECONDS.toNanos(1L));
+        assertTrue(repo.recoverRecords().isEmpty());
+
+        final int numThreads = 8;
+        final int updatesPerThread = 50;
+        final List<Thread> threads = new ArrayList<>();
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < numThreads; t++) {
+            final int threadIndex = t;
+            final Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        final DummyRecord record = new DummyRecord(threadIndex + "-" + i, UpdateType.CREATE);
+                        repo.update(Collections.singleton(record), true);
+                    }
+                } catch (final Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), () -> "Updates failed: " + failures);
+
+        final GroupCommitStatistics statistics = repo.getGroupCommitStatistics();
+        assertNotNull(statistics);
+        assertEquals(numThreads * updatesPerThread, statistics.getTransactionCount());
+        assertTrue(statistics.getSyncCount() > 0);
+        assertTrue(statistics.getSyncCount() <= statistics.getTransactionCount());
+        repo.shutdown();
+
+        final SequentialAccessWriteAheadLog<DummyRecord> recoveryRepo = createRecoveryRepo(testInfo);
+        assertEquals(numThreads * updatesPerThread, recoveryRepo.recoverRecords().size());
+        recoveryRepo.shutdown();
+    }
+
     /**
      * This test is designed to update the repository in several different wants, testing CREATE, UPDATE, SWAP IN, SWAP OUT, and DELETE
      * update types, as well as testing updates with single records and with multiple records in a transaction. It also verifies that we
@@ -62,9 +62,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.IndexedValueMap;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -636,6 +638,58 @@ public class AvroTypeUtil {
             rec.put(fieldName, converted);
         }
 
+        populateDefaultValues(rec, avroSchema);
+        return rec;
+    }
+
+    /**
+     * Determines the Avro field that {@link #createAvroRecord(Record, Schema, Charset)} writes the value of each field of the given Record Schema to,
+     * so that the fields can be looked up once for all Records of a {@link RecordBatch}
+     *
+     * @param recordSchema the schema of the Records to convert
+     * @param avroSchema the Avro schema of the Avro Records to create
+     * @return the Avro field of each field of the Record Schema, by position, or <code>null</code> for a field that has no Avro field
+     */
+    public static Field[] getAvroFields(final RecordSchema recordSchema, final Schema avroSchema) {
+        final List<RecordField> recordFields = recordSchema.getFields();
+        final Field[] avroFields = new Field[recordFields.size()];
+        for (int i = 0; i < avroFields.length; i++) {
+            final RecordField recordField = recordFields.get(i);
+            final Field avroField = avroSchema.getField(recordField.getFieldName());
+            avroFields[i] = avroField == null ? lookupField(avroSchema, recordField).getRight() : avroField;
+        }
+
+        return avroFields;
+    }
+
+    /**
+     * Creates an Avro Record from the Record at the given position of the batch, in the same way that {@link #createAvroRecord(Record, Schema, Charset)}
+     * does for a Record with the same values
+     *
+     * @param batch the batch that holds the Record
+     * @param row the position of the Record in the batch
+     * @param avroFields the Avro fields of the batch's schema, as provided by {@link #getAvroFields(RecordSchema, Schema)}
+     * @param avroSchema the Avro schema of the Avro Record to create
+     * @param charset the character set to use when converting values
+     * @return the Avro Record
+     */
+    public static GenericRecord createAvroRecord(final RecordBatch batch, final int row, final Field[] avroFields, final Schema avroSchema, final Charset charset) {
+        final GenericRecord rec = new GenericData.Record(avroSchema);
+        for (int i = 0; i < avroFields.length; i++) {
+            final Field field = avroFields[i];
+            final Object rawValue = batch.getValue(row, i);
+            if (field == null || rawValue == null) {
+                continue;
+            }
+
+            rec.put(field.pos(), convertToAvroObject(rawValue, field.schema(), field.name(), charset));
+        }
+
+        populateDefaultValues(rec, avroSchema);
+        return rec;
+    }
+
+    private static void populateDefaultValues(final GenericRecord rec, final Schema avroSchema) {
         // see if the Avro schema has any fields that aren't in the RecordSchema, and if those fields have a default
         // value then we want to populate it in the GenericRecord being produced
         for (final Field field : avroSchema.getFields()) {
@@ -651,8 +705,6 @@ public class AvroTypeUtil {
                 rec.put(field.name(), normalized);
             }
         }
-
-        return rec;
     }
 
     /**
@@ -961,36 +1013,90 @@ public class AvroTypeUtil {
     }
 
     public static Map<String, Object> convertAvroRecordToMap(final GenericRecord avroRecord, final RecordSchema recordSchema, final Charset charset) {
-        final Map<String, Object> values = new HashMap<>(recordSchema.getFieldCount());
+        return convertAvroRecordToIndexedValues(avroRecord, recordSchema, null, charset);
+    }
 
-        for (final RecordField recordField : recordSchema.getFields()) {
-            final String relevantFieldName = getMatchingFieldName(avroRecord, recordField);
-            final Object value = (relevantFieldName == null) ? null : avroRecord.get(relevantFieldName);
+    /**
+     * Converts the given Avro Record into a Record whose values are held by position of the fields in the given schema
+     *
+     * @param avroRecord the Avro Record to convert
+     * @param recordSchema the schema of the Record to create
+     * @return a Record that holds the converted values of the Avro Record
+     */
+    public static Record convertAvroRecordToRecord(final GenericRecord avroRecord, final RecordSchema recordSchema) {
+        return new ArrayRecord(recordSchema, convertAvroRecordToIndexedValues(avroRecord, recordSchema, null, StandardCharsets.UTF_8));
+    }
 
-            final String fieldName = recordField.getFieldName();
-            try {
-                final Field avroField = avroRecord.getSchema().getField(relevantFieldName);
-                if (avroField == null) {
-                    values.put(fieldName, null);
-                    continue;
-                }
+    /**
+     * Converts the given Avro Record into a Record whose values are held by position of the fields in the given schema, converting only the
+     * values of the projected fields. The values of all other fields are left <code>null</code>.
+     *
+     * @param avroRecord the Avro Record to convert
+     * @param recordSchema the schema of the Record to create
+     * @param projection whether the value of each field of the schema, by position, is to be converted, or <code>null</code> to convert all fields
+     * @return a Record that holds the converted values of the Avro Record
+     */
+    public static Record convertAvroRecordToRecord(final GenericRecord avroRecord, final RecordSchema recordSchema, final boolean[] projection) {
+        return new ArrayRecord(recordSchema, convertAvroRecordToIndexedValues(avroRecord, recordSchema, projection, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converts the given Avro Record and adds its values to the given batch as a new Record
+     *
+     * @param avroRecord the Avro Record to convert
+     * @param batch the batch to add the converted values to
+     * @return the position of the new Record in the batch
+     */
+    public static int addAvroRecordToBatch(final GenericRecord avroRecord, final RecordBatch batch) {
+        final RecordSchema recordSchema = batch.getSchema();
+        final int row = batch.addRow();
+
+        final List<RecordField> recordFields = recordSchema.getFields();
+        for (int i = 0; i < recordFields.size(); i++) {
+            batch.setValue(row, i, convertAvroFieldValue(avroRecord, recordFields.get(i), StandardCharsets.UTF_8));
+        }
 
-                final Schema fieldSchema = avroField.schema();
-                final Object rawValue = normalizeValue(value, fieldSchema, fieldName);
+        return row;
+    }
 
-                final DataType desiredType = recordField.getDataType();
-                final Object coercedValue = DataTypeUtils.convertType(rawValue, desiredType, fieldName, charset);
+    private static IndexedValueMap convertAvroRecordToIndexedValues(final GenericRecord avroRecord, final RecordSchema recordSchema, final boolean[] projection,
+                                                                    final Charset charset) {
+        final IndexedValueMap values = new IndexedValueMap(recordSchema);
 
-                values.put(fieldName, coercedValue);
-            } catch (Exception ex) {
-                logger.debug("fail to convert field {}", fieldName, ex );
-                throw ex;
+        final List<RecordField> recordFields = recordSchema.getFields();
+        for (int i = 0; i < recordFields.size(); i++) {
+            if (projection != null && !projection[i]) {
+                continue;
             }
+
+            values.put(i, convertAvroFieldValue(avroRecord, recordFields.get(i), charset));
         }
 
         return values;
     }
 
+    private static Object convertAvroFieldValue(final GenericRecord avroRecord, final RecordField recordField, final Charset charset) {
+        final String relevantFieldName = getMatchingFieldName(avroRecord, recordField);
+        final Object value = (relevantFieldName == null) ? null : avroRecord.get(relevantFieldName);
+
+        final String fieldName = recordField.getFieldName();
+        try {
+            final Field avroField = avroRecord.getSchema().getField(relevantFieldName);
+            if (avroField == null) {
+                return null;
+            }
+
+            final Schema fieldSchema = avroField.schema();
+            final Object rawValue = normalizeValue(value, fieldSchema, fieldName);
+
+            final DataType desiredType = recordField.getDataType();
+            return DataTypeUtils.convertType(rawValue, desiredType, fieldName, charset);
+        } catch (Exception ex) {
+            logger.debug("fail to convert field {}", fieldName, ex );
+            throw ex;
+        }
+    }
+
     /**
      * Convert value of a nullable union field.
      * @param originalValue original value
@@ -1188,14 +1294,14 @@ public class AvroTypeUtil {
                 final GenericData.Record record = (GenericData.Record) value;
                 final Schema recordSchema = record.getSchema();
                 final List<Field> recordFields = recordSchema.getFields();
-                final Map<String, Object> values = new HashMap<>(recordFields.size());
+                final RecordSchema childSchema = createSchema(recordSchema, false);
+                final IndexedValueMap values = new IndexedValueMap(childSchema);
                 for (final Field field : recordFields) {
                     final Object avroFieldValue = record.get(field.name());
                     final Object fieldValue = normalizeValue(avroFieldValue, field.schema(), fieldName + "/" + field.name());
                     values.put(field.name(), fieldValue);
                 }
-                final RecordSchema childSchema = createSchema(recordSchema, false);
-                return new MapRecord(childSchema, values);
+                return new ArrayRecord(childSchema, values);
             case BYTES:
                 final ByteBuffer bb = (ByteBuffer) value;
                 final LogicalType logicalType = avroSchema.getLogicalType();
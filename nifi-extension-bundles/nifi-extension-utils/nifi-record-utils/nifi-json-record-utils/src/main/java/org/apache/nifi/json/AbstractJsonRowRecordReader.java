@@ -29,8 +29,9 @@ import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.IndexedValueMap;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -148,14 +149,8 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
 
     @Override
     public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
-        final JsonNode nextNode = getNextJsonNode();
+        final JsonNode nextNode = nextRecordNode();
         if (nextNode == null) {
-            if (captureFieldPredicate != null) {
-                while (jsonParser.nextToken() != null) {
-                    captureCurrentField(captureFieldPredicate);
-                }
-            }
-
             return null;
         }
 
@@ -170,6 +165,23 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
         }
     }
 
+    /**
+     * Provides the JSON Object of the next Record. Once no more Records are available, the rest of the input is read so that any
+     * fields after the Records are captured.
+     *
+     * @return the JSON Object of the next Record, or <code>null</code> if no more Records are available
+     */
+    protected JsonNode nextRecordNode() throws IOException, MalformedRecordException {
+        final JsonNode nextNode = getNextJsonNode();
+        if (nextNode == null && captureFieldPredicate != null) {
+            while (jsonParser.nextToken() != null) {
+                captureCurrentField(captureFieldPredicate);
+            }
+        }
+
+        return nextNode;
+    }
+
     protected Object getRawNodeValue(final JsonNode fieldNode, final String fieldName) throws IOException {
         return getRawNodeValue(fieldNode, null, fieldName);
     }
@@ -357,7 +369,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
 
     private Record createRecordFromRawValue(final JsonNode fieldNode, final RecordSchema childSchema) throws IOException {
         final Iterator<String> fieldNames = fieldNode.fieldNames();
-        final Map<String, Object> childValues = new LinkedHashMap<>();
+        final IndexedValueMap childValues = new IndexedValueMap(childSchema);
         while (fieldNames.hasNext()) {
             final String childFieldName = fieldNames.next();
 
@@ -367,7 +379,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
         }
 
         final SerializedForm serializedForm = SerializedForm.of(fieldNode::toString, "application/json");
-        return new MapRecord(childSchema, childValues, serializedForm);
+        return new ArrayRecord(childSchema, childValues, serializedForm);
     }
 
 
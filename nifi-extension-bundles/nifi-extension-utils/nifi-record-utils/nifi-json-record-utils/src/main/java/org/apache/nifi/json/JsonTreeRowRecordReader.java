@@ -21,11 +21,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.BatchRecordReader;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.ProjectableRecordReader;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.IndexedValueMap;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -45,12 +49,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.function.Supplier;
 
-public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
+public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader implements ProjectableRecordReader, BatchRecordReader {
 
     private final RecordSchema schema;
+    private Set<String> projectedFields;
 
     public JsonTreeRowRecordReader(
             final InputStream in,
@@ -115,7 +121,51 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
             return null;
         }
 
-        return convertJsonNodeToRecord(jsonNode, schema, fieldNamePrefix, coerceTypes, dropUnknown);
+        return convertJsonNodeToRecord(jsonNode, schema, fieldNamePrefix, coerceTypes, dropUnknown, projectedFields);
+    }
+
+    @Override
+    public int readBatch(final RecordBatch batch) throws IOException, MalformedRecordException {
+        if (batch.getSchema() != schema) {
+            throw new IllegalArgumentException("Cannot read Records into a batch whose schema is not the schema of the Record Reader");
+        }
+
+        batch.clear();
+
+        final List<RecordField> fields = schema.getFields();
+        JsonNode nextNode;
+        while (!batch.isFull() && (nextNode = nextRecordNode()) != null) {
+            try {
+                addJsonNodeToBatch(nextNode, fields, batch);
+            } catch (final MalformedRecordException mre) {
+                throw mre;
+            } catch (final Exception e) {
+                throw new MalformedRecordException("Successfully parsed a JSON object from input but failed to convert into a Record object with the given schema", e);
+            }
+        }
+
+        return batch.size();
+    }
+
+    /**
+     * Adds the values of the given JSON Object to the batch in the same way that {@link #nextRecord()} converts them, coercing types and
+     * dropping unknown fields, but without building a Record for the top-level Object
+     */
+    private void addJsonNodeToBatch(final JsonNode jsonNode, final List<RecordField> fields, final RecordBatch batch) throws IOException, MalformedRecordException {
+        final int row = batch.addRow();
+        for (int i = 0; i < fields.size(); i++) {
+            final RecordField recordField = fields.get(i);
+            if (projectedFields != null && !projectedFields.contains(recordField.getFieldName())) {
+                continue;
+            }
+
+            final JsonNode childNode = getChildNode(jsonNode, recordField);
+            if (childNode == null) {
+                continue;
+            }
+
+            batch.setValue(row, i, convertField(childNode, recordField.getFieldName(), recordField.getDataType(), true));
+        }
     }
 
     private JsonNode getChildNode(final JsonNode jsonNode, final RecordField field) {
@@ -133,9 +183,9 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
     }
 
     private Record convertJsonNodeToRecord(final JsonNode jsonNode, final RecordSchema schema, final String fieldNamePrefix,
-                                           final boolean coerceTypes, final boolean dropUnknown) throws IOException, MalformedRecordException {
+                                           final boolean coerceTypes, final boolean dropUnknown, final Set<String> projectedFields) throws IOException, MalformedRecordException {
 
-        final Map<String, Object> values = new LinkedHashMap<>(schema.getFieldCount() * 2);
+        final IndexedValueMap values = new IndexedValueMap(schema);
 
         if (dropUnknown) {
             // Delete unknown fields for updated serialized representation
@@ -150,6 +200,10 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
             }
 
             for (final RecordField recordField : schema.getFields()) {
+                if (projectedFields != null && !projectedFields.contains(recordField.getFieldName())) {
+                    continue;
+                }
+
                 final JsonNode childNode = getChildNode(jsonNode, recordField);
                 if (childNode == null) {
                     continue;
@@ -175,6 +229,9 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
                 final JsonNode childNode = jsonNode.get(fieldName);
 
                 final RecordField recordField = schema.getField(fieldName).orElse(null);
+                if (projectedFields != null && (recordField == null || !projectedFields.contains(recordField.getFieldName()))) {
+                    continue;
+                }
 
                 final Object value;
                 if (coerceTypes && recordField != null) {
@@ -189,8 +246,10 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
             }
         }
 
+        // A Record that holds only some of the fields must not carry the serialized form of the whole JSON object
         final Supplier<String> supplier = jsonNode::toString;
-        return new MapRecord(schema, values, SerializedForm.of(supplier, "application/json"), false, dropUnknown);
+        final SerializedForm serializedForm = projectedFields == null ? SerializedForm.of(supplier, "application/json") : null;
+        return new ArrayRecord(schema, values, serializedForm, false, dropUnknown);
     }
 
 
@@ -265,7 +324,7 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
                         childSchema = new SimpleRecordSchema(fields);
                     }
 
-                    return convertJsonNodeToRecord(fieldNode, childSchema, fieldName + ".", true, dropUnknown);
+                    return convertJsonNodeToRecord(fieldNode, childSchema, fieldName + ".", true, dropUnknown, null);
                 } else {
                     return null;
                 }
@@ -282,4 +341,9 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
     public RecordSchema getSchema() {
         return schema;
     }
+
+    @Override
+    public void setProjectedFields(final Set<String> fieldNames) {
+        this.projectedFields = fieldNames;
+    }
 }
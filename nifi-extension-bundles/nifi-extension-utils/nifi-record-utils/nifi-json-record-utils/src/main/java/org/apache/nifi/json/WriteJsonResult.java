@@ -26,11 +26,14 @@ import org.apache.nifi.NullSuppression;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.schema.access.SchemaAccessWriter;
 import org.apache.nifi.serialization.AbstractRecordSetWriter;
+import org.apache.nifi.serialization.BatchRecordWriter;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -46,12 +49,13 @@ import org.apache.nifi.serialization.record.util.DataTypeUtils;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 
-public class WriteJsonResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter {
+public class WriteJsonResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter, BatchRecordWriter {
     private static final FieldConverter<Object, String> STRING_FIELD_CONVERTER = StandardFieldConverterRegistry.getRegistry().getFieldConverter(String.class);
     private static final Pattern SCIENTIFIC_NOTATION_PATTERN = Pattern.compile("[0-9]([eE][-+]?)[0-9]");
 
@@ -172,6 +176,60 @@ public class WriteJsonResult extends AbstractRecordSetWriter implements RecordSe
         return WriteResult.of(incrementRecordCount(), attributes);
     }
 
+    @Override
+    public WriteResult writeBatch(final RecordBatch batch) throws IOException {
+        if (batch.getSchema() != recordSchema || !isBatchWriteSupported()) {
+            return writeRecords(batch);
+        }
+
+        // If we are not writing an active record set, then we need to ensure that we write the
+        // schema information.
+        if (!isActiveRecordSet()) {
+            generator.flush();
+            schemaAccess.writeHeader(recordSchema, getOutputStream());
+        }
+
+        final List<RecordField> fields = recordSchema.getFields();
+        final int fieldCount = fields.size();
+        for (int row = 0; row < batch.size(); row++) {
+            try {
+                generator.writeStartObject();
+
+                for (int i = 0; i < fieldCount; i++) {
+                    final RecordField field = fields.get(i);
+                    final String fieldName = field.getFieldName();
+                    final Object value = batch.getColumn(i)[row];
+                    if (value == null) {
+                        if (nullSuppression == NullSuppression.NEVER_SUPPRESS) {
+                            generator.writeNullField(fieldName);
+                        }
+
+                        continue;
+                    }
+
+                    generator.writeFieldName(fieldName);
+                    writeValue(generator, value, fieldName, field.getDataType());
+                }
+
+                generator.writeEndObject();
+            } catch (final Exception e) {
+                logger.error("Failed to write Record {} of {} with schema {} as a JSON Object", row, batch, recordSchema, e);
+                throw e;
+            }
+        }
+
+        return WriteResult.of(incrementRecordCount(batch.size()), schemaAccess.getAttributes(recordSchema));
+    }
+
+    /**
+     * In Suppress Missing Values mode, whether a null value is written depends on whether the field was present in the input data,
+     * which a batch does not hold, so Records must then be written individually
+     */
+    @Override
+    public boolean isBatchWriteSupported() {
+        return nullSuppression != NullSuppression.SUPPRESS_MISSING;
+    }
+
     private boolean isUseSerializeForm(final Record record, final RecordSchema writeSchema) {
         final Optional<SerializedForm> serializedForm = record.getSerializedForm();
         if (serializedForm.isEmpty()) {
@@ -216,9 +274,12 @@ public class WriteJsonResult extends AbstractRecordSetWriter implements RecordSe
             startTask.apply(generator);
 
             if (schemaAware) {
-                for (final RecordField field : writeSchema.getFields()) {
+                final List<RecordField> fields = writeSchema.getFields();
+                final Object[] values = ArrayRecord.getValuesByPosition(record, writeSchema);
+                for (int i = 0; i < fields.size(); i++) {
+                    final RecordField field = fields.get(i);
                     final String fieldName = field.getFieldName();
-                    final Object value = record.getValue(field);
+                    final Object value = values == null ? record.getValue(field) : values[i];
                     if (value == null) {
                         if (nullSuppression == NullSuppression.NEVER_SUPPRESS || (nullSuppression == NullSuppression.SUPPRESS_MISSING) && isFieldPresent(field, record)) {
                             generator.writeNullField(fieldName);
@@ -19,17 +19,23 @@ package org.apache.nifi.parquet.record;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.nifi.avro.AvroTypeUtil;
 import org.apache.nifi.parquet.filter.OffsetRecordFilter;
 import org.apache.nifi.parquet.shared.NifiParquetInputFile;
 import org.apache.nifi.parquet.utils.ParquetAttribute;
+import org.apache.nifi.serialization.BatchRecordReader;
+import org.apache.nifi.serialization.ProjectableRecordReader;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
+import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.parquet.avro.AvroParquetReader;
 import org.apache.parquet.filter2.compat.FilterCompat;
@@ -37,7 +43,7 @@ import org.apache.parquet.hadoop.ParquetReader;
 import org.apache.parquet.hadoop.ParquetReader.Builder;
 import org.apache.parquet.io.InputFile;
 
-public class ParquetRecordReader implements RecordReader {
+public class ParquetRecordReader implements RecordReader, ProjectableRecordReader, BatchRecordReader {
 
     private GenericRecord lastParquetRecord;
     private final RecordSchema recordSchema;
@@ -46,6 +52,7 @@ public class ParquetRecordReader implements RecordReader {
     private final ParquetReader<GenericRecord> parquetReader;
     private final Long recordsToRead;
     private long recordsRead = 0;
+    private boolean[] projection;
 
     public ParquetRecordReader(
             final InputStream inputStream,
@@ -108,8 +115,13 @@ public class ParquetRecordReader implements RecordReader {
         }
 
         // Convert the last Parquet GenericRecord to NiFi Record
-        final Map<String, Object> values = AvroTypeUtil.convertAvroRecordToMap(lastParquetRecord, recordSchema);
-        final Record record = new MapRecord(recordSchema, values);
+        final Record record;
+        if (projection == null) {
+            final Map<String, Object> values = AvroTypeUtil.convertAvroRecordToMap(lastParquetRecord, recordSchema);
+            record = new MapRecord(recordSchema, values);
+        } else {
+            record = AvroTypeUtil.convertAvroRecordToRecord(lastParquetRecord, recordSchema, projection);
+        }
 
         // Read the next record and store for next time
         lastParquetRecord = readNextRecord();
@@ -118,11 +130,50 @@ public class ParquetRecordReader implements RecordReader {
         return record;
     }
 
+    @Override
+    public int readBatch(final RecordBatch batch) throws IOException {
+        if (batch.getSchema() != recordSchema) {
+            throw new IllegalArgumentException("Cannot read Records into a batch whose schema is not the schema of the Record Reader");
+        }
+
+        batch.clear();
+
+        while (!batch.isFull() && lastParquetRecord != null) {
+            if (projection == null) {
+                AvroTypeUtil.addAvroRecordToBatch(lastParquetRecord, batch);
+            } else {
+                batch.addRecord(AvroTypeUtil.convertAvroRecordToRecord(lastParquetRecord, recordSchema, projection));
+            }
+
+            lastParquetRecord = readNextRecord();
+        }
+
+        return batch.size();
+    }
+
     @Override
     public RecordSchema getSchema() {
         return recordSchema;
     }
 
+    /**
+     * Skips converting the values of fields that are not projected. The Parquet columns themselves are still read, because the Parquet Reader
+     * is built, and the first record read to determine the schema, before the projected fields are known.
+     */
+    @Override
+    public void setProjectedFields(final Set<String> fieldNames) {
+        if (fieldNames == null) {
+            projection = null;
+            return;
+        }
+
+        final List<RecordField> recordFields = recordSchema.getFields();
+        projection = new boolean[recordFields.size()];
+        for (int i = 0; i < recordFields.size(); i++) {
+            projection[i] = fieldNames.contains(recordFields.get(i).getFieldName());
+        }
+    }
+
     @Override
     public void close() throws IOException {
         try {
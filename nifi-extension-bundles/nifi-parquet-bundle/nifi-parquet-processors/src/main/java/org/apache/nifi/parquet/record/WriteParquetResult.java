@@ -17,6 +17,7 @@
 package org.apache.nifi.parquet.record;
 
 import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.nifi.avro.AvroTypeUtil;
@@ -25,7 +26,10 @@ import org.apache.nifi.parquet.stream.NifiParquetOutputFile;
 import org.apache.nifi.parquet.utils.ParquetConfig;
 import org.apache.nifi.schema.access.SchemaAccessWriter;
 import org.apache.nifi.serialization.AbstractRecordSetWriter;
+import org.apache.nifi.serialization.BatchRecordWriter;
+import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.hadoop.ParquetWriter;
@@ -33,12 +37,13 @@ import org.apache.parquet.io.OutputFile;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 
 import static org.apache.nifi.parquet.utils.ParquetUtils.applyCommonConfig;
 
-public class WriteParquetResult extends AbstractRecordSetWriter {
+public class WriteParquetResult extends AbstractRecordSetWriter implements BatchRecordWriter {
 
     private final Schema schema;
     private final ParquetWriter<GenericRecord> parquetWriter;
@@ -67,6 +72,16 @@ public class WriteParquetResult extends AbstractRecordSetWriter {
         return Collections.emptyMap();
     }
 
+    @Override
+    public WriteResult writeBatch(final RecordBatch batch) throws IOException {
+        final Field[] avroFields = AvroTypeUtil.getAvroFields(batch.getSchema(), schema);
+        for (int row = 0; row < batch.size(); row++) {
+            parquetWriter.write(AvroTypeUtil.createAvroRecord(batch, row, avroFields, schema, StandardCharsets.UTF_8));
+        }
+
+        return WriteResult.of(incrementRecordCount(batch.size()), Collections.emptyMap());
+    }
+
     @Override
     protected Map<String, String> onFinishRecordSet() {
         return accessWriter.getAttributes(recordSchema);
@@ -20,6 +20,8 @@ import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toMap;
 import static org.apache.nifi.parquet.utils.ParquetUtils.AVRO_ADD_LIST_ELEMENT_RECORDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -30,6 +32,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.IntStream;
 import org.apache.commons.io.IOUtils;
 import org.apache.nifi.components.PropertyDescriptor;
@@ -37,9 +40,12 @@ import org.apache.nifi.controller.ConfigurationContext;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.parquet.utils.ParquetAttribute;
 import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.serialization.BatchRecordReader;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.ProjectableRecordReader;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.util.MockComponentLog;
 import org.apache.nifi.util.MockConfigurationContext;
 import org.apache.nifi.util.TestRunner;
@@ -82,6 +88,53 @@ public class TestParquetReader {
                 .forEach(i -> assertEquals(ParquetTestUtils.createUser(i), convertRecordToUser(results.get(i))));
     }
 
+    @Test
+    public void testReadUsersWithProjectedFields() throws IOException, MalformedRecordException {
+        final int numUsers = 10;
+        final File parquetFile = ParquetTestUtils.createUsersParquetFile(numUsers);
+        final byte[] parquetBytes = IOUtils.toByteArray(parquetFile.toURI());
+
+        try (final InputStream in = new ByteArrayInputStream(parquetBytes);
+                final RecordReader recordReader = parquetReaderFactory.createRecordReader(emptyMap(), in, parquetFile.length(), componentLog)) {
+
+            final ProjectableRecordReader projectableReader = assertInstanceOf(ProjectableRecordReader.class, recordReader);
+            projectableReader.setProjectedFields(Set.of("favorite_number"));
+
+            for (int i = 0; i < numUsers; i++) {
+                final Record record = recordReader.nextRecord();
+                assertEquals(i, record.getValue("favorite_number"));
+                assertNull(record.getValue("name"));
+                assertNull(record.getValue("favorite_color"));
+            }
+
+            assertNull(recordReader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testReadUsersInBatches() throws IOException, MalformedRecordException {
+        final int numUsers = 10;
+        final File parquetFile = ParquetTestUtils.createUsersParquetFile(numUsers);
+        final byte[] parquetBytes = IOUtils.toByteArray(parquetFile.toURI());
+
+        try (final InputStream in = new ByteArrayInputStream(parquetBytes);
+                final RecordReader recordReader = parquetReaderFactory.createRecordReader(emptyMap(), in, parquetFile.length(), componentLog)) {
+
+            final BatchRecordReader batchReader = assertInstanceOf(BatchRecordReader.class, recordReader);
+            final RecordBatch batch = new RecordBatch(recordReader.getSchema(), 4);
+
+            int user = 0;
+            for (final int expectedSize : new int[] {4, 4, 2}) {
+                assertEquals(expectedSize, batchReader.readBatch(batch));
+                for (int row = 0; row < expectedSize; row++) {
+                    assertEquals(ParquetTestUtils.createUser(user++), convertRecordToUser(batch.getRecord(row)));
+                }
+            }
+
+            assertEquals(0, batchReader.readBatch(batch));
+        }
+    }
+
     @Test
     public void testReadUsersPartiallyWithOffsetAndLimitedRecordCount() throws IOException, MalformedRecordException {
         final int numUsers = 1000025; // intentionally so large, to test input with many record groups
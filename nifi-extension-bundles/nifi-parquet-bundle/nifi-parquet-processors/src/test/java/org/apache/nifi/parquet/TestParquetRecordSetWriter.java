@@ -29,11 +29,13 @@ import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.schema.access.SchemaAccessUtils;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.BatchRecordWriter;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.SchemaIdentifier;
 import org.apache.nifi.util.MockComponentLog;
@@ -59,6 +61,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 
 @DisabledOnJre(value = { JRE.JAVA_25 }, disabledReason = "java.security.auth.Subject.getSubject() is not supported")
 public class TestParquetRecordSetWriter {
@@ -96,6 +99,30 @@ public class TestParquetRecordSetWriter {
         verifyParquetRecords(parquetFile);
     }
 
+    @Test
+    public void testWriteUsersInBatch() throws IOException, SchemaNotFoundException, InitializationException {
+        initRecordSetWriter(true);
+        final RecordSchema writeSchema = recordSetWriterFactory.getSchema(Collections.emptyMap(), null);
+        final File parquetFile = new File("target/testWriterUsersInBatch-" + System.currentTimeMillis());
+
+        final RecordBatch batch = new RecordBatch(writeSchema, USERS);
+        for (int i = 0; i < USERS; i++) {
+            batch.addRecord(createUserRecord(writeSchema, i));
+        }
+
+        final WriteResult writeResult;
+        try (final OutputStream output = new FileOutputStream(parquetFile);
+            final RecordSetWriter recordSetWriter = recordSetWriterFactory.createWriter(componentLog, writeSchema, output, Collections.emptyMap())) {
+            final BatchRecordWriter batchWriter = assertInstanceOf(BatchRecordWriter.class, recordSetWriter);
+            recordSetWriter.beginRecordSet();
+            batchWriter.writeBatch(batch);
+            writeResult = recordSetWriter.finishRecordSet();
+        }
+
+        assertEquals(USERS, writeResult.getRecordCount());
+        verifyParquetRecords(parquetFile);
+    }
+
     private void initRecordSetWriter(final boolean writeSchemaNameStrategy) throws IOException, InitializationException {
         final TestRunner runner = TestRunners.newTestRunner(new AbstractProcessor() {
             @Override
@@ -122,13 +149,7 @@ public class TestParquetRecordSetWriter {
             final RecordSetWriter recordSetWriter = recordSetWriterFactory.createWriter(componentLog, writeSchema, output, Collections.emptyMap())) {
             recordSetWriter.beginRecordSet();
             for (int i = 0; i < USERS; i++) {
-                final Map<String, Object> userFields = new HashMap<>();
-                userFields.put("name", "user" + i);
-                userFields.put("favorite_number", i);
-                userFields.put("favorite_color", "blue");
-
-                final Record userRecord = new MapRecord(writeSchema, userFields);
-                recordSetWriter.write(userRecord);
+                recordSetWriter.write(createUserRecord(writeSchema, i));
             }
 
             recordSetWriter.flush();
@@ -137,6 +158,14 @@ public class TestParquetRecordSetWriter {
         return writeResult;
     }
 
+    private Record createUserRecord(final RecordSchema writeSchema, final int user) {
+        final Map<String, Object> userFields = new HashMap<>();
+        userFields.put("name", "user" + user);
+        userFields.put("favorite_number", user);
+        userFields.put("favorite_color", "blue");
+        return new MapRecord(writeSchema, userFields);
+    }
+
     private void verifyParquetRecords(final File parquetFile) throws IOException {
         final Configuration conf = new Configuration();
         final Path path = new Path(parquetFile.getPath());
@@ -28,6 +28,8 @@ import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.BatchRecordReader;
+import org.apache.nifi.serialization.BatchRecordWriter;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordReaderFactory;
@@ -35,8 +37,10 @@ import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +49,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractRecordProcessor extends AbstractProcessor {
 
+    private static final int RECORD_BATCH_SIZE = 1024;
+
     static final PropertyDescriptor RECORD_READER = new PropertyDescriptor.Builder()
         .name("Record Reader")
         .description("Specifies the Controller Service to use for reading incoming data")
@@ -126,6 +132,29 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
 
                 try (final RecordReader reader = readerFactory.createRecordReader(originalAttributes, in, original.getSize(), getLogger())) {
 
+                    // If the Records are not transformed, and the Record Reader is able to read batches of Records, the Records can be passed
+                    // to the Record Writer in batches, without creating a Record object for each of them if the Writer is able to write batches.
+                    if (!isRecordTransformed() && reader instanceof final BatchRecordReader batchReader) {
+                        final RecordSchema readSchema = reader.getSchema();
+                        final RecordSchema writeSchema = writerFactory.getSchema(originalAttributes, readSchema);
+                        try (final RecordSetWriter writer = writerFactory.createWriter(getLogger(), writeSchema, out, originalAttributes)) {
+                            writer.beginRecordSet();
+
+                            if (writer instanceof final BatchRecordWriter batchWriter && batchWriter.isBatchWriteSupported()) {
+                                final RecordBatch batch = new RecordBatch(readSchema, RECORD_BATCH_SIZE);
+                                while (batchReader.readBatch(batch) > 0) {
+                                    batchWriter.writeBatch(batch);
+                                }
+                            } else {
+                                writeRecords(reader, writer, original, context, 0L);
+                            }
+
+                            finishRecordSet(writer, attributes, recordCount);
+                        }
+
+                        return;
+                    }
+
                     // Get the first record and process it before we create the Record Writer. We do this so that if the Processor
                     // updates the Record's schema, we can provide an updated schema to the Record Writer. If there are no records,
                     // then we can simply create the Writer with the Reader's schema and begin & end the Record Set.
@@ -134,12 +163,7 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
                         final RecordSchema writeSchema = writerFactory.getSchema(originalAttributes, reader.getSchema());
                         try (final RecordSetWriter writer = writerFactory.createWriter(getLogger(), writeSchema, out, originalAttributes)) {
                             writer.beginRecordSet();
-
-                            final WriteResult writeResult = writer.finishRecordSet();
-                            attributes.put("record.count", String.valueOf(writeResult.getRecordCount()));
-                            attributes.put(CoreAttributes.MIME_TYPE.key(), writer.getMimeType());
-                            attributes.putAll(writeResult.getAttributes());
-                            recordCount.set(writeResult.getRecordCount());
+                            finishRecordSet(writer, attributes, recordCount);
                         }
 
                         return;
@@ -152,19 +176,8 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
                         writer.beginRecordSet();
 
                         writer.write(firstRecord);
-
-                        Record record;
-                        long count = 1L;
-                        while ((record = reader.nextRecord()) != null) {
-                            final Record processed = AbstractRecordProcessor.this.process(record, original, context, ++count);
-                            writer.write(processed);
-                        }
-
-                        final WriteResult writeResult = writer.finishRecordSet();
-                        attributes.put("record.count", String.valueOf(writeResult.getRecordCount()));
-                        attributes.put(CoreAttributes.MIME_TYPE.key(), writer.getMimeType());
-                        attributes.putAll(writeResult.getAttributes());
-                        recordCount.set(writeResult.getRecordCount());
+                        writeRecords(reader, writer, original, context, 1L);
+                        finishRecordSet(writer, attributes, recordCount);
                     }
                 } catch (final SchemaNotFoundException e) {
                     throw new ProcessException(e.getLocalizedMessage(), e);
@@ -199,5 +212,39 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
         getLogger().info("Successfully converted {} records for {}", count, flowFile);
     }
 
+    /**
+     * Processes and writes each remaining Record of the given Record Reader
+     *
+     * @param count the number of Records that have already been read
+     */
+    private void writeRecords(final RecordReader reader, final RecordSetWriter writer, final FlowFile flowFile, final ProcessContext context, final long count)
+            throws IOException, MalformedRecordException {
+        Record record;
+        long recordIndex = count;
+        while ((record = reader.nextRecord()) != null) {
+            final Record processed = process(record, flowFile, context, ++recordIndex);
+            writer.write(processed);
+        }
+    }
+
+    private void finishRecordSet(final RecordSetWriter writer, final Map<String, String> attributes, final AtomicInteger recordCount) throws IOException {
+        final WriteResult writeResult = writer.finishRecordSet();
+        attributes.put("record.count", String.valueOf(writeResult.getRecordCount()));
+        attributes.put(CoreAttributes.MIME_TYPE.key(), writer.getMimeType());
+        attributes.putAll(writeResult.getAttributes());
+        recordCount.set(writeResult.getRecordCount());
+    }
+
+    /**
+     * Indicates whether {@link #process(Record, FlowFile, ProcessContext, long)} may return a Record other than the given Record or modify the given
+     * Record. If not, the Records may be passed from the Record Reader to the Record Writer in batches, without calling
+     * {@link #process(Record, FlowFile, ProcessContext, long)} for each of them.
+     *
+     * @return <code>true</code> if Records may be transformed, <code>false</code> if every Record is written unchanged
+     */
+    protected boolean isRecordTransformed() {
+        return true;
+    }
+
     protected abstract Record process(Record record, FlowFile flowFile, ProcessContext context, long count);
 }
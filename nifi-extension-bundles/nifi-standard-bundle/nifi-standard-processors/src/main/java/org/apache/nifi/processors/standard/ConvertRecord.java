@@ -64,6 +64,11 @@ public class ConvertRecord extends AbstractRecordProcessor {
         return Collections.unmodifiableList(properties);
     }
 
+    @Override
+    protected boolean isRecordTransformed() {
+        return false;
+    }
+
     @Override
     protected Record process(final Record record, final FlowFile flowFile, final ProcessContext context, final long count) {
         return record;
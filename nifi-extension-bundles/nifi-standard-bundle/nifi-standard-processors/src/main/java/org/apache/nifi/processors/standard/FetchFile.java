@@ -34,6 +34,7 @@ import org.apache.nifi.components.ValidationContext;
 import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.expression.ExpressionLanguageScope;
 import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.logging.LogLevel;
 import org.apache.nifi.migration.PropertyConfiguration;
 import org.apache.nifi.processor.AbstractProcessor;
@@ -46,7 +47,6 @@ import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.util.StopWatch;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.CopyOption;
 import java.nio.file.Files;
@@ -315,11 +315,14 @@ public class FetchFile extends AbstractProcessor {
             }
         }
 
-        // import content from file system
-        try (final FileInputStream fis = new FileInputStream(file)) {
-            flowFile = session.importFrom(fis, flowFile);
-        } catch (final IOException | FlowFileAccessException ioe) {
-            getLogger().error("Could not fetch file {} from file system for {}", file, flowFile, ioe);
+        // import content from file system. Importing from the Path, rather than from a stream, allows the content repository to
+        // transfer the bytes directly from the file. The source file is kept, as the Completion Strategy is performed after commit.
+        final String originalFilename = flowFile.getAttribute(CoreAttributes.FILENAME.key());
+        try {
+            flowFile = session.importFrom(file.toPath(), true, flowFile);
+            flowFile = session.putAttribute(flowFile, CoreAttributes.FILENAME.key(), originalFilename);
+        } catch (final FlowFileAccessException e) {
+            getLogger().error("Could not fetch file {} from file system for {}", file, flowFile, e);
             session.transfer(session.penalize(flowFile), REL_FAILURE);
             return;
         }
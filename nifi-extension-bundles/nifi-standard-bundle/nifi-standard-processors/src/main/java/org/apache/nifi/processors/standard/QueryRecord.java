@@ -44,11 +44,13 @@ import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.migration.PropertyConfiguration;
 import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processors.standard.calcite.RecordPathFunctions;
 import org.apache.nifi.processors.standard.calcite.RecordResultSetOutputStreamCallback;
 import org.apache.nifi.queryrecord.RecordDataSource;
@@ -57,9 +59,11 @@ import org.apache.nifi.serialization.RecordReaderFactory;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.sql.BufferedDataSource;
 import org.apache.nifi.sql.CalciteDatabase;
 import org.apache.nifi.sql.NiFiTable;
 import org.apache.nifi.sql.NiFiTableSchema;
+import org.apache.nifi.sql.ResettableDataSource;
 import org.apache.nifi.util.StopWatch;
 import org.apache.nifi.util.StringUtils;
 import org.apache.nifi.util.Tuple;
@@ -215,11 +219,24 @@ public class QueryRecord extends AbstractProcessor {
         .defaultValue("true")
         .required(true)
         .build();
+    static final PropertyDescriptor MAX_BUFFERED_INPUT_SIZE = new PropertyDescriptor.Builder()
+        .name("Max Buffered Input Size")
+        .description("When more than one SQL query is configured, the records of a FlowFile are parsed once and held in memory so that every query can read them "
+            + "without parsing the FlowFile again. This property specifies the largest FlowFile whose records will be held in memory. The records of a larger "
+            + "FlowFile are read and parsed once for each query instead. Parsed records typically occupy several times more heap than the size of the FlowFile, "
+            + "particularly for compressed formats such as Avro or Parquet, so this value should be set with the available heap and the number of Concurrent Tasks "
+            + "in mind. A value of 0 B disables buffering.")
+        .expressionLanguageSupported(ExpressionLanguageScope.NONE)
+        .addValidator(StandardValidators.DATA_SIZE_VALIDATOR)
+        .defaultValue("10 MB")
+        .required(true)
+        .build();
 
     private static final List<PropertyDescriptor> PROPERTY_DESCRIPTORS = List.of(
             RECORD_READER_FACTORY,
             RECORD_WRITER_FACTORY,
             INCLUDE_ZERO_RECORD_FLOWFILES,
+            MAX_BUFFERED_INPUT_SIZE,
             DEFAULT_PRECISION,
             DEFAULT_SCALE
     );
@@ -354,6 +371,7 @@ public class QueryRecord extends AbstractProcessor {
 
         // Determine the schema for writing the data
         final Map<String, String> originalAttributes = original.getAttributes();
+        final ResettableDataSource dataSource = createDataSource(context, session, original, readerSchema, recordReaderFactory);
         int recordsRead = 0;
 
         try {
@@ -372,7 +390,7 @@ public class QueryRecord extends AbstractProcessor {
 
                 try {
                     final String sql = context.getProperty(descriptor).evaluateAttributeExpressions(original).getValue();
-                    final QueryResult queryResult = query(session, original, readerSchema, sql, recordReaderFactory);
+                    final QueryResult queryResult = query(readerSchema, sql, dataSource);
 
                     final ResultSet rs = queryResult.getResultSet();
                     final RecordResultSetOutputStreamCallback writer = new RecordResultSetOutputStreamCallback(getLogger(),
@@ -446,6 +464,28 @@ public class QueryRecord extends AbstractProcessor {
     }
 
 
+    /**
+     * Creates the source of the records that the queries are run against. Every query reads the same records, so if there is more than one query,
+     * the records are buffered in memory while the first query reads them, so that the other queries do not need to read and parse the FlowFile
+     * again. The FlowFile is read again for each query if it is larger than the configured Max Buffered Input Size.
+     */
+    private ResettableDataSource createDataSource(final ProcessContext context, final ProcessSession session, final FlowFile flowFile, final RecordSchema schema,
+                                                  final RecordReaderFactory recordReaderFactory) {
+        final RecordDataSource recordDataSource = new RecordDataSource(schema, session, flowFile, recordReaderFactory, getLogger());
+
+        final long queryCount = context.getProperties().keySet().stream()
+            .filter(PropertyDescriptor::isDynamic)
+            .count();
+
+        final double maxBufferedInputSize = context.getProperty(MAX_BUFFERED_INPUT_SIZE).asDataSize(DataUnit.B);
+        if (queryCount < 2 || flowFile.getSize() > maxBufferedInputSize) {
+            return recordDataSource;
+        }
+
+        // The size of the FlowFile bounds the memory held by the buffer, so the buffer itself does not limit the number of rows
+        return new BufferedDataSource(recordDataSource, Integer.MAX_VALUE);
+    }
+
     private synchronized CachedStatement getStatement(final String sql, final RecordSchema schema, final Supplier<CachedStatement> statementBuilder) {
         final Tuple<String, RecordSchema> tuple = new Tuple<>(sql, schema);
         final BlockingQueue<CachedStatement> statementQueue = statementQueues.get(tuple, key -> new LinkedBlockingQueue<>());
@@ -474,15 +514,14 @@ public class QueryRecord extends AbstractProcessor {
     }
 
 
-    private QueryResult query(final ProcessSession session, final FlowFile flowFile, final RecordSchema schema, final String sql, final RecordReaderFactory recordReaderFactory)
-                throws SQLException {
+    private QueryResult query(final RecordSchema schema, final String sql, final ResettableDataSource dataSource) throws SQLException {
 
         final Supplier<CachedStatement> statementBuilder = () -> buildCachedStatement(sql, schema);
 
         final CachedStatement cachedStatement = getStatement(sql, schema, statementBuilder);
         final PreparedStatement stmt = cachedStatement.statement();
         final NiFiTable table = cachedStatement.table();
-        table.setDataSource(new RecordDataSource(schema, session, flowFile, recordReaderFactory, getLogger()));
+        table.setDataSource(dataSource);
 
         final ResultSet rs;
         try {
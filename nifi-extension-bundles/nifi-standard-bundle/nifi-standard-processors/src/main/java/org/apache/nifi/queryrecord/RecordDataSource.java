@@ -20,6 +20,7 @@ package org.apache.nifi.queryrecord;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.serialization.ProjectableRecordReader;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordReaderFactory;
 import org.apache.nifi.serialization.record.DataType;
@@ -31,6 +32,7 @@ import org.apache.nifi.serialization.record.type.ArrayDataType;
 import org.apache.nifi.serialization.record.type.ChoiceDataType;
 import org.apache.nifi.serialization.record.type.MapDataType;
 import org.apache.nifi.sql.ArrayType;
+import org.apache.nifi.sql.ColumnPredicate;
 import org.apache.nifi.sql.ColumnSchema;
 import org.apache.nifi.sql.ColumnType;
 import org.apache.nifi.sql.MapType;
@@ -42,7 +44,9 @@ import org.apache.nifi.sql.ScalarType;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class RecordDataSource implements ResettableDataSource {
     private final NiFiTableSchema tableSchema;
@@ -67,6 +71,29 @@ public class RecordDataSource implements ResettableDataSource {
 
     @Override
     public RowStream reset() throws IOException {
+        return createRowStream(null, List.of());
+    }
+
+    @Override
+    public RowStream reset(final int[] columns, final List<ColumnPredicate> predicates) throws IOException {
+        if (columns == null) {
+            return createRowStream(null, predicates);
+        }
+
+        // The columns that the predicates are evaluated against must be read, as well as the columns that the query needs
+        final List<ColumnSchema> tableColumns = tableSchema.columns();
+        final Set<String> projectedFields = new HashSet<>();
+        for (final int column : columns) {
+            projectedFields.add(tableColumns.get(column).getName());
+        }
+        for (final ColumnPredicate predicate : predicates) {
+            projectedFields.add(tableColumns.get(predicate.getColumn()).getName());
+        }
+
+        return createRowStream(projectedFields, predicates);
+    }
+
+    private RowStream createRowStream(final Set<String> projectedFields, final List<ColumnPredicate> predicates) throws IOException {
         final InputStream in = session.read(flowFile);
         final RecordReader reader;
         try {
@@ -76,9 +103,15 @@ public class RecordDataSource implements ResettableDataSource {
             throw new IOException(e);
         }
 
+        if (projectedFields != null && reader instanceof ProjectableRecordReader projectableReader) {
+            projectableReader.setProjectedFields(projectedFields);
+        }
+
         final RecordSet recordSet = reader.createRecordSet();
 
         return new RowStream() {
+            private int rowsSkipped = 0;
+
             @Override
             public void close() throws IOException {
                 reader.close();
@@ -86,12 +119,36 @@ public class RecordDataSource implements ResettableDataSource {
 
             @Override
             public Object[] nextRow() throws IOException {
-                final Record record = recordSet.next();
-                return record == null ? null : record.getValues();
+                Record record;
+                while ((record = recordSet.next()) != null) {
+                    final Object[] row = record.getValues();
+                    if (matches(row, predicates)) {
+                        return row;
+                    }
+
+                    rowsSkipped++;
+                }
+
+                return null;
+            }
+
+            @Override
+            public int getRowsSkipped() {
+                return rowsSkipped;
             }
         };
     }
 
+    private static boolean matches(final Object[] row, final List<ColumnPredicate> predicates) {
+        for (final ColumnPredicate predicate : predicates) {
+            if (!predicate.test(row)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static NiFiTableSchema createTableSchema(final RecordSchema recordSchema) {
         final List<ColumnSchema> columns = new ArrayList<>();
 
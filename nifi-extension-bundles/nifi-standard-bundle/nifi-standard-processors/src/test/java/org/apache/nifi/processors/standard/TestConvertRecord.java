@@ -17,8 +17,13 @@
 
 package org.apache.nifi.processors.standard;
 
+import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.nifi.avro.AvroReader;
 import org.apache.nifi.avro.AvroRecordSetWriter;
 import org.apache.nifi.avro.NonCachingDatumReader;
 import org.apache.nifi.csv.CSVReader;
@@ -60,6 +65,17 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class TestConvertRecord {
 
     private static final String PERSON_SCHEMA;
+    private static final String ACCOUNT_SCHEMA = """
+            {
+              "type": "record",
+              "name": "account",
+              "fields": [
+                { "name": "id", "type": "int" },
+                { "name": "name", "type": ["null", "string"] },
+                { "name": "balance", "type": "double" }
+              ]
+            }
+            """;
     private static final String READER_ID = "reader";
     private static final String WRITER_ID = "writer";
     private TestRunner runner;
@@ -337,6 +353,92 @@ public class TestConvertRecord {
         assertEquals(expected, new String(flowFile.toByteArray()));
     }
 
+    @Test
+    public void testFastCSVToCSV() throws InitializationException {
+        final CSVReader csvReader = new CSVReader();
+        runner.addControllerService(READER_ID, csvReader);
+        runner.setProperty(csvReader, CSVReader.CSV_PARSER, CSVReader.FAST_CSV);
+        runner.setProperty(csvReader, SchemaAccessUtils.SCHEMA_ACCESS_STRATEGY, SchemaAccessUtils.SCHEMA_TEXT_PROPERTY);
+        runner.setProperty(csvReader, SchemaAccessUtils.SCHEMA_TEXT, ACCOUNT_SCHEMA);
+        runner.setProperty(csvReader, CSVUtils.FIRST_LINE_IS_HEADER, "true");
+        runner.enableControllerService(csvReader);
+
+        final CSVRecordSetWriter csvWriter = new CSVRecordSetWriter();
+        runner.addControllerService(WRITER_ID, csvWriter);
+        runner.enableControllerService(csvWriter);
+
+        runner.setProperty(ConvertRecord.RECORD_READER, READER_ID);
+        runner.setProperty(ConvertRecord.RECORD_WRITER, WRITER_ID);
+
+        // Enough Records for several batches, the last of which is not full
+        final String accounts = createAccountsCsv(2500);
+        runner.enqueue(accounts);
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ConvertRecord.REL_SUCCESS, 1);
+        final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ConvertRecord.REL_SUCCESS).getFirst();
+        flowFile.assertAttributeEquals("record.count", "2500");
+        flowFile.assertAttributeEquals("mime.type", "text/csv");
+        flowFile.assertContentEquals(accounts);
+    }
+
+    @Test
+    public void testAvroToCSV() throws InitializationException, IOException {
+        final Schema avroSchema = new Schema.Parser().parse(ACCOUNT_SCHEMA);
+        final ByteArrayOutputStream avroContent = new ByteArrayOutputStream();
+        try (final DataFileWriter<GenericRecord> dataFileWriter = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(avroSchema))) {
+            dataFileWriter.create(avroSchema, avroContent);
+            for (int i = 0; i < 2500; i++) {
+                final GenericRecord account = new GenericData.Record(avroSchema);
+                account.put("id", i);
+                account.put("name", i % 10 == 0 ? null : "Account " + i);
+                account.put("balance", i + 0.5D);
+                dataFileWriter.append(account);
+            }
+        }
+
+        final AvroReader avroReader = new AvroReader();
+        runner.addControllerService(READER_ID, avroReader);
+        runner.enableControllerService(avroReader);
+
+        final CSVRecordSetWriter csvWriter = new CSVRecordSetWriter();
+        runner.addControllerService(WRITER_ID, csvWriter);
+        runner.enableControllerService(csvWriter);
+
+        runner.setProperty(ConvertRecord.RECORD_READER, READER_ID);
+        runner.setProperty(ConvertRecord.RECORD_WRITER, WRITER_ID);
+
+        runner.enqueue(avroContent.toByteArray());
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ConvertRecord.REL_SUCCESS, 1);
+        final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ConvertRecord.REL_SUCCESS).getFirst();
+        flowFile.assertAttributeEquals("record.count", "2500");
+        flowFile.assertContentEquals(createAccountsCsv(2500));
+    }
+
+    @Test
+    public void testJSONToJSONSuppressingNulls() throws InitializationException {
+        final String accounts = """
+                [{"id":1,"name":null,"balance":1.5},{"id":2,"balance":2.5,"unknown":true}]""";
+
+        final MockFlowFile flowFile = convertAccountsJson(accounts, JsonRecordSetWriter.ALWAYS_SUPPRESS.getValue());
+        flowFile.assertAttributeEquals("record.count", "2");
+        flowFile.assertContentEquals("""
+                [{"id":1,"balance":1.5},{"id":2,"balance":2.5}]""");
+    }
+
+    @Test
+    public void testJSONToJSONSuppressingMissingValues() throws InitializationException {
+        // Whether a null value is written depends on whether the field is present in the input, so the Records are not passed in batches
+        final String accounts = """
+                [{"id":1,"name":null,"balance":1.5},{"id":2,"balance":2.5}]""";
+
+        final MockFlowFile flowFile = convertAccountsJson(accounts, JsonRecordSetWriter.SUPPRESS_MISSING.getValue());
+        flowFile.assertAttributeEquals("record.count", "2");
+        flowFile.assertContentEquals(accounts);
+    }
+
     @Test
     public void testJSONLongToInt() throws InitializationException, IOException {
         final JsonTreeReader jsonReader = new JsonTreeReader();
@@ -568,4 +670,34 @@ public class TestConvertRecord {
         final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ConvertRecord.REL_SUCCESS).getFirst();
         flowFile.assertContentEquals(expectedContent);
     }
+
+    private MockFlowFile convertAccountsJson(final String accounts, final String suppressNulls) throws InitializationException {
+        final JsonTreeReader jsonReader = new JsonTreeReader();
+        runner.addControllerService(READER_ID, jsonReader);
+        runner.setProperty(jsonReader, SchemaAccessUtils.SCHEMA_ACCESS_STRATEGY, SchemaAccessUtils.SCHEMA_TEXT_PROPERTY);
+        runner.setProperty(jsonReader, SchemaAccessUtils.SCHEMA_TEXT, ACCOUNT_SCHEMA);
+        runner.enableControllerService(jsonReader);
+
+        final JsonRecordSetWriter jsonWriter = new JsonRecordSetWriter();
+        runner.addControllerService(WRITER_ID, jsonWriter);
+        runner.setProperty(jsonWriter, JsonRecordSetWriter.SUPPRESS_NULLS, suppressNulls);
+        runner.enableControllerService(jsonWriter);
+
+        runner.setProperty(ConvertRecord.RECORD_READER, READER_ID);
+        runner.setProperty(ConvertRecord.RECORD_WRITER, WRITER_ID);
+
+        runner.enqueue(accounts);
+        runner.run();
+
+        runner.assertAllFlowFilesTransferred(ConvertRecord.REL_SUCCESS, 1);
+        return runner.getFlowFilesForRelationship(ConvertRecord.REL_SUCCESS).getFirst();
+    }
+
+    private static String createAccountsCsv(final int accountCount) {
+        final StringBuilder csv = new StringBuilder("id,name,balance\n");
+        for (int i = 0; i < accountCount; i++) {
+            csv.append(i).append(',').append(i % 10 == 0 ? "" : "Account " + i).append(',').append(i + 0.5D).append('\n');
+        }
+        return csv.toString();
+    }
 }
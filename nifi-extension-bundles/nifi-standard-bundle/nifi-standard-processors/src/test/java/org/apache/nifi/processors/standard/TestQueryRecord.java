@@ -30,6 +30,7 @@ import org.apache.nifi.json.JsonTreeReader;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.schema.access.SchemaAccessUtils;
+import org.apache.nifi.schema.access.SchemaNotFoundException;
 import org.apache.nifi.schema.inference.SchemaInferenceUtil;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordSetWriter;
@@ -54,6 +55,7 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
@@ -65,6 +67,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -1161,6 +1164,89 @@ public class TestQueryRecord {
         out.assertContentEquals("\"NAME\",\"POINTS\"\n\"100\",\"90.75\"\n");
     }
 
+    @Test
+    public void testMultipleQueriesParseFlowFileOnce() throws InitializationException {
+        final CountingRecordParser parser = createCountingParser();
+        final TestRunner runner = createMultipleQueryRunner(parser);
+
+        runner.enqueue("id,amount");
+        runner.run();
+
+        assertMultipleQueryResults(runner);
+
+        // Once to determine the schema and once for the first query; the second query reads the buffered records
+        assertEquals(2, parser.getReaderCount());
+    }
+
+    @Test
+    public void testMultipleQueriesParseFlowFileForEachQueryWhenLargerThanBuffer() throws InitializationException {
+        final CountingRecordParser parser = createCountingParser();
+        final TestRunner runner = createMultipleQueryRunner(parser);
+        runner.setProperty(QueryRecord.MAX_BUFFERED_INPUT_SIZE, "4 B");
+
+        runner.enqueue("id,amount");
+        runner.run();
+
+        assertMultipleQueryResults(runner);
+        assertEquals(3, parser.getReaderCount());
+    }
+
+    @Test
+    public void testRecordsReadIncludesRecordsNotSelected() throws InitializationException {
+        final CountingRecordParser parser = createCountingParser();
+        final MockRecordWriter writer = new MockRecordWriter("\"ID\"");
+
+        final TestRunner runner = getRunner();
+        runner.addControllerService("parser", parser);
+        runner.enableControllerService(parser);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(writer);
+
+        runner.setProperty(REL_NAME, "select ID from FLOWFILE where AMOUNT >= 25");
+        runner.setProperty(QueryRecord.RECORD_READER_FACTORY, "parser");
+        runner.setProperty(QueryRecord.RECORD_WRITER_FACTORY, "writer");
+
+        runner.enqueue(new byte[0]);
+        runner.run();
+
+        runner.assertTransferCount(REL_NAME, 1);
+        runner.getFlowFilesForRelationship(REL_NAME).get(0).assertContentEquals("\"ID\"\n\"3\"\n");
+        assertEquals(3L, runner.getCounterValue("Records Read"));
+        assertEquals(1L, runner.getCounterValue("Records Written"));
+    }
+
+    private CountingRecordParser createCountingParser() {
+        final CountingRecordParser parser = new CountingRecordParser();
+        parser.addSchemaField("ID", RecordFieldType.INT);
+        parser.addSchemaField("AMOUNT", RecordFieldType.INT);
+        parser.addRecord(1, 10);
+        parser.addRecord(2, 20);
+        parser.addRecord(3, 30);
+        return parser;
+    }
+
+    private TestRunner createMultipleQueryRunner(final CountingRecordParser parser) throws InitializationException {
+        final MockRecordWriter writer = new MockRecordWriter("\"ID\"");
+
+        final TestRunner runner = getRunner();
+        runner.addControllerService("parser", parser);
+        runner.enableControllerService(parser);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(writer);
+
+        runner.setProperty("small", "select ID from FLOWFILE where AMOUNT < 25");
+        runner.setProperty("large", "select ID from FLOWFILE where AMOUNT >= 25");
+        runner.setProperty(QueryRecord.RECORD_READER_FACTORY, "parser");
+        runner.setProperty(QueryRecord.RECORD_WRITER_FACTORY, "writer");
+        return runner;
+    }
+
+    private void assertMultipleQueryResults(final TestRunner runner) {
+        runner.assertTransferCount(QueryRecord.REL_ORIGINAL, 1);
+        runner.getFlowFilesForRelationship("small").get(0).assertContentEquals("\"ID\"\n\"1\"\n\"2\"\n");
+        runner.getFlowFilesForRelationship("large").get(0).assertContentEquals("\"ID\"\n\"3\"\n");
+    }
+
     @Test
     public void testHandlingWithInvalidSchema() throws InitializationException {
         final MockRecordParser parser = new MockRecordParser();
@@ -1405,6 +1491,21 @@ public class TestQueryRecord {
         }
     }
 
+    private static class CountingRecordParser extends MockRecordParser {
+        private final AtomicInteger readerCount = new AtomicInteger();
+
+        @Override
+        public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final long inputLength, final ComponentLog logger)
+                throws IOException, SchemaNotFoundException {
+            readerCount.incrementAndGet();
+            return super.createRecordReader(variables, in, inputLength, logger);
+        }
+
+        int getReaderCount() {
+            return readerCount.get();
+        }
+    }
+
     private static class ResultSetValidatingRecordWriter extends AbstractControllerService implements RecordSetWriterFactory {
         private final List<String> columnNames;
 
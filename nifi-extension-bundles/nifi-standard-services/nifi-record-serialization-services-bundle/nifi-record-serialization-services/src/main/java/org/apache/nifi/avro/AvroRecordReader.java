@@ -18,19 +18,32 @@
 package org.apache.nifi.avro;
 
 import org.apache.avro.generic.GenericRecord;
+import org.apache.nifi.serialization.BatchRecordReader;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.ProjectableRecordReader;
 import org.apache.nifi.serialization.RecordReader;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
+import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.List;
+import java.util.Set;
 
-public abstract class AvroRecordReader implements RecordReader {
+public abstract class AvroRecordReader implements RecordReader, BatchRecordReader, ProjectableRecordReader {
+
+    private Set<String> projectedFields;
+    private boolean[] projection;
 
     protected abstract GenericRecord nextAvroRecord() throws IOException;
 
+    @Override
+    public void setProjectedFields(final Set<String> fieldNames) {
+        this.projectedFields = fieldNames;
+        this.projection = null;
+    }
+
     @Override
     public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
         try {
@@ -40,12 +53,47 @@ public abstract class AvroRecordReader implements RecordReader {
             }
 
             final RecordSchema schema = getSchema();
-            final Map<String, Object> values = AvroTypeUtil.convertAvroRecordToMap(record, schema);
-            return new MapRecord(schema, values);
+            if (projectedFields != null && projection == null) {
+                projection = createProjection(schema, projectedFields);
+            }
+
+            return AvroTypeUtil.convertAvroRecordToRecord(record, schema, projection);
         } catch (IOException | MalformedRecordException e) {
             throw e;
         } catch (Exception e) {
             throw new MalformedRecordException("Error while getting next record", e);
         }
     }
+
+    private static boolean[] createProjection(final RecordSchema schema, final Set<String> fieldNames) {
+        final List<RecordField> recordFields = schema.getFields();
+        final boolean[] projection = new boolean[recordFields.size()];
+        for (int i = 0; i < recordFields.size(); i++) {
+            projection[i] = fieldNames.contains(recordFields.get(i).getFieldName());
+        }
+        return projection;
+    }
+
+    @Override
+    public int readBatch(final RecordBatch batch) throws IOException, MalformedRecordException {
+        final RecordSchema schema = getSchema();
+        if (batch.getSchema() != schema) {
+            throw new IllegalArgumentException("Cannot read Records into a batch whose schema is not the schema of the Record Reader");
+        }
+
+        batch.clear();
+
+        try {
+            GenericRecord record;
+            while (!batch.isFull() && (record = nextAvroRecord()) != null) {
+                AvroTypeUtil.addAvroRecordToBatch(record, batch);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MalformedRecordException("Error while getting next batch of records", e);
+        }
+
+        return batch.size();
+    }
 }
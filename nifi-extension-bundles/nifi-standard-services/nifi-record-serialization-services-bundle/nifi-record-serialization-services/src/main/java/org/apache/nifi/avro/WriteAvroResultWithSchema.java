@@ -19,18 +19,23 @@ package org.apache.nifi.avro;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 
 import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
 import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.nifi.serialization.AbstractRecordSetWriter;
+import org.apache.nifi.serialization.BatchRecordWriter;
+import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 
-public class WriteAvroResultWithSchema extends AbstractRecordSetWriter {
+public class WriteAvroResultWithSchema extends AbstractRecordSetWriter implements BatchRecordWriter {
 
     private final DataFileWriter<GenericRecord> dataFileWriter;
     private final Schema schema;
@@ -58,12 +63,26 @@ public class WriteAvroResultWithSchema extends AbstractRecordSetWriter {
     @Override
     public Map<String, String> writeRecord(final Record record) throws IOException {
         final GenericRecord rec = AvroTypeUtil.createAvroRecord(record, schema);
+        append(rec);
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public WriteResult writeBatch(final RecordBatch batch) throws IOException {
+        final Field[] avroFields = AvroTypeUtil.getAvroFields(batch.getSchema(), schema);
+        for (int row = 0; row < batch.size(); row++) {
+            append(AvroTypeUtil.createAvroRecord(batch, row, avroFields, schema, StandardCharsets.UTF_8));
+        }
+
+        return WriteResult.of(incrementRecordCount(batch.size()), Collections.emptyMap());
+    }
+
+    private void append(final GenericRecord rec) throws IOException {
         try {
             dataFileWriter.append(rec);
         } catch (final DataFileWriter.AppendWriteException e) {
             throw new IOException("AppendWriteException while writing a datum to the Avro record buffer", e);
         }
-        return Collections.emptyMap();
     }
 
     @Override
@@ -22,7 +22,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,7 +34,8 @@ import org.apache.commons.io.input.BOMInputStream;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.ArrayRecord;
+import org.apache.nifi.serialization.record.IndexedValueMap;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
@@ -86,7 +86,7 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
             final List<RecordField> recordFields = getRecordFields();
             final int numFieldNames = recordFields.size();
             for (final CSVRecord csvRecord : csvParser) {
-                final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
+                final IndexedValueMap values = new IndexedValueMap(schema);
                 for (int i = 0; i < csvRecord.size(); i++) {
                     final String rawValue = csvRecord.get(i);
 
@@ -118,7 +118,7 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
                     values.put(rawFieldName, value);
                 }
 
-                return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+                return new ArrayRecord(schema, values, coerceTypes, dropUnknownFields);
             }
         } catch (Exception e) {
             throw new MalformedRecordException("Error while getting next record", e);
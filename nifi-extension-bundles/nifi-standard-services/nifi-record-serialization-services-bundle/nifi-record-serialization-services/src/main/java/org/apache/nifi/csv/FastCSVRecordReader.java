@@ -22,10 +22,13 @@ import de.siegmar.fastcsv.reader.CsvReader;
 import de.siegmar.fastcsv.reader.CsvRecord;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.BatchRecordReader;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.IndexedValueMap;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -37,20 +40,20 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
-public class FastCSVRecordReader extends AbstractCSVRecordReader {
+public class FastCSVRecordReader extends AbstractCSVRecordReader implements BatchRecordReader {
 
     private final CsvReader<CsvRecord> csvReader;
     private final Iterator<CsvRecord> csvRecordIterator;
 
     private List<RecordField> recordFields;
     private Map<String, Integer> headerMap;
+    private int[] fieldPositions;
 
     private final boolean ignoreHeader;
     private final boolean trimDoubleQuote;
@@ -111,7 +114,7 @@ public class FastCSVRecordReader extends AbstractCSVRecordReader {
             }
 
             final CsvRecord csvRecord = csvRecordIterator.next();
-            final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
+            final IndexedValueMap values = new IndexedValueMap(schema);
 
             for (int i = 0; i < csvRecord.getFieldCount(); i++) {
                 String rawValue = csvRecord.getField(i);
@@ -140,12 +143,82 @@ public class FastCSVRecordReader extends AbstractCSVRecordReader {
                 values.putIfAbsent(rawFieldName, value);
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            return new ArrayRecord(schema, values, coerceTypes, dropUnknownFields);
         } catch (Exception e) {
             throw new MalformedRecordException("Error while getting next record", e);
         }
     }
 
+    @Override
+    public int readBatch(final RecordBatch batch) throws IOException, MalformedRecordException {
+        final RecordSchema schema = getSchema();
+        if (batch.getSchema() != schema) {
+            throw new IllegalArgumentException("Cannot read Records into a batch whose schema is not the schema of the Record Reader");
+        }
+
+        batch.clear();
+
+        try {
+            final List<RecordField> recordFields = getRecordFields();
+            final int[] fieldPositions = getFieldPositions(schema, recordFields);
+
+            while (!batch.isFull() && csvRecordIterator.hasNext()) {
+                final CsvRecord csvRecord = csvRecordIterator.next();
+                final int row = batch.addRow();
+
+                final int fieldCount = Math.min(csvRecord.getFieldCount(), fieldPositions.length);
+                for (int i = 0; i < fieldCount; i++) {
+                    final int fieldPosition = fieldPositions[i];
+                    if (fieldPosition < 0) {
+                        continue;
+                    }
+
+                    String rawValue = csvRecord.getField(i);
+                    if (csvFormat.getTrim()) {
+                        rawValue = rawValue.trim();
+                    }
+                    if (trimDoubleQuote) {
+                        rawValue = trim(rawValue);
+                    }
+
+                    final RecordField recordField = recordFields.get(i);
+                    batch.setValue(row, fieldPosition, convert(rawValue, recordField.getDataType(), recordField.getFieldName()));
+                }
+
+                batch.checkTypes(row);
+            }
+        } catch (Exception e) {
+            throw new MalformedRecordException("Error while getting next batch of records", e);
+        }
+
+        return batch.size();
+    }
+
+    /**
+     * Determines the position in the schema of the field that each column of the CSV is read into. A column whose field is not part of the schema,
+     * or whose field has already been read from an earlier column, has a position of <code>-1</code>, as its value would not be part of the Record.
+     */
+    private int[] getFieldPositions(final RecordSchema schema, final List<RecordField> recordFields) {
+        if (fieldPositions != null) {
+            return fieldPositions;
+        }
+
+        final int[] positions = new int[recordFields.size()];
+        final boolean[] assigned = new boolean[schema.getFieldCount()];
+        for (int i = 0; i < positions.length; i++) {
+            final int position = schema.getFieldIndex(recordFields.get(i).getFieldName());
+            if (position < 0 || assigned[position]) {
+                positions[i] = -1;
+            } else {
+                positions[i] = position;
+                assigned[position] = true;
+            }
+        }
+
+        this.fieldPositions = positions;
+        return positions;
+    }
+
     private List<RecordField> getRecordFields() {
         if (recordFields != null) {
             return recordFields;
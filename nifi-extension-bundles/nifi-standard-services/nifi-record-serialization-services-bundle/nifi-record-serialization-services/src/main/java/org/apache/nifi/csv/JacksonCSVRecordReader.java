@@ -28,10 +28,8 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.apache.commons.csv.CSVFormat;
@@ -41,8 +39,9 @@ import org.apache.commons.lang3.CharUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.IndexedValueMap;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
 
@@ -157,7 +156,7 @@ public class JacksonCSVRecordReader extends AbstractCSVRecordReader {
                 return null;
             }
 
-            final Map<String, Object> values = new HashMap<>(rawFieldNames.size() * 2);
+            final IndexedValueMap values = new IndexedValueMap(schema);
             final int numFieldNames = rawFieldNames.size();
             for (int i = 0; i < csvRecord.length; i++) {
                 final String rawFieldName = numFieldNames <= i ? "unknown_field_index_" + i : rawFieldNames.get(i);
@@ -184,7 +183,7 @@ public class JacksonCSVRecordReader extends AbstractCSVRecordReader {
                 values.put(rawFieldName, value);
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            return new ArrayRecord(schema, values, coerceTypes, dropUnknownFields);
         }
 
         return null;
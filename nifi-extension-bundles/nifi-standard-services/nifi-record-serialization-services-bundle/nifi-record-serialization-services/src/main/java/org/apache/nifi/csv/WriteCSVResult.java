@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -28,16 +29,20 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.nifi.schema.access.SchemaAccessWriter;
 import org.apache.nifi.serialization.AbstractRecordSetWriter;
+import org.apache.nifi.serialization.BatchRecordWriter;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
 
-public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter {
+public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter, BatchRecordWriter {
     private final RecordSchema recordSchema;
     private final SchemaAccessWriter schemaWriter;
     private final String dateFormat;
@@ -139,16 +144,45 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
 
         includeHeaderIfNecessary(record, true);
 
+        final Object[] values = ArrayRecord.getValuesByPosition(record, recordSchema);
         int i = 0;
         for (final RecordField recordField : recordSchema.getFields()) {
-            fieldValues[i++] = getFieldValue(record, recordField);
+            fieldValues[i] = getFieldValue(values == null ? record.getValue(recordField) : values[i], recordField);
+            i++;
         }
 
         printer.printRecord(fieldValues);
         return schemaWriter.getAttributes(recordSchema);
     }
 
-    private Object getFieldValue(final Record record, final RecordField recordField) {
+    @Override
+    public WriteResult writeBatch(final RecordBatch batch) throws IOException {
+        if (batch.getSchema() != recordSchema) {
+            return writeRecords(batch);
+        }
+
+        // If we are not writing an active record set, then we need to ensure that we write the
+        // schema information.
+        if (!isActiveRecordSet()) {
+            schemaWriter.writeHeader(recordSchema, getOutputStream());
+        }
+
+        includeHeaderIfNecessary(null, true);
+
+        final List<RecordField> recordFields = recordSchema.getFields();
+        final int fieldCount = recordFields.size();
+        for (int row = 0; row < batch.size(); row++) {
+            for (int i = 0; i < fieldCount; i++) {
+                fieldValues[i] = getFieldValue(batch.getColumn(i)[row], recordFields.get(i));
+            }
+
+            printer.printRecord(fieldValues);
+        }
+
+        return WriteResult.of(incrementRecordCount(batch.size()), schemaWriter.getAttributes(recordSchema));
+    }
+
+    private Object getFieldValue(final Object value, final RecordField recordField) {
         final RecordFieldType fieldType = recordField.getDataType().getFieldType();
 
         switch (fieldType) {
@@ -160,14 +194,13 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
             case LONG:
             case INT:
             case SHORT:
-                final Object value = record.getValue(recordField);
                 if (value instanceof Number) {
                     return value;
                 }
                 break;
         }
 
-        return record.getAsString(recordField, getFormat(recordField));
+        return value == null ? null : DataTypeUtils.toString(value, getFormat(recordField));
     }
 
     @Override
@@ -24,13 +24,17 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.QuoteMode;
 import org.apache.nifi.schema.access.SchemaAccessWriter;
 import org.apache.nifi.serialization.AbstractRecordSetWriter;
+import org.apache.nifi.serialization.BatchRecordWriter;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -42,7 +46,7 @@ import java.util.Set;
 
 import static org.apache.commons.csv.QuoteMode.MINIMAL;
 
-public class WriteFastCSVResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter {
+public class WriteFastCSVResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter, BatchRecordWriter {
     private final RecordSchema recordSchema;
     private final SchemaAccessWriter schemaWriter;
     private final String dateFormat;
@@ -170,15 +174,52 @@ public class WriteFastCSVResult extends AbstractRecordSetWriter implements Recor
         }
         includeHeaderIfNecessary(record, true);
 
+        final Object[] values = ArrayRecord.getValuesByPosition(record, recordSchema);
         int i = 0;
         for (RecordField field : recordSchema.getFields()) {
-            fieldValues[i++] = record.getAsString(field, getFormat(field));
+            if (values == null) {
+                fieldValues[i] = record.getAsString(field, getFormat(field));
+            } else {
+                fieldValues[i] = values[i] == null ? null : DataTypeUtils.toString(values[i], getFormat(field));
+            }
+            i++;
         }
 
         csvWriter.writeRecord(fieldValues);
         return schemaWriter.getAttributes(recordSchema);
     }
 
+    @Override
+    public WriteResult writeBatch(final RecordBatch batch) throws IOException {
+        if (batch.getSchema() != recordSchema) {
+            return writeRecords(batch);
+        }
+
+        if (!isActiveRecordSet()) {
+            schemaWriter.writeHeader(recordSchema, getOutputStream());
+        }
+        includeHeaderIfNecessary(null, true);
+
+        final int fieldCount = recordSchema.getFieldCount();
+        final Object[][] columns = new Object[fieldCount][];
+        final String[] formats = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            columns[i] = batch.getColumn(i);
+            formats[i] = getFormat(recordSchema.getField(i));
+        }
+
+        for (int row = 0; row < batch.size(); row++) {
+            for (int i = 0; i < fieldCount; i++) {
+                final Object value = columns[i][row];
+                fieldValues[i] = value == null ? null : DataTypeUtils.toString(value, formats[i]);
+            }
+
+            csvWriter.writeRecord(fieldValues);
+        }
+
+        return WriteResult.of(incrementRecordCount(batch.size()), schemaWriter.getAttributes(recordSchema));
+    }
+
     @Override
     public WriteResult writeRawRecord(final Record record) throws IOException {
         if (!isActiveRecordSet()) {
@@ -29,6 +29,7 @@ import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -48,6 +49,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -326,6 +328,76 @@ public class TestAvroReaderWithEmbeddedSchema {
         }
     }
 
+    @Test
+    public void testReadBatch() throws IOException, MalformedRecordException {
+        final List<Field> fields = new ArrayList<>();
+        fields.add(new Field("name", Schema.create(Type.STRING), null, (Object) null));
+        fields.add(new Field("age", Schema.create(Type.INT), null, (Object) null));
+        final Schema schema = Schema.createRecord("person", null, null, false);
+        schema.setFields(fields);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+        try (final DataFileWriter<GenericRecord> dataFileWriter = new DataFileWriter<>(datumWriter);
+            final DataFileWriter<GenericRecord> writer = dataFileWriter.create(schema, baos)) {
+
+            for (int i = 0; i < 3; i++) {
+                final GenericRecord record = new GenericData.Record(schema);
+                record.put("name", "Person " + i);
+                record.put("age", 30 + i);
+                writer.append(record);
+            }
+        }
+
+        try (final InputStream in = new ByteArrayInputStream(baos.toByteArray())) {
+            final AvroRecordReader reader = new AvroReaderWithEmbeddedSchema(in);
+            final RecordBatch batch = new RecordBatch(reader.getSchema(), 2);
+
+            assertEquals(2, reader.readBatch(batch));
+            assertArrayEquals(new Object[] {"Person 0", "Person 1"}, Arrays.copyOf(batch.getColumn(0), 2));
+            assertArrayEquals(new Object[] {30, 31}, Arrays.copyOf(batch.getColumn(1), 2));
+
+            assertEquals(1, reader.readBatch(batch));
+            assertArrayEquals(new Object[] {"Person 2", 32}, batch.getRecord(0).getValues());
+
+            assertEquals(0, reader.readBatch(batch));
+        }
+    }
+
+    @Test
+    public void testReadWithProjectedFields() throws IOException, MalformedRecordException {
+        final List<Field> fields = new ArrayList<>();
+        fields.add(new Field("name", Schema.create(Type.STRING), null, (Object) null));
+        fields.add(new Field("age", Schema.create(Type.INT), null, (Object) null));
+        final Schema schema = Schema.createRecord("person", null, null, false);
+        schema.setFields(fields);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+        try (final DataFileWriter<GenericRecord> dataFileWriter = new DataFileWriter<>(datumWriter);
+            final DataFileWriter<GenericRecord> writer = dataFileWriter.create(schema, baos)) {
+
+            for (int i = 0; i < 2; i++) {
+                final GenericRecord record = new GenericData.Record(schema);
+                record.put("name", "Person " + i);
+                record.put("age", 30 + i);
+                writer.append(record);
+            }
+        }
+
+        try (final InputStream in = new ByteArrayInputStream(baos.toByteArray())) {
+            final AvroRecordReader reader = new AvroReaderWithEmbeddedSchema(in);
+
+            reader.setProjectedFields(Set.of("age"));
+            assertArrayEquals(new Object[] {null, 30}, reader.nextRecord().getValues());
+
+            reader.setProjectedFields(null);
+            assertArrayEquals(new Object[] {"Person 1", 31}, reader.nextRecord().getValues());
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
     private Object[] toObjectArray(final byte[] bytes) {
         final Object[] array = new Object[bytes.length];
         for (int i = 0; i < bytes.length; i++) {
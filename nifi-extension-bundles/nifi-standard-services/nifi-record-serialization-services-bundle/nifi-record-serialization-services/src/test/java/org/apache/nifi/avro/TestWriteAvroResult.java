@@ -26,6 +26,7 @@ import org.apache.avro.generic.GenericArray;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.nifi.serialization.BatchRecordWriter;
 import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.WriteResult;
@@ -33,6 +34,7 @@ import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.ListRecordSet;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -163,6 +165,41 @@ public abstract class TestWriteAvroResult {
         }
     }
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final Schema schema = new Schema.Parser().parse(new File("src/test/resources/avro/simple.avsc"));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("msg", RecordFieldType.STRING.getDataType()));
+        final RecordSchema recordSchema = new SimpleRecordSchema(fields);
+
+        final int recordCount = 3;
+        final RecordBatch batch = new RecordBatch(recordSchema, recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            batch.setValue(batch.addRow(), 0, "nifi" + i);
+        }
+
+        try (final RecordSetWriter writer = createWriter(schema, baos)) {
+            writer.beginRecordSet();
+            assertEquals(recordCount, ((BatchRecordWriter) writer).writeBatch(batch).getRecordCount());
+
+            final WriteResult writeResult = writer.finishRecordSet();
+            assertEquals(recordCount, writeResult.getRecordCount());
+            verify(writeResult);
+        }
+
+        final byte[] data = baos.toByteArray();
+
+        try (final InputStream in = new ByteArrayInputStream(data)) {
+            final List<GenericRecord> avroRecords = readRecords(in, schema, recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                assertEquals("nifi" + i, avroRecords.get(i).get("msg").toString());
+            }
+        }
+    }
+
     @Test
     public void testDecimalType() throws IOException {
         final Object[][] decimals = new Object[][] {
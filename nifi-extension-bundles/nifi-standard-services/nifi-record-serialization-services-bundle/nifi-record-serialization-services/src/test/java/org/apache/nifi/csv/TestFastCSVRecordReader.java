@@ -31,6 +31,7 @@ import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -153,6 +154,30 @@ public class TestFastCSVRecordReader {
         }
     }
 
+    @Test
+    public void testReadBatch() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.replaceAll(f -> f.getFieldName().equals("balance") ? new RecordField("balance", doubleDataType) : f);
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        try (final InputStream fis = new FileInputStream("src/test/resources/csv/multi-bank-account_RFC4180.csv");
+             final FastCSVRecordReader reader = createReader(fis, schema, format)) {
+
+            final RecordBatch batch = new RecordBatch(schema, 1);
+            assertEquals(1, reader.readBatch(batch));
+            final Object[] firstExpectedValues = new Object[]{"1", "John Doe", 4750.89D, "123 My Street", "My City", "MS", "11111", "USA"};
+            assertArrayEquals(firstExpectedValues, batch.getRecord(0).getValues());
+
+            assertEquals(1, reader.readBatch(batch));
+            final Object[] secondExpectedValues = new Object[]{"2", "Jane Doe", 4820.09D, "321 Your Street", "Your City", "NY", "33333", "USA"};
+            assertArrayEquals(secondExpectedValues, batch.getRecord(0).getValues());
+
+            assertEquals(0, reader.readBatch(batch));
+            assertThrows(IllegalArgumentException.class, () -> reader.readBatch(new RecordBatch(new SimpleRecordSchema(fields), 1)));
+        }
+    }
+
     @Test
     public void testExcelFormat() throws IOException, MalformedRecordException {
         final List<RecordField> fields = new ArrayList<>();
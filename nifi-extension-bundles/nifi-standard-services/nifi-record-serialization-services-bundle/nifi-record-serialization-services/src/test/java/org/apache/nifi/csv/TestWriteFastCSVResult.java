@@ -38,6 +38,7 @@ import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -369,6 +370,54 @@ public class TestWriteFastCSVResult {
     }
 
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final CSVFormat csvFormat = CSVFormat.DEFAULT.builder().setQuoteMode(QuoteMode.MINIMAL).setRecordSeparator("\n").get();
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("balance", RecordFieldType.DOUBLE.getDataType(), 0.0D));
+        fields.add(new RecordField("date", RecordFieldType.DATE.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Map<String, Object> values = new HashMap<>();
+            values.put("id", i);
+            values.put("name", i == 1 ? null : "John \"" + i + "\" Doe");
+            values.put("balance", i == 2 ? null : 4750.89D * i);
+            values.put("date", Date.valueOf("2017-04-0" + (i + 1)));
+            records.add(new MapRecord(schema, values));
+        }
+
+        final RecordBatch batch = new RecordBatch(schema, records.size());
+        records.forEach(batch::addRecord);
+        final RecordBatch otherSchemaBatch = new RecordBatch(new SimpleRecordSchema(fields), records.size());
+        records.forEach(otherSchemaBatch::addRecord);
+
+        final ByteArrayOutputStream recordOutput = new ByteArrayOutputStream();
+        try (final WriteFastCSVResult writer = new WriteFastCSVResult(csvFormat, schema, new SchemaNameAsAttribute(), recordOutput,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), true, "UTF-8")) {
+            writer.beginRecordSet();
+            for (final Record record : records) {
+                writer.write(record);
+            }
+            writer.finishRecordSet();
+        }
+
+        for (final RecordBatch recordBatch : List.of(batch, otherSchemaBatch)) {
+            final ByteArrayOutputStream batchOutput = new ByteArrayOutputStream();
+            try (final WriteFastCSVResult writer = new WriteFastCSVResult(csvFormat, schema, new SchemaNameAsAttribute(), batchOutput,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), true, "UTF-8")) {
+                writer.beginRecordSet();
+                assertEquals(3, writer.writeBatch(recordBatch).getRecordCount());
+                assertEquals(3, writer.finishRecordSet().getRecordCount());
+            }
+
+            assertEquals(recordOutput.toString(StandardCharsets.UTF_8), batchOutput.toString(StandardCharsets.UTF_8));
+        }
+    }
+
     private DateTimeFormatter getFormatter(final String format) {
         return DateTimeFormatter.ofPattern(format);
     }
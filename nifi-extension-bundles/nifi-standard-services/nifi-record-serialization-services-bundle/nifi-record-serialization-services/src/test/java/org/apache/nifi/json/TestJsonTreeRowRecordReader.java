@@ -30,6 +30,7 @@ import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -253,6 +254,46 @@ class TestJsonTreeRowRecordReader {
 
     }
 
+    @Test
+    void testReadArrayWithProjectedFields() throws Exception {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream in = new FileInputStream("src/test/resources/json/bank-account-array.json");
+             final JsonTreeRowRecordReader reader = createJsonTreeRowRecordReader(in, schema)) {
+
+            reader.setProjectedFields(Set.of("id", "balance"));
+
+            final Record firstRecord = reader.nextRecord();
+            assertArrayEquals(new Object[] {1, null, 4750.89, null, null, null, null, null}, firstRecord.getValues());
+            assertTrue(firstRecord.getSerializedForm().isEmpty());
+
+            final Record secondRecord = reader.nextRecord();
+            assertArrayEquals(new Object[] {2, null, 4820.09, null, null, null, null, null}, secondRecord.getValues());
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    void testReadBatch() throws Exception {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream in = new FileInputStream("src/test/resources/json/bank-account-array.json");
+             final JsonTreeRowRecordReader reader = createJsonTreeRowRecordReader(in, schema)) {
+
+            final RecordBatch batch = new RecordBatch(schema, 1);
+
+            assertEquals(1, reader.readBatch(batch));
+            assertArrayEquals(new Object[] {1, "John Doe", 4750.89, "123 My Street", "My City", "MS", "11111", "USA"}, batch.getRecord(0).getValues());
+
+            assertEquals(1, reader.readBatch(batch));
+            assertArrayEquals(new Object[] {2, "Jane Doe", 4820.09, "321 Your Street", "Your City", "NY", "33333", "USA"}, batch.getRecord(0).getValues());
+
+            assertEquals(0, reader.readBatch(batch));
+            assertTrue(batch.isEmpty());
+        }
+    }
+
     @Test
     void testReadArray() throws Exception {
         final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
@@ -26,6 +26,7 @@ import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -52,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TestWriteJsonResult {
@@ -273,6 +275,61 @@ class TestWriteJsonResult {
         assertEquals(expected, output);
     }
 
+    @Test
+    void testWriteBatch() throws IOException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("balance", RecordFieldType.DOUBLE.getDataType(), 0.0D));
+        fields.add(new RecordField("date", RecordFieldType.DATE.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Map<String, Object> values = new HashMap<>();
+            values.put("id", i);
+            values.put("name", i == 1 ? null : "John \"" + i + "\" Doe");
+            values.put("balance", i == 2 ? null : 4750.89D * i);
+            values.put("date", Date.valueOf("2017-04-0" + (i + 1)));
+            records.add(new MapRecord(schema, values));
+        }
+
+        final RecordBatch batch = new RecordBatch(schema, records.size());
+        records.forEach(batch::addRecord);
+        final RecordBatch otherSchemaBatch = new RecordBatch(new SimpleRecordSchema(fields), records.size());
+        records.forEach(otherSchemaBatch::addRecord);
+
+        for (final NullSuppression nullSuppression : List.of(NullSuppression.NEVER_SUPPRESS, NullSuppression.ALWAYS_SUPPRESS)) {
+            final ByteArrayOutputStream recordOutput = new ByteArrayOutputStream();
+            try (final WriteJsonResult writer = new WriteJsonResult(Mockito.mock(ComponentLog.class), schema, new SchemaNameAsAttribute(), recordOutput, false,
+                    nullSuppression, OutputGrouping.OUTPUT_ARRAY, RecordFieldType.DATE.getDefaultFormat(), null, null)) {
+                writer.beginRecordSet();
+                for (final Record record : records) {
+                    writer.write(record);
+                }
+                writer.finishRecordSet();
+            }
+
+            for (final RecordBatch recordBatch : List.of(batch, otherSchemaBatch)) {
+                final ByteArrayOutputStream batchOutput = new ByteArrayOutputStream();
+                try (final WriteJsonResult writer = new WriteJsonResult(Mockito.mock(ComponentLog.class), schema, new SchemaNameAsAttribute(), batchOutput, false,
+                        nullSuppression, OutputGrouping.OUTPUT_ARRAY, RecordFieldType.DATE.getDefaultFormat(), null, null)) {
+                    assertTrue(writer.isBatchWriteSupported());
+                    writer.beginRecordSet();
+                    assertEquals(3, writer.writeBatch(recordBatch).getRecordCount());
+                    assertEquals(3, writer.finishRecordSet().getRecordCount());
+                }
+
+                assertEquals(recordOutput.toString(StandardCharsets.UTF_8), batchOutput.toString(StandardCharsets.UTF_8));
+            }
+        }
+
+        try (final WriteJsonResult writer = new WriteJsonResult(Mockito.mock(ComponentLog.class), schema, new SchemaNameAsAttribute(), new ByteArrayOutputStream(), false,
+                NullSuppression.SUPPRESS_MISSING, OutputGrouping.OUTPUT_ARRAY, null, null, null)) {
+            assertFalse(writer.isBatchWriteSupported());
+        }
+    }
+
     @Test
     void testExtraFieldInWriteRecord() throws IOException {
         final List<RecordField> fields = new ArrayList<>();
@@ -59,6 +59,13 @@ public interface FlowFileQueue {
      */
     void purgeSwapFiles();
 
+    /**
+     * Stops any work that the queue performs in the background, such as reading swap files before they are needed. Called once the
+     * queue has been removed from the flow or the flow is shut down. The default implementation does nothing.
+     */
+    default void shutdown() {
+    }
+
     /**
      * Resets the comparator used by this queue to maintain order.
      *
@@ -151,6 +158,18 @@ public interface FlowFileQueue {
      */
     void putAll(Collection<FlowFileRecord> files);
 
+    /**
+     * Places the given files, which were previously polled from this queue, back into the queue, such as when the session that
+     * polled them is rolled back. Queues that hand out FlowFiles in the order in which they were queued place the files back at the
+     * head of the queue, in the order given, so that they retain their position. The default implementation is equivalent to
+     * {@link #putAll(Collection)}.
+     *
+     * @param files to place back into the queue
+     */
+    default void requeue(Collection<FlowFileRecord> files) {
+        putAll(files);
+    }
+
     /**
      * @param expiredRecords expired records
      * @param pollStrategy strategy of polling
@@ -26,6 +26,16 @@ public interface LocalQueuePartitionDiagnostics {
 
     int getSwapFileCount();
 
+    /**
+     * @return the number of times that FlowFiles could not be pulled from the queue until a swap file that had not been prefetched was swapped in
+     */
+    long getSwapStallCount();
+
+    /**
+     * @return the total number of milliseconds spent waiting for swap files that had not been prefetched to be swapped in
+     */
+    long getSwapStallMillis();
+
     boolean isAnyActiveFlowFilePenalized();
 
     boolean isAllActiveFlowFilesPenalized();
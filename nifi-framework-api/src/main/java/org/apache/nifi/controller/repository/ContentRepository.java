@@ -19,6 +19,9 @@ package org.apache.nifi.controller.repository;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.Set;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
@@ -215,6 +218,24 @@ public interface ContentRepository {
      */
     long exportTo(ContentClaim claim, OutputStream destination, long offset, long length) throws IOException;
 
+    /**
+     * Exports a subset of the content of the given claim, starting at offset
+     * and copying length bytes, to the given channel. Implementations that store
+     * content in files may transfer the bytes directly from the file to the
+     * channel without copying them through the JVM heap. The channel is not
+     * closed by this method.
+     *
+     * @return the number of bytes copied
+     * @param claim to export from
+     * @param destination the channel to write the data to
+     * @param offset the offset into the claim at which the copy should begin
+     * @param length the number of bytes to copy
+     * @throws IOException if an IO error occurs.
+     */
+    default long exportTo(final ContentClaim claim, final WritableByteChannel destination, final long offset, final long length) throws IOException {
+        return exportTo(claim, Channels.newOutputStream(destination), offset, length);
+    }
+
     /**
      * @param claim to get size of
      * @return size in bytes of content for given claim
@@ -256,6 +277,31 @@ public interface ContentRepository {
         return true;
     }
 
+    /**
+     * Provides read-only access to the content of the given claim as a ByteBuffer. Implementations that are able to expose the
+     * content without copying it, such as by memory-mapping the underlying storage, should override this method. The default
+     * implementation reads the content of the claim into a newly allocated buffer.
+     *
+     * @param claim the claim to read from
+     * @return a read-only ByteBuffer whose position is 0 and whose remaining bytes are the content of the given claim
+     * @throws IOException if unable to read, or if the content is too large to be held in a single ByteBuffer
+     */
+    default ByteBuffer readAsByteBuffer(final ContentClaim claim) throws IOException {
+        if (claim == null) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+
+        final long length = claim.getLength();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Cannot read " + claim + " into a ByteBuffer because its length of " + length + " bytes exceeds the maximum size of a ByteBuffer");
+        }
+
+        try (final InputStream in = read(claim)) {
+            final byte[] content = (length < 0) ? in.readAllBytes() : in.readNBytes((int) length);
+            return ByteBuffer.wrap(content).asReadOnlyBuffer();
+        }
+    }
+
     /**
      * Obtains an OutputStream to the content for the given claim.
      *
@@ -80,6 +80,20 @@ public interface FlowFileSwapManager {
      */
     SwapContents swapIn(String swapLocation, FlowFileQueue flowFileQueue) throws IncompleteSwapFileException, IOException;
 
+    /**
+     * Provides a hint that the swap file at the given location is expected to be swapped in soon, so that the Swap Manager
+     * may begin reading it in the background. Calling this method must not change the outcome of a subsequent call to
+     * {@link #swapIn(String, FlowFileQueue)} or {@link #peek(String, FlowFileQueue)}; it may only make the call faster.
+     * The default implementation does nothing.
+     *
+     * @param swapLocation the location of the swap file
+     * @param flowFileQueue the queue to which the FlowFiles belong
+     * @return <code>true</code> if the swap file is being or has been read in the background, <code>false</code> if the hint was ignored
+     */
+    default boolean prefetch(String swapLocation, FlowFileQueue flowFileQueue) {
+        return false;
+    }
+
     /**
      * Determines swap files that exist for the given FlowFileQueue
      *
@@ -126,6 +140,14 @@ public interface FlowFileSwapManager {
      */
     void purge();
 
+    /**
+     * Stops any work that the Swap Manager performs in the background and releases the resources that it holds for that work, such as
+     * prefetched swap files. Called when the queue that uses the Swap Manager is removed from the flow or when the flow is shut down.
+     * Swap files may still be read afterward, but no longer in the background. The default implementation does nothing.
+     */
+    default void shutdown() {
+    }
+
     /**
      * Returns the ID of the queue that the given swap file belongs to
      * @param swapLocation the swap location
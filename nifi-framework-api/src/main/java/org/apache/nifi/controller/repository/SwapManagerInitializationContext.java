@@ -37,4 +37,12 @@ public interface SwapManagerInitializationContext {
      * @return an {@link EventReporter} that can be used to report events to users
      */
     EventReporter getEventReporter();
+
+    /**
+     * @return the {@link SwapPrefetcher} that is shared by all Swap Managers and may be used to read swap files in the background,
+     *         or <code>null</code> if swap files are not to be read in the background. The default implementation returns <code>null</code>.
+     */
+    default SwapPrefetcher getSwapPrefetcher() {
+        return null;
+    }
 }
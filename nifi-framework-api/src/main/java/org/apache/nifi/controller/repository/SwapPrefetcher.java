@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Reads swap files in the background on behalf of the {@link FlowFileSwapManager}s of all FlowFile Queues. A single instance is shared by
+ * every Swap Manager, so that the number of threads reading swap files, and the number of swap files whose contents are held in memory
+ * before they are swapped in, are bounded across the whole flow rather than growing with the number of queues that have swapped FlowFiles.
+ */
+public interface SwapPrefetcher {
+
+    /**
+     * Submits the given read of a swap file if the contents of one more swap file may be held in memory. Each Future that is returned
+     * holds one unit of the shared budget, whether or not its read completes, until {@link #release()} is called for it.
+     *
+     * @param read the read of the swap file
+     * @return a Future for the contents of the swap file, or <code>null</code> if no more swap files may be held in memory or the
+     *         prefetcher has been shut down
+     */
+    Future<SwapContents> submit(Callable<SwapContents> read);
+
+    /**
+     * Returns the unit of the shared budget that is held by a Future that was returned from {@link #submit(Callable)}. This must be called
+     * exactly once for each such Future, once the Swap Manager no longer holds it.
+     */
+    void release();
+}
@@ -249,4 +249,14 @@ public interface ProvenanceRepository extends ProvenanceEventRepository {
      * name
      */
     long getContainerUsableSpace(String containerName) throws IOException;
+
+    /**
+     * Returns details about how the repository is performing, such as how quickly events are being written to each of its storage
+     * locations, so that they can be included in diagnostics. The default implementation returns no details.
+     *
+     * @return a list of details, each of which is a single line of text
+     */
+    default List<String> getDiagnosticDetails() {
+        return List.of();
+    }
 }
@@ -28,6 +28,7 @@ import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.provenance.search.SearchableField;
+import org.apache.nifi.provenance.serialization.EventFileCompression;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
 import org.slf4j.Logger;
@@ -39,6 +40,14 @@ public class RepositoryConfiguration {
     public static final String CONCURRENT_MERGE_THREADS = "nifi.provenance.repository.concurrent.merge.threads";
     public static final String WARM_CACHE_FREQUENCY = "nifi.provenance.repository.warm.cache.frequency";
     public static final String MAINTENACE_FREQUENCY = "nifi.provenance.repository.maintenance.frequency";
+    public static final String INDEX_IMPLEMENTATION = "nifi.provenance.repository.index.implementation";
+    public static final String LUCENE_INDEX_IMPLEMENTATION = "lucene";
+    public static final String COLUMNAR_INDEX_IMPLEMENTATION = "columnar";
+    public static final String COMPRESSION_CODEC = "nifi.provenance.repository.compression.codec";
+    public static final String LINEAGE_CACHE_SIZE = "nifi.provenance.repository.lineage.cache.size";
+    public static final String PARTITION_ROUTING = "nifi.provenance.repository.partition.routing";
+    public static final String ROUND_ROBIN_PARTITION_ROUTING = "round-robin";
+    public static final String ADAPTIVE_PARTITION_ROUTING = "adaptive";
 
     private final Map<String, File> storageDirectories = new LinkedHashMap<>();
     private long recordLifeMillis = TimeUnit.MILLISECONDS.convert(24, TimeUnit.HOURS);
@@ -56,12 +65,16 @@ public class RepositoryConfiguration {
     private List<SearchableField> searchableFields = new ArrayList<>();
     private List<SearchableField> searchableAttributes = new ArrayList<>();
     private boolean compress = true;
+    private EventFileCompression compression = EventFileCompression.GZIP;
     private boolean alwaysSync = false;
     private int queryThreadPoolSize = 2;
     private int indexThreadPoolSize = 1;
     private boolean allowRollover = true;
     private int concurrentMergeThreads = 4;
     private Integer warmCacheFrequencyMinutes = null;
+    private String indexImplementation = LUCENE_INDEX_IMPLEMENTATION;
+    private int lineageCacheSize = 100_000;
+    private String partitionRouting = ROUND_ROBIN_PARTITION_ROUTING;
 
     public void setAllowRollover(final boolean allow) {
         this.allowRollover = allow;
@@ -226,6 +239,20 @@ public class RepositoryConfiguration {
         this.compress = compress;
     }
 
+    /**
+     * @return the codec that is used to compress event files when they are rolled over
+     */
+    public EventFileCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @param compression the codec to use to compress event files when they are rolled over
+     */
+    public void setCompression(final EventFileCompression compression) {
+        this.compression = compression;
+    }
+
     /**
      * @return the number of threads to use to query the repo
      */
@@ -362,6 +389,51 @@ public class RepositoryConfiguration {
         return Optional.ofNullable(warmCacheFrequencyMinutes);
     }
 
+    /**
+     * @return the implementation of the Event Index to use, either {@link #LUCENE_INDEX_IMPLEMENTATION} or {@link #COLUMNAR_INDEX_IMPLEMENTATION}
+     */
+    public String getIndexImplementation() {
+        return indexImplementation;
+    }
+
+    public void setIndexImplementation(final String indexImplementation) {
+        if (!LUCENE_INDEX_IMPLEMENTATION.equalsIgnoreCase(indexImplementation) && !COLUMNAR_INDEX_IMPLEMENTATION.equalsIgnoreCase(indexImplementation)) {
+            throw new IllegalArgumentException("Invalid value for " + INDEX_IMPLEMENTATION + ": " + indexImplementation + "; must be either "
+                + LUCENE_INDEX_IMPLEMENTATION + " or " + COLUMNAR_INDEX_IMPLEMENTATION);
+        }
+
+        this.indexImplementation = indexImplementation.toLowerCase();
+    }
+
+    /**
+     * @return the maximum number of FlowFiles whose events are cached in order to compute lineage without searching the index,
+     * or 0 if lineage is always computed by searching the index
+     */
+    public int getLineageCacheSize() {
+        return lineageCacheSize;
+    }
+
+    public void setLineageCacheSize(final int lineageCacheSize) {
+        this.lineageCacheSize = lineageCacheSize;
+    }
+
+    /**
+     * @return the strategy used to choose the partition that events are written to, either {@link #ROUND_ROBIN_PARTITION_ROUTING},
+     * which is the default, or {@link #ADAPTIVE_PARTITION_ROUTING}
+     */
+    public String getPartitionRouting() {
+        return partitionRouting;
+    }
+
+    public void setPartitionRouting(final String partitionRouting) {
+        if (!ADAPTIVE_PARTITION_ROUTING.equalsIgnoreCase(partitionRouting) && !ROUND_ROBIN_PARTITION_ROUTING.equalsIgnoreCase(partitionRouting)) {
+            throw new IllegalArgumentException("Invalid value for " + PARTITION_ROUTING + ": " + partitionRouting + "; must be either "
+                + ADAPTIVE_PARTITION_ROUTING + " or " + ROUND_ROBIN_PARTITION_ROUTING);
+        }
+
+        this.partitionRouting = partitionRouting.toLowerCase();
+    }
+
     public int getDebugFrequency() {
         return debugFrequency;
     }
@@ -396,12 +468,15 @@ public class RepositoryConfiguration {
         final int concurrentMergeThreads = nifiProperties.getIntegerProperty(CONCURRENT_MERGE_THREADS, 2);
         final String warmCacheFrequency = nifiProperties.getProperty(WARM_CACHE_FREQUENCY);
         final String maintenanceFrequency = nifiProperties.getProperty(MAINTENACE_FREQUENCY);
+        final String indexImplementation = nifiProperties.getProperty(INDEX_IMPLEMENTATION, LUCENE_INDEX_IMPLEMENTATION);
         final long storageMillis = FormatUtils.getTimeDuration(storageTime, TimeUnit.MILLISECONDS);
         final long maxStorageBytes = DataUnit.parseDataSize(storageSize, DataUnit.B).longValue();
         final long rolloverMillis = FormatUtils.getTimeDuration(rolloverTime, TimeUnit.MILLISECONDS);
         final long rolloverBytes = DataUnit.parseDataSize(rolloverSize, DataUnit.B).longValue();
 
         final boolean compressOnRollover = Boolean.parseBoolean(nifiProperties.getProperty(NiFiProperties.PROVENANCE_COMPRESS_ON_ROLLOVER));
+        final String compressionCodec = nifiProperties.getProperty(COMPRESSION_CODEC, EventFileCompression.GZIP.name());
+        final String partitionRouting = nifiProperties.getProperty(PARTITION_ROUTING, ROUND_ROBIN_PARTITION_ROUTING);
         final String indexedFieldString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_FIELDS);
         final String indexedAttrString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_ATTRIBUTES);
 
@@ -435,6 +510,7 @@ public class RepositoryConfiguration {
             config.addStorageDirectory(entry.getKey(), entry.getValue().toFile());
         }
         config.setCompressOnRollover(compressOnRollover);
+        config.setCompression(EventFileCompression.fromName(compressionCodec));
         config.setSearchableFields(searchableFields);
         config.setSearchableAttributes(searchableAttributes);
         config.setMaxEventFileCapacity(rolloverBytes);
@@ -447,6 +523,9 @@ public class RepositoryConfiguration {
         config.setJournalCount(journalCount);
         config.setMaxAttributeChars(maxAttrChars);
         config.setConcurrentMergeThreads(concurrentMergeThreads);
+        config.setIndexImplementation(indexImplementation.trim());
+        config.setLineageCacheSize(nifiProperties.getIntegerProperty(LINEAGE_CACHE_SIZE, config.getLineageCacheSize()));
+        config.setPartitionRouting(partitionRouting.trim());
 
         if (warmCacheFrequency != null && !warmCacheFrequency.trim().equals("")) {
             config.setWarmCacheFrequencyMinutes((int) FormatUtils.getTimeDuration(warmCacheFrequency, TimeUnit.MINUTES));
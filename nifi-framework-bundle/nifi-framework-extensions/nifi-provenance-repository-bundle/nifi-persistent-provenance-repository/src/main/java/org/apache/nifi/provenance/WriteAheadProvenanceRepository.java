@@ -25,6 +25,7 @@ import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.provenance.authorization.EventAuthorizer;
 import org.apache.nifi.provenance.authorization.UserEventAuthorizer;
 import org.apache.nifi.provenance.index.EventIndex;
+import org.apache.nifi.provenance.index.columnar.ColumnarEventIndex;
 import org.apache.nifi.provenance.index.lucene.LuceneEventIndex;
 import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.lucene.IndexManager;
@@ -36,6 +37,7 @@ import org.apache.nifi.provenance.serialization.RecordReaders;
 import org.apache.nifi.provenance.serialization.StorageSummary;
 import org.apache.nifi.provenance.store.EventFileManager;
 import org.apache.nifi.provenance.store.EventStore;
+import org.apache.nifi.provenance.store.PartitionedEventStore;
 import org.apache.nifi.provenance.store.PartitionedWriteAheadEventStore;
 import org.apache.nifi.provenance.store.RecordReaderFactory;
 import org.apache.nifi.provenance.store.RecordWriterFactory;
@@ -82,6 +84,12 @@ import java.util.Set;
  * </p>
  *
  * <p>
+ * Alternatively, the repository may be configured to use the {@link ColumnarEventIndex}, which indexes events in compact, dictionary-encoded segments
+ * rather than in Lucene. This index adds events on the calling thread without queuing them, but any events that have not yet been written to a
+ * segment on disk are re-indexed from the Event Store on restart.
+ * </p>
+ *
+ * <p>
  * This Repositories supports the notion of 'partitions'. The repository can be configured to store data to one or more partitions. Each partition is typically
  * stored on a separate physical partition on disk. As a result, this allows striping of data across multiple partitions in order to achieve linear scalability
  * across disks for far greater performance.
@@ -145,8 +153,12 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
 
         eventStore = new PartitionedWriteAheadEventStore(config, recordWriterFactory, recordReaderFactory, eventReporter, fileManager);
 
-        final IndexManager indexManager = new StandardIndexManager(config);
-        eventIndex = new LuceneEventIndex(config, indexManager, eventReporter);
+        if (RepositoryConfiguration.COLUMNAR_INDEX_IMPLEMENTATION.equals(config.getIndexImplementation())) {
+            eventIndex = new ColumnarEventIndex(config, eventReporter);
+        } else {
+            final IndexManager indexManager = new StandardIndexManager(config);
+            eventIndex = new LuceneEventIndex(config, indexManager, eventReporter);
+        }
 
         this.eventReporter = eventReporter;
         this.authorizer = authorizer;
@@ -353,4 +365,13 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
             throw new IllegalArgumentException("There is no defined container with name " + containerName);
         }
     }
+
+    @Override
+    public List<String> getDiagnosticDetails() {
+        if (eventStore instanceof PartitionedEventStore partitionedEventStore) {
+            return partitionedEventStore.getDiagnosticDetails();
+        }
+
+        return Collections.emptyList();
+    }
 }
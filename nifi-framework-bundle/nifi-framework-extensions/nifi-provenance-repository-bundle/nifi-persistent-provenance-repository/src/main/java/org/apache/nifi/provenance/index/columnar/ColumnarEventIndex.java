@@ -0,0 +1,822 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.authorization.AccessDeniedException;
+import org.apache.nifi.authorization.user.NiFiUser;
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.provenance.AsyncLineageSubmission;
+import org.apache.nifi.provenance.AsyncQuerySubmission;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.StandardLineageResult;
+import org.apache.nifi.provenance.StandardQueryResult;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.index.EventIndex;
+import org.apache.nifi.provenance.index.lucene.CachedQuery;
+import org.apache.nifi.provenance.index.lucene.LatestEventsPerProcessorQuery;
+import org.apache.nifi.provenance.index.lucene.LatestEventsQuery;
+import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
+import org.apache.nifi.provenance.lineage.LineageComputationType;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QuerySubmission;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.EventStore;
+import org.apache.nifi.provenance.util.NamedThreadFactory;
+import org.apache.nifi.reporting.Severity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * An {@link EventIndex} that stores the searchable fields of Provenance Events in a compact, columnar form rather than in Lucene. Events
+ * are indexed in time-ordered {@link EventSegment segments}, one sequence of segments per partition of the Event Store. Each segment holds
+ * the Event ID, Event Time, and File Size of its events as arrays of longs and every searchable field as a dictionary-encoded column with
+ * bitmap indexes for low-cardinality values, so that a query needs only to compare integers and combine bitmaps.
+ * </p>
+ *
+ * <p>
+ * Events are indexed on the thread that adds them, without the queue that the Lucene-based index uses to hand documents to its indexing
+ * threads, so the adding of events is never throttled by the index. Once a segment reaches {@link #MAX_EVENTS_PER_SEGMENT} events, or spans
+ * more time than the repository's maximum Event File life, it is sealed and written to disk in the background. Only segments that have been
+ * written to disk survive a restart; any event that is not in such a segment is indexed again from the Event Store's files on startup.
+ * </p>
+ */
+public class ColumnarEventIndex implements EventIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarEventIndex.class);
+    private static final String EVENT_CATEGORY = "Provenance Repository";
+
+    public static final String INDEX_DIRECTORY_NAME = "columnar-index";
+    public static final int MAX_EVENTS_PER_SEGMENT = 250_000;
+    public static final int MAX_CACHED_SEGMENTS = 8;
+    public static final int MAX_UNDELETED_QUERY_RESULTS = 10;
+    public static final int MAX_LINEAGE_NODES = 1000;
+    public static final int MAX_LINEAGE_UUIDS = 100;
+
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_SUFFIX = ".idx";
+    private static final int INITIAL_SEGMENT_CAPACITY = 4096;
+
+    private final ConcurrentMap<String, AsyncQuerySubmission> querySubmissionMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AsyncLineageSubmission> lineageSubmissionMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SegmentHandle> activeSegments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> partitionLocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> maxPersistedEventIds = new ConcurrentHashMap<>();
+    // Sealed segments of each partition that have yet to be written, in the order in which they were sealed. Accessed only by the persist thread.
+    private final Map<String, Deque<SegmentHandle>> unpersistedSegments = new HashMap<>();
+    private final List<SegmentHandle> segmentHandles = new CopyOnWriteArrayList<>();
+    private final Map<SegmentHandle, EventSegment> segmentCache = new LinkedHashMap<>(16, 0.75F, true);
+    private final ExecutorService queryExecutor;
+    private final ExecutorService persistExecutor;
+    private final RepositoryConfiguration config;
+    private final EventReporter eventReporter;
+    private final long maxSegmentMillis;
+
+    private final List<CachedQuery> cachedQueries = new ArrayList<>();
+    private final LatestEventsPerProcessorQuery latestEventsPerProcessorQuery;
+
+    private ScheduledExecutorService maintenanceExecutor; // effectively final
+    private EventStore eventStore;
+
+    public ColumnarEventIndex(final RepositoryConfiguration config, final EventReporter eventReporter) {
+        this.config = config;
+        this.eventReporter = eventReporter;
+        this.maxSegmentMillis = config.getMaxEventFileLife(TimeUnit.MILLISECONDS);
+
+        queryExecutor = Executors.newFixedThreadPool(config.getQueryThreadPoolSize(), new NamedThreadFactory("Provenance Query"));
+        persistExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("Persist Provenance Index Segment"));
+
+        cachedQueries.add(new LatestEventsQuery());
+        latestEventsPerProcessorQuery = new LatestEventsPerProcessorQuery();
+        cachedQueries.add(latestEventsPerProcessorQuery);
+    }
+
+    @Override
+    public void initialize(final EventStore eventStore) {
+        this.eventStore = eventStore;
+        recoverSegments();
+
+        maintenanceExecutor = Executors.newScheduledThreadPool(1, new NamedThreadFactory("Provenance Repository Maintenance"));
+        maintenanceExecutor.scheduleWithFixedDelay(this::performMaintenance, 1, 1, TimeUnit.MINUTES);
+        maintenanceExecutor.scheduleWithFixedDelay(this::purgeObsoleteQueries, 30, 30, TimeUnit.SECONDS);
+    }
+
+    private void recoverSegments() {
+        for (final File storageDirectory : config.getStorageDirectories().values()) {
+            final File indexDirectory = new File(storageDirectory, INDEX_DIRECTORY_NAME);
+            final File[] files = indexDirectory.listFiles();
+            if (files == null) {
+                continue;
+            }
+
+            for (final File file : files) {
+                final String filename = file.getName();
+                if (!filename.startsWith(SEGMENT_FILE_PREFIX)) {
+                    continue;
+                }
+
+                if (!filename.endsWith(SEGMENT_FILE_SUFFIX)) {
+                    // A segment that was not completely written before NiFi was stopped. Its events will be indexed again from the Event Store.
+                    if (!file.delete()) {
+                        logger.warn("Failed to delete incomplete Provenance Index Segment {}", file);
+                    }
+                    continue;
+                }
+
+                try {
+                    final EventSegment.Header header = EventSegment.readHeader(file);
+                    segmentHandles.add(new SegmentHandle(file, header));
+                    maxPersistedEventIds.merge(header.partitionName(), header.maxEventId(), Math::max);
+                } catch (final IOException ioe) {
+                    logger.warn("Provenance Index Segment {} could not be read. Will delete it and re-index the events that it contained", file, ioe);
+                    if (!file.delete()) {
+                        logger.warn("Failed to delete unreadable Provenance Index Segment {}", file);
+                    }
+                }
+            }
+        }
+
+        logger.info("Recovered {} Provenance Index Segments; max Event ID indexed per partition is {}", segmentHandles.size(), maxPersistedEventIds);
+    }
+
+    @Override
+    public void addEvents(final Map<ProvenanceEventRecord, StorageSummary> events) {
+        indexEvents(events);
+
+        for (final CachedQuery cachedQuery : cachedQueries) {
+            cachedQuery.update(events);
+        }
+    }
+
+    @Override
+    public boolean isReindexNecessary() {
+        return true;
+    }
+
+    @Override
+    public void reindexEvents(final Map<ProvenanceEventRecord, StorageSummary> events) {
+        final Map<ProvenanceEventRecord, StorageSummary> unindexed = new HashMap<>(events.size());
+        for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : events.entrySet()) {
+            final StorageSummary summary = entry.getValue();
+            final Long maxPersisted = maxPersistedEventIds.get(getPartitionName(summary));
+            if (maxPersisted == null || summary.getEventId() > maxPersisted) {
+                unindexed.put(entry.getKey(), summary);
+            }
+        }
+
+        for (final CachedQuery cachedQuery : cachedQueries) {
+            cachedQuery.update(events);
+        }
+
+        indexEvents(unindexed);
+    }
+
+    private void indexEvents(final Map<ProvenanceEventRecord, StorageSummary> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        final Map<String, List<Map.Entry<ProvenanceEventRecord, StorageSummary>>> eventsByPartition = new HashMap<>();
+        for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : events.entrySet()) {
+            eventsByPartition.computeIfAbsent(getPartitionName(entry.getValue()), key -> new ArrayList<>()).add(entry);
+        }
+
+        for (final Map.Entry<String, List<Map.Entry<ProvenanceEventRecord, StorageSummary>>> partitionEntry : eventsByPartition.entrySet()) {
+            final String partitionName = partitionEntry.getKey();
+            final List<Map.Entry<ProvenanceEventRecord, StorageSummary>> partitionEvents = partitionEntry.getValue();
+            partitionEvents.sort(Comparator.comparingLong(entry -> entry.getValue().getEventId()));
+
+            // Only one thread at a time may add to a given partition's active segment so that it can be rolled over safely.
+            synchronized (getPartitionLock(partitionName)) {
+                for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : partitionEvents) {
+                    final ProvenanceEventRecord event = entry.getKey();
+                    EventSegment segment = getActiveSegment(partitionName).getPinnedSegment();
+                    if (isRolloverNecessary(segment, event)) {
+                        segment = rollover(partitionName).getPinnedSegment();
+                    }
+
+                    segment.add(event, entry.getValue().getEventId());
+                }
+            }
+        }
+    }
+
+    private Object getPartitionLock(final String partitionName) {
+        return partitionLocks.computeIfAbsent(partitionName, key -> new Object());
+    }
+
+    private String getPartitionName(final StorageSummary summary) {
+        return summary.getPartitionName().orElse("");
+    }
+
+    private SegmentHandle getActiveSegment(final String partitionName) {
+        return activeSegments.computeIfAbsent(partitionName, this::createActiveSegment);
+    }
+
+    private SegmentHandle createActiveSegment(final String partitionName) {
+        final EventSegment segment = new EventSegment(partitionName, config.getSearchableFields(), config.getSearchableAttributes(), INITIAL_SEGMENT_CAPACITY);
+        final SegmentHandle handle = new SegmentHandle(segment);
+        segmentHandles.add(handle);
+        return handle;
+    }
+
+    private boolean isRolloverNecessary(final EventSegment segment, final ProvenanceEventRecord event) {
+        final int eventCount = segment.getEventCount();
+        if (eventCount == 0) {
+            return false;
+        }
+
+        return eventCount >= MAX_EVENTS_PER_SEGMENT || event.getEventTime() - segment.getMinEventTime() > maxSegmentMillis;
+    }
+
+    /**
+     * Replaces the active segment of the given partition with a new, empty segment and writes the previous active segment to disk in the background.
+     * The previous segment remains pinned in memory, and therefore searchable, until it has been written. The caller must hold the partition's lock.
+     */
+    private SegmentHandle rollover(final String partitionName) {
+        final SegmentHandle newHandle = createActiveSegment(partitionName);
+        final SegmentHandle previous = activeSegments.put(partitionName, newHandle);
+
+        if (previous != null) {
+            persistExecutor.submit(() -> persist(previous));
+        }
+
+        return newHandle;
+    }
+
+    /**
+     * Writes the given segment to disk, after first writing any earlier segment of the same partition that could not be written before. A segment
+     * is never written while an earlier segment of its partition is unwritten, so the segments on disk hold every event of the partition up to the
+     * greatest Event ID that they contain, which is where re-indexing starts on restart.
+     */
+    private void persist(final SegmentHandle handle) {
+        final EventSegment segment = handle.getPinnedSegment();
+        if (segment == null) {
+            return;
+        }
+
+        final Deque<SegmentHandle> unpersisted = unpersistedSegments.computeIfAbsent(segment.getPartitionName(), key -> new ArrayDeque<>());
+        unpersisted.addLast(handle);
+
+        while (!unpersisted.isEmpty()) {
+            if (!write(unpersisted.peekFirst())) {
+                // Writing the segments that follow would make it appear on restart that the unwritten segment's events had been indexed
+                logger.warn("{} Provenance Index Segments for partition {} will be written once the earliest of them can be written", unpersisted.size(), segment.getPartitionName());
+                return;
+            }
+
+            unpersisted.removeFirst();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the segment was written or had no events to write, <code>false</code> if the segment could not be written
+     */
+    private boolean write(final SegmentHandle handle) {
+        final EventSegment segment = handle.getPinnedSegment();
+        segment.seal();
+        if (segment.getEventCount() == 0) {
+            segmentHandles.remove(handle);
+            return true;
+        }
+
+        final File indexDirectory = getIndexDirectory(segment.getPartitionName());
+        final File file = new File(indexDirectory, SEGMENT_FILE_PREFIX + segment.getMinEventId() + "-" + segment.getMaxEventId() + SEGMENT_FILE_SUFFIX);
+
+        try {
+            if (!indexDirectory.exists() && !indexDirectory.mkdirs() && !indexDirectory.exists()) {
+                throw new IOException("Could not create directory " + indexDirectory);
+            }
+
+            segment.writeTo(file);
+        } catch (final IOException ioe) {
+            // Leave the segment pinned so that its events remain searchable until restart, at which point they will be re-indexed from the Event Store.
+            logger.error("Failed to write Provenance Index Segment to {}", file, ioe);
+            eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to write Provenance Index Segment to " + file + ". See logs for more information.");
+            return false;
+        }
+
+        synchronized (segmentCache) {
+            segmentCache.put(handle, segment);
+            evictSegments();
+        }
+
+        handle.unpin(file, segment.getHeader());
+        maxPersistedEventIds.merge(segment.getPartitionName(), segment.getMaxEventId(), Math::max);
+        logger.debug("Wrote {} to {}", segment, file);
+        return true;
+    }
+
+    private File getIndexDirectory(final String partitionName) {
+        final Map<String, File> storageDirectories = config.getStorageDirectories();
+        File storageDirectory = storageDirectories.get(partitionName);
+        if (storageDirectory == null) {
+            storageDirectory = storageDirectories.values().iterator().next();
+        }
+
+        return new File(storageDirectory, INDEX_DIRECTORY_NAME);
+    }
+
+    private EventSegment getSegment(final SegmentHandle handle) throws IOException {
+        final EventSegment pinned = handle.getPinnedSegment();
+        if (pinned != null) {
+            return pinned;
+        }
+
+        synchronized (segmentCache) {
+            final EventSegment cached = segmentCache.get(handle);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final File file = handle.getFile();
+        if (!segmentHandles.contains(handle) || !file.exists()) {
+            throw new FileNotFoundException("Provenance Index Segment " + file + " no longer exists");
+        }
+
+        final EventSegment segment = EventSegment.readFrom(file);
+        synchronized (segmentCache) {
+            segmentCache.put(handle, segment);
+            evictSegments();
+        }
+
+        return segment;
+    }
+
+    private void evictSegments() {
+        final Iterator<SegmentHandle> itr = segmentCache.keySet().iterator();
+        while (segmentCache.size() > MAX_CACHED_SEGMENTS && itr.hasNext()) {
+            itr.next();
+            itr.remove();
+        }
+    }
+
+    @Override
+    public long getMinimumEventIdToReindex(final String partitionName) {
+        final Long maxPersisted = maxPersistedEventIds.get(partitionName);
+        return maxPersisted == null ? 0L : maxPersisted + 1;
+    }
+
+    @Override
+    public void commitChanges(final String partitionName) throws IOException {
+        final Future<?> future;
+        synchronized (getPartitionLock(partitionName)) {
+            final SegmentHandle handle = activeSegments.get(partitionName);
+            if (handle == null || handle.getPinnedSegment().getEventCount() == 0) {
+                return;
+            }
+
+            activeSegments.put(partitionName, createActiveSegment(partitionName));
+
+            // Submitted while holding the lock so that the partition's segments are persisted in the order in which they were sealed
+            future = persistExecutor.submit(() -> persist(handle));
+        }
+
+        try {
+            future.get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Provenance Index Segment to be written", ie);
+        } catch (final Exception e) {
+            throw new IOException("Failed to write Provenance Index Segment for partition " + partitionName, e);
+        }
+    }
+
+    private List<SegmentHandle> getSegmentHandles(final long startTime, final long endTime) {
+        final List<SegmentHandle> handles = new ArrayList<>();
+        for (final SegmentHandle handle : segmentHandles) {
+            if (handle.overlaps(startTime, endTime)) {
+                handles.add(handle);
+            }
+        }
+
+        return handles;
+    }
+
+    @Override
+    public QuerySubmission submitQuery(final Query query, final EventAuthorizer authorizer, final String userId) {
+        validate(query);
+
+        // Check if we have any cached queries first that can give us the answer
+        for (final CachedQuery cachedQuery : cachedQueries) {
+            final Optional<List<Long>> eventIdListOption = cachedQuery.evaluate(query);
+            if (eventIdListOption.isPresent()) {
+                final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, 1, userId);
+                querySubmissionMap.put(query.getIdentifier(), submission);
+
+                final List<Long> eventIds = eventIdListOption.get();
+                logger.debug("Cached Query {} produced {} Event IDs for {}: {}", cachedQuery, eventIds.size(), query, eventIds);
+
+                queryExecutor.submit(() -> {
+                    try {
+                        final List<ProvenanceEventRecord> events = eventStore.getEvents(eventIds, authorizer, EventTransformer.EMPTY_TRANSFORMER);
+                        submission.getResult().update(events, eventIds.size());
+                    } catch (final Exception e) {
+                        submission.getResult().setError("Failed to retrieve Provenance Events from store; see logs for more details");
+                        logger.error("Failed to retrieve Provenance Events from store", e);
+                    }
+                });
+
+                awaitBriefly(submission.getResult());
+                return submission;
+            }
+        }
+
+        final ColumnarQuery columnarQuery = ColumnarQuery.fromQuery(query);
+        final List<SegmentHandle> handles = getSegmentHandles(columnarQuery.getMinEventTime(), columnarQuery.getMaxEventTime());
+
+        final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, handles.size(), userId);
+        querySubmissionMap.put(query.getIdentifier(), submission);
+        logger.debug("Submitting query {} with identifier {} against {} index segments", columnarQuery, query.getIdentifier(), handles.size());
+
+        if (handles.isEmpty()) {
+            submission.getResult().update(Collections.emptyList(), 0L);
+        } else {
+            handles.sort(Comparator.comparingLong(SegmentHandle::getMaxEventTime).reversed());
+
+            for (final SegmentHandle handle : handles) {
+                queryExecutor.submit(new SegmentQueryTask(columnarQuery, submission.getResult(), query.getMaxResults(), handle, this::getSegment,
+                    eventStore, authorizer, EventTransformer.EMPTY_TRANSFORMER));
+            }
+        }
+
+        awaitBriefly(submission.getResult());
+        return submission;
+    }
+
+    private void awaitBriefly(final StandardQueryResult result) {
+        // There are some queries that are optimized and will complete very quickly. As a result,
+        // we don't want to wait for the client to issue a second request, so we will give the query
+        // up to 500 milliseconds to complete before running.
+        try {
+            result.awaitCompletion(500, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getLatestCachedEvents(final String componentId, final int eventLimit) throws IOException {
+        final List<Long> eventIds = latestEventsPerProcessorQuery.getLatestEventIds(componentId);
+        if (eventIds.isEmpty()) {
+            logger.info("There are no recent Provenance Events cached for Component with ID {}", componentId);
+            return List.of();
+        }
+
+        final List<Long> filtered = eventIds.subList(0, Math.min(eventIds.size(), eventLimit));
+
+        final List<ProvenanceEventRecord> latestEvents = new ArrayList<>(filtered.size());
+        for (final Long eventId : filtered) {
+            eventStore.getEvent(eventId).ifPresent(latestEvents::add);
+        }
+
+        return latestEvents;
+    }
+
+    @Override
+    public ComputeLineageSubmission submitLineageComputation(final long eventId, final NiFiUser user, final EventAuthorizer eventAuthorizer) {
+        final Optional<ProvenanceEventRecord> eventOption;
+        try {
+            eventOption = eventStore.getEvent(eventId);
+        } catch (final Exception e) {
+            logger.error("Failed to retrieve Provenance Event with ID {} to calculate data lineage", eventId, e);
+            final AsyncLineageSubmission result = new AsyncLineageSubmission(LineageComputationType.FLOWFILE_LINEAGE, eventId, Collections.emptySet(), 1, user == null ? null : user.getIdentity());
+            result.getResult().setError("Failed to retrieve Provenance Event with ID " + eventId + ". See logs for more information.");
+            return result;
+        }
+
+        if (eventOption.isEmpty()) {
+            final AsyncLineageSubmission result = new AsyncLineageSubmission(LineageComputationType.FLOWFILE_LINEAGE, eventId, Collections.emptySet(), 1, user == null ? null : user.getIdentity());
+            result.getResult().setError("Could not find Provenance Event with ID " + eventId);
+            lineageSubmissionMap.put(result.getLineageIdentifier(), result);
+            return result;
+        }
+
+        final ProvenanceEventRecord event = eventOption.get();
+        return submitLineageComputation(Collections.singleton(event.getFlowFileUuid()), user, eventAuthorizer, LineageComputationType.FLOWFILE_LINEAGE,
+            eventId, event.getLineageStartDate(), Long.MAX_VALUE);
+    }
+
+    @Override
+    public ComputeLineageSubmission submitLineageComputation(final String flowFileUuid, final NiFiUser user, final EventAuthorizer eventAuthorizer) {
+        return submitLineageComputation(Collections.singleton(flowFileUuid), user, eventAuthorizer, LineageComputationType.FLOWFILE_LINEAGE, null, 0L, Long.MAX_VALUE);
+    }
+
+    private ComputeLineageSubmission submitLineageComputation(final Collection<String> flowFileUuids, final NiFiUser user, final EventAuthorizer eventAuthorizer,
+        final LineageComputationType computationType, final Long eventId, final long startTimestamp, final long endTimestamp) {
+
+        if (flowFileUuids.size() > MAX_LINEAGE_UUIDS) {
+            throw new IllegalArgumentException(String.format("Cannot compute lineage for more than %s FlowFiles. This lineage contains %s.", MAX_LINEAGE_UUIDS, flowFileUuids.size()));
+        }
+
+        final List<SegmentHandle> handles = getSegmentHandles(startTimestamp, endTimestamp);
+        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, handles.size(), user == null ? null : user.getIdentity());
+        lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+
+        if (handles.isEmpty() || flowFileUuids.isEmpty()) {
+            submission.getResult().update(Collections.emptyList(), 0L);
+        } else {
+            final ColumnarQuery lineageQuery = ColumnarQuery.forFlowFileUuids(flowFileUuids);
+            handles.sort(Comparator.comparingLong(SegmentHandle::getMinEventTime));
+
+            for (final SegmentHandle handle : handles) {
+                queryExecutor.submit(new SegmentQueryTask(lineageQuery, submission.getResult(), MAX_LINEAGE_NODES, handle, this::getSegment,
+                    eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
+            }
+        }
+
+        // Some computations will complete very quickly. In this case, we don't want to wait
+        // for the client to submit a second query to obtain the result. Instead, we want to just
+        // wait some short period of time for the computation to complete before returning the submission.
+        try {
+            submission.getResult().awaitCompletion(500, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        return submission;
+    }
+
+    @Override
+    public ComputeLineageSubmission submitExpandChildren(final long eventId, final NiFiUser user, final EventAuthorizer authorizer) {
+        final String userId = user == null ? null : user.getIdentity();
+
+        try {
+            final Optional<ProvenanceEventRecord> eventOption = eventStore.getEvent(eventId);
+            if (eventOption.isEmpty()) {
+                final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_CHILDREN, eventId, Collections.emptyList(), 1, userId);
+                lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                submission.getResult().update(Collections.emptyList(), 0L);
+                return submission;
+            }
+
+            final ProvenanceEventRecord event = eventOption.get();
+            switch (event.getEventType()) {
+                case CLONE:
+                case FORK:
+                case JOIN:
+                case REPLAY: {
+                    return submitLineageComputation(event.getChildUuids(), user, authorizer, LineageComputationType.EXPAND_CHILDREN,
+                        eventId, event.getEventTime(), Long.MAX_VALUE);
+                }
+                default: {
+                    final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_CHILDREN,
+                        eventId, Collections.emptyList(), 1, userId);
+
+                    lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                    submission.getResult().setError("Event ID " + eventId + " indicates an event of type " + event.getEventType() + " so its children cannot be expanded");
+                    return submission;
+                }
+            }
+        } catch (final Exception e) {
+            final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_CHILDREN,
+                eventId, Collections.emptyList(), 1, userId);
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+            submission.getResult().setError("Failed to expand children for lineage of event with ID " + eventId + " due to: " + e);
+            return submission;
+        }
+    }
+
+    @Override
+    public ComputeLineageSubmission submitExpandParents(final long eventId, final NiFiUser user, final EventAuthorizer authorizer) {
+        final String userId = user == null ? null : user.getIdentity();
+
+        try {
+            final Optional<ProvenanceEventRecord> eventOption = eventStore.getEvent(eventId);
+            if (eventOption.isEmpty()) {
+                final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_PARENTS, eventId, Collections.emptyList(), 1, userId);
+                lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                submission.getResult().update(Collections.emptyList(), 0L);
+                return submission;
+            }
+
+            final ProvenanceEventRecord event = eventOption.get();
+            switch (event.getEventType()) {
+                case JOIN:
+                case FORK:
+                case CLONE:
+                case REPLAY: {
+                    return submitLineageComputation(event.getParentUuids(), user, authorizer, LineageComputationType.EXPAND_PARENTS,
+                        eventId, event.getLineageStartDate(), event.getEventTime());
+                }
+                default: {
+                    final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_PARENTS,
+                        eventId, Collections.emptyList(), 1, userId);
+
+                    lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+                    submission.getResult().setError("Event ID " + eventId + " indicates an event of type " + event.getEventType() + " so its parents cannot be expanded");
+                    return submission;
+                }
+            }
+        } catch (final Exception e) {
+            final AsyncLineageSubmission submission = new AsyncLineageSubmission(LineageComputationType.EXPAND_PARENTS,
+                eventId, Collections.emptyList(), 1, userId);
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+
+            submission.getResult().setError("Failed to expand parents for lineage of event with ID " + eventId + " due to: " + e);
+            return submission;
+        }
+    }
+
+    @Override
+    public AsyncLineageSubmission retrieveLineageSubmission(final String lineageIdentifier, final NiFiUser user) {
+        final AsyncLineageSubmission submission = lineageSubmissionMap.get(lineageIdentifier);
+
+        if (submission == null) {
+            throw new AccessDeniedException("Cannot retrieve Provenance Lineage Submission. It has already been deleted or submitted to another NiFi node in the cluster.");
+        }
+
+        final String userId = submission.getSubmitterIdentity();
+
+        if (user == null && userId == null) {
+            return submission;
+        }
+
+        if (user == null) {
+            throw new AccessDeniedException("Cannot retrieve Provenance Lineage Submission because no user id was provided");
+        }
+
+        if (userId == null || userId.equals(user.getIdentity())) {
+            return submission;
+        }
+
+        throw new AccessDeniedException("Cannot retrieve Provenance Lineage Submission because " + user.getIdentity() + " is not the user who submitted the request");
+    }
+
+    @Override
+    public QuerySubmission retrieveQuerySubmission(final String queryIdentifier, final NiFiUser user) {
+        final QuerySubmission submission = querySubmissionMap.get(queryIdentifier);
+
+        final String userId = submission.getSubmitterIdentity();
+
+        if (user == null && userId == null) {
+            return submission;
+        }
+
+        if (user == null) {
+            throw new AccessDeniedException("Cannot retrieve Provenance Query Submission because no user id was provided");
+        }
+
+        if (userId == null || userId.equals(user.getIdentity())) {
+            return submission;
+        }
+
+        throw new AccessDeniedException("Cannot retrieve Provenance Query Submission because " + user.getIdentity() + " is not the user who submitted the request");
+    }
+
+    @Override
+    public long getSize() {
+        long total = 0L;
+        for (final SegmentHandle handle : segmentHandles) {
+            final File file = handle.getFile();
+            if (file != null) {
+                total += file.length();
+            }
+        }
+        return total;
+    }
+
+    private void validate(final Query query) {
+        final int numQueries = querySubmissionMap.size();
+        if (numQueries > MAX_UNDELETED_QUERY_RESULTS) {
+            purgeObsoleteQueries();
+            if (querySubmissionMap.size() > MAX_UNDELETED_QUERY_RESULTS) {
+                throw new IllegalStateException("Cannot process query because there are currently " + numQueries + " queries whose results have not "
+                    + "been deleted due to poorly behaving clients not issuing DELETE requests. Please try again later.");
+            }
+        }
+
+        if (query.getEndDate() != null && query.getStartDate() != null && query.getStartDate().getTime() > query.getEndDate().getTime()) {
+            throw new IllegalArgumentException("Query End Time cannot be before Query Start Time");
+        }
+    }
+
+    void performMaintenance() {
+        try {
+            final List<ProvenanceEventRecord> firstEvents = eventStore.getEvents(0, 1);
+            if (firstEvents.isEmpty()) {
+                logger.debug("Found no events in the Provenance Repository; will not delete any Provenance Index Segments");
+                return;
+            }
+
+            final long firstEventId = firstEvents.get(0).getEventId();
+            for (final SegmentHandle handle : segmentHandles) {
+                if (handle.getPinnedSegment() != null || handle.getMaxEventId() >= firstEventId) {
+                    continue;
+                }
+
+                segmentHandles.remove(handle);
+                synchronized (segmentCache) {
+                    segmentCache.remove(handle);
+                }
+
+                final File file = handle.getFile();
+                if (file.delete()) {
+                    logger.info("Successfully removed expired Provenance Index Segment {}", file);
+                } else if (file.exists()) {
+                    logger.warn("The Provenance Index Segment located at {} has expired and contains no Provenance Events that still exist in the repository. "
+                        + "However, the file could not be deleted.", file);
+                }
+            }
+        } catch (final Exception e) {
+            logger.error("Failed to perform background maintenance procedures", e);
+            eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to perform maintenance of Provenance Repository. See logs for more information.");
+        }
+    }
+
+    private void purgeObsoleteQueries() {
+        try {
+            final Date now = new Date();
+
+            final Iterator<Map.Entry<String, AsyncQuerySubmission>> queryIterator = querySubmissionMap.entrySet().iterator();
+            while (queryIterator.hasNext()) {
+                final Map.Entry<String, AsyncQuerySubmission> entry = queryIterator.next();
+
+                final StandardQueryResult result = entry.getValue().getResult();
+                if (entry.getValue().isCanceled() || result.isFinished() && result.getExpiration().before(now)) {
+                    queryIterator.remove();
+                }
+            }
+
+            final Iterator<Map.Entry<String, AsyncLineageSubmission>> lineageIterator = lineageSubmissionMap.entrySet().iterator();
+            while (lineageIterator.hasNext()) {
+                final Map.Entry<String, AsyncLineageSubmission> entry = lineageIterator.next();
+
+                final StandardLineageResult result = entry.getValue().getResult();
+                if (entry.getValue().isCanceled() || result.isFinished() && result.getExpiration().before(now)) {
+                    lineageIterator.remove();
+                }
+            }
+        } catch (final Exception e) {
+            logger.error("Failed to expire Provenance Query Results", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        queryExecutor.shutdownNow();
+
+        if (maintenanceExecutor != null) {
+            maintenanceExecutor.shutdown();
+        }
+
+        for (final String partitionName : new ArrayList<>(activeSegments.keySet())) {
+            try {
+                commitChanges(partitionName);
+            } catch (final IOException ioe) {
+                logger.warn("Failed to write Provenance Index Segment for partition {} on shutdown; its events will be re-indexed on restart", partitionName, ioe);
+            }
+        }
+
+        persistExecutor.shutdown();
+        try {
+            if (!persistExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Timed out waiting for Provenance Index Segments to be written; their events will be re-indexed on restart");
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.processor.DataUnit;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A query against an {@link EventSegment}. Search terms are matched in the same way as the Lucene-based index matches them:
+ * values are compared case-insensitively, <code>*</code> and <code>?</code> are treated as wildcards, and an inverted term
+ * excludes the rows that it matches.
+ */
+class ColumnarQuery {
+    private final List<Term> terms;
+    private final long minEventTime;
+    private final long maxEventTime;
+    private final long minFileSize;
+    private final long maxFileSize;
+
+    private ColumnarQuery(final List<Term> terms, final long minEventTime, final long maxEventTime, final long minFileSize, final long maxFileSize) {
+        this.terms = terms;
+        this.minEventTime = minEventTime;
+        this.maxEventTime = maxEventTime;
+        this.minFileSize = minFileSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    static ColumnarQuery fromQuery(final Query query) {
+        final List<Term> terms = new ArrayList<>();
+        for (final SearchTerm searchTerm : query.getSearchTerms()) {
+            final String searchValue = searchTerm.getValue();
+            if (searchValue == null) {
+                throw new IllegalArgumentException("Empty search value not allowed (for term '" + searchTerm.getSearchableField().getFriendlyName() + "')");
+            }
+
+            final String fieldName = searchTerm.getSearchableField().getSearchableFieldName();
+            final String normalized = searchValue.toLowerCase();
+            final boolean inverted = Boolean.TRUE.equals(searchTerm.isInverted());
+
+            if (normalized.contains("*") || normalized.contains("?")) {
+                terms.add(new Term(fieldName, Collections.emptySet(), toPattern(normalized), inverted));
+            } else {
+                terms.add(new Term(fieldName, Collections.singleton(normalized), null, inverted));
+            }
+        }
+
+        final long minFileSize = query.getMinFileSize() == null ? 0L : DataUnit.parseDataSize(query.getMinFileSize(), DataUnit.B).longValue();
+        final long maxFileSize = query.getMaxFileSize() == null ? Long.MAX_VALUE : DataUnit.parseDataSize(query.getMaxFileSize(), DataUnit.B).longValue();
+        final long minEventTime = query.getStartDate() == null ? 0L : query.getStartDate().getTime();
+        final long maxEventTime = query.getEndDate() == null ? Long.MAX_VALUE : query.getEndDate().getTime();
+
+        return new ColumnarQuery(terms, minEventTime, maxEventTime, minFileSize, maxFileSize);
+    }
+
+    /**
+     * Creates a query that matches any event that pertains to any of the given FlowFiles, including events that name the FlowFile
+     * as a parent or child
+     *
+     * @param flowFileUuids the UUIDs of the FlowFiles of interest
+     * @return the query
+     */
+    static ColumnarQuery forFlowFileUuids(final Collection<String> flowFileUuids) {
+        final Set<String> values = new LinkedHashSet<>();
+        for (final String uuid : flowFileUuids) {
+            values.add(uuid.toLowerCase());
+        }
+
+        final Term term = new Term(SearchableFields.FlowFileUUID.getSearchableFieldName(), values, null, false);
+        return new ColumnarQuery(Collections.singletonList(term), 0L, Long.MAX_VALUE, 0L, Long.MAX_VALUE);
+    }
+
+    private static Pattern toPattern(final String wildcardValue) {
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder literal = new StringBuilder();
+        for (final char c : wildcardValue.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    List<Term> getTerms() {
+        return terms;
+    }
+
+    long getMinEventTime() {
+        return minEventTime;
+    }
+
+    long getMaxEventTime() {
+        return maxEventTime;
+    }
+
+    long getMinFileSize() {
+        return minFileSize;
+    }
+
+    long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    boolean isTimeOrSizeBounded() {
+        return minEventTime > 0L || maxEventTime < Long.MAX_VALUE || minFileSize > 0L || maxFileSize < Long.MAX_VALUE;
+    }
+
+    /**
+     * A single search term. A row matches the term if its value for the field is any of the given values or, if a pattern is given,
+     * matches the pattern.
+     */
+    record Term(String fieldName, Set<String> values, Pattern pattern, boolean inverted) {
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarQuery[terms=" + terms + ", eventTime=[" + minEventTime + ", " + maxEventTime + "], fileSize=[" + minFileSize + ", " + maxFileSize + "]]";
+    }
+}
@@ -0,0 +1,598 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.search.SearchableField;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * A segment of the columnar index, holding the indexed fields of a contiguous range of Provenance Events from a single partition of
+ * the Event Store. The Event ID, Event Time, and File Size of each event are stored as arrays of longs, and each searchable field is
+ * stored as a dictionary-encoded {@link StringColumn}. The FlowFile UUID, Component ID, and Event Type are always indexed so that
+ * lineage and the most common queries can always be answered from the index.
+ * </p>
+ *
+ * <p>
+ * A segment is appended to until it is sealed. Once sealed, it is immutable and may be written to disk and read back.
+ * </p>
+ */
+class EventSegment {
+    static final int MAGIC = 0x4E504349; // NPCI
+    static final int VERSION = 1;
+
+    private static final List<SearchableField> ALWAYS_INDEXED_FIELDS = List.of(SearchableFields.FlowFileUUID, SearchableFields.ComponentID, SearchableFields.EventType);
+    private static final List<SearchableField> NON_STRING_FIELDS = List.of(SearchableFields.EventTime, SearchableFields.FileSize,
+        SearchableFields.LineageStartDate, SearchableFields.Identifier);
+
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final Lock readLock = rwLock.readLock();
+    private final Lock writeLock = rwLock.writeLock();
+
+    private final String partitionName;
+    private final List<SearchableField> eventFields;
+    private final List<SearchableField> attributeFields;
+    private final Set<String> sharedColumnNames;
+    private final Map<String, StringColumn> columns;
+
+    private long[] eventIds;
+    private long[] eventTimes;
+    private long[] fileSizes;
+    private int rowCount = 0;
+    private long minEventId = Long.MAX_VALUE;
+    private long maxEventId = -1L;
+    private long minEventTime = Long.MAX_VALUE;
+    private long maxEventTime = -1L;
+    private boolean idsAscending = true;
+    private volatile boolean sealed = false;
+
+    EventSegment(final String partitionName, final List<SearchableField> searchableFields, final List<SearchableField> searchableAttributes, final int initialCapacity) {
+        this.partitionName = partitionName;
+        this.eventIds = new long[initialCapacity];
+        this.eventTimes = new long[initialCapacity];
+        this.fileSizes = new long[initialCapacity];
+
+        final List<SearchableField> fields = new ArrayList<>(ALWAYS_INDEXED_FIELDS);
+        for (final SearchableField field : searchableFields) {
+            if (!fields.contains(field) && !NON_STRING_FIELDS.contains(field)) {
+                fields.add(field);
+            }
+        }
+        this.eventFields = Collections.unmodifiableList(fields);
+
+        this.columns = new LinkedHashMap<>();
+        for (final SearchableField field : eventFields) {
+            columns.put(field.getSearchableFieldName(), new StringColumn(field.getSearchableFieldName(), initialCapacity));
+        }
+
+        // An attribute whose name is the same as that of an event field shares the event field's column, as it does in the Lucene-based index
+        final List<SearchableField> attributes = new ArrayList<>();
+        final Set<String> sharedColumnNames = new HashSet<>();
+        for (final SearchableField field : searchableAttributes) {
+            final String name = field.getSearchableFieldName();
+            if (columns.containsKey(name)) {
+                if (!sharedColumnNames.add(name)) {
+                    continue;
+                }
+            } else {
+                columns.put(name, new StringColumn(name, initialCapacity));
+            }
+            attributes.add(field);
+        }
+        this.attributeFields = Collections.unmodifiableList(attributes);
+        this.sharedColumnNames = Collections.unmodifiableSet(sharedColumnNames);
+    }
+
+    private EventSegment(final String partitionName, final Map<String, StringColumn> columns, final long[] eventIds, final long[] eventTimes, final long[] fileSizes,
+                         final int rowCount, final boolean idsAscending) {
+        this.partitionName = partitionName;
+        this.eventFields = Collections.emptyList();
+        this.attributeFields = Collections.emptyList();
+        this.sharedColumnNames = Collections.emptySet();
+        this.columns = columns;
+        this.eventIds = eventIds;
+        this.eventTimes = eventTimes;
+        this.fileSizes = fileSizes;
+        this.rowCount = rowCount;
+        this.idsAscending = idsAscending;
+        this.sealed = true;
+
+        for (int row = 0; row < rowCount; row++) {
+            minEventId = Math.min(minEventId, eventIds[row]);
+            maxEventId = Math.max(maxEventId, eventIds[row]);
+            minEventTime = Math.min(minEventTime, eventTimes[row]);
+            maxEventTime = Math.max(maxEventTime, eventTimes[row]);
+        }
+    }
+
+    /**
+     * Adds the given event to the segment
+     *
+     * @param event the event to add
+     * @param eventId the ID of the event, as assigned by the Event Store
+     */
+    void add(final ProvenanceEventRecord event, final long eventId) {
+        writeLock.lock();
+        try {
+            if (sealed) {
+                throw new IllegalStateException("Cannot add event " + eventId + " to segment for partition " + partitionName + " because the segment has been sealed");
+            }
+
+            if (rowCount == eventIds.length) {
+                final int newLength = Math.max(16, eventIds.length * 2);
+                eventIds = Arrays.copyOf(eventIds, newLength);
+                eventTimes = Arrays.copyOf(eventTimes, newLength);
+                fileSizes = Arrays.copyOf(fileSizes, newLength);
+            }
+
+            if (rowCount > 0 && eventId < eventIds[rowCount - 1]) {
+                idsAscending = false;
+            }
+
+            final long eventTime = event.getEventTime();
+            eventIds[rowCount] = eventId;
+            eventTimes[rowCount] = eventTime;
+            fileSizes[rowCount] = event.getFileSize();
+            rowCount++;
+
+            minEventId = Math.min(minEventId, eventId);
+            maxEventId = Math.max(maxEventId, eventId);
+            minEventTime = Math.min(minEventTime, eventTime);
+            maxEventTime = Math.max(maxEventTime, eventTime);
+
+            for (final SearchableField field : eventFields) {
+                columns.get(field.getSearchableFieldName()).append(normalize(getFieldValue(event, field)));
+            }
+            for (final SearchableField field : attributeFields) {
+                final String name = field.getSearchableFieldName();
+                final StringColumn column = columns.get(name);
+                final String value = normalize(event.getAttribute(name));
+                if (sharedColumnNames.contains(name)) {
+                    column.appendAdditionalValue(value);
+                } else {
+                    column.append(value);
+                }
+            }
+
+            addRelatedFlowFileUuids(event);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Indexes the UUIDs of the FlowFiles that are related to the event in the same way as the Lucene-based index does, so that a search
+     * for a FlowFile UUID also finds the events that created the FlowFile from, or merged it into, other FlowFiles.
+     */
+    private void addRelatedFlowFileUuids(final ProvenanceEventRecord event) {
+        final StringColumn uuidColumn = columns.get(SearchableFields.FlowFileUUID.getSearchableFieldName());
+        final ProvenanceEventType eventType = event.getEventType();
+        if (eventType == ProvenanceEventType.FORK || eventType == ProvenanceEventType.CLONE || eventType == ProvenanceEventType.REPLAY) {
+            for (final String uuid : event.getChildUuids()) {
+                if (!uuid.equals(event.getFlowFileUuid())) {
+                    uuidColumn.appendAdditionalValue(normalize(uuid));
+                }
+            }
+        } else if (eventType == ProvenanceEventType.JOIN) {
+            for (final String uuid : event.getParentUuids()) {
+                if (!uuid.equals(event.getFlowFileUuid())) {
+                    uuidColumn.appendAdditionalValue(normalize(uuid));
+                }
+            }
+        } else if (eventType == ProvenanceEventType.RECEIVE && event.getSourceSystemFlowFileIdentifier() != null) {
+            final String sourceIdentifier = event.getSourceSystemFlowFileIdentifier();
+            final int lastColon = sourceIdentifier.lastIndexOf(":");
+            if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
+                uuidColumn.appendAdditionalValue(normalize(sourceIdentifier.substring(lastColon + 1)));
+            }
+        }
+    }
+
+    private static String normalize(final String value) {
+        return value == null ? null : value.toLowerCase();
+    }
+
+    private static String getFieldValue(final ProvenanceEventRecord event, final SearchableField field) {
+        if (field.equals(SearchableFields.FlowFileUUID)) {
+            return event.getFlowFileUuid();
+        } else if (field.equals(SearchableFields.Filename)) {
+            return event.getAttribute(CoreAttributes.FILENAME.key());
+        } else if (field.equals(SearchableFields.ComponentID)) {
+            return event.getComponentId();
+        } else if (field.equals(SearchableFields.AlternateIdentifierURI)) {
+            return event.getAlternateIdentifierUri();
+        } else if (field.equals(SearchableFields.EventType)) {
+            return event.getEventType().name();
+        } else if (field.equals(SearchableFields.Relationship)) {
+            return event.getRelationship();
+        } else if (field.equals(SearchableFields.Details)) {
+            return event.getDetails();
+        } else if (field.equals(SearchableFields.ContentClaimSection)) {
+            return event.getContentClaimSection();
+        } else if (field.equals(SearchableFields.ContentClaimContainer)) {
+            return event.getContentClaimContainer();
+        } else if (field.equals(SearchableFields.ContentClaimIdentifier)) {
+            return event.getContentClaimIdentifier();
+        } else if (field.equals(SearchableFields.SourceQueueIdentifier)) {
+            return event.getSourceQueueIdentifier();
+        } else if (field.equals(SearchableFields.TransitURI)) {
+            return event.getTransitUri();
+        }
+
+        return null;
+    }
+
+    /**
+     * Seals the segment so that no more events can be added to it, compacting and sorting the column dictionaries and building the bitmap indexes
+     */
+    void seal() {
+        writeLock.lock();
+        try {
+            if (sealed) {
+                return;
+            }
+
+            for (final StringColumn column : columns.values()) {
+                column.seal();
+            }
+
+            eventIds = Arrays.copyOf(eventIds, rowCount);
+            eventTimes = Arrays.copyOf(eventTimes, rowCount);
+            fileSizes = Arrays.copyOf(fileSizes, rowCount);
+            sealed = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the events in this segment that match the given query
+     *
+     * @param query the query to evaluate
+     * @param maxResults the maximum number of Event IDs to return
+     * @return the result of the search, with the matching Event IDs ordered from newest to oldest
+     */
+    SearchResult search(final ColumnarQuery query, final int maxResults) {
+        readLock.lock();
+        try {
+            if (rowCount == 0 || query.getMinEventTime() > maxEventTime || query.getMaxEventTime() < minEventTime) {
+                return new SearchResult(new long[0], 0L);
+            }
+
+            final BitSet rows = findMatchingRows(query);
+            final int totalHits = rows.cardinality();
+            final int resultCount = Math.min(totalHits, maxResults);
+            final long[] results = new long[resultCount];
+
+            if (idsAscending) {
+                int index = 0;
+                for (int row = rows.previousSetBit(rowCount - 1); row >= 0 && index < resultCount; row = rows.previousSetBit(row - 1)) {
+                    results[index++] = eventIds[row];
+                }
+            } else {
+                final long[] matchingIds = new long[totalHits];
+                int index = 0;
+                for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                    matchingIds[index++] = eventIds[row];
+                }
+
+                Arrays.sort(matchingIds);
+                for (int i = 0; i < resultCount; i++) {
+                    results[i] = matchingIds[matchingIds.length - 1 - i];
+                }
+            }
+
+            return new SearchResult(results, totalHits);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private BitSet findMatchingRows(final ColumnarQuery query) {
+        BitSet rows = null;
+
+        // Evaluate the positive terms first, as they can only narrow the result, and then remove the rows that match any of the inverted terms.
+        for (final ColumnarQuery.Term term : query.getTerms()) {
+            if (term.inverted()) {
+                continue;
+            }
+
+            final BitSet termRows = findRows(term);
+            if (rows == null) {
+                rows = termRows;
+            } else {
+                rows.and(termRows);
+            }
+
+            if (rows.isEmpty()) {
+                return rows;
+            }
+        }
+
+        if (rows == null) {
+            rows = new BitSet(rowCount);
+            rows.set(0, rowCount);
+        }
+
+        for (final ColumnarQuery.Term term : query.getTerms()) {
+            if (term.inverted()) {
+                rows.andNot(findRows(term));
+            }
+        }
+
+        if (query.isTimeOrSizeBounded()) {
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                final long eventTime = eventTimes[row];
+                final long fileSize = fileSizes[row];
+                if (eventTime < query.getMinEventTime() || eventTime > query.getMaxEventTime() || fileSize < query.getMinFileSize() || fileSize > query.getMaxFileSize()) {
+                    rows.clear(row);
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private BitSet findRows(final ColumnarQuery.Term term) {
+        final BitSet rows = new BitSet(rowCount);
+        final StringColumn column = columns.get(term.fieldName());
+        if (column == null) {
+            return rows;
+        }
+
+        if (term.pattern() == null) {
+            for (final String value : term.values()) {
+                column.findRows(value, rows);
+            }
+        } else {
+            column.findRows(term.pattern(), rows);
+        }
+
+        return rows;
+    }
+
+    String getPartitionName() {
+        return partitionName;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int getEventCount() {
+        readLock.lock();
+        try {
+            return rowCount;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    long getMinEventId() {
+        readLock.lock();
+        try {
+            return minEventId;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    long getMaxEventId() {
+        readLock.lock();
+        try {
+            return maxEventId;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    long getMinEventTime() {
+        readLock.lock();
+        try {
+            return minEventTime;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    long getMaxEventTime() {
+        readLock.lock();
+        try {
+            return maxEventTime;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    Header getHeader() {
+        readLock.lock();
+        try {
+            return new Header(partitionName, rowCount, minEventId, maxEventId, minEventTime, maxEventTime);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the sealed segment to the given file. The segment is first written to a temporary file that is then renamed, so that a
+     * partially written segment is never mistaken for a complete one.
+     *
+     * @param file the file to write to
+     * @throws IOException if unable to write to the file
+     */
+    void writeTo(final File file) throws IOException {
+        if (!sealed) {
+            throw new IllegalStateException("Cannot write segment for partition " + partitionName + " because it has not been sealed");
+        }
+
+        final File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (final FileOutputStream fos = new FileOutputStream(tempFile);
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 65536))) {
+
+            writeHeader(out);
+
+            out.writeBoolean(idsAscending);
+            for (int row = 0; row < rowCount; row++) {
+                out.writeLong(eventIds[row]);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                out.writeLong(eventTimes[row]);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                out.writeLong(fileSizes[row]);
+            }
+
+            out.writeInt(columns.size());
+            for (final StringColumn column : columns.values()) {
+                column.writeTo(out);
+            }
+
+            out.flush();
+            fos.getFD().sync();
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeHeader(final DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(partitionName);
+        out.writeInt(rowCount);
+        out.writeLong(minEventId);
+        out.writeLong(maxEventId);
+        out.writeLong(minEventTime);
+        out.writeLong(maxEventTime);
+    }
+
+    /**
+     * Reads only the header of the segment file, which describes the range of events in the segment
+     *
+     * @param file the segment file
+     * @return the header
+     * @throws IOException if unable to read the file or the file is not a valid segment file
+     */
+    static Header readHeader(final File file) throws IOException {
+        try (final InputStream fis = new FileInputStream(file);
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(fis))) {
+            return readHeader(in, file);
+        }
+    }
+
+    private static Header readHeader(final DataInputStream in, final File file) throws IOException {
+        final int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("File " + file + " is not a Provenance Index Segment");
+        }
+
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Provenance Index Segment " + file + " has version " + version + " but only version " + VERSION + " is supported");
+        }
+
+        return new Header(in.readUTF(), in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+    }
+
+    /**
+     * Reads the segment that was written to the given file by {@link #writeTo(File)}
+     *
+     * @param file the segment file
+     * @return the segment, which is sealed
+     * @throws IOException if unable to read the file or the file is not a valid segment file
+     */
+    static EventSegment readFrom(final File file) throws IOException {
+        try (final InputStream fis = new FileInputStream(file);
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(fis, 65536))) {
+
+            final Header header = readHeader(in, file);
+            final int rowCount = header.eventCount();
+
+            final boolean idsAscending = in.readBoolean();
+            final long[] eventIds = readLongs(in, rowCount);
+            final long[] eventTimes = readLongs(in, rowCount);
+            final long[] fileSizes = readLongs(in, rowCount);
+
+            final int columnCount = in.readInt();
+            final Map<String, StringColumn> columns = new LinkedHashMap<>();
+            for (int i = 0; i < columnCount; i++) {
+                final StringColumn column = StringColumn.readFrom(in);
+                if (column.getRowCount() != rowCount) {
+                    throw new IOException("Provenance Index Segment " + file + " is corrupt: column " + column.getName() + " has "
+                        + column.getRowCount() + " rows but the segment has " + rowCount);
+                }
+
+                columns.put(column.getName(), column);
+            }
+
+            return new EventSegment(header.partitionName(), columns, eventIds, eventTimes, fileSizes, rowCount, idsAscending);
+        }
+    }
+
+    private static long[] readLongs(final DataInputStream in, final int count) throws IOException {
+        final long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * The Event IDs that matched a query, ordered from newest to oldest and limited to the maximum number of results requested, along with
+     * the total number of events that matched
+     */
+    record SearchResult(long[] eventIds, long totalHits) {
+    }
+
+    /**
+     * Describes the contents of a segment file without requiring that the entire file be read
+     */
+    record Header(String partitionName, int eventCount, long minEventId, long maxEventId, long minEventTime, long maxEventTime) {
+    }
+
+    @Override
+    public String toString() {
+        return "EventSegment[partition=" + partitionName + ", events=" + getEventCount() + ", eventIds=[" + getMinEventId() + ", " + getMaxEventId() + "], sealed=" + sealed + "]";
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import java.io.File;
+
+/**
+ * Describes a segment of the columnar index, so that segments can be selected for a query without reading them. A segment that is still
+ * being written to, or that has been rolled over but not yet persisted, is pinned in memory; otherwise, the segment is read from its file
+ * when it is needed.
+ */
+class SegmentHandle {
+    private final String partitionName;
+    private volatile File file;
+    private volatile EventSegment pinnedSegment;
+    private volatile EventSegment.Header header;
+
+    SegmentHandle(final File file, final EventSegment.Header header) {
+        this.file = file;
+        this.partitionName = header.partitionName();
+        this.header = header;
+        this.pinnedSegment = null;
+    }
+
+    SegmentHandle(final EventSegment pinnedSegment) {
+        this.file = null;
+        this.partitionName = pinnedSegment.getPartitionName();
+        this.pinnedSegment = pinnedSegment;
+        this.header = null;
+    }
+
+    /**
+     * @return the file that holds the segment, or <code>null</code> if the segment has not yet been written to disk
+     */
+    File getFile() {
+        return file;
+    }
+
+    String getPartitionName() {
+        return partitionName;
+    }
+
+    EventSegment getPinnedSegment() {
+        return pinnedSegment;
+    }
+
+    /**
+     * Indicates that the segment has been written to the given file, so that it no longer needs to be held in memory
+     *
+     * @param file the file that the segment was written to
+     * @param header the header of the segment file
+     */
+    void unpin(final File file, final EventSegment.Header header) {
+        this.file = file;
+        this.header = header;
+        this.pinnedSegment = null;
+    }
+
+    long getMinEventId() {
+        final EventSegment pinned = pinnedSegment;
+        return pinned == null ? header.minEventId() : pinned.getMinEventId();
+    }
+
+    long getMaxEventId() {
+        final EventSegment pinned = pinnedSegment;
+        return pinned == null ? header.maxEventId() : pinned.getMaxEventId();
+    }
+
+    long getMinEventTime() {
+        final EventSegment pinned = pinnedSegment;
+        return pinned == null ? header.minEventTime() : pinned.getMinEventTime();
+    }
+
+    long getMaxEventTime() {
+        final EventSegment pinned = pinnedSegment;
+        return pinned == null ? header.maxEventTime() : pinned.getMaxEventTime();
+    }
+
+    /**
+     * @param startTime the earliest event time of interest, inclusive
+     * @param endTime the latest event time of interest, inclusive
+     * @return <code>true</code> if the segment may contain events whose time is within the given range
+     */
+    boolean overlaps(final long startTime, final long endTime) {
+        return getMaxEventTime() >= startTime && getMinEventTime() <= endTime;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentHandle[file=" + file + ", partition=" + partitionName + ", pinned=" + (pinnedSegment != null) + "]";
+    }
+}
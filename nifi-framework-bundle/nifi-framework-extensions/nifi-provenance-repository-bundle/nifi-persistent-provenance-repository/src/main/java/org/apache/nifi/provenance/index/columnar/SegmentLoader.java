@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import java.io.IOException;
+
+interface SegmentLoader {
+
+    /**
+     * Provides the segment that the given handle refers to, reading it from disk if it is not already in memory
+     *
+     * @param handle the handle of the segment
+     * @return the segment
+     * @throws java.io.FileNotFoundException if the segment is no longer available because it has been aged off
+     * @throws IOException if unable to read the segment
+     */
+    EventSegment getSegment(SegmentHandle handle) throws IOException;
+
+}
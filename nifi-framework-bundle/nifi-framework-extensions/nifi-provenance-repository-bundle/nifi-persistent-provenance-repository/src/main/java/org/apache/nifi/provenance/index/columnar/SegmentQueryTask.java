@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.provenance.ProgressiveResult;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.store.EventStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a {@link ColumnarQuery} against a single {@link SegmentHandle segment} of the index and adds the matching events to the
+ * result. This is the columnar counterpart of the Lucene-based index's QueryTask.
+ */
+class SegmentQueryTask implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentQueryTask.class);
+
+    private final ColumnarQuery query;
+    private final ProgressiveResult queryResult;
+    private final int maxResults;
+    private final SegmentHandle segmentHandle;
+    private final SegmentLoader segmentLoader;
+    private final EventStore eventStore;
+    private final EventAuthorizer authorizer;
+    private final EventTransformer transformer;
+
+    SegmentQueryTask(final ColumnarQuery query, final ProgressiveResult result, final int maxResults, final SegmentHandle segmentHandle, final SegmentLoader segmentLoader,
+                     final EventStore eventStore, final EventAuthorizer authorizer, final EventTransformer unauthorizedTransformer) {
+        this.query = query;
+        this.queryResult = result;
+        this.maxResults = maxResults;
+        this.segmentHandle = segmentHandle;
+        this.segmentLoader = segmentLoader;
+        this.eventStore = eventStore;
+        this.authorizer = authorizer;
+        this.transformer = unauthorizedTransformer;
+    }
+
+    @Override
+    public void run() {
+        if (queryResult.getTotalHitCount() >= maxResults) {
+            logger.debug("Will not query segment {} because maximum results have already been obtained", segmentHandle);
+            queryResult.update(Collections.emptyList(), 0L);
+            return;
+        }
+
+        if (queryResult.isFinished()) {
+            logger.debug("Will not query segment {} because the query is already finished", segmentHandle);
+            return;
+        }
+
+        try {
+            final long startNanos = System.nanoTime();
+
+            final EventSegment segment;
+            try {
+                segment = segmentLoader.getSegment(segmentHandle);
+            } catch (final FileNotFoundException fnfe) {
+                // The segment aged off between the time that the query was submitted and now, so it holds no events that are still available.
+                logger.debug("Attempted to search Provenance Index Segment {} but it no longer exists, most likely because it was aged off", segmentHandle);
+                queryResult.update(Collections.emptyList(), 0L);
+                return;
+            }
+
+            final EventSegment.SearchResult searchResult = segment.search(query, maxResults);
+            final long searchNanos = System.nanoTime() - startNanos;
+
+            if (queryResult.isFinished()) {
+                logger.debug("Will not read events from store for {} because the query has already finished", segmentHandle);
+                return;
+            }
+
+            final long[] eventIdArray = searchResult.eventIds();
+            final List<Long> eventIds = new ArrayList<>(eventIdArray.length);
+            for (final long eventId : eventIdArray) {
+                eventIds.add(eventId);
+            }
+
+            final List<ProvenanceEventRecord> events = eventIds.isEmpty() ? Collections.emptyList() : eventStore.getEvents(eventIds, authorizer, transformer);
+            queryResult.update(events, searchResult.totalHits());
+
+            logger.debug("Successfully queried segment {} for query {}; found {} hits in {} millis and retrieved {} events in {} millis total",
+                segmentHandle, query, searchResult.totalHits(), TimeUnit.NANOSECONDS.toMillis(searchNanos), events.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (final Exception e) {
+            logger.error("Failed to query events against Provenance Index Segment {}", segmentHandle, e);
+            queryResult.setError("Failed to complete query due to " + e);
+        }
+    }
+}
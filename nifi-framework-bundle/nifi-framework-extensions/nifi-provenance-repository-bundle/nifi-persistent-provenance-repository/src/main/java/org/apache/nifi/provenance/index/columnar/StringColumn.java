@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * A dictionary-encoded column of Strings. Each distinct value is stored once in the dictionary, and each row stores only the
+ * integer code of its value, or {@link #NO_VALUE} if the row has no value for the column. A row may have additional values,
+ * such as the parent or child FlowFile UUIDs of a FORK or JOIN event; these are stored as (row, code) pairs.
+ * </p>
+ *
+ * <p>
+ * While a column is being appended to, its dictionary is backed by a HashMap. Once the column is sealed, the dictionary is sorted
+ * so that a value can be found with a binary search, and a bitmap of matching rows is built for every value if the column has few
+ * enough distinct values for the bitmaps to be cheap. Columns with many distinct values, such as FlowFile UUID, are instead searched
+ * by scanning the codes, which requires only a single comparison of integers per row.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe. Access is guarded by the {@link EventSegment} that owns the column.
+ * </p>
+ */
+class StringColumn {
+    static final int NO_VALUE = -1;
+    static final int MAX_BITMAP_CARDINALITY = 64;
+
+    private final String name;
+
+    private Map<String, Integer> codesByValue = new HashMap<>();
+    private String[] dictionary;
+    private int dictionarySize = 0;
+
+    private int[] codes;
+    private int rowCount = 0;
+
+    private int[] extraRows = new int[0];
+    private int[] extraCodes = new int[0];
+    private int extraCount = 0;
+
+    private BitSet[] bitmaps;
+    private boolean sealed = false;
+
+    StringColumn(final String name, final int initialCapacity) {
+        this.name = name;
+        this.dictionary = new String[16];
+        this.codes = new int[initialCapacity];
+    }
+
+    private StringColumn(final String name, final String[] dictionary, final int[] codes, final int rowCount,
+                         final int[] extraRows, final int[] extraCodes) {
+        this.name = name;
+        this.codesByValue = null;
+        this.dictionary = dictionary;
+        this.dictionarySize = dictionary.length;
+        this.codes = codes;
+        this.rowCount = rowCount;
+        this.extraRows = extraRows;
+        this.extraCodes = extraCodes;
+        this.extraCount = extraRows.length;
+        this.sealed = true;
+        buildBitmaps();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    int getCardinality() {
+        return dictionarySize;
+    }
+
+    /**
+     * Appends a row to the column. Rows must be appended in order, one call per row.
+     *
+     * @param value the (already normalized) value of the row, or <code>null</code> if the row has no value
+     */
+    void append(final String value) {
+        if (rowCount == codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(16, codes.length * 2));
+        }
+
+        codes[rowCount++] = value == null ? NO_VALUE : encode(value);
+    }
+
+    /**
+     * Adds another value to the most recently appended row
+     *
+     * @param value the additional value
+     */
+    void appendAdditionalValue(final String value) {
+        if (value == null) {
+            return;
+        }
+
+        if (extraCount == extraRows.length) {
+            final int newLength = Math.max(16, extraRows.length * 2);
+            extraRows = Arrays.copyOf(extraRows, newLength);
+            extraCodes = Arrays.copyOf(extraCodes, newLength);
+        }
+
+        extraRows[extraCount] = rowCount - 1;
+        extraCodes[extraCount] = encode(value);
+        extraCount++;
+    }
+
+    private int encode(final String value) {
+        final Integer existing = codesByValue.get(value);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (dictionarySize == dictionary.length) {
+            dictionary = Arrays.copyOf(dictionary, dictionary.length * 2);
+        }
+
+        final int code = dictionarySize++;
+        dictionary[code] = value;
+        codesByValue.put(value, code);
+        return code;
+    }
+
+    /**
+     * Sorts the dictionary, re-encodes the rows accordingly, and builds the bitmap indexes. No rows may be appended afterward.
+     */
+    void seal() {
+        if (sealed) {
+            return;
+        }
+
+        final String[] sortedDictionary = Arrays.copyOf(dictionary, dictionarySize);
+        Arrays.sort(sortedDictionary);
+
+        final int[] newCodes = new int[dictionarySize];
+        for (int newCode = 0; newCode < sortedDictionary.length; newCode++) {
+            newCodes[codesByValue.get(sortedDictionary[newCode])] = newCode;
+        }
+
+        for (int row = 0; row < rowCount; row++) {
+            final int code = codes[row];
+            if (code != NO_VALUE) {
+                codes[row] = newCodes[code];
+            }
+        }
+        for (int i = 0; i < extraCount; i++) {
+            extraCodes[i] = newCodes[extraCodes[i]];
+        }
+
+        dictionary = sortedDictionary;
+        codes = Arrays.copyOf(codes, rowCount);
+        extraRows = Arrays.copyOf(extraRows, extraCount);
+        extraCodes = Arrays.copyOf(extraCodes, extraCount);
+        codesByValue = null;
+        sealed = true;
+
+        buildBitmaps();
+    }
+
+    private void buildBitmaps() {
+        if (dictionarySize > MAX_BITMAP_CARDINALITY) {
+            bitmaps = null;
+            return;
+        }
+
+        bitmaps = new BitSet[dictionarySize];
+        for (int code = 0; code < dictionarySize; code++) {
+            bitmaps[code] = new BitSet();
+        }
+
+        for (int row = 0; row < rowCount; row++) {
+            final int code = codes[row];
+            if (code != NO_VALUE) {
+                bitmaps[code].set(row);
+            }
+        }
+        for (int i = 0; i < extraCount; i++) {
+            bitmaps[extraCodes[i]].set(extraRows[i]);
+        }
+    }
+
+    /**
+     * @param value the value to look up
+     * @return the code of the given value, or {@link #NO_VALUE} if no row has the value
+     */
+    int lookup(final String value) {
+        if (sealed) {
+            final int index = Arrays.binarySearch(dictionary, 0, dictionarySize, value);
+            return index < 0 ? NO_VALUE : index;
+        }
+
+        final Integer code = codesByValue.get(value);
+        return code == null ? NO_VALUE : code;
+    }
+
+    /**
+     * Sets the bit of each row that has the given value
+     *
+     * @param value the value to find
+     * @param rows the rows to update
+     */
+    void findRows(final String value, final BitSet rows) {
+        final int code = lookup(value);
+        if (code == NO_VALUE) {
+            return;
+        }
+
+        if (bitmaps != null) {
+            rows.or(bitmaps[code]);
+            return;
+        }
+
+        for (int row = 0; row < rowCount; row++) {
+            if (codes[row] == code) {
+                rows.set(row);
+            }
+        }
+        for (int i = 0; i < extraCount; i++) {
+            if (extraCodes[i] == code) {
+                rows.set(extraRows[i]);
+            }
+        }
+    }
+
+    /**
+     * Sets the bit of each row that has a value matching the given pattern. The pattern is evaluated once per distinct value
+     * rather than once per row.
+     *
+     * @param pattern the pattern to match
+     * @param rows the rows to update
+     */
+    void findRows(final Pattern pattern, final BitSet rows) {
+        final boolean[] matchingCodes = new boolean[dictionarySize];
+        boolean anyMatch = false;
+        for (int code = 0; code < dictionarySize; code++) {
+            if (pattern.matcher(dictionary[code]).matches()) {
+                matchingCodes[code] = true;
+                anyMatch = true;
+            }
+        }
+
+        if (!anyMatch) {
+            return;
+        }
+
+        if (bitmaps != null) {
+            for (int code = 0; code < dictionarySize; code++) {
+                if (matchingCodes[code]) {
+                    rows.or(bitmaps[code]);
+                }
+            }
+            return;
+        }
+
+        for (int row = 0; row < rowCount; row++) {
+            final int code = codes[row];
+            if (code != NO_VALUE && matchingCodes[code]) {
+                rows.set(row);
+            }
+        }
+        for (int i = 0; i < extraCount; i++) {
+            if (matchingCodes[extraCodes[i]]) {
+                rows.set(extraRows[i]);
+            }
+        }
+    }
+
+    void writeTo(final DataOutputStream out) throws IOException {
+        if (!sealed) {
+            throw new IllegalStateException("Cannot write column " + name + " because it has not been sealed");
+        }
+
+        out.writeUTF(name);
+        out.writeInt(dictionarySize);
+        for (int code = 0; code < dictionarySize; code++) {
+            final byte[] bytes = dictionary[code].getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeInt(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            out.writeInt(codes[row]);
+        }
+
+        out.writeInt(extraCount);
+        for (int i = 0; i < extraCount; i++) {
+            out.writeInt(extraRows[i]);
+            out.writeInt(extraCodes[i]);
+        }
+    }
+
+    static StringColumn readFrom(final DataInputStream in) throws IOException {
+        final String name = in.readUTF();
+
+        final int dictionarySize = in.readInt();
+        final String[] dictionary = new String[dictionarySize];
+        for (int code = 0; code < dictionarySize; code++) {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            dictionary[code] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        final int rowCount = in.readInt();
+        final int[] codes = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            codes[row] = readCode(in, dictionarySize, true);
+        }
+
+        final int extraCount = in.readInt();
+        final int[] extraRows = new int[extraCount];
+        final int[] extraCodes = new int[extraCount];
+        for (int i = 0; i < extraCount; i++) {
+            extraRows[i] = in.readInt();
+            if (extraRows[i] < 0 || extraRows[i] >= rowCount) {
+                throw new IOException("Column " + name + " references row " + extraRows[i] + " but contains only " + rowCount + " rows");
+            }
+            extraCodes[i] = readCode(in, dictionarySize, false);
+        }
+
+        return new StringColumn(name, dictionary, codes, rowCount, extraRows, extraCodes);
+    }
+
+    private static int readCode(final DataInputStream in, final int dictionarySize, final boolean allowNoValue) throws IOException {
+        final int code = in.readInt();
+        if (code >= dictionarySize || code < 0 && !(allowNoValue && code == NO_VALUE)) {
+            throw new IOException("Encountered reference to dictionary entry " + code + " but dictionary only contains " + dictionarySize + " entries");
+        }
+        return code;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.lucene;
+
+import org.apache.nifi.provenance.ProgressiveResult;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.index.SearchFailedException;
+import org.apache.nifi.provenance.store.EventStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the events that make up the lineage of one or more FlowFiles by using a {@link FlowFileLineageCache} to determine the IDs of the
+ * events, rather than querying Lucene. The events are then read from the Event Store in parallel, in batches, using the Fork/Join Pool that
+ * this task is submitted to.
+ */
+public class CachedLineageTask extends RecursiveAction {
+    private static final Logger logger = LoggerFactory.getLogger(CachedLineageTask.class);
+    static final int EVENTS_PER_BATCH = 100;
+
+    private final FlowFileLineageCache lineageCache;
+    private final Collection<String> flowFileUuids;
+    private final ProgressiveResult result;
+    private final int maxResults;
+    private final EventStore eventStore;
+    private final EventAuthorizer authorizer;
+    private final EventTransformer transformer;
+
+    public CachedLineageTask(final FlowFileLineageCache lineageCache, final Collection<String> flowFileUuids, final ProgressiveResult result, final int maxResults,
+                             final EventStore eventStore, final EventAuthorizer authorizer, final EventTransformer unauthorizedTransformer) {
+        this.lineageCache = lineageCache;
+        this.flowFileUuids = flowFileUuids;
+        this.result = result;
+        this.maxResults = maxResults;
+        this.eventStore = eventStore;
+        this.authorizer = authorizer;
+        this.transformer = unauthorizedTransformer;
+    }
+
+    @Override
+    protected void compute() {
+        if (result.isFinished()) {
+            logger.debug("Will not compute lineage for {} because the query is already finished", flowFileUuids);
+            return;
+        }
+
+        try {
+            final long startNanos = System.nanoTime();
+            final long[] eventIds = lineageCache.getEventIds(flowFileUuids);
+
+            // Keep the most recent events, as a Lucene query would.
+            final long[] selectedIds = eventIds.length > maxResults ? Arrays.copyOfRange(eventIds, eventIds.length - maxResults, eventIds.length) : eventIds;
+            final List<ProvenanceEventRecord> events = new FetchEventsTask(selectedIds, 0, selectedIds.length).invoke();
+            result.update(events, eventIds.length);
+
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            logger.debug("Computed lineage for {} from the FlowFile lineage cache; retrieved {} events with a total of {} hits in {} millis",
+                flowFileUuids, events.size(), eventIds.length, millis);
+        } catch (final Exception e) {
+            logger.error("Failed to compute lineage for {}", flowFileUuids, e);
+            result.setError("Failed to compute lineage due to " + e);
+        }
+    }
+
+    private class FetchEventsTask extends RecursiveTask<List<ProvenanceEventRecord>> {
+        private final long[] eventIds;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private FetchEventsTask(final long[] eventIds, final int fromIndex, final int toIndex) {
+            this.eventIds = eventIds;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected List<ProvenanceEventRecord> compute() {
+            if (toIndex - fromIndex <= EVENTS_PER_BATCH) {
+                final List<Long> batch = new ArrayList<>(toIndex - fromIndex);
+                for (int i = fromIndex; i < toIndex; i++) {
+                    batch.add(eventIds[i]);
+                }
+
+                try {
+                    return eventStore.getEvents(batch, authorizer, transformer);
+                } catch (final IOException e) {
+                    throw new SearchFailedException("Unable to retrieve events from the Provenance Store", e);
+                }
+            }
+
+            final int midIndex = (fromIndex + toIndex) >>> 1;
+            final FetchEventsTask first = new FetchEventsTask(eventIds, fromIndex, midIndex);
+            final FetchEventsTask second = new FetchEventsTask(eventIds, midIndex, toIndex);
+            first.fork();
+
+            final List<ProvenanceEventRecord> secondEvents = second.compute();
+            final List<ProvenanceEventRecord> events = new ArrayList<>(first.join());
+            events.addAll(secondEvents);
+            return events;
+        }
+    }
+}
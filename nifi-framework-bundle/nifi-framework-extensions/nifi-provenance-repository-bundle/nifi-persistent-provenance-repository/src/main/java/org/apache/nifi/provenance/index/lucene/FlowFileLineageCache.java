@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.lucene;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A bounded, in-memory mapping of FlowFile UUID to the IDs of the Provenance Events that reference that FlowFile, including the FORK, CLONE,
+ * REPLAY and JOIN events that link a FlowFile to its children and parents. The cache is maintained as events are indexed, so that the events
+ * that make up the lineage of a FlowFile can be found without querying Lucene.
+ * </p>
+ *
+ * <p>
+ * The cache holds only the events that were indexed after it was created, and when it is full, the FlowFiles that were seen first are evicted.
+ * As a result, the cache can only be used to compute lineage for a FlowFile whose lineage began after the {@link #getCoverageStartTime() coverage
+ * start time}: all events for such a FlowFile must have been added after that time, and none of them can have been evicted.
+ * </p>
+ */
+public class FlowFileLineageCache {
+    private final int maxFlowFiles;
+    private final ConcurrentMap<String, FlowFileEvents> eventsByUuid = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger flowFileCount = new AtomicInteger(0);
+    private final AtomicLong coverageStartTime;
+
+    public FlowFileLineageCache(final int maxFlowFiles) {
+        this(maxFlowFiles, System.currentTimeMillis());
+    }
+
+    FlowFileLineageCache(final int maxFlowFiles, final long coverageStartTime) {
+        this.maxFlowFiles = maxFlowFiles;
+        this.coverageStartTime = new AtomicLong(coverageStartTime);
+    }
+
+    public void addEvents(final Map<ProvenanceEventRecord, StorageSummary> events) {
+        for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : events.entrySet()) {
+            final ProvenanceEventRecord event = entry.getKey();
+            final long eventId = entry.getValue().getEventId();
+            final long eventTime = event.getEventTime();
+            final String flowFileUuid = event.getFlowFileUuid();
+
+            addEvent(flowFileUuid, eventId, eventTime);
+
+            // Associate the event with the same related FlowFiles that ConvertEventToLuceneDocument indexes it under.
+            final ProvenanceEventType eventType = event.getEventType();
+            if (eventType == ProvenanceEventType.FORK || eventType == ProvenanceEventType.CLONE || eventType == ProvenanceEventType.REPLAY) {
+                for (final String childUuid : event.getChildUuids()) {
+                    if (!childUuid.equals(flowFileUuid)) {
+                        addEvent(childUuid, eventId, eventTime);
+                    }
+                }
+            } else if (eventType == ProvenanceEventType.JOIN) {
+                for (final String parentUuid : event.getParentUuids()) {
+                    if (!parentUuid.equals(flowFileUuid)) {
+                        addEvent(parentUuid, eventId, eventTime);
+                    }
+                }
+            } else if (eventType == ProvenanceEventType.RECEIVE && event.getSourceSystemFlowFileIdentifier() != null) {
+                final String sourceIdentifier = event.getSourceSystemFlowFileIdentifier();
+                final int lastColon = sourceIdentifier.lastIndexOf(":");
+                if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
+                    addEvent(sourceIdentifier.substring(lastColon + 1), eventId, eventTime);
+                }
+            }
+        }
+
+        evict();
+    }
+
+    private void addEvent(final String flowFileUuid, final long eventId, final long eventTime) {
+        if (flowFileUuid == null) {
+            return;
+        }
+
+        while (true) {
+            final FlowFileEvents flowFileEvents = eventsByUuid.computeIfAbsent(flowFileUuid, uuid -> {
+                insertionOrder.offer(uuid);
+                flowFileCount.incrementAndGet();
+                return new FlowFileEvents();
+            });
+
+            // If the entry was evicted after we obtained it, try again with a new entry.
+            if (flowFileEvents.add(eventId, eventTime)) {
+                return;
+            }
+        }
+    }
+
+    private void evict() {
+        while (flowFileCount.get() > maxFlowFiles) {
+            final String uuid = insertionOrder.poll();
+            if (uuid == null) {
+                return;
+            }
+
+            final FlowFileEvents evicted = eventsByUuid.remove(uuid);
+            if (evicted == null) {
+                continue;
+            }
+
+            flowFileCount.decrementAndGet();
+            final long latestEventTime = evicted.evict();
+            coverageStartTime.accumulateAndGet(latestEventTime + 1, Math::max);
+        }
+    }
+
+    /**
+     * @return the earliest timestamp for which all events are known to the cache
+     */
+    public long getCoverageStartTime() {
+        return coverageStartTime.get();
+    }
+
+    /**
+     * Indicates whether or not the cache holds all events for any FlowFile whose lineage began at or after the given time
+     *
+     * @param lineageStartTime the lineage start date of the FlowFile(s) of interest
+     * @return <code>true</code> if the cache can be used to compute the lineage, <code>false</code> otherwise
+     */
+    public boolean isCovered(final long lineageStartTime) {
+        return lineageStartTime >= coverageStartTime.get();
+    }
+
+    /**
+     * Provides the IDs of all events that reference any of the given FlowFiles
+     *
+     * @param flowFileUuids the UUIDs of the FlowFiles of interest
+     * @return the distinct IDs of the events, in ascending order
+     */
+    public long[] getEventIds(final Collection<String> flowFileUuids) {
+        final List<long[]> eventIdsPerFlowFile = new ArrayList<>(flowFileUuids.size());
+        int eventCount = 0;
+        for (final String flowFileUuid : flowFileUuids) {
+            final FlowFileEvents flowFileEvents = eventsByUuid.get(flowFileUuid);
+            if (flowFileEvents != null) {
+                final long[] flowFileEventIds = flowFileEvents.getEventIds();
+                eventIdsPerFlowFile.add(flowFileEventIds);
+                eventCount += flowFileEventIds.length;
+            }
+        }
+
+        final long[] eventIds = new long[eventCount];
+        int offset = 0;
+        for (final long[] flowFileEventIds : eventIdsPerFlowFile) {
+            System.arraycopy(flowFileEventIds, 0, eventIds, offset, flowFileEventIds.length);
+            offset += flowFileEventIds.length;
+        }
+
+        // An event may be associated with more than one of the FlowFiles, so remove any duplicates.
+        Arrays.sort(eventIds);
+        return Arrays.stream(eventIds).distinct().toArray();
+    }
+
+    public int getFlowFileCount() {
+        return flowFileCount.get();
+    }
+
+    private static class FlowFileEvents {
+        private long[] eventIds = new long[2];
+        private int count = 0;
+        private long latestEventTime = 0L;
+        private boolean evicted = false;
+
+        synchronized boolean add(final long eventId, final long eventTime) {
+            if (evicted) {
+                return false;
+            }
+
+            if (count == eventIds.length) {
+                eventIds = Arrays.copyOf(eventIds, count * 2);
+            }
+
+            eventIds[count++] = eventId;
+            latestEventTime = Math.max(latestEventTime, eventTime);
+            return true;
+        }
+
+        synchronized long[] getEventIds() {
+            return Arrays.copyOf(eventIds, count);
+        }
+
+        synchronized long evict() {
+            evicted = true;
+            return latestEventTime;
+        }
+    }
+}
@@ -73,6 +73,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -100,6 +101,8 @@ public class LuceneEventIndex implements EventIndex {
     private final IndexManager indexManager;
     private final ConvertEventToLuceneDocument eventConverter;
     private final IndexDirectoryManager directoryManager;
+    private final FlowFileLineageCache lineageCache;
+    private final ForkJoinPool lineagePool;
     private volatile boolean closed = false;
 
     private final TimedBuffer<TimestampedLong> queuePauseNanos = new TimedBuffer<>(TimeUnit.SECONDS, 300, new LongEntityAccess());
@@ -126,6 +129,14 @@ public class LuceneEventIndex implements EventIndex {
         cacheWarmerExecutor = Executors.newScheduledThreadPool(config.getStorageDirectories().size(), new NamedThreadFactory("Warm Lucene Index", true));
         directoryManager = new IndexDirectoryManager(config);
 
+        if (config.getLineageCacheSize() > 0) {
+            lineageCache = new FlowFileLineageCache(config.getLineageCacheSize());
+            lineagePool = new ForkJoinPool(config.getQueryThreadPoolSize());
+        } else {
+            lineageCache = null;
+            lineagePool = null;
+        }
+
         // Limit number of indexing threads to 100. When we restore the repository on restart,
         // we have to re-index up to MAX_THREADS * MAX_DOCUMENTS_PER_THREADS events prior to
         // the last event that the index holds. This is done because we could have that many
@@ -294,6 +305,10 @@ public class LuceneEventIndex implements EventIndex {
         indexExecutor.shutdown();
         cacheWarmerExecutor.shutdown();
 
+        if (lineagePool != null) {
+            lineagePool.shutdownNow();
+        }
+
         if (maintenanceExecutor != null) {
             maintenanceExecutor.shutdown();
         }
@@ -373,6 +388,10 @@ public class LuceneEventIndex implements EventIndex {
             cachedQuery.update(events);
         }
 
+        if (lineageCache != null) {
+            lineageCache.addEvents(events);
+        }
+
         final List<IndexableDocument> indexableDocs = new ArrayList<>(events.size());
         for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : events.entrySet()) {
             final ProvenanceEventRecord event = entry.getKey();
@@ -487,6 +506,10 @@ public class LuceneEventIndex implements EventIndex {
         for (final CachedQuery cachedQuery : cachedQueries) {
             cachedQuery.update(events);
         }
+
+        if (lineageCache != null) {
+            lineageCache.addEvents(events);
+        }
     }
 
 
@@ -522,20 +545,30 @@ public class LuceneEventIndex implements EventIndex {
             throw new IllegalArgumentException(String.format("Cannot compute lineage for more than %s FlowFiles. This lineage contains %s.", MAX_LINEAGE_UUIDS, flowFileUuids.size()));
         }
 
-        final List<File> indexDirs = directoryManager.getDirectories(startTimestamp, endTimestamp);
-        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, indexDirs.size(), user == null ? null : user.getIdentity());
-        lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
+        final AsyncLineageSubmission submission;
+        if (lineageCache != null && lineageCache.isCovered(startTimestamp)) {
+            // All events for the FlowFiles are known to the lineage cache, so there is no need to query Lucene.
+            submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, 1, user == null ? null : user.getIdentity());
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
 
-        final BooleanQuery lineageQuery = buildLineageQuery(flowFileUuids);
-        final List<File> indexDirectories = directoryManager.getDirectories(startTimestamp, endTimestamp);
-        if (indexDirectories.isEmpty()) {
-            submission.getResult().update(Collections.emptyList(), 0L);
+            lineagePool.execute(new CachedLineageTask(lineageCache, flowFileUuids, submission.getResult(), MAX_LINEAGE_NODES,
+                eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
         } else {
-            indexDirectories.sort(DirectoryUtils.OLDEST_INDEX_FIRST);
+            final List<File> indexDirs = directoryManager.getDirectories(startTimestamp, endTimestamp);
+            submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, indexDirs.size(), user == null ? null : user.getIdentity());
+            lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
 
-            for (final File indexDir : indexDirectories) {
-                queryExecutor.submit(new QueryTask(lineageQuery, submission.getResult(), MAX_LINEAGE_NODES, indexManager, indexDir,
-                    eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
+            final BooleanQuery lineageQuery = buildLineageQuery(flowFileUuids);
+            final List<File> indexDirectories = directoryManager.getDirectories(startTimestamp, endTimestamp);
+            if (indexDirectories.isEmpty()) {
+                submission.getResult().update(Collections.emptyList(), 0L);
+            } else {
+                indexDirectories.sort(DirectoryUtils.OLDEST_INDEX_FIRST);
+
+                for (final File indexDir : indexDirectories) {
+                    queryExecutor.submit(new QueryTask(lineageQuery, submission.getResult(), MAX_LINEAGE_NODES, indexManager, indexDir,
+                        eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
+                }
             }
         }
 
@@ -24,7 +24,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
-import java.util.zip.GZIPInputStream;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.apache.nifi.provenance.toc.TocReader;
@@ -40,7 +39,7 @@ public abstract class CompressableRecordReader implements RecordReader {
     private final ByteCountingInputStream rawInputStream;
     private final String filename;
     private final int serializationVersion;
-    private final boolean compressed;
+    private final EventFileCompression compression;
     private final TocReader tocReader;
     private final int headerLength;
     private final int maxAttributeChars;
@@ -71,13 +70,13 @@ public abstract class CompressableRecordReader implements RecordReader {
             }
         }
 
+        compression = EventFileCompression.fromFilename(filename);
+
         final InputStream readableStream;
-        if (filename.endsWith(".gz")) {
-            readableStream = new BufferedInputStream(new GZIPInputStream(limitedStream));
-            compressed = true;
-        } else {
+        if (compression == null) {
             readableStream = new BufferedInputStream(limitedStream);
-            compressed = false;
+        } else {
+            readableStream = new BufferedInputStream(compression.decompress(limitedStream));
         }
 
         byteCountingIn = new ByteCountingInputStream(readableStream);
@@ -131,6 +130,11 @@ public abstract class CompressableRecordReader implements RecordReader {
     }
 
     private void resetStreamForNextBlock() throws IOException {
+        // Release the decompressor of the previous block. It does not close the raw stream, which the next block is read from.
+        if (compression != null) {
+            dis.close();
+        }
+
         final InputStream limitedStream;
         if (tocReader == null) {
             limitedStream = rawInputStream;
@@ -144,10 +148,10 @@ public abstract class CompressableRecordReader implements RecordReader {
         }
 
         final InputStream readableStream;
-        if (compressed) {
-            readableStream = new BufferedInputStream(new GZIPInputStream(limitedStream));
-        } else {
+        if (compression == null) {
             readableStream = new BufferedInputStream(limitedStream);
+        } else {
+            readableStream = new BufferedInputStream(compression.decompress(limitedStream));
         }
 
         byteCountingIn = new ByteCountingInputStream(readableStream, rawInputStream.getBytesConsumed());
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.serialization;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import org.apache.nifi.stream.io.GZIPOutputStream;
+import org.apache.nifi.stream.io.NonCloseableInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The codec that is used to compress each block of an Event File when the file is compressed on rollover. Each block that is referenced by
+ * the Table-of-Contents is compressed independently, so that a reader is able to skip directly to the block that contains an event without
+ * decompressing any preceding block. The codec is identified by the extension of the Event File, so files written with different codecs may
+ * coexist within a repository.
+ */
+public enum EventFileCompression {
+
+    /**
+     * GZIP compression, which provides a good compression ratio but comparatively slow decompression
+     */
+    GZIP(".gz", 4096) {
+        @Override
+        public OutputStream compress(final OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, 1);
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new GZIPInputStream(new NonCloseableInputStream(in));
+        }
+    },
+
+    /**
+     * Zstandard compression, which provides a compression ratio similar to GZIP with much faster decompression, so that events can be
+     * retrieved from a compressed block far more quickly
+     */
+    ZSTD(".zst", 256 * 1024) {
+        @Override
+        public OutputStream compress(final OutputStream out) throws IOException {
+            return new ZstdOutputStreamNoFinalizer(out, 1);
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new ZstdInputStreamNoFinalizer(new NonCloseableInputStream(in));
+        }
+    };
+
+    private final String extension;
+    private final int readAheadBytes;
+
+    EventFileCompression(final String extension, final int readAheadBytes) {
+        this.extension = extension;
+        this.readAheadBytes = readAheadBytes;
+    }
+
+    /**
+     * @return the extension that is appended to the name of an Event File when it is compressed using this codec
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return the maximum number of bytes that may be read from the underlying stream in order to decompress the first bytes of a block,
+     * which is the read limit that must be used when marking a stream in order to read the header of an Event File and then reset it
+     */
+    public int getReadAheadBytes() {
+        return readAheadBytes;
+    }
+
+    /**
+     * Creates a stream that compresses a single block. Closing the returned stream completes the block and closes the given stream.
+     *
+     * @param out the stream to write the compressed block to
+     * @return a stream that compresses the data written to it
+     * @throws IOException if unable to create the stream
+     */
+    public abstract OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * Creates a stream that decompresses a single block. The decompressor may hold native resources, so the returned stream must be closed
+     * once the block has been read. Closing it does not close the given stream, so that the next block can be read from that stream.
+     *
+     * @param in the stream containing the compressed block
+     * @return a stream that provides the decompressed contents of the block
+     * @throws IOException if unable to create the stream
+     */
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * Determines the codec that was used to compress the Event File with the given name
+     *
+     * @param filename the name of the Event File
+     * @return the codec that was used to compress the file, or <code>null</code> if the file is not compressed
+     */
+    public static EventFileCompression fromFilename(final String filename) {
+        for (final EventFileCompression compression : values()) {
+            if (filename.endsWith(compression.getExtension())) {
+                return compression;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Determines the codec with the given name, ignoring case
+     *
+     * @param name the name of the codec
+     * @return the codec with the given name
+     * @throws IllegalArgumentException if there is no codec with the given name
+     */
+    public static EventFileCompression fromName(final String name) {
+        for (final EventFileCompression compression : values()) {
+            if (compression.name().equalsIgnoreCase(name.trim())) {
+                return compression;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid Event File compression codec: " + name + "; must be one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+    }
+}
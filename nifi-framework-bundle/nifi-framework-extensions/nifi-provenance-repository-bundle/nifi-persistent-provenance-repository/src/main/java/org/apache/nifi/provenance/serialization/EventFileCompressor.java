@@ -25,7 +25,6 @@ import org.apache.nifi.provenance.toc.TocUtil;
 import org.apache.nifi.provenance.toc.TocWriter;
 import org.apache.nifi.provenance.util.CloseableUtil;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
-import org.apache.nifi.stream.io.GZIPOutputStream;
 import org.apache.nifi.stream.io.NonCloseableOutputStream;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.apache.nifi.util.FormatUtils;
@@ -47,22 +46,32 @@ import java.util.concurrent.TimeUnit;
  * <p>
  * This class is responsible for compressing Event Files as a background task. This is done as a background task instead of being
  * done inline because if compression is performed inline, whenever NiFi is restarted (especially if done so abruptly), it is very
- * possible that the GZIP stream will be corrupt. As a result, we would stand to lose some Provenance Events when NiFi is restarted.
+ * possible that the compressed stream will be corrupt. As a result, we would stand to lose some Provenance Events when NiFi is restarted.
  * In order to avoid that, we write data in an uncompressed format and then compress the data in the background. Once the data has
  * been compressed, this task will then remove the original, uncompressed file. If the file is being read by another thread, this
  * task will wait for the other thread to finish reading the data before deleting the file. This synchronization of the File is handled
  * via the {@link EventFileManager Event File Manager}.
  * </p>
+ * <p>
+ * Each block of the Event File is compressed independently using the configured {@link EventFileCompression codec}, and the compressed
+ * file is given the extension of that codec so that it can be read regardless of the codec that is configured when it is read.
+ * </p>
  */
 public class EventFileCompressor implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(EventFileCompressor.class);
     private final BlockingQueue<File> filesToCompress;
     private final EventFileManager eventFileManager;
+    private final EventFileCompression compression;
     private volatile boolean shutdown = false;
 
     public EventFileCompressor(final BlockingQueue<File> filesToCompress, final EventFileManager eventFileManager) {
+        this(filesToCompress, eventFileManager, EventFileCompression.GZIP);
+    }
+
+    public EventFileCompressor(final BlockingQueue<File> filesToCompress, final EventFileManager eventFileManager, final EventFileCompression compression) {
         this.filesToCompress = filesToCompress;
         this.eventFileManager = eventFileManager;
+        this.compression = compression;
     }
 
     public void shutdown() {
@@ -108,11 +117,11 @@ public class EventFileCompressor implements Runnable {
                     bytesBefore = uncompressedEventFile.length();
 
                     try {
-                        outputFile = new File(uncompressedEventFile.getParentFile(), uncompressedEventFile.getName() + ".gz");
+                        outputFile = new File(uncompressedEventFile.getParentFile(), uncompressedEventFile.getName() + compression.getExtension());
                         try {
                             tmpTocFile = new File(tocFile.getParentFile(), tocFile.getName() + ".tmp");
                             tocWriter = new StandardTocWriter(tmpTocFile, true, false);
-                            compress(uncompressedEventFile, tocReader, outputFile, tocWriter);
+                            compress(uncompressedEventFile, tocReader, outputFile, tocWriter, compression);
                             tocWriter.close();
                         } catch (final IOException ioe) {
                             logger.error("Failed to compress {} on rollover", uncompressedEventFile, ioe);
@@ -160,7 +169,7 @@ public class EventFileCompressor implements Runnable {
         }
     }
 
-    private static void compress(final File input, final TocReader tocReader, final File output, final TocWriter tocWriter) throws IOException {
+    private static void compress(final File input, final TocReader tocReader, final File output, final TocWriter tocWriter, final EventFileCompression compression) throws IOException {
         try (final InputStream fis = new FileInputStream(input);
             final OutputStream fos = new FileOutputStream(output);
             final ByteCountingOutputStream byteCountingOut = new ByteCountingOutputStream(fos)) {
@@ -182,8 +191,8 @@ public class EventFileCompressor implements Runnable {
                 final long blockStartOffset = byteCountingOut.getBytesWritten();
 
                 try (final OutputStream ncos = new NonCloseableOutputStream(byteCountingOut);
-                    final OutputStream gzipOut = new GZIPOutputStream(ncos, 1)) {
-                    StreamUtils.copy(fis, gzipOut, blockEnd - blockStart);
+                    final OutputStream compressedOut = compression.compress(ncos)) {
+                    StreamUtils.copy(fis, compressedOut, blockEnd - blockStart);
                 }
 
                 tocWriter.addBlockOffset(blockStartOffset, firstEventId);
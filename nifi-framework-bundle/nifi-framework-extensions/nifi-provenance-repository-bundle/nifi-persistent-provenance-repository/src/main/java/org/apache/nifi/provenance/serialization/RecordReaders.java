@@ -35,9 +35,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.zip.GZIPInputStream;
 
 public class RecordReaders {
+    private static final String[] EVENT_FILE_EXTENSIONS = {".prov.gz", ".prov.zst", ".prov"};
+
     /**
      * Creates a new Record Reader that is capable of reading Provenance Event Journals
      *
@@ -80,11 +81,11 @@ public class RecordReaders {
                 final File dir = file.getParentFile();
                 final String baseName = LuceneUtil.substringBefore(file.getName(), ".prov");
 
-                // depending on which rollover actions have occurred, we could have 2 possibilities for the
-                // filename that we need. The majority of the time, we will use the extension ".prov.gz"
+                // depending on which rollover actions have occurred, we could have several possibilities for the
+                // filename that we need. The majority of the time, we will use a compressed extension such as ".prov.gz"
                 // because most often we are compressing on rollover and most often we have already finished
                 // compressing by the time that we are querying the data.
-                for (final String extension : new String[]{".prov.gz", ".prov"}) {
+                for (final String extension : EVENT_FILE_EXTENSIONS) {
                     file = new File(dir, baseName + extension);
                     if (file.exists()) {
                         try {
@@ -112,10 +113,16 @@ public class RecordReaders {
             final InputStream bufferedInStream = new BufferedInputStream(fis);
             final String serializationName;
             try {
-                bufferedInStream.mark(4096);
-                final InputStream in = filename.endsWith(".gz") ? new GZIPInputStream(bufferedInStream) : bufferedInStream;
-                final DataInputStream dis = new DataInputStream(in);
-                serializationName = dis.readUTF();
+                final EventFileCompression compression = EventFileCompression.fromFilename(filename);
+                bufferedInStream.mark(compression == null ? 4096 : compression.getReadAheadBytes());
+                if (compression == null) {
+                    serializationName = new DataInputStream(bufferedInStream).readUTF();
+                } else {
+                    // Closing the decompressor releases its resources without closing the buffered stream, which is reset and read again below
+                    try (final DataInputStream dis = new DataInputStream(compression.decompress(bufferedInStream))) {
+                        serializationName = dis.readUTF();
+                    }
+                }
                 bufferedInStream.reset();
             } catch (final EOFException eof) {
                 fis.close();
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.store;
+
+import org.apache.nifi.util.timebuffer.LongEntityAccess;
+import org.apache.nifi.util.timebuffer.TimedBuffer;
+import org.apache.nifi.util.timebuffer.TimestampedLong;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks how quickly events are written to a single {@link EventStorePartition}, so that the {@link PartitionedEventStore} is able
+ * to route events away from partitions whose storage is slow, and so that the throughput and latency of each partition can be reported.
+ */
+public class PartitionWriteMetrics {
+    // Weight given to the most recent write when updating the average latency. A higher value reacts more quickly to changes
+    // in the performance of the underlying storage but is also more sensitive to the occasional slow write, such as a rollover.
+    private static final double SMOOTHING_FACTOR = 0.2D;
+
+    // A single write that is much slower than average, such as one that was paused for garbage collection, is counted as being only
+    // this many times slower, so that it does not cause the partition to be avoided long after its storage has returned to normal.
+    private static final double MAX_SAMPLE_FACTOR = 8D;
+
+    private final String partitionName;
+    private final AtomicInteger activeWriters = new AtomicInteger(0);
+    private final AtomicLong totalEventsWritten = new AtomicLong(0L);
+    private final TimedBuffer<TimestampedLong> eventsWritten = new TimedBuffer<>(TimeUnit.SECONDS, 300, new LongEntityAccess());
+    private final TimedBuffer<TimestampedLong> writeNanos = new TimedBuffer<>(TimeUnit.SECONDS, 300, new LongEntityAccess());
+
+    private final LongSupplier nanoTimeSource;
+
+    private volatile double averageNanosPerEvent = 0D;
+    private volatile long lastWriteCompleted;
+
+    public PartitionWriteMetrics(final String partitionName) {
+        this(partitionName, System::nanoTime);
+    }
+
+    /**
+     * @param partitionName the name of the partition
+     * @param nanoTimeSource the source of the current time, in the same units as {@link System#nanoTime()}, that determines when writes complete
+     */
+    PartitionWriteMetrics(final String partitionName, final LongSupplier nanoTimeSource) {
+        this.partitionName = partitionName;
+        this.nanoTimeSource = nanoTimeSource;
+        this.lastWriteCompleted = nanoTimeSource.getAsLong();
+    }
+
+    /**
+     * Indicates that a thread has begun writing events to the partition
+     */
+    void writeStarted() {
+        activeWriters.incrementAndGet();
+    }
+
+    /**
+     * Indicates that a thread has finished writing events to the partition
+     *
+     * @param eventCount the number of events that were written, or 0 if the write failed
+     * @param nanos the number of nanoseconds that the write took, including any time spent waiting for other writers or rolling over
+     */
+    void writeCompleted(final int eventCount, final long nanos) {
+        activeWriters.decrementAndGet();
+        lastWriteCompleted = nanoTimeSource.getAsLong();
+
+        if (eventCount < 1) {
+            return;
+        }
+
+        totalEventsWritten.addAndGet(eventCount);
+        eventsWritten.add(new TimestampedLong((long) eventCount));
+        writeNanos.add(new TimestampedLong(nanos));
+
+        final double nanosPerEvent = (double) nanos / eventCount;
+        synchronized (this) {
+            final double currentAverage = averageNanosPerEvent;
+            if (currentAverage == 0D) {
+                averageNanosPerEvent = nanosPerEvent;
+            } else {
+                final double sample = Math.min(nanosPerEvent, currentAverage * MAX_SAMPLE_FACTOR);
+                averageNanosPerEvent = currentAverage + SMOOTHING_FACTOR * (sample - currentAverage);
+            }
+        }
+    }
+
+    /**
+     * @return the expected cost of writing to the partition: the average time taken to write an event, scaled by the number of
+     * threads that are currently writing to it, since those threads must finish before another write can complete
+     */
+    double getRoutingCost() {
+        return averageNanosPerEvent * (1 + activeWriters.get());
+    }
+
+    /**
+     * @return the number of nanoseconds since a write to the partition last completed
+     */
+    long getNanosSinceLastWrite() {
+        return nanoTimeSource.getAsLong() - lastWriteCompleted;
+    }
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    /**
+     * @return the number of threads that are currently writing events to the partition
+     */
+    public int getActiveWriters() {
+        return activeWriters.get();
+    }
+
+    /**
+     * @return the total number of events that have been written to the partition since NiFi started
+     */
+    public long getTotalEventsWritten() {
+        return totalEventsWritten.get();
+    }
+
+    /**
+     * @return the exponentially weighted moving average of the time taken to write a single event, in nanoseconds
+     */
+    public double getAverageNanosPerEvent() {
+        return averageNanosPerEvent;
+    }
+
+    /**
+     * @param sinceEpochMillis the earliest time of interest; only the last 5 minutes are retained
+     * @return the number of events written to the partition since the given time
+     */
+    public long getEventsWritten(final long sinceEpochMillis) {
+        final TimestampedLong aggregate = eventsWritten.getAggregateValue(sinceEpochMillis);
+        return aggregate == null ? 0L : aggregate.getValue();
+    }
+
+    /**
+     * @param sinceEpochMillis the earliest time of interest; only the last 5 minutes are retained
+     * @return the number of nanoseconds spent writing events to the partition since the given time
+     */
+    public long getWriteNanos(final long sinceEpochMillis) {
+        final TimestampedLong aggregate = writeNanos.getAggregateValue(sinceEpochMillis);
+        return aggregate == null ? 0L : aggregate.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionWriteMetrics[partition=" + partitionName + ", activeWriters=" + activeWriters.get() + ", averageNanosPerEvent=" + (long) averageNanosPerEvent + "]";
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.nifi.provenance.store.iterator.AuthorizingEventIterator;
 import org.apache.nifi.provenance.store.iterator.EventIterator;
 import org.apache.nifi.provenance.util.DirectoryUtils;
 import org.apache.nifi.reporting.Severity;
+import org.apache.nifi.util.FormatUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,11 +37,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -49,14 +53,21 @@ public abstract class PartitionedEventStore implements EventStore {
     private static final Logger logger = LoggerFactory.getLogger(PartitionedEventStore.class);
     private static final String EVENT_CATEGORY = "Provenance Repository";
 
+    // When routing adaptively, a partition that has not been written to for this long is chosen whenever it is next in turn,
+    // so that a partition whose storage was slow for a while is able to show that it has recovered.
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
     private final AtomicLong partitionIndex = new AtomicLong(0L);
+    private final Map<EventStorePartition, PartitionWriteMetrics> writeMetrics = new ConcurrentHashMap<>();
     private final RepositoryConfiguration repoConfig;
     private final EventReporter eventReporter;
+    private final boolean adaptiveRouting;
     private ScheduledExecutorService maintenanceExecutor;
 
     public PartitionedEventStore(final RepositoryConfiguration config, final EventReporter eventReporter) {
         this.repoConfig = config;
         this.eventReporter = eventReporter;
+        this.adaptiveRouting = RepositoryConfiguration.ADAPTIVE_PARTITION_ROUTING.equals(config.getPartitionRouting());
     }
 
 
@@ -99,10 +110,68 @@ public abstract class PartitionedEventStore implements EventStore {
 
     @Override
     public StorageResult addEvents(final Iterable<ProvenanceEventRecord> events) throws IOException {
-        final List<? extends EventStorePartition> partitions = getPartitions();
-        final int index = (int) (partitionIndex.getAndIncrement() % partitions.size());
+        final EventStorePartition partition = selectPartition(getPartitions());
+        final PartitionWriteMetrics metrics = getWriteMetrics(partition);
+
+        metrics.writeStarted();
+        final long start = getNanoTime();
+        int eventsWritten = 0;
+        try {
+            final StorageResult result = partition.addEvents(events);
+            eventsWritten = result.getStorageLocations().size();
+            return result;
+        } finally {
+            metrics.writeCompleted(eventsWritten, getNanoTime() - start);
+        }
+    }
+
+    /**
+     * Chooses the partition to write events to. Partitions are taken in turn; when routing adaptively, the partition that is next in turn
+     * is compared against another partition chosen at random, and whichever is expected to complete the write sooner is used. Comparing only
+     * two partitions keeps the choice cheap while still steering writes away from partitions whose storage is slow or heavily contended.
+     *
+     * @param partitions the partitions to choose from
+     * @return the partition to write to
+     */
+    private EventStorePartition selectPartition(final List<? extends EventStorePartition> partitions) {
+        final int numPartitions = partitions.size();
+        final int index = (int) (partitionIndex.getAndIncrement() % numPartitions);
         final EventStorePartition partition = partitions.get(index);
-        return partition.addEvents(events);
+        if (!adaptiveRouting || numPartitions < 2) {
+            return partition;
+        }
+
+        final PartitionWriteMetrics metrics = getWriteMetrics(partition);
+        if (metrics.getNanosSinceLastWrite() > PROBE_INTERVAL_NANOS) {
+            return partition;
+        }
+
+        final int alternateIndex = (index + 1 + ThreadLocalRandom.current().nextInt(numPartitions - 1)) % numPartitions;
+        final EventStorePartition alternate = partitions.get(alternateIndex);
+        return getWriteMetrics(alternate).getRoutingCost() < metrics.getRoutingCost() ? alternate : partition;
+    }
+
+    private PartitionWriteMetrics getWriteMetrics(final EventStorePartition partition) {
+        return writeMetrics.computeIfAbsent(partition, part -> new PartitionWriteMetrics(part.toString(), this::getNanoTime));
+    }
+
+    /**
+     * @return the current time, as given by {@link System#nanoTime()}, against which the latency of writes to each partition is measured
+     */
+    long getNanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * @return the write throughput and latency of each partition, in the order in which the partitions are used
+     */
+    public List<PartitionWriteMetrics> getPartitionWriteMetrics() {
+        final List<PartitionWriteMetrics> metrics = new ArrayList<>();
+        for (final EventStorePartition partition : getPartitions()) {
+            metrics.add(getWriteMetrics(partition));
+        }
+
+        return metrics;
     }
 
     @Override
@@ -242,6 +311,10 @@ public abstract class PartitionedEventStore implements EventStore {
 
 
     void performMaintenance() {
+        if (logger.isDebugEnabled()) {
+            reportWriteMetrics();
+        }
+
         try {
             final long maxFileLife = repoConfig.getMaxRecordLife(TimeUnit.MILLISECONDS);
             for (final EventStorePartition partition : getPartitions()) {
@@ -284,5 +357,29 @@ public abstract class PartitionedEventStore implements EventStore {
         }
     }
 
+    private void reportWriteMetrics() {
+        getDiagnosticDetails().forEach(logger::debug);
+    }
+
+    /**
+     * @return the partition routing strategy and, for each partition, the number of events written and the time taken to write them
+     * over the last 5 minutes, the average latency per event, and the number of threads currently writing to it
+     */
+    public List<String> getDiagnosticDetails() {
+        final List<String> details = new ArrayList<>();
+        details.add("Partition Routing: " + (adaptiveRouting ? RepositoryConfiguration.ADAPTIVE_PARTITION_ROUTING : RepositoryConfiguration.ROUND_ROBIN_PARTITION_ROUTING));
+
+        final long fiveMinutesAgo = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
+        for (final PartitionWriteMetrics metrics : getPartitionWriteMetrics()) {
+            final String prefix = "Partition <" + metrics.getPartitionName() + "> ";
+            details.add(prefix + "Events Written (Last 5 mins): " + metrics.getEventsWritten(fiveMinutesAgo));
+            details.add(prefix + "Write Time (Last 5 mins): " + FormatUtils.formatNanos(metrics.getWriteNanos(fiveMinutesAgo), false));
+            details.add(prefix + "Average Write Latency per Event: " + FormatUtils.formatNanos((long) metrics.getAverageNanosPerEvent(), false));
+            details.add(prefix + "Active Writers: " + metrics.getActiveWriters());
+        }
+
+        return details;
+    }
+
     protected abstract List<? extends EventStorePartition> getPartitions();
 }
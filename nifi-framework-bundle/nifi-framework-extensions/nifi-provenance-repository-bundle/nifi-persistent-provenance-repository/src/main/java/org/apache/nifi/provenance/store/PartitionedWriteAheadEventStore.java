@@ -90,7 +90,7 @@ public class PartitionedWriteAheadEventStore extends PartitionedEventStore {
     public void initialize() throws IOException {
         if (repoConfig.isCompressOnRollover()) {
             for (int i = 0; i < repoConfig.getIndexThreadPoolSize(); i++) {
-                final EventFileCompressor compressor = new EventFileCompressor(filesToCompress, fileManager);
+                final EventFileCompressor compressor = new EventFileCompressor(filesToCompress, fileManager, repoConfig.getCompression());
                 compressionExecutor.submit(compressor);
                 fileCompressors.add(compressor);
             }
@@ -23,6 +23,7 @@ import org.apache.nifi.provenance.RepositoryConfiguration;
 import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.apache.nifi.provenance.authorization.EventAuthorizer;
 import org.apache.nifi.provenance.index.EventIndex;
+import org.apache.nifi.provenance.serialization.EventFileCompression;
 import org.apache.nifi.provenance.serialization.RecordReader;
 import org.apache.nifi.provenance.serialization.RecordWriter;
 import org.apache.nifi.provenance.serialization.StorageSummary;
@@ -152,10 +153,12 @@ public class WriteAheadStorePartition implements EventStorePartition {
                 for (final File file : uncompressedFiles) {
                     // If we have both a compressed file and an uncompressed file for the same .prov file, then
                     // we must have been in the process of compressing it when NiFi was restarted. Delete the partial
-                    // .gz file and we will start compressing it again.
-                    final File compressed = new File(file.getParentFile(), file.getName() + ".gz");
-                    if (compressed.exists()) {
-                        compressed.delete();
+                    // compressed file and we will start compressing it again.
+                    for (final EventFileCompression compression : EventFileCompression.values()) {
+                        final File compressed = new File(file.getParentFile(), file.getName() + compression.getExtension());
+                        if (compressed.exists()) {
+                            compressed.delete();
+                        }
                     }
                 }
             }
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.columnar;
+
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
+import org.apache.nifi.provenance.lineage.LineageNode;
+import org.apache.nifi.provenance.lineage.LineageNodeType;
+import org.apache.nifi.provenance.lineage.ProvenanceEventLineageNode;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.QueryResult;
+import org.apache.nifi.provenance.search.SearchTerms;
+import org.apache.nifi.provenance.search.SearchableField;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.ArrayListEventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(value = 60)
+public class TestColumnarEventIndex {
+
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+
+    @BeforeEach
+    public void setup() {
+        idGenerator.set(0L);
+    }
+
+    @Test
+    public void testQueryByComponentAndFlowFileUuid() throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+
+            final ProvenanceEventRecord event1 = createEvent(System.currentTimeMillis(), "11111111-1111-1111-1111-111111111111", "component-1");
+            final ProvenanceEventRecord event2 = createEvent(System.currentTimeMillis(), "22222222-2222-2222-2222-222222222222", "component-2");
+            final ProvenanceEventRecord event3 = createEvent(System.currentTimeMillis(), "33333333-3333-3333-3333-333333333333", "component-1");
+            for (final ProvenanceEventRecord event : List.of(event1, event2, event3)) {
+                index.addEvents(eventStore.addEvent(event).getStorageLocations());
+            }
+
+            final Query componentQuery = new Query(UUID.randomUUID().toString());
+            componentQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "COMPONENT-1", null));
+            assertEquals(List.of(event3, event1), query(index, componentQuery));
+
+            final Query uuidQuery = new Query(UUID.randomUUID().toString());
+            uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, event2.getFlowFileUuid(), null));
+            assertEquals(List.of(event2), query(index, uuidQuery));
+
+            final Query invertedQuery = new Query(UUID.randomUUID().toString());
+            invertedQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-1", Boolean.TRUE));
+            assertEquals(List.of(event2), query(index, invertedQuery));
+
+            final Query wildcardQuery = new Query(UUID.randomUUID().toString());
+            wildcardQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, "3333*", null));
+            assertEquals(List.of(event3), query(index, wildcardQuery));
+
+            final Query attributeQuery = new Query(UUID.randomUUID().toString());
+            attributeQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.newSearchableAttribute("updated"), "true", null));
+            attributeQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.Relationship, "success", null));
+            assertEquals(Collections.emptyList(), query(index, attributeQuery));
+        }
+    }
+
+    @Test
+    public void testQueryByTimeRangeAndMaxResults() throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+
+            final List<ProvenanceEventRecord> events = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final ProvenanceEventRecord event = createEvent(1000L * (i + 1), UUID.randomUUID().toString(), "component-1");
+                events.add(event);
+                index.addEvents(eventStore.addEvent(event).getStorageLocations());
+            }
+
+            final Query timeQuery = new Query(UUID.randomUUID().toString());
+            timeQuery.setStartDate(new Date(3000L));
+            timeQuery.setEndDate(new Date(5000L));
+            assertEquals(List.of(events.get(4), events.get(3), events.get(2)), query(index, timeQuery));
+
+            // Set a start date so that the query is evaluated against the index rather than the cache of latest events
+            final Query limitedQuery = new Query(UUID.randomUUID().toString());
+            limitedQuery.setStartDate(new Date(0L));
+            limitedQuery.setMaxResults(2);
+            assertEquals(List.of(events.get(9), events.get(8)), query(index, limitedQuery));
+        }
+    }
+
+    @Test
+    public void testSegmentsPersistedAndRecovered() throws IOException, InterruptedException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+            assertEquals(0L, index.getMinimumEventIdToReindex("1"));
+
+            for (int i = 0; i < 5; i++) {
+                final ProvenanceEventRecord event = createEvent("1234");
+                events.add(event);
+                index.addEvents(eventStore.addEvent(event).getStorageLocations());
+            }
+
+            index.commitChanges("1");
+            assertEquals(5L, index.getMinimumEventIdToReindex("1"));
+            assertTrue(index.getSize() > 0L);
+        }
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+            assertEquals(5L, index.getMinimumEventIdToReindex("1"));
+
+            // Events that were already persisted must not be indexed twice
+            final ProvenanceEventRecord newEvent = createEvent("1234");
+            eventStore.addEvent(newEvent);
+
+            final Map<ProvenanceEventRecord, StorageSummary> reindexed = new HashMap<>();
+            reindexed.put(events.get(0), new StorageSummary(events.get(0).getEventId(), "1.prov", "1", 1, 2L, 2L));
+            reindexed.put(newEvent, new StorageSummary(newEvent.getEventId(), "1.prov", "1", 1, 2L, 2L));
+            index.reindexEvents(reindexed);
+
+            final Query query = new Query(UUID.randomUUID().toString());
+            query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, "1234", null));
+            final QueryResult result = index.submitQuery(query, EventAuthorizer.GRANT_ALL, "unit test user").getResult();
+            assertTrue(result.awaitCompletion(15, TimeUnit.SECONDS));
+            assertEquals(6, result.getTotalHitCount());
+            assertEquals(newEvent, result.getMatchingEvents().get(0));
+        }
+    }
+
+    @Test
+    public void testSegmentsPersistedInOrderAfterFailedWrite() throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        // A file in place of the index directory causes segments to fail to be written
+        final File indexDir = new File(repoConfig.getStorageDirectories().get("1"), ColumnarEventIndex.INDEX_DIRECTORY_NAME);
+        assertTrue(indexDir.createNewFile());
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+
+            index.addEvents(eventStore.addEvent(createEvent("1234")).getStorageLocations());
+            index.commitChanges("1");
+            assertEquals(0L, index.getMinimumEventIdToReindex("1"));
+
+            // The next segment must not be written while the earlier one is unwritten, or the earlier one's event would not be re-indexed on restart
+            index.addEvents(eventStore.addEvent(createEvent("1234")).getStorageLocations());
+            index.commitChanges("1");
+            assertEquals(0L, index.getMinimumEventIdToReindex("1"));
+
+            assertTrue(indexDir.delete());
+            index.addEvents(eventStore.addEvent(createEvent("1234")).getStorageLocations());
+            index.commitChanges("1");
+            assertEquals(3L, index.getMinimumEventIdToReindex("1"));
+            assertEquals(3, indexDir.listFiles().length);
+        }
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+            assertEquals(3L, index.getMinimumEventIdToReindex("1"));
+        }
+    }
+
+    @Test
+    public void testExpiredSegmentsDeleted() throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final AtomicLong firstEventId = new AtomicLong(0L);
+        final ArrayListEventStore eventStore = new ArrayListEventStore() {
+            @Override
+            public List<ProvenanceEventRecord> getEvents(final long firstRecordId, final int maxResults) throws IOException {
+                return super.getEvents(Math.max(firstRecordId, firstEventId.get()), maxResults);
+            }
+        };
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+
+            index.addEvents(eventStore.addEvent(createEvent("1234")).getStorageLocations());
+            index.commitChanges("1");
+            index.addEvents(eventStore.addEvent(createEvent("1234")).getStorageLocations());
+            index.commitChanges("1");
+
+            final File indexDir = new File(repoConfig.getStorageDirectories().get("1"), ColumnarEventIndex.INDEX_DIRECTORY_NAME);
+            assertEquals(2, indexDir.listFiles().length);
+
+            // Age off the first event, which makes the first segment obsolete
+            firstEventId.set(1L);
+            index.performMaintenance();
+            assertEquals(1, indexDir.listFiles().length);
+        }
+    }
+
+    @Test
+    public void testUnauthorizedEventsGetPlaceholdersForLineage() throws IOException, InterruptedException {
+        final RepositoryConfiguration repoConfig = createConfig();
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        try (final ColumnarEventIndex index = new ColumnarEventIndex(repoConfig, EventReporter.NO_OP)) {
+            index.initialize(eventStore);
+
+            final ProvenanceEventRecord parent = createEvent("4444");
+            final Map<String, String> previousAttributes = new HashMap<>();
+            previousAttributes.put("uuid", "4444");
+            final ProvenanceEventRecord join = new StandardProvenanceEventRecord.Builder()
+                .setEventType(ProvenanceEventType.JOIN)
+                .setAttributes(previousAttributes, Collections.emptyMap())
+                .addParentUuid("4444")
+                .addChildFlowFile("1234")
+                .setComponentId("component-1")
+                .setComponentType("unit test")
+                .setEventId(idGenerator.getAndIncrement())
+                .setEventTime(System.currentTimeMillis())
+                .setFlowFileEntryDate(System.currentTimeMillis())
+                .setFlowFileUUID("1234")
+                .setLineageStartDate(System.currentTimeMillis())
+                .setCurrentContentClaim("container", "section", "unit-test-id", 0L, 1024L)
+                .build();
+
+            index.addEvents(eventStore.addEvent(parent).getStorageLocations());
+            index.addEvents(eventStore.addEvent(join).getStorageLocations());
+            index.addEvents(eventStore.addEvent(createEvent("1234")).getStorageLocations());
+
+            final ComputeLineageSubmission submission = index.submitLineageComputation("4444", null, EventAuthorizer.DENY_ALL);
+            assertTrue(submission.getResult().awaitCompletion(15, TimeUnit.SECONDS));
+
+            final List<LineageNode> eventNodes = submission.getResult().getNodes().stream()
+                .filter(node -> node.getNodeType() == LineageNodeType.PROVENANCE_EVENT_NODE)
+                .toList();
+            assertEquals(2, eventNodes.size());
+            for (final LineageNode node : eventNodes) {
+                assertEquals(ProvenanceEventType.UNKNOWN, ((ProvenanceEventLineageNode) node).getEventType());
+            }
+        }
+    }
+
+    private List<ProvenanceEventRecord> query(final ColumnarEventIndex index, final Query query) {
+        final QueryResult result = index.submitQuery(query, EventAuthorizer.GRANT_ALL, "unit test user").getResult();
+        try {
+            assertTrue(result.awaitCompletion(15, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            throw new AssertionError(e);
+        }
+
+        assertNull(result.getError());
+        return result.getMatchingEvents();
+    }
+
+    private RepositoryConfiguration createConfig() {
+        final RepositoryConfiguration config = new RepositoryConfiguration();
+        final File storageDir = new File("target/storage/" + getClass().getSimpleName() + "/" + UUID.randomUUID());
+        config.addStorageDirectory("1", storageDir);
+
+        final List<SearchableField> searchableFields = new ArrayList<>();
+        searchableFields.add(SearchableFields.FlowFileUUID);
+        searchableFields.add(SearchableFields.Relationship);
+        config.setSearchableFields(searchableFields);
+        config.setSearchableAttributes(Collections.singletonList(SearchableFields.newSearchableAttribute("updated")));
+        config.setIndexImplementation(RepositoryConfiguration.COLUMNAR_INDEX_IMPLEMENTATION);
+
+        assertTrue(storageDir.exists() || storageDir.mkdirs());
+        return config;
+    }
+
+    private ProvenanceEventRecord createEvent(final String uuid) {
+        return createEvent(System.currentTimeMillis(), uuid, "component-1");
+    }
+
+    private ProvenanceEventRecord createEvent(final long timestamp, final String uuid, final String componentId) {
+        final Map<String, String> previousAttributes = new HashMap<>();
+        previousAttributes.put("uuid", uuid);
+        final Map<String, String> updatedAttributes = new HashMap<>();
+        updatedAttributes.put("updated", "true");
+
+        return new StandardProvenanceEventRecord.Builder()
+            .setEventType(ProvenanceEventType.CONTENT_MODIFIED)
+            .setAttributes(previousAttributes, updatedAttributes)
+            .setComponentId(componentId)
+            .setComponentType("unit test")
+            .setEventId(idGenerator.getAndIncrement())
+            .setEventTime(timestamp)
+            .setFlowFileEntryDate(timestamp)
+            .setFlowFileUUID(uuid)
+            .setLineageStartDate(timestamp)
+            .setCurrentContentClaim("container", "section", "unit-test-id", 0L, 1024L)
+            .build();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.lucene;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardLineageResult;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.lineage.LineageNode;
+import org.apache.nifi.provenance.lineage.LineageNodeType;
+import org.apache.nifi.provenance.store.ArrayListEventStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestFlowFileLineageCache {
+    private static final long START_TIME = 1_000_000L;
+
+    private final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+    @Test
+    public void testEventsAssociatedWithRelatedFlowFiles() {
+        final FlowFileLineageCache cache = new FlowFileLineageCache(100, START_TIME);
+
+        addEvent(cache, createEvent(ProvenanceEventType.CREATE, "parent", START_TIME));
+        addEvent(cache, createEvent(ProvenanceEventType.FORK, "parent", START_TIME + 1, "child-1", "child-2"));
+        addEvent(cache, createEvent(ProvenanceEventType.CONTENT_MODIFIED, "child-1", START_TIME + 2));
+        addEvent(cache, createEvent(ProvenanceEventType.DROP, "child-2", START_TIME + 3));
+
+        assertArrayEquals(new long[] {0L, 1L}, cache.getEventIds(Collections.singleton("parent")));
+        assertArrayEquals(new long[] {1L, 2L}, cache.getEventIds(Collections.singleton("child-1")));
+        assertArrayEquals(new long[] {1L, 2L, 3L}, cache.getEventIds(List.of("child-1", "child-2")));
+        assertEquals(0, cache.getEventIds(Collections.singleton("unknown")).length);
+    }
+
+    @Test
+    public void testEvictionAdvancesCoverage() {
+        final FlowFileLineageCache cache = new FlowFileLineageCache(2, START_TIME);
+        assertTrue(cache.isCovered(START_TIME));
+        assertFalse(cache.isCovered(START_TIME - 1));
+
+        addEvent(cache, createEvent(ProvenanceEventType.CREATE, "first", START_TIME + 10));
+        addEvent(cache, createEvent(ProvenanceEventType.CREATE, "second", START_TIME + 20));
+        assertEquals(2, cache.getFlowFileCount());
+        assertEquals(START_TIME, cache.getCoverageStartTime());
+
+        addEvent(cache, createEvent(ProvenanceEventType.CREATE, "third", START_TIME + 30));
+        assertEquals(2, cache.getFlowFileCount());
+        assertEquals(START_TIME + 11, cache.getCoverageStartTime());
+        assertFalse(cache.isCovered(START_TIME + 10));
+        assertTrue(cache.isCovered(START_TIME + 20));
+        assertEquals(0, cache.getEventIds(Collections.singleton("first")).length);
+    }
+
+    @Test
+    public void testCachedLineageTask() throws InterruptedException {
+        final FlowFileLineageCache cache = new FlowFileLineageCache(100, START_TIME);
+        addEvent(cache, createEvent(ProvenanceEventType.ATTRIBUTES_MODIFIED, "other", START_TIME));
+
+        final int eventCount = CachedLineageTask.EVENTS_PER_BATCH * 3 + 7;
+        for (int i = 0; i < eventCount; i++) {
+            addEvent(cache, createEvent(ProvenanceEventType.ATTRIBUTES_MODIFIED, "flowfile", START_TIME + i));
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final StandardLineageResult result = new StandardLineageResult(1, Collections.singleton("flowfile"));
+            pool.execute(new CachedLineageTask(cache, Collections.singleton("flowfile"), result, eventCount,
+                eventStore, EventAuthorizer.GRANT_ALL, EventTransformer.PLACEHOLDER_TRANSFORMER));
+            assertTrue(result.awaitCompletion(15, TimeUnit.SECONDS));
+
+            final List<LineageNode> eventNodes = result.getNodes().stream()
+                .filter(node -> node.getNodeType() == LineageNodeType.PROVENANCE_EVENT_NODE)
+                .toList();
+            assertEquals(eventCount, eventNodes.size());
+            assertTrue(eventNodes.stream().allMatch(node -> node.getFlowFileUuid().equals("flowfile")));
+
+            final StandardLineageResult limitedResult = new StandardLineageResult(1, Collections.singleton("flowfile"));
+            pool.execute(new CachedLineageTask(cache, Collections.singleton("flowfile"), limitedResult, 10,
+                eventStore, EventAuthorizer.GRANT_ALL, EventTransformer.PLACEHOLDER_TRANSFORMER));
+            assertTrue(limitedResult.awaitCompletion(15, TimeUnit.SECONDS));
+            assertEquals(10, limitedResult.getNodes().stream().filter(node -> node.getNodeType() == LineageNodeType.PROVENANCE_EVENT_NODE).count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void addEvent(final FlowFileLineageCache cache, final ProvenanceEventRecord event) {
+        cache.addEvents(eventStore.addEvent(event).getStorageLocations());
+    }
+
+    private ProvenanceEventRecord createEvent(final ProvenanceEventType eventType, final String uuid, final long timestamp, final String... childUuids) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("uuid", uuid);
+
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder()
+            .setEventType(eventType)
+            .setEventId(eventStore.getMaxEventId() + 1)
+            .setAttributes(attributes, Collections.singletonMap("sequence", String.valueOf(eventStore.getMaxEventId() + 1)))
+            .setComponentId("component-1")
+            .setComponentType("unit test")
+            .setEventTime(timestamp)
+            .setFlowFileEntryDate(timestamp)
+            .setFlowFileUUID(uuid)
+            .setLineageStartDate(timestamp)
+            .setCurrentContentClaim("container", "section", "unit-test-id", 0L, 1024L);
+
+        for (final String childUuid : childUuids) {
+            builder.addChildFlowFile(childUuid);
+        }
+
+        return builder.build();
+    }
+}
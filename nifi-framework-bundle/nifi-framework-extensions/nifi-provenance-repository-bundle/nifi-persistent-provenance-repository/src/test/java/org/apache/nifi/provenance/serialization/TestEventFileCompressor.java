@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.serialization;
+
+import org.apache.nifi.provenance.EventIdFirstSchemaRecordWriter;
+import org.apache.nifi.provenance.IdentifierLookup;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.TestUtil;
+import org.apache.nifi.provenance.store.EventFileManager;
+import org.apache.nifi.provenance.toc.StandardTocReader;
+import org.apache.nifi.provenance.toc.StandardTocWriter;
+import org.apache.nifi.provenance.toc.TocReader;
+import org.apache.nifi.provenance.toc.TocUtil;
+import org.apache.nifi.stream.io.LimitingInputStream;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestEventFileCompressor {
+    private static final int EVENT_COUNT = 1000;
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(EventFileCompression.class)
+    public void testCompressedBlocksReadable(final EventFileCompression compression) throws IOException, InterruptedException {
+        final File eventFile = tempDir.resolve("0.prov").toFile();
+        final File tocFile = TocUtil.getTocFile(eventFile);
+
+        try (final RecordWriter writer = new EventIdFirstSchemaRecordWriter(eventFile, new AtomicLong(0L), new StandardTocWriter(tocFile, true, false),
+                false, 8192, IdentifierLookup.EMPTY)) {
+            writer.writeHeader(0L);
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                writer.writeRecords(Collections.singletonList(TestUtil.createEvent()));
+            }
+        }
+
+        final File compressedFile = compress(eventFile, compression);
+        assertEquals("0.prov" + compression.getExtension(), compressedFile.getName());
+        assertFalse(eventFile.exists());
+
+        try (final TocReader tocReader = new StandardTocReader(tocFile)) {
+            assertTrue(tocReader.getBlockOffset(2) > 0);
+        }
+
+        final long[] eventIds = {0, 1, 250, 500, 501, 998, 999};
+        try (final RecordReader reader = RecordReaders.newRecordReader(compressedFile, null, 2048)) {
+            for (final long eventId : eventIds) {
+                final Optional<ProvenanceEventRecord> event = reader.skipToEvent(eventId);
+                assertTrue(event.isPresent());
+                assertEquals(eventId, event.get().getEventId());
+            }
+        }
+
+        try (final RecordReader reader = RecordReaders.newRecordReader(compressedFile, null, 2048)) {
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                final ProvenanceEventRecord event = reader.nextRecord();
+                assertNotNull(event);
+                assertEquals(i, event.getEventId());
+            }
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(EventFileCompression.class)
+    public void testClosingDecompressorLeavesStreamOpen(final EventFileCompression compression) throws IOException {
+        final byte[] firstBlock = compressBlock(compression, "first block");
+        final byte[] secondBlock = compressBlock(compression, "second block");
+
+        final ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(firstBlock);
+        file.write(secondBlock);
+
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        final InputStream in = new FilterInputStream(new ByteArrayInputStream(file.toByteArray())) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        try (final InputStream decompressed = compression.decompress(new LimitingInputStream(in, firstBlock.length))) {
+            assertEquals("first block", new String(decompressed.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertFalse(closed.get());
+
+        try (final InputStream decompressed = compression.decompress(in)) {
+            assertEquals("second block", new String(decompressed.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertFalse(closed.get());
+    }
+
+    private byte[] compressBlock(final EventFileCompression compression, final String text) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final OutputStream out = compression.compress(baos)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return baos.toByteArray();
+    }
+
+    private File compress(final File eventFile, final EventFileCompression compression) throws InterruptedException {
+        final BlockingQueue<File> filesToCompress = new LinkedBlockingQueue<>();
+        filesToCompress.add(eventFile);
+
+        final EventFileCompressor compressor = new EventFileCompressor(filesToCompress, new EventFileManager(), compression);
+        final Thread compressorThread = new Thread(compressor);
+        compressorThread.start();
+
+        final File compressedFile = new File(eventFile.getParentFile(), eventFile.getName() + compression.getExtension());
+        final long maxTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (eventFile.exists() && System.currentTimeMillis() < maxTime) {
+            Thread.sleep(10L);
+        }
+
+        compressor.shutdown();
+        compressorThread.join();
+        return compressedFile;
+    }
+}
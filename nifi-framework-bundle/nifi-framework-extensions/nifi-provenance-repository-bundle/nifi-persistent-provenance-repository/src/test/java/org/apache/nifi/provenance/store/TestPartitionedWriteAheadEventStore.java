@@ -456,6 +456,117 @@ public class TestPartitionedWriteAheadEventStore {
         assertEquals(1, iteratorsClosed.get());
     }
 
+    @Test
+    public void testAdaptiveRoutingFavorsFasterPartition() throws IOException {
+        final RepositoryConfiguration config = createConfig();
+        config.setPartitionRouting(RepositoryConfiguration.ADAPTIVE_PARTITION_ROUTING);
+
+        final AtomicLong nanoTime = new AtomicLong(0L);
+        final AtomicInteger fastWrites = new AtomicInteger(0);
+        final AtomicInteger slowWrites = new AtomicInteger(0);
+        final PartitionedWriteAheadEventStore store = createStoreWithPartitions(config, nanoTime,
+            createPartition(fastWrites, nanoTime, TimeUnit.MILLISECONDS.toNanos(1L)),
+            createPartition(slowWrites, nanoTime, TimeUnit.MILLISECONDS.toNanos(10L)));
+
+        for (int i = 0; i < 100; i++) {
+            store.addEvents(Collections.singleton(createEvent()));
+        }
+
+        // Both partitions have no latency until they are first written to, so the slow partition is used when it is first in turn and then avoided
+        assertEquals(99, fastWrites.get());
+        assertEquals(1, slowWrites.get());
+
+        final List<PartitionWriteMetrics> metrics = store.getPartitionWriteMetrics();
+        assertEquals(2, metrics.size());
+        assertEquals(99, metrics.get(0).getTotalEventsWritten());
+        assertEquals(1, metrics.get(1).getTotalEventsWritten());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1L), metrics.get(0).getAverageNanosPerEvent());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10L), metrics.get(1).getAverageNanosPerEvent());
+        assertEquals(0, metrics.get(0).getActiveWriters());
+    }
+
+    @Test
+    public void testAdaptiveRoutingProbesAvoidedPartition() throws IOException {
+        final RepositoryConfiguration config = createConfig();
+        config.setPartitionRouting(RepositoryConfiguration.ADAPTIVE_PARTITION_ROUTING);
+
+        final AtomicLong nanoTime = new AtomicLong(0L);
+        final AtomicInteger fastWrites = new AtomicInteger(0);
+        final AtomicInteger slowWrites = new AtomicInteger(0);
+        final PartitionedWriteAheadEventStore store = createStoreWithPartitions(config, nanoTime,
+            createPartition(fastWrites, nanoTime, TimeUnit.MILLISECONDS.toNanos(1L)),
+            createPartition(slowWrites, nanoTime, TimeUnit.MILLISECONDS.toNanos(10L)));
+
+        store.addEvents(Collections.singleton(createEvent()));
+        store.addEvents(Collections.singleton(createEvent()));
+        assertEquals(1, slowWrites.get());
+
+        // Once the slow partition has not been written to for over a second, it is used when next in turn despite its latency
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2L));
+        store.addEvents(Collections.singleton(createEvent()));
+        store.addEvents(Collections.singleton(createEvent()));
+        assertEquals(2, slowWrites.get());
+        assertEquals(2, fastWrites.get());
+    }
+
+    @Test
+    public void testRoundRobinRoutingIsDefault() throws IOException {
+        final RepositoryConfiguration config = createConfig();
+        assertEquals(RepositoryConfiguration.ROUND_ROBIN_PARTITION_ROUTING, config.getPartitionRouting());
+
+        final AtomicLong nanoTime = new AtomicLong(0L);
+        final AtomicInteger fastWrites = new AtomicInteger(0);
+        final AtomicInteger slowWrites = new AtomicInteger(0);
+        final PartitionedWriteAheadEventStore store = createStoreWithPartitions(config, nanoTime,
+            createPartition(fastWrites, nanoTime, 0L), createPartition(slowWrites, nanoTime, TimeUnit.MILLISECONDS.toNanos(1L)));
+
+        for (int i = 0; i < 20; i++) {
+            store.addEvents(Collections.singleton(createEvent()));
+        }
+
+        assertEquals(10, fastWrites.get());
+        assertEquals(10, slowWrites.get());
+
+        final List<String> details = store.getDiagnosticDetails();
+        assertEquals("Partition Routing: " + RepositoryConfiguration.ROUND_ROBIN_PARTITION_ROUTING, details.get(0));
+
+        final String fastPartitionName = store.getPartitionWriteMetrics().get(0).getPartitionName();
+        assertTrue(details.contains("Partition <" + fastPartitionName + "> Events Written (Last 5 mins): 10"), "Unexpected diagnostic details " + details);
+        assertTrue(details.contains("Partition <" + fastPartitionName + "> Active Writers: 0"), "Unexpected diagnostic details " + details);
+    }
+
+    private PartitionedWriteAheadEventStore createStoreWithPartitions(final RepositoryConfiguration config, final AtomicLong nanoTime,
+                                                                      final WriteAheadStorePartition... partitions) {
+        final PartitionedWriteAheadEventStore store = new PartitionedWriteAheadEventStore(config, writerFactory, readerFactory, EventReporter.NO_OP, new EventFileManager());
+        final PartitionedWriteAheadEventStore spy = Mockito.spy(store);
+        when(spy.getPartitions()).thenReturn(Arrays.asList(partitions));
+        when(spy.getNanoTime()).thenAnswer(invocation -> nanoTime.get());
+        return spy;
+    }
+
+    /**
+     * Creates a partition whose writes advance the given time by the given number of nanoseconds, rather than taking any time to complete
+     */
+    private WriteAheadStorePartition createPartition(final AtomicInteger writeCounter, final AtomicLong nanoTime, final long writeNanos) throws IOException {
+        final WriteAheadStorePartition partition = Mockito.mock(WriteAheadStorePartition.class);
+        when(partition.addEvents(Mockito.any())).thenAnswer(invocation -> {
+            nanoTime.addAndGet(writeNanos);
+            writeCounter.incrementAndGet();
+
+            final Map<ProvenanceEventRecord, StorageSummary> locations = new HashMap<>();
+            final Iterable<ProvenanceEventRecord> events = invocation.getArgument(0);
+            for (final ProvenanceEventRecord event : events) {
+                locations.put(event, new StorageSummary(event.getEventId(), "1.prov", "1", 1, 1000L, 1000L));
+            }
+
+            final StorageResult result = Mockito.mock(StorageResult.class);
+            when(result.getStorageLocations()).thenReturn(locations);
+            return result;
+        });
+
+        return partition;
+    }
+
     @Test
     public void testGetEventsByTimestamp() throws IOException {
         final RepositoryConfiguration config = createConfig();
@@ -172,19 +172,33 @@ final class BufferedStatusHistoryStorage implements StatusHistoryStorage {
             flush(remoteProcessGroupStatusQueue, storage::storeRemoteProcessorGroupStatuses);
             flush(processorStatusQueue, storage::storeProcessorStatuses);
             LOGGER.debug("Finish flushing");
+
+            try {
+                storage.rollUp();
+            } catch (final Exception e) {
+                LOGGER.error("Error during rolling up status history information.", e);
+            }
         }
 
+        /**
+         * Writes every entry of the queue, in batches of the configured size. Each batch is committed at once, so flushing the whole
+         * queue avoids falling behind when a single capture produces more entries than a batch can hold.
+         */
         private <T> void flush(final BlockingQueue<T> source, final Consumer<Collection<T>> target) {
-            final List<T> statusEntries = new ArrayList<>(persistBatchSize);
-            source.drainTo(statusEntries, persistBatchSize);
-
-            if (!statusEntries.isEmpty()) {
-                try {
-                    target.accept(statusEntries);
-                } catch (final Exception e) {
-                    LOGGER.error("Error during flushing buffered status history information.", e);
+            int drained;
+            do {
+                final List<T> statusEntries = new ArrayList<>(persistBatchSize);
+                drained = source.drainTo(statusEntries, persistBatchSize);
+
+                if (!statusEntries.isEmpty()) {
+                    try {
+                        target.accept(statusEntries);
+                    } catch (final Exception e) {
+                        LOGGER.error("Error during flushing buffered status history information.", e);
+                        return;
+                    }
                 }
-            }
+            } while (drained == persistBatchSize);
         }
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history.questdb;
+
+import org.apache.nifi.questdb.Client;
+import org.apache.nifi.questdb.DatabaseException;
+import org.apache.nifi.questdb.QueryResultProcessor;
+import org.apache.nifi.questdb.QueryRowContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.DATE_FORMATTER;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.LATEST_CAPTURE_QUERY;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.ROLLUP_QUERY;
+
+/**
+ * Aggregates the captured statuses of a component table into the rollup table of a given resolution. Only complete buckets are rolled
+ * up, and each bucket is rolled up once: the rollup keeps track of the buckets already written, which it determines from the rollup table
+ * when first invoked, so that it continues where it left off after a restart.
+ */
+final class ComponentStatusRollup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentStatusRollup.class);
+
+    /**
+     * Statuses are written asynchronously after being captured, so a bucket is rolled up only once this much time has passed after its end.
+     */
+    private static final Duration ROLLUP_DELAY = Duration.ofMinutes(1);
+
+    private final Client client;
+    private final String tableName;
+    private final String rollupTableName;
+    private final String aggregation;
+    private final StatusRollupResolution resolution;
+
+    private Instant rolledUpUntil;
+
+    ComponentStatusRollup(final Client client, final String tableName, final List<String> metricColumns, final StatusRollupResolution resolution) {
+        this.client = client;
+        this.tableName = tableName;
+        this.rollupTableName = resolution.getTableName(tableName);
+        this.aggregation = EmbeddedQuestDbStatusHistoryRepositoryDefinitions.getRollupAggregation(metricColumns);
+        this.resolution = resolution;
+    }
+
+    /**
+     * Rolls up the buckets that have been completed since the previous invocation.
+     *
+     * @param now the current time
+     */
+    synchronized void rollUp(final Instant now) {
+        try {
+            if (rolledUpUntil == null) {
+                rolledUpUntil = getRolledUpUntil();
+            }
+
+            final Instant rollUpUntil = resolution.truncate(now.minus(ROLLUP_DELAY));
+            if (!rollUpUntil.isAfter(rolledUpUntil)) {
+                return;
+            }
+
+            client.execute(String.format(ROLLUP_QUERY, rollupTableName, aggregation, tableName,
+                DATE_FORMATTER.format(rolledUpUntil), DATE_FORMATTER.format(rollUpUntil), resolution.getSampleBy()));
+            LOGGER.debug("Rolled up [{}] into [{}] until {}", tableName, rollupTableName, rollUpUntil);
+            rolledUpUntil = rollUpUntil;
+        } catch (final DatabaseException e) {
+            LOGGER.error("Rolling up [{}] into [{}] failed", tableName, rollupTableName, e);
+        }
+    }
+
+    private Instant getRolledUpUntil() throws DatabaseException {
+        final long latestBucketMicros = client.query(String.format(LATEST_CAPTURE_QUERY, rollupTableName), new LatestCaptureResultProcessor());
+
+        // The rollup table holds the start of each bucket, so every bucket up to and including the latest one has been rolled up
+        return latestBucketMicros == Long.MIN_VALUE
+            ? Instant.EPOCH
+            : resolution.truncate(Instant.ofEpochMilli(TimeUnit.MICROSECONDS.toMillis(latestBucketMicros))).plus(resolution.getBucket());
+    }
+
+    private static class LatestCaptureResultProcessor implements QueryResultProcessor<Long> {
+        private long latestCapture = Long.MIN_VALUE;
+
+        @Override
+        public void processRow(final QueryRowContext context) {
+            latestCapture = context.getTimestamp(0);
+        }
+
+        @Override
+        public Long getResult() {
+            return latestCapture;
+        }
+    }
+}
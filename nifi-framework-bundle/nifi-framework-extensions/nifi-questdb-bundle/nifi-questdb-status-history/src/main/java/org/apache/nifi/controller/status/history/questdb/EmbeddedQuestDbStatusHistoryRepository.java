@@ -83,8 +83,10 @@ public class EmbeddedQuestDbStatusHistoryRepository implements StatusHistoryRepo
         LOGGER.debug("Repository start initiated");
         final RolloverStrategy nodeStatusRolloverStrategy = RolloverStrategy.deleteOld(getDaysToKeepNodeData(niFiProperties));
         final RolloverStrategy componentStatusRolloverStrategy = RolloverStrategy.deleteOld(getDaysToKeepComponentData(niFiProperties));
+        final RolloverStrategy capturedComponentStatusRolloverStrategy =
+            RolloverStrategy.deleteOld(getDaysToKeepCapturedComponentData(getDaysToKeepComponentData(niFiProperties)));
 
-        databaseManager = EmbeddedDatabaseManagerBuilder
+        final EmbeddedDatabaseManagerBuilder databaseManagerBuilder = EmbeddedDatabaseManagerBuilder
                 .builder(niFiProperties.getQuestDbStatusRepositoryPath())
                 .backupLocation(niFiProperties.getQuestDbStatusRepositoryBackupPath())
                 .numberOfAttemptedRetries(2)
@@ -93,12 +95,20 @@ public class EmbeddedQuestDbStatusHistoryRepository implements StatusHistoryRepo
                 .addTable(TABLE_NAME_NODE_STATUS, CREATE_NODE_STATUS, nodeStatusRolloverStrategy)
                 .addTable(TABLE_NAME_STORAGE_STATUS, CREATE_STORAGE_STATUS, nodeStatusRolloverStrategy)
                 .addTable(TABLE_NAME_GARBAGE_COLLECTION_STATUS, CREATE_GARBAGE_COLLECTION_STATUS, nodeStatusRolloverStrategy)
-                .addTable(TABLE_NAME_PROCESSOR_STATUS, CREATE_PROCESSOR_STATUS, componentStatusRolloverStrategy)
-                .addTable(TABLE_NAME_CONNECTION_STATUS, CREATE_CONNECTION_STATUS, componentStatusRolloverStrategy)
-                .addTable(TABLE_NAME_PROCESS_GROUP_STATUS, CREATE_PROCESS_GROUP_STATUS, componentStatusRolloverStrategy)
-                .addTable(TABLE_NAME_REMOTE_PROCESS_GROUP_STATUS, CREATE_REMOTE_PROCESS_GROUP_STATUS, componentStatusRolloverStrategy)
-                .addTable(TABLE_NAME_COMPONENT_COUNTER, CREATE_COMPONENT_COUNTER, componentStatusRolloverStrategy)
-                .build();
+                .addTable(TABLE_NAME_PROCESSOR_STATUS, CREATE_PROCESSOR_STATUS, capturedComponentStatusRolloverStrategy)
+                .addTable(TABLE_NAME_CONNECTION_STATUS, CREATE_CONNECTION_STATUS, capturedComponentStatusRolloverStrategy)
+                .addTable(TABLE_NAME_PROCESS_GROUP_STATUS, CREATE_PROCESS_GROUP_STATUS, capturedComponentStatusRolloverStrategy)
+                .addTable(TABLE_NAME_REMOTE_PROCESS_GROUP_STATUS, CREATE_REMOTE_PROCESS_GROUP_STATUS, capturedComponentStatusRolloverStrategy)
+                .addTable(TABLE_NAME_COMPONENT_COUNTER, CREATE_COMPONENT_COUNTER, componentStatusRolloverStrategy);
+
+        for (final StatusRollupResolution resolution : StatusRollupResolution.values()) {
+            addRollupTable(databaseManagerBuilder, TABLE_NAME_PROCESSOR_STATUS, CREATE_PROCESSOR_STATUS, resolution, componentStatusRolloverStrategy);
+            addRollupTable(databaseManagerBuilder, TABLE_NAME_CONNECTION_STATUS, CREATE_CONNECTION_STATUS, resolution, componentStatusRolloverStrategy);
+            addRollupTable(databaseManagerBuilder, TABLE_NAME_PROCESS_GROUP_STATUS, CREATE_PROCESS_GROUP_STATUS, resolution, componentStatusRolloverStrategy);
+            addRollupTable(databaseManagerBuilder, TABLE_NAME_REMOTE_PROCESS_GROUP_STATUS, CREATE_REMOTE_PROCESS_GROUP_STATUS, resolution, componentStatusRolloverStrategy);
+        }
+
+        databaseManager = databaseManagerBuilder.build();
 
         storage = new BufferedStatusHistoryStorage(
                 new QuestDbStatusHistoryStorage(databaseManager.acquireClient(), getDaysToKeepNodeData(niFiProperties), getDaysToKeepComponentData(niFiProperties)),
@@ -208,6 +218,12 @@ public class EmbeddedQuestDbStatusHistoryRepository implements StatusHistoryRepo
         );
     }
 
+    private static void addRollupTable(final EmbeddedDatabaseManagerBuilder databaseManagerBuilder, final String tableName, final String tableDefinition,
+                                       final StatusRollupResolution resolution, final RolloverStrategy rolloverStrategy) {
+        databaseManagerBuilder.addTable(resolution.getTableName(tableName),
+            EmbeddedQuestDbStatusHistoryRepositoryDefinitions.getRollupTableDefinition(tableDefinition, tableName, resolution), rolloverStrategy);
+    }
+
     private Integer getDaysToKeepNodeData(final NiFiProperties niFiProperties) {
         return niFiProperties.getIntegerProperty(
             NiFiProperties.STATUS_REPOSITORY_QUESTDB_PERSIST_NODE_DAYS,
@@ -220,6 +236,17 @@ public class EmbeddedQuestDbStatusHistoryRepository implements StatusHistoryRepo
             NiFiProperties.DEFAULT_COMPONENT_STATUS_REPOSITORY_PERSIST_COMPONENT_DAYS);
     }
 
+    /**
+     * Captured processor, connection and group statuses are read only until they are old enough to be read from the finest rollup,
+     * so they are kept no longer than that. Counters are not rolled up, and are kept for the whole retention period.
+     *
+     * @param daysToKeepComponentData the configured retention period of the component statuses
+     * @return the number of days to keep the captured processor, connection and group statuses
+     */
+    static int getDaysToKeepCapturedComponentData(final int daysToKeepComponentData) {
+        return (int) Math.min(daysToKeepComponentData, StatusRollupResolution.getFinestAge().toDays());
+    }
+
     /**
      * Before the first capture, there will be no component detail provided!
      *
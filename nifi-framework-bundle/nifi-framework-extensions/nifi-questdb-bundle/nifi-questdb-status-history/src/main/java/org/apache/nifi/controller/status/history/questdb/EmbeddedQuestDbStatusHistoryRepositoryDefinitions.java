@@ -44,6 +44,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
     /**
@@ -65,6 +66,28 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         "AND captured < to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
         "ORDER BY captured ASC";
 
+    static final String COMPONENT_STATUS_RANGE_QUERY =
+        "SELECT * FROM %s " +
+        "WHERE componentId = '%s' " +
+        "AND captured >= to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
+        "AND captured < to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
+        "ORDER BY captured ASC";
+
+    // Rollup
+
+    /**
+     * Aggregates the captured statuses of every component between two points in time into the buckets of a rollup table. The values
+     * of the metrics are averaged, as they are either point-in-time values or values over a fixed window preceding the capture.
+     */
+    static final String ROLLUP_QUERY =
+        "INSERT INTO %s " +
+        "SELECT captured, componentId, %s FROM %s " +
+        "WHERE captured >= to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
+        "AND captured < to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
+        "SAMPLE BY %s";
+
+    static final String LATEST_CAPTURE_QUERY = "SELECT max(captured) FROM %s";
+
     // Connection
 
     static final String TABLE_NAME_CONNECTION_STATUS = "connectionStatus";
@@ -84,6 +107,9 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         "averageQueuedDuration LONG" +
         ") TIMESTAMP(captured) PARTITION BY DAY";
 
+    static final List<String> CONNECTION_STATUS_METRIC_COLUMNS = List.of(
+        "inputBytes", "inputCount", "outputBytes", "outputCount", "queuedBytes", "queuedCount", "totalQueuedDuration", "maxQueuedDuration", "averageQueuedDuration");
+
     private static final Map<Integer, MetricDescriptor<ConnectionStatus>> CONNECTION_METRICS = new HashMap<>();
 
     static {
@@ -127,6 +153,10 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         "averageTaskNanos LONG" +
         ") TIMESTAMP(captured) PARTITION BY DAY";
 
+    static final List<String> PROCESSOR_STATUS_METRIC_COLUMNS = List.of(
+        "bytesRead", "bytesWritten", "bytesTransferred", "inputBytes", "inputCount", "outputBytes", "outputCount", "taskCount", "taskMillis", "taskNanos",
+        "flowFilesRemoved", "averageLineageDuration", "averageTaskNanos");
+
     private static final Map<Integer, MetricDescriptor<ProcessorStatus>> PROCESSOR_METRICS = new HashMap<>();
 
     static {
@@ -175,6 +205,9 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         "taskMillis LONG" +
         ") TIMESTAMP(captured) PARTITION BY DAY";
 
+    static final List<String> PROCESS_GROUP_STATUS_METRIC_COLUMNS = List.of(
+        "bytesRead", "bytesWritten", "bytesTransferred", "inputBytes", "inputCount", "outputBytes", "outputCount", "queuedBytes", "queuedCount", "taskMillis");
+
     private static final Map<Integer, MetricDescriptor<ProcessGroupStatus>> PROCESS_GROUP_METRICS = new HashMap<>();
 
     static {
@@ -214,6 +247,9 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         "averageLineageDuration LONG" +
         ") TIMESTAMP(captured) PARTITION BY DAY";
 
+    static final List<String> REMOTE_PROCESS_GROUP_STATUS_METRIC_COLUMNS = List.of(
+        "sentBytes", "sentCount", "receivedBytes", "receivedCount", "receivedBytesPerSecond", "sentBytesPerSecond", "totalBytesPerSecond", "averageLineageDuration");
+
     private static final Map<Integer, MetricDescriptor<RemoteProcessGroupStatus>> REMOTE_PROCESS_GROUP_METRICS = new HashMap<>();
 
     static {
@@ -267,6 +303,16 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         "value LONG" +
         ") TIMESTAMP(captured) PARTITION BY DAY";
 
+    /**
+     * Counters are not rolled up, so they are downsampled when read, into the same buckets as the rollup of the processor statuses.
+     */
+    static final String COMPONENT_COUNTER_SAMPLED_QUERY =
+        "SELECT captured, componentId, name, cast(avg(value) AS LONG) value FROM " + TABLE_NAME_COMPONENT_COUNTER + " " +
+        "WHERE componentId = '%s' " +
+        "AND captured >= to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
+        "AND captured < to_timestamp('%s', '" + CAPTURE_DATE_FORMAT + "') " +
+        "SAMPLE BY %s";
+
     // Storage status
 
     static final String TABLE_NAME_STORAGE_STATUS = "storageStatus";
@@ -338,6 +384,26 @@ final class EmbeddedQuestDbStatusHistoryRepositoryDefinitions {
         return new NodeStatusResultProcessor(NODE_STATUS_METRICS, statusMetricsByTime);
     }
 
+    /**
+     * @param tableDefinition the definition of the table holding the captured statuses
+     * @param tableName the name of the table holding the captured statuses
+     * @param resolution the resolution of the rollup
+     * @return the definition of the table holding the statuses rolled up to the given resolution, which has the same columns
+     */
+    static String getRollupTableDefinition(final String tableDefinition, final String tableName, final StatusRollupResolution resolution) {
+        return tableDefinition.replace("CREATE TABLE " + tableName + " (", "CREATE TABLE " + resolution.getTableName(tableName) + " (");
+    }
+
+    /**
+     * @param metricColumns the columns of the metrics of a table holding captured statuses
+     * @return the aggregation of the given columns for the rollup query
+     */
+    static String getRollupAggregation(final List<String> metricColumns) {
+        return metricColumns.stream()
+            .map(column -> "cast(avg(" + column + ") AS LONG) " + column)
+            .collect(Collectors.joining(", "));
+    }
+
     private static <T> RequestMapping<StandardStatusSnapshot> getSnapshotRequestMapping(Class<T> type, Collection<MetricDescriptor<T>> descriptorSource) {
         final RequestMappingBuilder<StandardStatusSnapshot> requestMappingBuilder = RequestMappingBuilder
                 .of(() -> new StandardStatusSnapshot(new HashSet<>(descriptorSource)))
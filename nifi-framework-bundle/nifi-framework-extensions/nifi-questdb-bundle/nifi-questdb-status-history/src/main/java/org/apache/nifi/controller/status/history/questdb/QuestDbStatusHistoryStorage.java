@@ -43,11 +43,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.COMPONENT_COUNTER_SAMPLED_QUERY;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.COMPONENT_STATUS_QUERY;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.COMPONENT_STATUS_RANGE_QUERY;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.CONNECTION_STATUS_METRIC_COLUMNS;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.CONNECTION_STATUS_REQUEST_MAPPING;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.NODE_STATUS_QUERY;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.PROCESSOR_STATUS_METRIC_COLUMNS;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.PROCESSOR_STATUS_REQUEST_MAPPING;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.PROCESS_GROUP_STATUS_METRIC_COLUMNS;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.PROCESS_GROUP_STATUS_REQUEST_MAPPING;
+import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.REMOTE_PROCESS_GROUP_STATUS_METRIC_COLUMNS;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.REMOTE_PROCESS_GROUP_STATUS_REQUEST_MAPPING;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.STATUS_QUERY_GARBAGE_COLLECTION;
 import static org.apache.nifi.controller.status.history.questdb.EmbeddedQuestDbStatusHistoryRepositoryDefinitions.STORAGE_STATUS_QUERY;
@@ -67,10 +73,19 @@ final class QuestDbStatusHistoryStorage implements StatusHistoryStorage {
     private final int configuredNodeDays;
     private final int configuredComponentDays;
 
+    private final List<ComponentStatusRollup> rollups = new ArrayList<>();
+
     QuestDbStatusHistoryStorage(final Client client, final int configuredNodeDays, final int configuredComponentDays) {
         this.client = client;
         this.configuredNodeDays = configuredNodeDays;
         this.configuredComponentDays = configuredComponentDays;
+
+        for (final StatusRollupResolution resolution : StatusRollupResolution.values()) {
+            rollups.add(new ComponentStatusRollup(client, TABLE_NAME_PROCESSOR_STATUS, PROCESSOR_STATUS_METRIC_COLUMNS, resolution));
+            rollups.add(new ComponentStatusRollup(client, TABLE_NAME_CONNECTION_STATUS, CONNECTION_STATUS_METRIC_COLUMNS, resolution));
+            rollups.add(new ComponentStatusRollup(client, TABLE_NAME_PROCESS_GROUP_STATUS, PROCESS_GROUP_STATUS_METRIC_COLUMNS, resolution));
+            rollups.add(new ComponentStatusRollup(client, TABLE_NAME_REMOTE_PROCESS_GROUP_STATUS, REMOTE_PROCESS_GROUP_STATUS_METRIC_COLUMNS, resolution));
+        }
     }
 
     @Override
@@ -95,9 +110,18 @@ final class QuestDbStatusHistoryStorage implements StatusHistoryStorage {
 
     @Override
     public List<StatusSnapshot> getProcessorSnapshotsWithCounters(final String componentId, final Date start, final Date end) {
-        final List<StatusSnapshot> componentSnapshots = getComponentSnapshots(TABLE_NAME_PROCESSOR_STATUS, componentId, PROCESSOR_STATUS_REQUEST_MAPPING, start, end);
-        final String query = String.format(COMPONENT_STATUS_QUERY, TABLE_NAME_COMPONENT_COUNTER, componentId, getStartTimeForComponent(start), getEndTime(end));
-        return getResult(query, new CounterStatisticsResultProcessor(componentSnapshots), Collections.emptyList());
+        final List<TimeRange> timeRanges = getTimeRanges(start, end);
+        final List<StatusSnapshot> componentSnapshots = getComponentSnapshots(TABLE_NAME_PROCESSOR_STATUS, componentId, PROCESSOR_STATUS_REQUEST_MAPPING, timeRanges);
+        final CounterStatisticsResultProcessor counterProcessor = new CounterStatisticsResultProcessor(componentSnapshots);
+
+        for (final TimeRange timeRange : timeRanges) {
+            final String query = timeRange.resolution() == null
+                ? getComponentStatusQuery(TABLE_NAME_COMPONENT_COUNTER, componentId, timeRange)
+                : String.format(COMPONENT_COUNTER_SAMPLED_QUERY, componentId, format(timeRange.start()), format(timeRange.end()), timeRange.resolution().getSampleBy());
+            getResult(query, counterProcessor, Collections.emptyList());
+        }
+
+        return componentSnapshots;
     }
 
     @Override
@@ -147,6 +171,14 @@ final class QuestDbStatusHistoryStorage implements StatusHistoryStorage {
         store(TABLE_NAME_COMPONENT_COUNTER, EmbeddedQuestDbStatusHistoryRepositoryDefinitions.getCounterStatisticsDataSource(statuses));
     }
 
+    @Override
+    public void rollUp() {
+        final Instant now = Instant.now();
+        for (final ComponentStatusRollup rollup : rollups) {
+            rollup.rollUp(now);
+        }
+    }
+
     private <T> void store(final String tableName, final InsertRowDataSource source) {
         try {
             client.insert(tableName, source);
@@ -156,8 +188,54 @@ final class QuestDbStatusHistoryStorage implements StatusHistoryStorage {
     }
 
     private List<StatusSnapshot> getComponentSnapshots(final String tableName, final String componentId, final RequestMapping<StandardStatusSnapshot> mapping, final Date start, final Date end) {
-        final String query = String.format(COMPONENT_STATUS_QUERY, tableName, componentId, getStartTimeForComponent(start), getEndTime(end));
-        return getSnapshot(query, RequestMapping.getResultProcessor(mapping));
+        return getComponentSnapshots(tableName, componentId, mapping, getTimeRanges(start, end));
+    }
+
+    private List<StatusSnapshot> getComponentSnapshots(final String tableName, final String componentId, final RequestMapping<StandardStatusSnapshot> mapping,
+                                                       final List<TimeRange> timeRanges) {
+        final List<StatusSnapshot> result = new ArrayList<>();
+        for (final TimeRange timeRange : timeRanges) {
+            result.addAll(getSnapshot(getComponentStatusQuery(tableName, componentId, timeRange), RequestMapping.getResultProcessor(mapping)));
+        }
+        return result;
+    }
+
+    private static String getComponentStatusQuery(final String tableName, final String componentId, final TimeRange timeRange) {
+        if (timeRange.resolution() == null && !timeRange.startInclusive()) {
+            return String.format(COMPONENT_STATUS_QUERY, tableName, componentId, format(timeRange.start()), format(timeRange.end()));
+        }
+
+        final String sourceTableName = timeRange.resolution() == null ? tableName : timeRange.resolution().getTableName(tableName);
+        return String.format(COMPONENT_STATUS_RANGE_QUERY, sourceTableName, componentId, format(timeRange.start()), format(timeRange.end()));
+    }
+
+    /**
+     * Splits the requested period of component status history by the resolution it is to be read at: the older parts of the period are
+     * read from the rollup tables, and the most recent part from the captured statuses.
+     */
+    private List<TimeRange> getTimeRanges(final Date start, final Date end) {
+        final Instant now = Instant.now();
+        final Instant startTime = (start == null) ? now.minus(configuredComponentDays, ChronoUnit.DAYS) : start.toInstant();
+        final Instant endTime = (end == null) ? now : end.toInstant();
+
+        final List<TimeRange> timeRanges = new ArrayList<>();
+        Instant rangeStart = startTime;
+        for (final StatusRollupResolution resolution : StatusRollupResolution.values()) {
+            final Instant boundary = resolution.getBoundary(now);
+            if (rangeStart.isBefore(boundary)) {
+                final Instant rangeEnd = endTime.isBefore(boundary) ? endTime : boundary;
+                if (rangeStart.isBefore(rangeEnd)) {
+                    timeRanges.add(new TimeRange(resolution, rangeStart, rangeEnd, true));
+                }
+                rangeStart = boundary;
+            }
+        }
+
+        if (rangeStart.isBefore(endTime)) {
+            timeRanges.add(new TimeRange(null, rangeStart, endTime, !rangeStart.equals(startTime)));
+        }
+
+        return timeRanges;
     }
 
     private List<StatusSnapshot> getSnapshot(final String query, final QueryResultProcessor<List<StandardStatusSnapshot>> rowProcessor) {
@@ -178,13 +256,18 @@ final class QuestDbStatusHistoryStorage implements StatusHistoryStorage {
         return EmbeddedQuestDbStatusHistoryRepositoryDefinitions.DATE_FORMATTER.format(startTime);
     }
 
-    private String getStartTimeForComponent(final Date start) {
-        final Instant startTime = (start == null) ? Instant.now().minus(configuredComponentDays, ChronoUnit.DAYS) : start.toInstant();
-        return EmbeddedQuestDbStatusHistoryRepositoryDefinitions.DATE_FORMATTER.format(startTime);
-    }
-
     private static String getEndTime(final Date end) {
         final Instant endTime = (end == null) ? Instant.now() : end.toInstant();
         return EmbeddedQuestDbStatusHistoryRepositoryDefinitions.DATE_FORMATTER.format(endTime);
     }
+
+    private static String format(final Instant time) {
+        return EmbeddedQuestDbStatusHistoryRepositoryDefinitions.DATE_FORMATTER.format(time);
+    }
+
+    /**
+     * A part of the requested period of status history, with the resolution to read it at, or <code>null</code> for the captured statuses
+     */
+    private record TimeRange(StatusRollupResolution resolution, Instant start, Instant end, boolean startInclusive) {
+    }
 }
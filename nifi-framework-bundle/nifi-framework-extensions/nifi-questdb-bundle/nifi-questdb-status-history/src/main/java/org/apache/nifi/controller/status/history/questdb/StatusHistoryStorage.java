@@ -33,6 +33,11 @@ interface StatusHistoryStorage {
     default void init() { }
     default void close() { }
 
+    /**
+     * Aggregates the stored component statuses into the tables of lower resolution, if the storage maintains such tables.
+     */
+    default void rollUp() { }
+
     List<StatusSnapshot> getConnectionSnapshots(final String componentId, final Date start, final Date end);
     List<StatusSnapshot> getProcessGroupSnapshots(final String componentId, final Date start, final Date end);
     List<StatusSnapshot> getRemoteProcessGroupSnapshots(final String componentId, final Date start, final Date end);
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history.questdb;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The resolutions at which component statuses are rolled up. Each resolution is used for status history that is older than its age,
+ * so that a chart spanning the whole retention period reads a bounded number of rows regardless of the capture frequency. Status history
+ * that is more recent than the age of every resolution is read from the captured rows.
+ * <p>
+ * The resolutions are listed from the coarsest to the finest.
+ */
+enum StatusRollupResolution {
+    ONE_HOUR("1h", Duration.ofHours(1), Duration.ofDays(7)),
+    FIFTEEN_MINUTES("15m", Duration.ofMinutes(15), Duration.ofDays(1));
+
+    private final String sampleBy;
+    private final Duration bucket;
+    private final Duration age;
+
+    StatusRollupResolution(final String sampleBy, final Duration bucket, final Duration age) {
+        this.sampleBy = sampleBy;
+        this.bucket = bucket;
+        this.age = age;
+    }
+
+    /**
+     * @return the interval of the resolution in the format of the SAMPLE BY clause
+     */
+    String getSampleBy() {
+        return sampleBy;
+    }
+
+    Duration getBucket() {
+        return bucket;
+    }
+
+    /**
+     * @param tableName the name of the table holding the captured statuses
+     * @return the name of the table holding the statuses rolled up to this resolution
+     */
+    String getTableName(final String tableName) {
+        return tableName + "_" + sampleBy;
+    }
+
+    /**
+     * @param time a point in time
+     * @return the start of the bucket that contains the given time
+     */
+    Instant truncate(final Instant time) {
+        final long bucketMillis = bucket.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(time.toEpochMilli(), bucketMillis) * bucketMillis);
+    }
+
+    /**
+     * @return the age after which status history is no longer read from the captured rows
+     */
+    static Duration getFinestAge() {
+        final StatusRollupResolution[] resolutions = values();
+        return resolutions[resolutions.length - 1].age;
+    }
+
+    /**
+     * @param now the current time
+     * @return the time before which status history is to be read at this resolution, aligned to the start of a bucket
+     */
+    Instant getBoundary(final Instant now) {
+        return truncate(now.minus(age));
+    }
+}
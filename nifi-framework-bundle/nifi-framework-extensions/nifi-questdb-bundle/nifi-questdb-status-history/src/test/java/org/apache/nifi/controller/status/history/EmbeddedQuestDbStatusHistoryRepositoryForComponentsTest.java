@@ -96,6 +96,26 @@ public class EmbeddedQuestDbStatusHistoryRepositoryForComponentsTest extends Abs
         assertEquals(new Date(INSERTED_AT.getTime() - TimeUnit.MINUTES.toMillis(5)), result.getStatusSnapshots().get(2).getTimestamp());
     }
 
+    @Test
+    public void testReadingRolledUpComponents() throws Exception {
+        final long bucketMillis = TimeUnit.MINUTES.toMillis(15);
+        final long bucketStart = Math.floorDiv(NOW - TimeUnit.DAYS.toMillis(2), bucketMillis) * bucketMillis;
+        repository.capture(new NodeStatus(), givenRootProcessGroupStatus(), new ArrayList<>(), new Date(bucketStart + TimeUnit.MINUTES.toMillis(1)));
+        repository.capture(new NodeStatus(), givenRootProcessGroupStatus(), new ArrayList<>(), new Date(bucketStart + TimeUnit.MINUTES.toMillis(2)));
+        repository.capture(new NodeStatus(), givenRootProcessGroupStatus(), new ArrayList<>(), new Date(bucketStart + TimeUnit.MINUTES.toMillis(3)));
+        repository.capture(new NodeStatus(), givenRootProcessGroupStatus(), new ArrayList<>(), INSERTED_AT);
+        waitUntilPersisted();
+
+        final StatusHistory result = repository.getProcessGroupStatusHistory(ROOT_GROUP_ID, START, END, PREFERRED_DATA_POINTS);
+
+        // statuses older than a day are read from the rollup of 15 minutes, more recent ones as they were captured
+        assertEquals(2, result.getStatusSnapshots().size());
+        assertEquals(new Date(bucketStart), result.getStatusSnapshots().get(0).getTimestamp());
+        assertRootProcessGroupStatusSnapshot(result.getStatusSnapshots().get(0));
+        assertEquals(INSERTED_AT, result.getStatusSnapshots().get(1).getTimestamp());
+        assertRootProcessGroupStatusSnapshot(result.getStatusSnapshots().get(1));
+    }
+
     private void assertCorrectStatusHistory(final StatusHistory rootGroupStatus, final String id, final String name) {
         assertEquals(id, rootGroupStatus.getComponentDetails().get("Id"));
         assertEquals(name, rootGroupStatus.getComponentDetails().get("Name"));
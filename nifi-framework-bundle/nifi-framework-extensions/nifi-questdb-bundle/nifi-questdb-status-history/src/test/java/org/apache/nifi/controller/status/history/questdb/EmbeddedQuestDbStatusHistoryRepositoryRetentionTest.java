@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.status.history.questdb;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EmbeddedQuestDbStatusHistoryRepositoryRetentionTest {
+
+    @Test
+    public void testCapturedComponentDataIsKeptUntilTheFinestRollupAge() {
+        assertEquals(Duration.ofDays(1), StatusRollupResolution.getFinestAge());
+        assertEquals(1, EmbeddedQuestDbStatusHistoryRepository.getDaysToKeepCapturedComponentData(7));
+        assertEquals(1, EmbeddedQuestDbStatusHistoryRepository.getDaysToKeepCapturedComponentData(30));
+    }
+
+    @Test
+    public void testCapturedComponentDataIsNotKeptLongerThanTheRetention() {
+        assertEquals(0, EmbeddedQuestDbStatusHistoryRepository.getDaysToKeepCapturedComponentData(0));
+        assertEquals(1, EmbeddedQuestDbStatusHistoryRepository.getDaysToKeepCapturedComponentData(1));
+    }
+}
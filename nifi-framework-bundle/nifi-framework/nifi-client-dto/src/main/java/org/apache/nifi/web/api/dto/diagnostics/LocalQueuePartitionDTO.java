@@ -30,6 +30,8 @@ public class LocalQueuePartitionDTO {
     private int swapFlowFileCount;
     private long swapByteCount;
     private int swapFiles;
+    private long swapStallCount;
+    private long swapStallMillis;
     private int inFlightFlowFileCount;
     private long inFlightByteCount;
     private Boolean allActiveQueueFlowFilesPenalized;
@@ -98,6 +100,24 @@ public class LocalQueuePartitionDTO {
         this.swapFiles = swapFiles;
     }
 
+    @Schema(description = "The number of times that FlowFiles could not be pulled from the Connection until a Swap File that had not been prefetched was swapped in")
+    public long getSwapStallCount() {
+        return swapStallCount;
+    }
+
+    public void setSwapStallCount(long swapStallCount) {
+        this.swapStallCount = swapStallCount;
+    }
+
+    @Schema(description = "The total number of milliseconds spent waiting for Swap Files that had not been prefetched to be swapped in for this Connection")
+    public long getSwapStallMillis() {
+        return swapStallMillis;
+    }
+
+    public void setSwapStallMillis(long swapStallMillis) {
+        this.swapStallMillis = swapStallMillis;
+    }
+
     @Schema(description = "The number of In-Flight FlowFiles for this Connection. These are FlowFiles that belong to the connection but are currently being operated on by a Processor, Port, etc.")
     public int getInFlightFlowFileCount() {
         return inFlightFlowFileCount;
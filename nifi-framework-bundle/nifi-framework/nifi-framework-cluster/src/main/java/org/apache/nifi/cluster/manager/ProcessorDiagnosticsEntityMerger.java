@@ -179,6 +179,8 @@ public class ProcessorDiagnosticsEntityMerger implements ComponentEntityMerger<P
         localPartition.setInFlightFlowFileCount(0);
         localPartition.setSwapByteCount(0);
         localPartition.setSwapFiles(0);
+        localPartition.setSwapStallCount(0L);
+        localPartition.setSwapStallMillis(0L);
         localPartition.setSwapFlowFileCount(0);
         localPartition.setTotalByteCount(0);
         localPartition.setTotalFlowFileCount(0);
@@ -200,6 +202,8 @@ public class ProcessorDiagnosticsEntityMerger implements ComponentEntityMerger<P
             localPartition.setInFlightFlowFileCount(localPartition.getInFlightFlowFileCount() + snapshotLocalPartition.getInFlightFlowFileCount());
             localPartition.setSwapByteCount(localPartition.getSwapByteCount() + snapshotLocalPartition.getSwapByteCount());
             localPartition.setSwapFiles(localPartition.getSwapFiles() + snapshotLocalPartition.getSwapFiles());
+            localPartition.setSwapStallCount(localPartition.getSwapStallCount() + snapshotLocalPartition.getSwapStallCount());
+            localPartition.setSwapStallMillis(localPartition.getSwapStallMillis() + snapshotLocalPartition.getSwapStallMillis());
             localPartition.setSwapFlowFileCount(localPartition.getSwapFlowFileCount() + snapshotLocalPartition.getSwapFlowFileCount());
             localPartition.setTotalByteCount(localPartition.getTotalByteCount() + snapshotLocalPartition.getTotalByteCount());
             localPartition.setTotalFlowFileCount(localPartition.getTotalFlowFileCount() + snapshotLocalPartition.getTotalFlowFileCount());
@@ -335,6 +335,11 @@ public final class StandardConnection implements Connection {
         return flowFileQueue.poll(expiredRecords, PollStrategy.UNPENALIZED_FLOWFILES);
     }
 
+    @Override
+    public List<FlowFileRecord> poll(final int maxResults, final Set<FlowFileRecord> expiredRecords) {
+        return flowFileQueue.poll(maxResults, expiredRecords, PollStrategy.UNPENALIZED_FLOWFILES);
+    }
+
     @Override
     public boolean equals(final Object other) {
         if (!(other instanceof Connection)) {
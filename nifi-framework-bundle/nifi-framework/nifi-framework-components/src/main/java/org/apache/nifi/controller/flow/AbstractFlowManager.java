@@ -210,6 +210,7 @@ public abstract class AbstractFlowManager implements FlowManager {
         String identifier = connection.getIdentifier();
         flowFileEventRepository.purgeTransferEvents(identifier);
         allConnections.remove(identifier);
+        getProcessScheduler().onConnectionRemoved(connection);
 
         removeRuleViolationsForSubject(identifier);
     }
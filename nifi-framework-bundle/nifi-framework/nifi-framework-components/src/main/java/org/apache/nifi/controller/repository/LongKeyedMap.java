@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * <p>
+ * An open-addressing hash map keyed by a primitive {@code long}, used by {@link StandardProcessSession} to track per-FlowFile
+ * state such as repository records by FlowFile ID. Unlike a {@code Map<Long, V>}, this map does not box its keys and does not allocate
+ * an entry object per mapping, which matters for sessions that create or pull tens of thousands of FlowFiles.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe, in keeping with the contract of the ProcessSession. Values may not be {@code null}.
+ * The {@link #values()} view does not support removal and fails fast if the map is modified while it is being iterated.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+final class LongKeyedMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+    private int modCount;
+
+    private Collection<V> valuesView;
+
+    LongKeyedMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    LongKeyedMap(final int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        // Keep the load factor at or below 0.5 so that probe sequences stay short.
+        final long desired = Math.max(DEFAULT_CAPACITY, (long) expectedSize * 2);
+        if (desired >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+
+        return Integer.highestOneBit((int) desired - 1) << 1;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity >>> 1;
+    }
+
+    private int slot(final long key) {
+        final long mixed = key * MIX;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(final long key) {
+        int index = slot(key);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    public boolean containsKey(final long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the given value with the given key
+     *
+     * @param key the key
+     * @param value the value, which may not be null
+     * @return the value that was previously associated with the key, or <code>null</code> if there was none
+     */
+    public V put(final long key, final V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Associates the given value with the given key only if there is no value already associated with the key
+     *
+     * @param key the key
+     * @param value the value, which may not be null
+     * @return the value that is already associated with the key, or <code>null</code> if the given value was added
+     */
+    public V putIfAbsent(final long key, final V value) {
+        return put(key, value, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(final long key, final V value, final boolean replace) {
+        Objects.requireNonNull(value, "Value cannot be null");
+
+        int index = slot(key);
+        Object existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key) {
+                if (replace) {
+                    values[index] = value;
+                }
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        modCount++;
+        if (++size > resizeThreshold) {
+            resize(values.length << 1);
+        }
+
+        return null;
+    }
+
+    public void putAll(final LongKeyedMap<? extends V> other) {
+        if (other.isEmpty()) {
+            return;
+        }
+
+        final long[] otherKeys = other.keys;
+        final Object[] otherValues = other.values;
+        for (int i = 0; i < otherValues.length; i++) {
+            @SuppressWarnings("unchecked")
+            final V value = (V) otherValues[i];
+            if (value != null) {
+                put(otherKeys[i], value);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(final long key) {
+        int index = slot(key);
+        Object existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key) {
+                deleteSlot(index);
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the entry at the given slot, shifting any following entries of the same probe run back so that lookups never
+     * need tombstones.
+     */
+    private void deleteSlot(final int deletedIndex) {
+        int gap = deletedIndex;
+        int index = (deletedIndex + 1) & mask;
+        while (values[index] != null) {
+            final int home = slot(keys[index]);
+            // Move the entry into the gap unless its home slot lies cyclically within (gap, index]
+            final boolean homeBetween = gap <= index ? (gap < home && home <= index) : (gap < home || home <= index);
+            if (!homeBetween) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        values[gap] = null;
+        size--;
+        modCount++;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+    private void resize(final int newCapacity) {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Cannot track more than " + (MAX_CAPACITY >>> 1) + " records");
+        }
+
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            final Object value = oldValues[i];
+            if (value == null) {
+                continue;
+            }
+
+            int index = slot(oldKeys[i]);
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = value;
+        }
+    }
+
+    /**
+     * @return a live, read-only view of the values in this map
+     */
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new ValuesView();
+        }
+        return valuesView;
+    }
+
+    private class ValuesView extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValuesIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    private class ValuesIterator implements Iterator<V> {
+        private final Object[] table = values;
+        private final int expectedModCount = modCount;
+        private int nextIndex = advance(0);
+
+        private int advance(final int from) {
+            int index = from;
+            while (index < table.length && table[index] == null) {
+                index++;
+            }
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextIndex >= table.length) {
+                throw new NoSuchElementException();
+            }
+
+            final V value = (V) table[nextIndex];
+            nextIndex = advance(nextIndex + 1);
+            return value;
+        }
+    }
+}
@@ -75,6 +75,7 @@ import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.EOFException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -136,8 +137,13 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     private static final Logger LOG = LoggerFactory.getLogger(StandardProcessSession.class);
     private static final Logger claimLog = LoggerFactory.getLogger(StandardProcessSession.class.getSimpleName() + ".claims");
     private static final int MAX_ROLLBACK_FLOWFILES_TO_LOG = 5;
+    private static final Comparator<FlowFileRecord> QUEUE_ORDER_COMPARATOR = Comparator
+            .comparingLong(FlowFileRecord::getLastQueueDate)
+            .thenComparingLong(FlowFileRecord::getQueueDateIndex);
 
-    private final Map<Long, StandardRepositoryRecord> records = new ConcurrentHashMap<>();
+    // LongKeyedMap is not thread-safe, and a session may be rolled back from another thread when its component is terminated,
+    // so every access to the records must be made while holding this session's monitor
+    private final LongKeyedMap<StandardRepositoryRecord> records = new LongKeyedMap<>();
     private final Map<String, StandardFlowFileEvent> connectionCounts = new ConcurrentHashMap<>();
     private final Map<FlowFileQueue, Set<FlowFileRecord>> unacknowledgedFlowFiles = new ConcurrentHashMap<>();
     private final Map<ContentClaim, ByteCountingOutputStream> appendableStreams = new ConcurrentHashMap<>();
@@ -146,6 +152,8 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     private final Map<FlowFile, Integer> readRecursionSet = new HashMap<>(); // set used to track what is currently being operated on to prevent logic failures if recursive calls occurring
     private final Set<FlowFile> writeRecursionSet = new HashSet<>();
     private final Map<FlowFile, Path> deleteOnCommit = new HashMap<>();
+    // FlowFiles to place back on each queue, collected by rollbackRecord so that they can be requeued in the order in which they were queued. Guarded by this.
+    private final Map<FlowFileQueue, List<FlowFileRecord>> rolledBackFlowFiles = new HashMap<>();
     private final long sessionId;
     private final String connectableDescription;
     private final PerformanceTracker performanceTracker;
@@ -242,7 +250,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         }
     }
 
-    public void checkpoint() {
+    public synchronized void checkpoint() {
         checkpoint(true);
         resetState();
     }
@@ -307,7 +315,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         List<ProvenanceEventRecord> autoTerminatedEvents = null;
 
         // validate that all records have a transfer relationship for them and if so determine the destination node and clone as necessary
-        final Map<Long, StandardRepositoryRecord> toAdd = new HashMap<>();
+        final LongKeyedMap<StandardRepositoryRecord> toAdd = new LongKeyedMap<>();
 
         final Connectable connectable = context.getConnectable();
         final long maxBackoffMillis = Math.round(FormatUtils.getPreciseTimeDuration(connectable.getMaxBackoffPeriod(), TimeUnit.MILLISECONDS));
@@ -326,7 +334,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
 
         for (final StandardRepositoryRecord record : records.values()) {
             // Check if this Record should be retried. If so, perform the necessary actions to retry the Record and then continue on to the next record.
-            if (retryIds.contains(record.getCurrent().getId())) {
+            if (!retryIds.isEmpty() && retryIds.contains(record.getCurrent().getId())) {
                 retry(record, maxBackoffMillis);
             }
 
@@ -815,10 +823,14 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         eventTypes.set(eventType.ordinal());
     }
 
-    private StandardRepositoryRecord getRecord(final FlowFile flowFile) {
+    private synchronized StandardRepositoryRecord getRecord(final FlowFile flowFile) {
         return records.get(flowFile.getId());
     }
 
+    private synchronized void putRecord(final FlowFile flowFile, final StandardRepositoryRecord record) {
+        records.put(flowFile.getId(), record);
+    }
+
     protected void updateProvenanceRepo(final Checkpoint checkpoint) {
         // Update Provenance Repository
         final ProvenanceEventRepository provenanceRepo = context.getProvenanceRepository();
@@ -1084,7 +1096,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     }
 
     private ProvenanceEventRecord enrich(
-        final ProvenanceEventRecord rawEvent, final Map<String, FlowFileRecord> flowFileRecordMap, final Map<Long, StandardRepositoryRecord> records,
+        final ProvenanceEventRecord rawEvent, final Map<String, FlowFileRecord> flowFileRecordMap, final LongKeyedMap<StandardRepositoryRecord> records,
         final boolean updateAttributesAndContent, final long commitNanos) {
         final ProvenanceEventBuilder recordBuilder = context.createProvenanceEventBuilder().fromEvent(rawEvent);
         final FlowFileRecord eventFlowFile = flowFileRecordMap.get(rawEvent.getFlowFileUuid());
@@ -1155,7 +1167,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
      * @param records records
      * @return true if spurious route
      */
-    private boolean isSpuriousRouteEvent(final ProvenanceEventRecord event, final Map<Long, StandardRepositoryRecord> records) {
+    private boolean isSpuriousRouteEvent(final ProvenanceEventRecord event, final LongKeyedMap<StandardRepositoryRecord> records) {
         if (event.getEventType() == ProvenanceEventType.ROUTE) {
             final String relationshipName = event.getRelationship();
             final Relationship relationship = new Relationship.Builder().name(relationshipName).build();
@@ -1258,11 +1270,18 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             }
         }
 
-        // Put the FlowFiles that are not marked for abort back to their original queues
+        // Put the FlowFiles that are not marked for abort back to their original queues, in the order in which they were queued
         for (final StandardRepositoryRecord record : transferRecords) {
             rollbackRecord(record, penalize);
         }
 
+        for (final Map.Entry<FlowFileQueue, List<FlowFileRecord>> entry : rolledBackFlowFiles.entrySet()) {
+            final List<FlowFileRecord> flowFiles = entry.getValue();
+            flowFiles.sort(QUEUE_ORDER_COMPARATOR);
+            entry.getKey().requeue(flowFiles);
+        }
+        rolledBackFlowFiles.clear();
+
         if (!abortedRecords.isEmpty()) {
             try {
                 context.getFlowFileRepository().updateRepository(abortedRecords);
@@ -1306,6 +1325,8 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
      * Rolls back the Record in a manner that is appropriate for the context. The default implementation
      * is to place the queue back on its original queue, if it exists, or just ignore it if it has no original queue.
      * However, subclasses may wish to change the behavior for how Records are handled when a rollback occurs.
+     * The FlowFiles are placed back on their queues once all Records have been rolled back, so that each queue receives them in the order
+     * in which they were originally queued.
      * @param record the Record that is to be rolled back
      * @param penalize whether or not the Record should be penalized
      */
@@ -1313,13 +1334,15 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         if (record.getOriginal() != null) {
             final FlowFileQueue originalQueue = record.getOriginalQueue();
             if (originalQueue != null) {
+                final FlowFileRecord flowFile;
                 if (penalize) {
                     final long expirationEpochMillis = System.currentTimeMillis() + context.getConnectable().getPenalizationPeriod(TimeUnit.MILLISECONDS);
-                    final FlowFileRecord newFile = new StandardFlowFileRecord.Builder().fromFlowFile(record.getOriginal()).penaltyExpirationTime(expirationEpochMillis).build();
-                    originalQueue.put(newFile);
+                    flowFile = new StandardFlowFileRecord.Builder().fromFlowFile(record.getOriginal()).penaltyExpirationTime(expirationEpochMillis).build();
                 } else {
-                    originalQueue.put(record.getOriginal());
+                    flowFile = record.getOriginal();
                 }
+
+                rolledBackFlowFiles.computeIfAbsent(originalQueue, queue -> new ArrayList<>()).add(flowFile);
             }
         }
     }
@@ -1443,8 +1466,10 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     public void migrate(final ProcessSession newOwner) {
         final List<FlowFile> allFlowFiles = new ArrayList<>();
 
-        for (final StandardRepositoryRecord repositoryRecord : records.values()) {
-            allFlowFiles.add(repositoryRecord.getCurrent());
+        synchronized (this) {
+            for (final StandardRepositoryRecord repositoryRecord : records.values()) {
+                allFlowFiles.add(repositoryRecord.getCurrent());
+            }
         }
 
         migrate(newOwner, allFlowFiles);
@@ -1667,8 +1692,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         final Set<String> modifiedFlowFileIds = new HashSet<>();
         int largestTransferSetSize = 0;
 
-        for (final Map.Entry<Long, StandardRepositoryRecord> entry : checkpoint.records.entrySet()) {
-            final StandardRepositoryRecord record = entry.getValue();
+        for (final StandardRepositoryRecord record : checkpoint.records.values()) {
             final FlowFile flowFile = record.getCurrent();
 
             final Relationship relationship = record.getTransferRelationship();
@@ -1807,7 +1831,10 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             handleConflictingId(flowFile, connection, checkpointedRecord);
         }
 
-        final StandardRepositoryRecord existingRecord = records.putIfAbsent(flowFile.getId(), record);
+        final StandardRepositoryRecord existingRecord;
+        synchronized (this) {
+            existingRecord = records.putIfAbsent(flowFile.getId(), record);
+        }
         handleConflictingId(flowFile, connection, existingRecord); // Ensure that we have no conflicts
 
         flowFilesIn++;
@@ -1911,18 +1938,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             return Collections.emptyList();
         }
 
-        return get((connection, expiredRecords) -> connection.poll(new FlowFileFilter() {
-            int polled = 0;
-
-            @Override
-            public FlowFileFilterResult filter(final FlowFile flowFile) {
-                if (++polled < maxResults) {
-                    return FlowFileFilterResult.ACCEPT_AND_CONTINUE;
-                } else {
-                    return FlowFileFilterResult.ACCEPT_AND_TERMINATE;
-                }
-            }
-        }, expiredRecords), false);
+        return get((connection, expiredRecords) -> connection.poll(maxResults, expiredRecords), false);
     }
 
     @Override
@@ -2012,7 +2028,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             .build();
         final StandardRepositoryRecord record = new StandardRepositoryRecord((FlowFileQueue) null);
         record.setWorking(fFile, attrs, false);
-        records.put(fFile.getId(), record);
+        putRecord(fFile, record);
 
         createdFlowFiles.add(uuid);
         createdFlowFilesWithoutLineage.add(uuid);
@@ -2054,7 +2070,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         final FlowFileRecord fFile = fFileBuilder.build();
         final StandardRepositoryRecord record = new StandardRepositoryRecord((FlowFileQueue) null);
         record.setWorking(fFile, newAttributes, false);
-        records.put(fFile.getId(), record);
+        putRecord(fFile, record);
         createdFlowFiles.add(fFile.getAttribute(CoreAttributes.UUID.key()));
 
         registerForkEvent(parent, fFile);
@@ -2104,7 +2120,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
 
         final StandardRepositoryRecord record = new StandardRepositoryRecord((FlowFileQueue) null);
         record.setWorking(fFile, newAttributes, false);
-        records.put(fFile.getId(), record);
+        putRecord(fFile, record);
         createdFlowFiles.add(fFile.getAttribute(CoreAttributes.UUID.key()));
 
         registerJoinEvent(fFile, parents);
@@ -2151,7 +2167,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         }
         final StandardRepositoryRecord record = new StandardRepositoryRecord((FlowFileQueue) null);
         record.setWorking(clone, clone.getAttributes(), false);
-        records.put(clone.getId(), record);
+        putRecord(clone, record);
 
         if (offset == 0L && size == example.getSize()) {
             provenanceReporter.clone(example, clone);
@@ -3616,6 +3632,25 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             throw new FlowFileAccessException("Failed to access ContentClaim for " + source.toString(), e);
         }
 
+        // If the destination is a plain file stream, the Content Repository is able to transfer the content to the file's channel
+        // directly, rather than copying it through the heap. Subclasses may act on the bytes that they are given, so they are written to.
+        if (destination.getClass() == FileOutputStream.class) {
+            final FileOutputStream fileOutputStream = (FileOutputStream) destination;
+            incrementReadCount(source);
+            try {
+                final long copyCount = context.getContentRepository().exportTo(record.getCurrentClaim(), fileOutputStream.getChannel(), record.getCurrentClaimOffset(), source.getSize());
+                bytesRead += copyCount;
+            } catch (final ContentNotFoundException nfe) {
+                handleContentNotFound(nfe, record);
+            } catch (final IOException ex) {
+                throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ex.toString(), ex);
+            } finally {
+                decrementReadCount(source);
+            }
+
+            return;
+        }
+
         try (final InputStream rawIn = getInputStream(source, record.getCurrentClaim(), record.getCurrentClaimOffset(), true);
                 final InputStream limitedIn = new LimitedInputStream(rawIn, source.getSize());
                 final InputStream disableOnCloseIn = new DisableOnCloseInputStream(limitedIn);
@@ -3725,7 +3760,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
      * @return <code>true</code> if the FlowFile is known in this session,
      *         <code>false</code> otherwise.
      */
-    boolean isFlowFileKnown(final FlowFile flowFile) {
+    synchronized boolean isFlowFileKnown(final FlowFile flowFile) {
         return records.containsKey(flowFile.getId());
     }
 
@@ -3879,7 +3914,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         private List<ProvenanceEventRecord> autoTerminatedEvents;
         private Set<ProvenanceEventRecord> reportedEvents;
 
-        private Map<Long, StandardRepositoryRecord> records;
+        private LongKeyedMap<StandardRepositoryRecord> records;
         private Map<String, StandardFlowFileEvent> connectionCounts;
 
         private Map<String, Long> countersOnCommit;
@@ -3912,7 +3947,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             autoTerminatedEvents = new ArrayList<>();
             reportedEvents = new LinkedHashSet<>();
 
-            records = new ConcurrentHashMap<>();
+            records = new LongKeyedMap<>();
             connectionCounts = new ConcurrentHashMap<>();
 
             countersOnCommit = new HashMap<>();
@@ -4088,15 +4123,24 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     }
 
     private static class FlowFileLinkage {
-        private final Map<Long, List<Long>> linkedIds = new HashMap<>();
+        private final LongKeyedMap<List<Long>> linkedIds = new LongKeyedMap<>();
 
         public void addLink(final long id, final long other) {
             if (id == other) {
                 return;
             }
 
-            linkedIds.computeIfAbsent(id, key -> new ArrayList<>()).add(other);
-            linkedIds.computeIfAbsent(other, key -> new ArrayList<>()).add(id);
+            getOrCreateLinks(id).add(other);
+            getOrCreateLinks(other).add(id);
+        }
+
+        private List<Long> getOrCreateLinks(final long id) {
+            List<Long> links = linkedIds.get(id);
+            if (links == null) {
+                links = new ArrayList<>();
+                linkedIds.put(id, links);
+            }
+            return links;
         }
 
         public Collection<Long> getLinkedIds(final long id) {
@@ -14,7 +14,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.nifi.controller.repository.metrics;
 
 import org.apache.nifi.controller.repository.FlowFileEvent;
@@ -22,33 +21,65 @@ import org.apache.nifi.controller.repository.FlowFileEvent;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * <p>
+ * Accumulates the values of many {@link FlowFileEvent}s. Every session commit adds its event to several of these (one for the current second
+ * of the component's ring buffer, one for the component's rolling aggregate, and one for the repository-wide aggregate), so many threads
+ * frequently update the same instance concurrently.
+ * </p>
+ *
+ * <p>
+ * Rather than serializing updates on a monitor, the values are held in stripes in the style of {@link LongAdder}: each stripe holds one
+ * slot per metric, and a thread adds its event to a single stripe using atomic additions. An instance begins with a single stripe, and the
+ * number of stripes is doubled (up to a limit based on the number of available processors) only when threads are seen to contend for the
+ * same stripe, so that the many instances that are rarely updated remain small. The stripes are summed only when the value is read.
+ * </p>
+ *
+ * <p>
+ * As with {@link LongAdder}, reading the value while it is being updated concurrently is not an atomic snapshot: an event that is being
+ * added at the time of the read may be only partially reflected. This is acceptable for the purposes of reporting statistics.
+ * </p>
+ */
 public class EventSumValue {
-    private volatile boolean empty = true;
+    private static final int FLOWFILES_IN = 0;
+    private static final int FLOWFILES_OUT = 1;
+    private static final int FLOWFILES_REMOVED = 2;
+    private static final int FLOWFILES_RECEIVED = 3;
+    private static final int FLOWFILES_SENT = 4;
+    private static final int CONTENT_SIZE_IN = 5;
+    private static final int CONTENT_SIZE_OUT = 6;
+    private static final int CONTENT_SIZE_REMOVED = 7;
+    private static final int BYTES_READ = 8;
+    private static final int BYTES_WRITTEN = 9;
+    private static final int BYTES_RECEIVED = 10;
+    private static final int BYTES_SENT = 11;
+    private static final int PROCESSING_NANOS = 12;
+    private static final int CPU_NANOS = 13;
+    private static final int CONTENT_READ_NANOS = 14;
+    private static final int CONTENT_WRITE_NANOS = 15;
+    private static final int SESSION_COMMIT_NANOS = 16;
+    private static final int GC_MILLIS = 17;
+    private static final int AGGREGATE_LINEAGE_MILLIS = 18;
+    private static final int INVOCATIONS = 19;
+    private static final int METRIC_COUNT = 20;
+
+    // Stripes that are added when contention is detected are padded by a cache line so that adjacent stripes do not share one
+    private static final int PADDED_STRIPE_LENGTH = METRIC_COUNT + 8;
+    private static final int MAX_STRIPES = maxStripes();
+
+    // Each thread's probe determines which stripe it updates; the probe is changed when the thread encounters contention
+    private static final ThreadLocal<int[]> THREAD_PROBE = ThreadLocal.withInitial(() -> new int[] {initialProbe()});
 
-    private int flowFilesIn = 0;
-    private int flowFilesOut = 0;
-    private int flowFilesRemoved = 0;
-    private int flowFilesReceived = 0;
-    private int flowFilesSent = 0;
-
-    private long contentSizeIn = 0;
-    private long contentSizeOut = 0;
-    private long contentSizeRemoved = 0;
-    private long bytesRead = 0;
-    private long bytesWritten = 0;
-
-    private long bytesReceived = 0;
-    private long bytesSent = 0;
-    private long processingNanos = 0;
-    private long cpuNanos = 0;
-    private long contentReadNanos = 0;
-    private long contentWriteNanos = 0;
-    private long sessionCommitNanos = 0;
-    private long gcMillis = 0;
-    private long aggregateLineageMillis = 0;
-    private int invocations = 0;
-    private Map<String, Long> counters;
+    private volatile boolean empty = true;
+    private volatile AtomicLongArray[] stripes = new AtomicLongArray[] {new AtomicLongArray(METRIC_COUNT)};
+    private final AtomicBoolean resizing = new AtomicBoolean(false);
+    private volatile ConcurrentMap<String, LongAdder> counters;
 
     private final long millisecondTimestamp;
 
@@ -57,161 +88,218 @@ public class EventSumValue {
         this.millisecondTimestamp = timestamp;
     }
 
-    public synchronized void add(final FlowFileEvent flowFileEvent) {
-        empty = false;
-
-        this.aggregateLineageMillis += flowFileEvent.getAggregateLineageMillis();
-        this.bytesRead += flowFileEvent.getBytesRead();
-        this.bytesReceived += flowFileEvent.getBytesReceived();
-        this.bytesSent += flowFileEvent.getBytesSent();
-        this.bytesWritten += flowFileEvent.getBytesWritten();
-        this.contentSizeIn += flowFileEvent.getContentSizeIn();
-        this.contentSizeOut += flowFileEvent.getContentSizeOut();
-        this.contentSizeRemoved += flowFileEvent.getContentSizeRemoved();
-        this.flowFilesIn += flowFileEvent.getFlowFilesIn();
-        this.flowFilesOut += flowFileEvent.getFlowFilesOut();
-        this.flowFilesReceived += flowFileEvent.getFlowFilesReceived();
-        this.flowFilesRemoved += flowFileEvent.getFlowFilesRemoved();
-        this.flowFilesSent += flowFileEvent.getFlowFilesSent();
-        this.invocations += flowFileEvent.getInvocations();
-        this.processingNanos += flowFileEvent.getProcessingNanoseconds();
-        this.cpuNanos += flowFileEvent.getCpuNanoseconds();
-        this.contentReadNanos += flowFileEvent.getContentReadNanoseconds();
-        this.contentWriteNanos += flowFileEvent.getContentWriteNanoseconds();
-        this.gcMillis += flowFileEvent.getGargeCollectionMillis();
-        this.sessionCommitNanos += flowFileEvent.getSessionCommitNanoseconds();
+    public void add(final FlowFileEvent flowFileEvent) {
+        if (empty) {
+            // Avoid writing to the volatile field on every update, as doing so would cause all updating threads to contend for its cache line
+            empty = false;
+        }
+
+        final AtomicLongArray stripe = acquireStripe(flowFileEvent.getInvocations());
+        addTo(stripe, AGGREGATE_LINEAGE_MILLIS, flowFileEvent.getAggregateLineageMillis());
+        addTo(stripe, BYTES_READ, flowFileEvent.getBytesRead());
+        addTo(stripe, BYTES_RECEIVED, flowFileEvent.getBytesReceived());
+        addTo(stripe, BYTES_SENT, flowFileEvent.getBytesSent());
+        addTo(stripe, BYTES_WRITTEN, flowFileEvent.getBytesWritten());
+        addTo(stripe, CONTENT_SIZE_IN, flowFileEvent.getContentSizeIn());
+        addTo(stripe, CONTENT_SIZE_OUT, flowFileEvent.getContentSizeOut());
+        addTo(stripe, CONTENT_SIZE_REMOVED, flowFileEvent.getContentSizeRemoved());
+        addTo(stripe, FLOWFILES_IN, flowFileEvent.getFlowFilesIn());
+        addTo(stripe, FLOWFILES_OUT, flowFileEvent.getFlowFilesOut());
+        addTo(stripe, FLOWFILES_RECEIVED, flowFileEvent.getFlowFilesReceived());
+        addTo(stripe, FLOWFILES_REMOVED, flowFileEvent.getFlowFilesRemoved());
+        addTo(stripe, FLOWFILES_SENT, flowFileEvent.getFlowFilesSent());
+        addTo(stripe, PROCESSING_NANOS, flowFileEvent.getProcessingNanoseconds());
+        addTo(stripe, CPU_NANOS, flowFileEvent.getCpuNanoseconds());
+        addTo(stripe, CONTENT_READ_NANOS, flowFileEvent.getContentReadNanoseconds());
+        addTo(stripe, CONTENT_WRITE_NANOS, flowFileEvent.getContentWriteNanoseconds());
+        addTo(stripe, GC_MILLIS, flowFileEvent.getGargeCollectionMillis());
+        addTo(stripe, SESSION_COMMIT_NANOS, flowFileEvent.getSessionCommitNanoseconds());
 
         final Map<String, Long> eventCounters = flowFileEvent.getCounters();
-        if (eventCounters != null) {
+        if (eventCounters != null && !eventCounters.isEmpty()) {
+            final ConcurrentMap<String, LongAdder> counterMap = getOrCreateCounters();
             for (final Map.Entry<String, Long> entry : eventCounters.entrySet()) {
-                final String counterName = entry.getKey();
-                final Long counterValue = entry.getValue();
-
-                if (counters == null) {
-                    counters = new HashMap<>();
-                }
-                counters.compute(counterName, (key, value) -> value == null ? counterValue : value + counterValue);
+                counterMap.computeIfAbsent(entry.getKey(), key -> new LongAdder()).add(entry.getValue());
             }
         }
     }
 
-    public synchronized FlowFileEvent toFlowFileEvent() {
+    public FlowFileEvent toFlowFileEvent() {
         if (empty) {
             return EmptyFlowFileEvent.INSTANCE;
         }
 
+        final long[] values = sumStripes();
+
         final StandardFlowFileEvent event = new StandardFlowFileEvent();
-        event.setAggregateLineageMillis(aggregateLineageMillis);
-        event.setBytesRead(bytesRead);
-        event.setBytesReceived(bytesReceived);
-        event.setBytesSent(bytesSent);
-        event.setBytesWritten(bytesWritten);
-        event.setContentSizeIn(contentSizeIn);
-        event.setContentSizeOut(contentSizeOut);
-        event.setContentSizeRemoved(contentSizeRemoved);
-        event.setFlowFilesIn(flowFilesIn);
-        event.setFlowFilesOut(flowFilesOut);
-        event.setFlowFilesReceived(flowFilesReceived);
-        event.setFlowFilesRemoved(flowFilesRemoved);
-        event.setFlowFilesSent(flowFilesSent);
-        event.setInvocations(invocations);
-        event.setProcessingNanos(processingNanos);
-        event.setCpuNanoseconds(cpuNanos);
-        event.setContentReadNanoseconds(contentReadNanos);
-        event.setContentWriteNanoseconds(contentWriteNanos);
-        event.setSessionCommitNanos(sessionCommitNanos);
-        event.setGarbageCollectionMillis(gcMillis);
-        event.setCounters(this.counters == null ? Collections.emptyMap() : Collections.unmodifiableMap(this.counters));
+        event.setAggregateLineageMillis(values[AGGREGATE_LINEAGE_MILLIS]);
+        event.setBytesRead(values[BYTES_READ]);
+        event.setBytesReceived(values[BYTES_RECEIVED]);
+        event.setBytesSent(values[BYTES_SENT]);
+        event.setBytesWritten(values[BYTES_WRITTEN]);
+        event.setContentSizeIn(values[CONTENT_SIZE_IN]);
+        event.setContentSizeOut(values[CONTENT_SIZE_OUT]);
+        event.setContentSizeRemoved(values[CONTENT_SIZE_REMOVED]);
+        event.setFlowFilesIn((int) values[FLOWFILES_IN]);
+        event.setFlowFilesOut((int) values[FLOWFILES_OUT]);
+        event.setFlowFilesReceived((int) values[FLOWFILES_RECEIVED]);
+        event.setFlowFilesRemoved((int) values[FLOWFILES_REMOVED]);
+        event.setFlowFilesSent((int) values[FLOWFILES_SENT]);
+        event.setInvocations((int) values[INVOCATIONS]);
+        event.setProcessingNanos(values[PROCESSING_NANOS]);
+        event.setCpuNanoseconds(values[CPU_NANOS]);
+        event.setContentReadNanoseconds(values[CONTENT_READ_NANOS]);
+        event.setContentWriteNanoseconds(values[CONTENT_WRITE_NANOS]);
+        event.setSessionCommitNanos(values[SESSION_COMMIT_NANOS]);
+        event.setGarbageCollectionMillis(values[GC_MILLIS]);
+        event.setCounters(sumCounters());
         return event;
     }
 
-    public synchronized void add(final EventSumValue other) {
+    public void add(final EventSumValue other) {
+        addScaled(other, 1L);
+    }
+
+    public void subtract(final EventSumValue other) {
+        addScaled(other, -1L);
+    }
+
+    private void addScaled(final EventSumValue other, final long sign) {
         if (other.empty) {
             return;
         }
 
-        synchronized (other) {
-            this.aggregateLineageMillis += other.aggregateLineageMillis;
-            this.bytesRead += other.bytesRead;
-            this.bytesReceived += other.bytesReceived;
-            this.bytesSent += other.bytesSent;
-            this.bytesWritten += other.bytesWritten;
-            this.contentSizeIn += other.contentSizeIn;
-            this.contentSizeOut += other.contentSizeOut;
-            this.contentSizeRemoved += other.contentSizeRemoved;
-            this.flowFilesIn += other.flowFilesIn;
-            this.flowFilesOut += other.flowFilesOut;
-            this.flowFilesReceived += other.flowFilesReceived;
-            this.flowFilesRemoved += other.flowFilesRemoved;
-            this.flowFilesSent += other.flowFilesSent;
-            this.invocations += other.invocations;
-            this.processingNanos += other.processingNanos;
-            this.cpuNanos += other.cpuNanos;
-            this.contentReadNanos += other.contentReadNanos;
-            this.contentWriteNanos += other.contentWriteNanos;
-            this.sessionCommitNanos += other.sessionCommitNanos;
-            this.gcMillis += other.gcMillis;
-
-            final Map<String, Long> eventCounters = other.counters;
-            if (eventCounters != null) {
-                if (counters == null) {
-                    counters = new HashMap<>();
-                }
-
-                for (final Map.Entry<String, Long> entry : eventCounters.entrySet()) {
-                    final String counterName = entry.getKey();
-                    final Long counterValue = entry.getValue();
+        final long[] otherValues = other.sumStripes();
+        final AtomicLongArray stripe = acquireStripe(sign * otherValues[INVOCATIONS]);
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            if (i != INVOCATIONS) {
+                addTo(stripe, i, sign * otherValues[i]);
+            }
+        }
 
-                    counters.compute(counterName, (key, value) -> value == null ? counterValue : value + counterValue);
-                }
+        final ConcurrentMap<String, LongAdder> otherCounters = other.counters;
+        if (otherCounters != null) {
+            final ConcurrentMap<String, LongAdder> counterMap = getOrCreateCounters();
+            for (final Map.Entry<String, LongAdder> entry : otherCounters.entrySet()) {
+                counterMap.computeIfAbsent(entry.getKey(), key -> new LongAdder()).add(sign * entry.getValue().sum());
             }
         }
     }
 
-    public synchronized void subtract(final EventSumValue other) {
-        if (other.empty) {
+    public long getTimestamp() {
+        return millisecondTimestamp;
+    }
+
+    /**
+     * Selects the stripe that the current thread should update and adds the given number of invocations to it. The invocations are added
+     * using compare-and-set so that contention for the stripe can be detected; if another thread updated the stripe concurrently, the number
+     * of stripes is increased, if possible, and the current thread moves to a different stripe.
+     *
+     * @param invocations the number of invocations to add
+     * @return the stripe that the remaining values should be added to
+     */
+    private AtomicLongArray acquireStripe(final long invocations) {
+        final int[] probe = THREAD_PROBE.get();
+        AtomicLongArray[] currentStripes = stripes;
+        AtomicLongArray stripe = currentStripes[probe[0] & (currentStripes.length - 1)];
+
+        final long currentInvocations = stripe.get(INVOCATIONS);
+        if (stripe.compareAndSet(INVOCATIONS, currentInvocations, currentInvocations + invocations)) {
+            return stripe;
+        }
+
+        expandStripes(currentStripes);
+        probe[0] = advanceProbe(probe[0]);
+
+        currentStripes = stripes;
+        stripe = currentStripes[probe[0] & (currentStripes.length - 1)];
+        stripe.getAndAdd(INVOCATIONS, invocations);
+        return stripe;
+    }
+
+    private void expandStripes(final AtomicLongArray[] expected) {
+        if (expected.length >= MAX_STRIPES || !resizing.compareAndSet(false, true)) {
             return;
         }
 
-        synchronized (other) {
-            this.aggregateLineageMillis -= other.aggregateLineageMillis;
-            this.bytesRead -= other.bytesRead;
-            this.bytesReceived -= other.bytesReceived;
-            this.bytesSent -= other.bytesSent;
-            this.bytesWritten -= other.bytesWritten;
-            this.contentSizeIn -= other.contentSizeIn;
-            this.contentSizeOut -= other.contentSizeOut;
-            this.contentSizeRemoved -= other.contentSizeRemoved;
-            this.flowFilesIn -= other.flowFilesIn;
-            this.flowFilesOut -= other.flowFilesOut;
-            this.flowFilesReceived -= other.flowFilesReceived;
-            this.flowFilesRemoved -= other.flowFilesRemoved;
-            this.flowFilesSent -= other.flowFilesSent;
-            this.invocations -= other.invocations;
-            this.processingNanos -= other.processingNanos;
-            this.cpuNanos -= other.cpuNanos;
-            this.contentReadNanos -= other.contentReadNanos;
-            this.contentWriteNanos -= other.contentWriteNanos;
-            this.sessionCommitNanos -= other.sessionCommitNanos;
-            this.gcMillis -= other.gcMillis;
-
-            final Map<String, Long> eventCounters = other.counters;
-            if (eventCounters != null) {
-                if (counters == null) {
-                    counters = new HashMap<>();
+        try {
+            // Another thread may have expanded the stripes after we observed contention, in which case we leave them as they are.
+            if (stripes == expected) {
+                final AtomicLongArray[] expanded = new AtomicLongArray[expected.length * 2];
+                System.arraycopy(expected, 0, expanded, 0, expected.length);
+                for (int i = expected.length; i < expanded.length; i++) {
+                    expanded[i] = new AtomicLongArray(PADDED_STRIPE_LENGTH);
                 }
 
-                for (final Map.Entry<String, Long> entry : eventCounters.entrySet()) {
-                    final String counterName = entry.getKey();
-                    final Long counterValue = entry.getValue();
+                stripes = expanded;
+            }
+        } finally {
+            resizing.set(false);
+        }
+    }
+
+    private long[] sumStripes() {
+        final long[] values = new long[METRIC_COUNT];
+        for (final AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < METRIC_COUNT; i++) {
+                values[i] += stripe.get(i);
+            }
+        }
+
+        return values;
+    }
+
+    private Map<String, Long> sumCounters() {
+        final ConcurrentMap<String, LongAdder> counterMap = counters;
+        if (counterMap == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Long> summed = new HashMap<>(counterMap.size());
+        counterMap.forEach((name, adder) -> summed.put(name, adder.sum()));
+        return Collections.unmodifiableMap(summed);
+    }
 
-                    counters.compute(counterName, (key, value) -> value == null ? -counterValue : value - counterValue);
+    private ConcurrentMap<String, LongAdder> getOrCreateCounters() {
+        ConcurrentMap<String, LongAdder> counterMap = counters;
+        if (counterMap == null) {
+            synchronized (this) {
+                counterMap = counters;
+                if (counterMap == null) {
+                    counterMap = new ConcurrentHashMap<>();
+                    counters = counterMap;
                 }
             }
         }
+
+        return counterMap;
     }
 
-    public long getTimestamp() {
-        return millisecondTimestamp;
+    private static void addTo(final AtomicLongArray stripe, final int metric, final long value) {
+        // Many of the values of a typical event are zero, so avoid the cost of the atomic operation for them
+        if (value != 0L) {
+            stripe.getAndAdd(metric, value);
+        }
+    }
+
+    private static int initialProbe() {
+        // Mix the bits of the thread ID so that threads with consecutive IDs are spread across stripes
+        final long threadId = Thread.currentThread().threadId();
+        final int probe = (int) (threadId * 0x9E3779B97F4A7C15L >>> 32);
+        return probe == 0 ? 1 : probe;
+    }
+
+    private static int advanceProbe(int probe) {
+        // xorshift, as is used by LongAdder to choose a new cell when contended
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+
+    private static int maxStripes() {
+        // The smallest power of two that is at least the number of available processors
+        final int processors = Runtime.getRuntime().availableProcessors();
+        return processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
     }
 }
@@ -1497,6 +1497,7 @@ public final class StandardProcessGroup implements ProcessGroup {
 
             // remove the connection from our map
             connections.remove(connection.getIdentifier());
+            connection.getFlowFileQueue().shutdown();
             LOG.info("{} removed from flow", connection);
             onComponentModified();
 
@@ -65,9 +65,12 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
@@ -77,10 +80,13 @@ public abstract class AbstractEventAccess implements EventAccess {
     private static final Predicate<Authorizable> AUTHORIZATION_APPROVED = authorizable -> true;
     private static final Predicate<Authorizable> AUTHORIZATION_DENIED = authorizable -> false;
 
+    private static final long STATUS_SNAPSHOT_MILLIS = 1000L;
+
     private final ProcessScheduler processScheduler;
     private final StatusAnalyticsEngine statusAnalyticsEngine;
     private final FlowManager flowManager;
     private final FlowFileEventRepository flowFileEventRepository;
+    private volatile StatusSnapshot statusSnapshot;
 
     public AbstractEventAccess(final ProcessScheduler processScheduler, final StatusAnalyticsEngine analyticsEngine, final FlowManager flowManager,
                                final FlowFileEventRepository flowFileEventRepository) {
@@ -120,8 +126,34 @@ public abstract class AbstractEventAccess implements EventAccess {
         return getGroupStatus(group, statusReport, AUTHORIZATION_APPROVED, Integer.MAX_VALUE, 1, false);
     }
 
+    /**
+     * Provides a report of the events of all components. The FlowFile Event Repository aggregates events with a precision of one second,
+     * so a report that was generated within the last second is reused, along with the totals of any groups that were computed from it.
+     * This allows requests that occur together, such as the heartbeat, the capture of status history, and reporting tasks, to share the
+     * cost of computing the status of the flow.
+     *
+     * @return a report of the events of all components
+     */
     protected RepositoryStatusReport generateRepositoryStatusReport() {
-        return flowFileEventRepository.reportTransferEvents(System.currentTimeMillis());
+        final long now = System.currentTimeMillis();
+        final StatusSnapshot snapshot = statusSnapshot;
+        if (snapshot != null && now >= snapshot.timestamp() && now - snapshot.timestamp() < STATUS_SNAPSHOT_MILLIS) {
+            return snapshot.statusReport();
+        }
+
+        final RepositoryStatusReport statusReport = flowFileEventRepository.reportTransferEvents(now);
+        statusSnapshot = new StatusSnapshot(statusReport, now, new ConcurrentHashMap<>());
+        return statusReport;
+    }
+
+    private Map<String, GroupStatusTotals> getGroupTotals(final RepositoryStatusReport statusReport) {
+        final StatusSnapshot snapshot = statusSnapshot;
+        if (snapshot != null && snapshot.statusReport() == statusReport) {
+            return snapshot.groupTotals();
+        }
+
+        // The report was not generated by this instance, so the totals are specific to this request
+        return new HashMap<>();
     }
 
 
@@ -140,6 +172,12 @@ public abstract class AbstractEventAccess implements EventAccess {
      */
     ProcessGroupStatus getGroupStatus(final ProcessGroup group, final RepositoryStatusReport statusReport, final Predicate<Authorizable> checkAuthorization,
                                       final int recursiveStatusDepth, final int currentDepth, final boolean includeConnectionDetails) {
+        return getGroupStatus(group, statusReport, getGroupTotals(statusReport), checkAuthorization, recursiveStatusDepth, currentDepth, includeConnectionDetails);
+    }
+
+    private ProcessGroupStatus getGroupStatus(final ProcessGroup group, final RepositoryStatusReport statusReport, final Map<String, GroupStatusTotals> groupTotals,
+                                              final Predicate<Authorizable> checkAuthorization, final int recursiveStatusDepth, final int currentDepth,
+                                              final boolean includeConnectionDetails) {
         if (group == null) {
             return null;
         }
@@ -147,109 +185,79 @@ public abstract class AbstractEventAccess implements EventAccess {
         final ProcessGroupStatus status = new ProcessGroupStatus();
         status.setId(group.getIdentifier());
         status.setName(checkAuthorization.test(group) ? group.getName() : group.getIdentifier());
-        int activeGroupThreads = 0;
-        int terminatedGroupThreads = 0;
-        long bytesRead = 0L;
-        long bytesWritten = 0L;
-        int queuedCount = 0;
-        long queuedContentSize = 0L;
-        int flowFilesIn = 0;
-        long bytesIn = 0L;
-        int flowFilesOut = 0;
-        long bytesOut = 0L;
-        int flowFilesReceived = 0;
-        long bytesReceived = 0L;
-        int flowFilesSent = 0;
-        long bytesSent = 0L;
-        int flowFilesTransferred = 0;
-        long bytesTransferred = 0;
-        long processingNanos = 0;
-        final ProcessingPerformanceStatus performanceStatus = new ProcessingPerformanceStatus();
-        performanceStatus.setIdentifier(group.getIdentifier());
 
-        final boolean populateChildStatuses = currentDepth <= recursiveStatusDepth;
-
-        // Set Authorization predicate based on whether to populate child component status avoiding unnecessary calls to Authorizer
-        final Predicate<Authorizable> isAuthorized;
-        if (populateChildStatuses) {
-            isAuthorized = checkAuthorization;
+        final GroupStatusTotals totals;
+        if (currentDepth <= recursiveStatusDepth) {
+            totals = populateComponentStatuses(status, group, statusReport, groupTotals, checkAuthorization, recursiveStatusDepth, currentDepth, includeConnectionDetails);
+            groupTotals.putIfAbsent(group.getIdentifier(), totals);
         } else {
-            isAuthorized = AUTHORIZATION_DENIED;
+            // None of the group's components are to be included in the returned status, so we need only the totals of the group. These do not
+            // depend on authorization, and they may already have been computed from the same report, in which case we avoid traversing the group.
+            status.setProcessorStatus(new ArrayList<>());
+            status.setProcessGroupStatus(new ArrayList<>());
+            status.setRemoteProcessGroupStatus(new ArrayList<>());
+            status.setConnectionStatus(new ArrayList<>());
+            status.setInputPortStatus(new ArrayList<>());
+            status.setOutputPortStatus(new ArrayList<>());
+            totals = getGroupStatusTotals(group, statusReport, groupTotals);
+        }
+
+        totals.applyTo(status);
+
+        final VersionControlInformation vci = group.getVersionControlInformation();
+        if (vci != null) {
+            final RegisteredFlowSnapshotMetadata registeredFlowSnapshotMetadata = new RegisteredFlowSnapshotMetadata();
+            registeredFlowSnapshotMetadata.setBranch(vci.getBranch());
+            registeredFlowSnapshotMetadata.setBucketIdentifier(vci.getBucketIdentifier());
+            registeredFlowSnapshotMetadata.setFlowIdentifier(vci.getFlowIdentifier());
+            registeredFlowSnapshotMetadata.setVersion(vci.getVersion());
+            registeredFlowSnapshotMetadata.setFlowName(vci.getFlowName());
+            registeredFlowSnapshotMetadata.setRegistryIdentifier(vci.getRegistryIdentifier());
+            registeredFlowSnapshotMetadata.setRegistryName(vci.getRegistryName());
+            status.setRegisteredFlowSnapshotMetadata(registeredFlowSnapshotMetadata);
+            try {
+                final VersionedFlowStatus flowStatus = vci.getStatus();
+                if (flowStatus != null && flowStatus.getState() != null) {
+                    status.setVersionedFlowState(flowStatus.getState());
+                }
+            } catch (final Exception e) {
+                logger.warn("Failed to determine Version Control State for {}. Will consider state to be SYNC_FAILURE", group, e);
+                status.setVersionedFlowState(VersionedFlowState.SYNC_FAILURE);
+            }
         }
 
+        return status;
+    }
+
+    /**
+     * Populates the given status with the statuses of the components of the given group
+     *
+     * @return the totals of the group
+     */
+    private GroupStatusTotals populateComponentStatuses(final ProcessGroupStatus status, final ProcessGroup group, final RepositoryStatusReport statusReport,
+                                                        final Map<String, GroupStatusTotals> groupTotals, final Predicate<Authorizable> isAuthorized,
+                                                        final int recursiveStatusDepth, final int currentDepth, final boolean includeConnectionDetails) {
+        final GroupStatusTotals totals = new GroupStatusTotals();
+
         // set status for processors
         final Collection<ProcessorStatus> processorStatusCollection = new ArrayList<>();
         status.setProcessorStatus(processorStatusCollection);
         for (final ProcessorNode procNode : group.getProcessors()) {
-            final ProcessorStatus procStat = getProcessorStatus(statusReport, procNode, isAuthorized);
-            if (populateChildStatuses) {
-                processorStatusCollection.add(procStat);
-            }
-            activeGroupThreads += procStat.getActiveThreadCount();
-            terminatedGroupThreads += procStat.getTerminatedThreadCount();
-            bytesRead += procStat.getBytesRead();
-            bytesWritten += procStat.getBytesWritten();
-
-            flowFilesReceived += procStat.getFlowFilesReceived();
-            bytesReceived += procStat.getBytesReceived();
-            flowFilesSent += procStat.getFlowFilesSent();
-            bytesSent += procStat.getBytesSent();
-
-            processingNanos += procStat.getProcessingNanos();
-
-            final ProcessingPerformanceStatus processorPerformanceStatus = procStat.getProcessingPerformanceStatus();
-
-            if (processorPerformanceStatus != null) {
-                performanceStatus.setCpuDuration(performanceStatus.getCpuDuration() + processorPerformanceStatus.getCpuDuration());
-                performanceStatus.setContentReadDuration(performanceStatus.getContentReadDuration() + processorPerformanceStatus.getContentReadDuration());
-                performanceStatus.setContentWriteDuration(performanceStatus.getContentWriteDuration() + processorPerformanceStatus.getContentWriteDuration());
-                performanceStatus.setSessionCommitDuration(performanceStatus.getSessionCommitDuration() + processorPerformanceStatus.getSessionCommitDuration());
-                performanceStatus.setGarbageCollectionDuration(performanceStatus.getGarbageCollectionDuration() + processorPerformanceStatus.getGarbageCollectionDuration());
-            }
+            final FlowFileEvent entry = statusReport.getReportEntries().get(procNode.getIdentifier());
+            final ProcessorStatus procStat = getProcessorStatus(entry, procNode, isAuthorized);
+            processorStatusCollection.add(procStat);
+            totals.addProcessor(entry, procStat.getActiveThreadCount(), procStat.getTerminatedThreadCount());
         }
 
-        // set status for local child groups
+        // set status for local child groups; if the child groups are deeper than the requested depth, this only obtains their totals
         final Collection<ProcessGroupStatus> localChildGroupStatusCollection = new ArrayList<>();
         status.setProcessGroupStatus(localChildGroupStatusCollection);
         for (final ProcessGroup childGroup : group.getProcessGroups()) {
-            final ProcessGroupStatus childGroupStatus;
-            if (populateChildStatuses) {
-                childGroupStatus = getGroupStatus(childGroup, statusReport, isAuthorized, recursiveStatusDepth, currentDepth + 1, includeConnectionDetails);
-                localChildGroupStatusCollection.add(childGroupStatus);
-            } else {
-                // In this case, we don't want to include any of the recursive components' individual statuses. As a result, we can
-                // avoid performing any sort of authorizations. Because we only care about the numbers that come back, we can just indicate
-                // that the user is not authorized. This allows us to avoid the expense of both performing the authorization and calculating
-                // things that we would otherwise need to calculate if the user were in fact authorized.
-                childGroupStatus = getGroupStatus(childGroup, statusReport, AUTHORIZATION_DENIED, recursiveStatusDepth, currentDepth + 1, includeConnectionDetails);
-            }
+            final ProcessGroupStatus childGroupStatus = getGroupStatus(childGroup, statusReport, groupTotals, isAuthorized, recursiveStatusDepth, currentDepth + 1, includeConnectionDetails);
+            localChildGroupStatusCollection.add(childGroupStatus);
 
-            activeGroupThreads += childGroupStatus.getActiveThreadCount();
-            terminatedGroupThreads += childGroupStatus.getTerminatedThreadCount();
-            bytesRead += childGroupStatus.getBytesRead();
-            bytesWritten += childGroupStatus.getBytesWritten();
-            queuedCount += childGroupStatus.getQueuedCount();
-            queuedContentSize += childGroupStatus.getQueuedContentSize();
-
-            flowFilesReceived += childGroupStatus.getFlowFilesReceived();
-            bytesReceived += childGroupStatus.getBytesReceived();
-            flowFilesSent += childGroupStatus.getFlowFilesSent();
-            bytesSent += childGroupStatus.getBytesSent();
-
-            flowFilesTransferred += childGroupStatus.getFlowFilesTransferred();
-            bytesTransferred += childGroupStatus.getBytesTransferred();
-
-            processingNanos += childGroupStatus.getProcessingNanos();
-
-            final ProcessingPerformanceStatus childGroupPerformanceStatus = childGroupStatus.getProcessingPerformanceStatus();
-
-            if (childGroupPerformanceStatus != null) {
-                performanceStatus.setCpuDuration(performanceStatus.getCpuDuration() + childGroupPerformanceStatus.getCpuDuration());
-                performanceStatus.setContentReadDuration(performanceStatus.getContentReadDuration() + childGroupPerformanceStatus.getContentReadDuration());
-                performanceStatus.setContentWriteDuration(performanceStatus.getContentWriteDuration() + childGroupPerformanceStatus.getContentWriteDuration());
-                performanceStatus.setSessionCommitDuration(performanceStatus.getSessionCommitDuration() + childGroupPerformanceStatus.getSessionCommitDuration());
-                performanceStatus.setGarbageCollectionDuration(performanceStatus.getGarbageCollectionDuration() + childGroupPerformanceStatus.getGarbageCollectionDuration());
-            }
+            // computing the status of the child group always records its totals
+            totals.addChildGroup(getGroupStatusTotals(childGroup, statusReport, groupTotals));
         }
 
         // set status for remote child groups
@@ -258,14 +266,8 @@ public abstract class AbstractEventAccess implements EventAccess {
         for (final RemoteProcessGroup remoteGroup : group.getRemoteProcessGroups()) {
             final RemoteProcessGroupStatus remoteStatus = createRemoteGroupStatus(remoteGroup, statusReport, isAuthorized);
             if (remoteStatus != null) {
-                if (populateChildStatuses) {
-                    remoteProcessGroupStatusCollection.add(remoteStatus);
-                }
-
-                flowFilesReceived += remoteStatus.getReceivedCount();
-                bytesReceived += remoteStatus.getReceivedContentSize();
-                flowFilesSent += remoteStatus.getSentCount();
-                bytesSent += remoteStatus.getSentContentSize();
+                remoteProcessGroupStatusCollection.add(remoteStatus);
+                totals.addRemoteGroup(remoteStatus.getReceivedCount(), remoteStatus.getReceivedContentSize(), remoteStatus.getSentCount(), remoteStatus.getSentContentSize());
             }
         }
 
@@ -306,9 +308,6 @@ public abstract class AbstractEventAccess implements EventAccess {
                 connStatus.setInputCount(connectionStatusReport.getFlowFilesIn());
                 connStatus.setOutputBytes(connectionStatusReport.getContentSizeOut());
                 connStatus.setOutputCount(connectionStatusReport.getFlowFilesOut());
-
-                flowFilesTransferred += connectionStatusReport.getFlowFilesIn() + connectionStatusReport.getFlowFilesOut();
-                bytesTransferred += connectionStatusReport.getContentSizeIn() + connectionStatusReport.getContentSizeOut();
             }
 
             if (statusAnalyticsEngine != null) {
@@ -361,24 +360,10 @@ public abstract class AbstractEventAccess implements EventAccess {
                 connStatus.setLoadBalanceStatus(LoadBalanceStatus.LOAD_BALANCE_INACTIVE);
             }
 
-            if (populateChildStatuses) {
-                connectionStatusCollection.add(connStatus);
-            }
-
-            queuedCount += connectionQueuedCount;
-            queuedContentSize += connectionQueuedBytes;
+            connectionStatusCollection.add(connStatus);
 
-            final Connectable source = conn.getSource();
-            if (ConnectableType.REMOTE_OUTPUT_PORT.equals(source.getConnectableType())) {
-                final RemoteGroupPort remoteOutputPort = (RemoteGroupPort) source;
-                activeGroupThreads += processScheduler.getActiveThreadCount(remoteOutputPort);
-            }
-
-            final Connectable destination = conn.getDestination();
-            if (ConnectableType.REMOTE_INPUT_PORT.equals(destination.getConnectableType())) {
-                final RemoteGroupPort remoteInputPort = (RemoteGroupPort) destination;
-                activeGroupThreads += processScheduler.getActiveThreadCount(remoteInputPort);
-            }
+            totals.addConnection(connectionStatusReport, queueSize);
+            totals.addActiveThreads(getRemotePortActiveThreadCount(conn));
         }
 
         // status for input ports
@@ -387,181 +372,161 @@ public abstract class AbstractEventAccess implements EventAccess {
 
         final Set<Port> inputPorts = group.getInputPorts();
         for (final Port port : inputPorts) {
-            final boolean isInputPortAuthorized = isAuthorized.test(port);
-
-            final PortStatus portStatus = new PortStatus();
-            portStatus.setId(port.getIdentifier());
-            portStatus.setGroupId(port.getProcessGroup().getIdentifier());
-            portStatus.setName(isInputPortAuthorized ? port.getName() : port.getIdentifier());
-            portStatus.setActiveThreadCount(processScheduler.getActiveThreadCount(port));
-
-            // determine the run status
-            if (ScheduledState.RUNNING.equals(port.getScheduledState())) {
-                portStatus.setRunStatus(RunStatus.Running);
-            } else if (ScheduledState.DISABLED.equals(port.getScheduledState())) {
-                portStatus.setRunStatus(RunStatus.Disabled);
-            } else if (!port.isValid()) {
-                portStatus.setRunStatus(RunStatus.Invalid);
-            } else {
-                portStatus.setRunStatus(RunStatus.Stopped);
-            }
+            final FlowFileEvent entry = statusReport.getReportEntries().get(port.getIdentifier());
+            final PortStatus portStatus = createPortStatus(port, entry, isAuthorized);
+            inputPortStatusCollection.add(portStatus);
+            totals.addInputPort(entry, port instanceof PublicPort, portStatus.getActiveThreadCount());
+        }
 
-            // special handling for public ports
-            if (port instanceof PublicPort) {
-                portStatus.setTransmitting(((PublicPort) port).isTransmitting());
-            }
+        // status for output ports
+        final Collection<PortStatus> outputPortStatusCollection = new ArrayList<>();
+        status.setOutputPortStatus(outputPortStatusCollection);
 
+        final Set<Port> outputPorts = group.getOutputPorts();
+        for (final Port port : outputPorts) {
             final FlowFileEvent entry = statusReport.getReportEntries().get(port.getIdentifier());
-            if (entry == null) {
-                portStatus.setInputBytes(0L);
-                portStatus.setInputCount(0);
-                portStatus.setOutputBytes(0L);
-                portStatus.setOutputCount(0);
-            } else {
-                final int processedCount = entry.getFlowFilesOut();
-                final long numProcessedBytes = entry.getContentSizeOut();
-                portStatus.setOutputBytes(numProcessedBytes);
-                portStatus.setOutputCount(processedCount);
+            final PortStatus portStatus = createPortStatus(port, entry, isAuthorized);
+            outputPortStatusCollection.add(portStatus);
+            totals.addOutputPort(entry, port instanceof PublicPort, portStatus.getActiveThreadCount());
+        }
 
-                final int inputCount = entry.getFlowFilesIn();
-                final long inputBytes = entry.getContentSizeIn();
-                portStatus.setInputBytes(inputBytes);
-                portStatus.setInputCount(inputCount);
+        for (final Funnel funnel : group.getFunnels()) {
+            totals.addActiveThreads(processScheduler.getActiveThreadCount(funnel));
+        }
 
-                flowFilesIn += port instanceof PublicPort ? entry.getFlowFilesReceived() : inputCount;
-                bytesIn += port instanceof PublicPort ? entry.getBytesReceived() : inputBytes;
+        if (group.resolveExecutionEngine() == ExecutionEngine.STATELESS) {
+            totals.setStatelessActiveThreadCount(processScheduler.getActiveThreadCount(group));
+        }
 
-                bytesWritten += entry.getBytesWritten();
+        return totals;
+    }
 
-                flowFilesReceived += entry.getFlowFilesReceived();
-                bytesReceived += entry.getBytesReceived();
-            }
+    /**
+     * Computes the totals of the given group from the report entries, queue sizes, and thread counts of its components, without creating
+     * the status of each component. The totals of each group are cached for as long as the report is in use, so that subsequent requests
+     * against the same report do not need to traverse the group again.
+     */
+    private GroupStatusTotals getGroupStatusTotals(final ProcessGroup group, final RepositoryStatusReport statusReport, final Map<String, GroupStatusTotals> groupTotals) {
+        final GroupStatusTotals cached = groupTotals.get(group.getIdentifier());
+        if (cached != null) {
+            return cached;
+        }
 
-            if (populateChildStatuses) {
-                inputPortStatusCollection.add(portStatus);
-            }
+        final GroupStatusTotals totals = new GroupStatusTotals();
+        for (final ProcessorNode procNode : group.getProcessors()) {
+            totals.addProcessor(statusReport.getReportEntry(procNode.getIdentifier()), procNode.getActiveThreadCount(), procNode.getTerminatedThreadCount());
+        }
 
-            activeGroupThreads += portStatus.getActiveThreadCount();
+        for (final ProcessGroup childGroup : group.getProcessGroups()) {
+            totals.addChildGroup(getGroupStatusTotals(childGroup, statusReport, groupTotals));
         }
 
-        // status for output ports
-        final Collection<PortStatus> outputPortStatusCollection = new ArrayList<>();
-        status.setOutputPortStatus(outputPortStatusCollection);
+        for (final RemoteProcessGroup remoteGroup : group.getRemoteProcessGroups()) {
+            int receivedCount = 0;
+            long receivedContentSize = 0L;
+            int sentCount = 0;
+            long sentContentSize = 0L;
 
-        final Set<Port> outputPorts = group.getOutputPorts();
-        for (final Port port : outputPorts) {
-            final boolean isOutputPortAuthorized = isAuthorized.test(port);
-
-            final PortStatus portStatus = new PortStatus();
-            portStatus.setId(port.getIdentifier());
-            portStatus.setGroupId(port.getProcessGroup().getIdentifier());
-            portStatus.setName(isOutputPortAuthorized ? port.getName() : port.getIdentifier());
-            portStatus.setActiveThreadCount(processScheduler.getActiveThreadCount(port));
-
-            // determine the run status
-            if (ScheduledState.RUNNING.equals(port.getScheduledState())) {
-                portStatus.setRunStatus(RunStatus.Running);
-            } else if (ScheduledState.DISABLED.equals(port.getScheduledState())) {
-                portStatus.setRunStatus(RunStatus.Disabled);
-            } else if (!port.isValid()) {
-                portStatus.setRunStatus(RunStatus.Invalid);
-            } else {
-                portStatus.setRunStatus(RunStatus.Stopped);
+            for (final Port port : remoteGroup.getInputPorts()) {
+                final FlowFileEvent portEvent = port.hasIncomingConnection() ? statusReport.getReportEntry(port.getIdentifier()) : null;
+                if (portEvent != null) {
+                    sentCount += portEvent.getFlowFilesSent();
+                    sentContentSize += portEvent.getBytesSent();
+                }
             }
 
-            // special handling for public ports
-            if (port instanceof PublicPort) {
-                portStatus.setTransmitting(((PublicPort) port).isTransmitting());
+            for (final Port port : remoteGroup.getOutputPorts()) {
+                final FlowFileEvent portEvent = port.getConnections().isEmpty() ? null : statusReport.getReportEntry(port.getIdentifier());
+                if (portEvent != null) {
+                    receivedCount += portEvent.getFlowFilesReceived();
+                    receivedContentSize += portEvent.getBytesReceived();
+                }
             }
 
-            final FlowFileEvent entry = statusReport.getReportEntries().get(port.getIdentifier());
-            if (entry == null) {
-                portStatus.setInputBytes(0L);
-                portStatus.setInputCount(0);
-                portStatus.setOutputBytes(0L);
-                portStatus.setOutputCount(0);
-            } else {
-                final int processedCount = entry.getFlowFilesOut();
-                final long numProcessedBytes = entry.getContentSizeOut();
-                portStatus.setOutputBytes(numProcessedBytes);
-                portStatus.setOutputCount(processedCount);
+            totals.addRemoteGroup(receivedCount, receivedContentSize, sentCount, sentContentSize);
+        }
 
-                final int inputCount = entry.getFlowFilesIn();
-                final long inputBytes = entry.getContentSizeIn();
-                portStatus.setInputBytes(inputBytes);
-                portStatus.setInputCount(inputCount);
+        for (final Connection conn : group.getConnections()) {
+            totals.addConnection(statusReport.getReportEntry(conn.getIdentifier()), conn.getFlowFileQueue().size());
+            totals.addActiveThreads(getRemotePortActiveThreadCount(conn));
+        }
 
-                bytesRead += entry.getBytesRead();
+        for (final Port port : group.getInputPorts()) {
+            totals.addInputPort(statusReport.getReportEntry(port.getIdentifier()), port instanceof PublicPort, processScheduler.getActiveThreadCount(port));
+        }
 
-                flowFilesOut += port instanceof PublicPort ? entry.getFlowFilesSent() : entry.getFlowFilesOut();
-                bytesOut += port instanceof PublicPort ? entry.getBytesSent() : entry.getContentSizeOut();
+        for (final Port port : group.getOutputPorts()) {
+            totals.addOutputPort(statusReport.getReportEntry(port.getIdentifier()), port instanceof PublicPort, processScheduler.getActiveThreadCount(port));
+        }
 
-                flowFilesSent = entry.getFlowFilesSent();
-                bytesSent += entry.getBytesSent();
-            }
+        for (final Funnel funnel : group.getFunnels()) {
+            totals.addActiveThreads(processScheduler.getActiveThreadCount(funnel));
+        }
 
-            if (populateChildStatuses) {
-                outputPortStatusCollection.add(portStatus);
-            }
+        if (group.resolveExecutionEngine() == ExecutionEngine.STATELESS) {
+            totals.setStatelessActiveThreadCount(processScheduler.getActiveThreadCount(group));
+        }
+
+        groupTotals.putIfAbsent(group.getIdentifier(), totals);
+        return totals;
+    }
 
-            activeGroupThreads += portStatus.getActiveThreadCount();
+    private int getRemotePortActiveThreadCount(final Connection conn) {
+        int activeThreads = 0;
+
+        final Connectable source = conn.getSource();
+        if (ConnectableType.REMOTE_OUTPUT_PORT.equals(source.getConnectableType())) {
+            final RemoteGroupPort remoteOutputPort = (RemoteGroupPort) source;
+            activeThreads += processScheduler.getActiveThreadCount(remoteOutputPort);
         }
 
-        for (final Funnel funnel : group.getFunnels()) {
-            activeGroupThreads += processScheduler.getActiveThreadCount(funnel);
+        final Connectable destination = conn.getDestination();
+        if (ConnectableType.REMOTE_INPUT_PORT.equals(destination.getConnectableType())) {
+            final RemoteGroupPort remoteInputPort = (RemoteGroupPort) destination;
+            activeThreads += processScheduler.getActiveThreadCount(remoteInputPort);
         }
 
-        final int statelessActiveThreadCount;
-        if (group.resolveExecutionEngine() == ExecutionEngine.STATELESS) {
-            statelessActiveThreadCount = processScheduler.getActiveThreadCount(group);
-            activeGroupThreads = statelessActiveThreadCount;
+        return activeThreads;
+    }
+
+    private PortStatus createPortStatus(final Port port, final FlowFileEvent entry, final Predicate<Authorizable> isAuthorized) {
+        final boolean isPortAuthorized = isAuthorized.test(port);
+
+        final PortStatus portStatus = new PortStatus();
+        portStatus.setId(port.getIdentifier());
+        portStatus.setGroupId(port.getProcessGroup().getIdentifier());
+        portStatus.setName(isPortAuthorized ? port.getName() : port.getIdentifier());
+        portStatus.setActiveThreadCount(processScheduler.getActiveThreadCount(port));
+
+        // determine the run status
+        if (ScheduledState.RUNNING.equals(port.getScheduledState())) {
+            portStatus.setRunStatus(RunStatus.Running);
+        } else if (ScheduledState.DISABLED.equals(port.getScheduledState())) {
+            portStatus.setRunStatus(RunStatus.Disabled);
+        } else if (!port.isValid()) {
+            portStatus.setRunStatus(RunStatus.Invalid);
         } else {
-            statelessActiveThreadCount = 0;
+            portStatus.setRunStatus(RunStatus.Stopped);
         }
 
-        status.setActiveThreadCount(activeGroupThreads);
-        status.setStatelessActiveThreadCount(statelessActiveThreadCount);
-        status.setTerminatedThreadCount(terminatedGroupThreads);
-        status.setBytesRead(bytesRead);
-        status.setBytesWritten(bytesWritten);
-        status.setQueuedCount(queuedCount);
-        status.setQueuedContentSize(queuedContentSize);
-        status.setInputContentSize(bytesIn);
-        status.setInputCount(flowFilesIn);
-        status.setOutputContentSize(bytesOut);
-        status.setOutputCount(flowFilesOut);
-        status.setFlowFilesReceived(flowFilesReceived);
-        status.setBytesReceived(bytesReceived);
-        status.setFlowFilesSent(flowFilesSent);
-        status.setBytesSent(bytesSent);
-        status.setFlowFilesTransferred(flowFilesTransferred);
-        status.setBytesTransferred(bytesTransferred);
-        status.setProcessingNanos(processingNanos);
-        status.setProcessingPerformanceStatus(performanceStatus);
+        // special handling for public ports
+        if (port instanceof PublicPort) {
+            portStatus.setTransmitting(((PublicPort) port).isTransmitting());
+        }
 
-        final VersionControlInformation vci = group.getVersionControlInformation();
-        if (vci != null) {
-            final RegisteredFlowSnapshotMetadata registeredFlowSnapshotMetadata = new RegisteredFlowSnapshotMetadata();
-            registeredFlowSnapshotMetadata.setBranch(vci.getBranch());
-            registeredFlowSnapshotMetadata.setBucketIdentifier(vci.getBucketIdentifier());
-            registeredFlowSnapshotMetadata.setFlowIdentifier(vci.getFlowIdentifier());
-            registeredFlowSnapshotMetadata.setVersion(vci.getVersion());
-            registeredFlowSnapshotMetadata.setFlowName(vci.getFlowName());
-            registeredFlowSnapshotMetadata.setRegistryIdentifier(vci.getRegistryIdentifier());
-            registeredFlowSnapshotMetadata.setRegistryName(vci.getRegistryName());
-            status.setRegisteredFlowSnapshotMetadata(registeredFlowSnapshotMetadata);
-            try {
-                final VersionedFlowStatus flowStatus = vci.getStatus();
-                if (flowStatus != null && flowStatus.getState() != null) {
-                    status.setVersionedFlowState(flowStatus.getState());
-                }
-            } catch (final Exception e) {
-                logger.warn("Failed to determine Version Control State for {}. Will consider state to be SYNC_FAILURE", group, e);
-                status.setVersionedFlowState(VersionedFlowState.SYNC_FAILURE);
-            }
+        if (entry == null) {
+            portStatus.setInputBytes(0L);
+            portStatus.setInputCount(0);
+            portStatus.setOutputBytes(0L);
+            portStatus.setOutputCount(0);
+        } else {
+            portStatus.setOutputBytes(entry.getContentSizeOut());
+            portStatus.setOutputCount(entry.getFlowFilesOut());
+            portStatus.setInputBytes(entry.getContentSizeIn());
+            portStatus.setInputCount(entry.getFlowFilesIn());
         }
 
-        return status;
+        return portStatus;
     }
 
     private RemoteProcessGroupStatus createRemoteGroupStatus(final RemoteProcessGroup remoteGroup, final RepositoryStatusReport statusReport, final Predicate<Authorizable> isAuthorized) {
@@ -649,11 +614,6 @@ public abstract class AbstractEventAccess implements EventAccess {
         return status;
     }
 
-    private ProcessorStatus getProcessorStatus(final RepositoryStatusReport report, final ProcessorNode procNode, final Predicate<Authorizable> isAuthorized) {
-        final FlowFileEvent entry = report.getReportEntries().get(procNode.getIdentifier());
-        return getProcessorStatus(entry, procNode, isAuthorized);
-    }
-
     protected ProcessorStatus getProcessorStatus(final FlowFileEvent flowFileEvent, final ProcessorNode procNode, final Predicate<Authorizable> isAuthorized) {
         final boolean isProcessorAuthorized = isAuthorized.test(procNode);
 
@@ -796,4 +756,7 @@ public abstract class AbstractEventAccess implements EventAccess {
     public long getTotalBytesReceived() {
         return flowFileEventRepository.reportAggregateEvent().getBytesReceived();
     }
+
+    private record StatusSnapshot(RepositoryStatusReport statusReport, long timestamp, ConcurrentMap<String, GroupStatusTotals> groupTotals) {
+    }
 }
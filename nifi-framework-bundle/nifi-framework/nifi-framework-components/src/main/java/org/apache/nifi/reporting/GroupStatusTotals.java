@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.reporting;
+
+import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.repository.FlowFileEvent;
+import org.apache.nifi.controller.repository.metrics.EmptyFlowFileEvent;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessingPerformanceStatus;
+
+/**
+ * The numeric values of a {@link ProcessGroupStatus}, accumulated from the components of the group and the totals of its child groups.
+ * Unlike a ProcessGroupStatus, the totals do not depend on the authorizations of the user requesting the status, and computing them
+ * does not require creating the status of each component, so the totals of a group can be computed cheaply and shared between requests.
+ */
+final class GroupStatusTotals {
+    private int activeThreadCount;
+    private int statelessActiveThreadCount;
+    private int terminatedThreadCount;
+    private long bytesRead;
+    private long bytesWritten;
+    private int queuedCount;
+    private long queuedContentSize;
+    private int flowFilesIn;
+    private long bytesIn;
+    private int flowFilesOut;
+    private long bytesOut;
+    private int flowFilesReceived;
+    private long bytesReceived;
+    private int flowFilesSent;
+    private long bytesSent;
+    private int flowFilesTransferred;
+    private long bytesTransferred;
+    private long processingNanos;
+    private long cpuDuration;
+    private long contentReadDuration;
+    private long contentWriteDuration;
+    private long sessionCommitDuration;
+    private long garbageCollectionDuration;
+
+    void addProcessor(final FlowFileEvent event, final int activeThreads, final int terminatedThreads) {
+        activeThreadCount += activeThreads;
+        terminatedThreadCount += terminatedThreads;
+
+        if (event == null || event == EmptyFlowFileEvent.INSTANCE) {
+            return;
+        }
+
+        bytesRead += event.getBytesRead();
+        bytesWritten += event.getBytesWritten();
+        flowFilesReceived += event.getFlowFilesReceived();
+        bytesReceived += event.getBytesReceived();
+        flowFilesSent += event.getFlowFilesSent();
+        bytesSent += event.getBytesSent();
+        processingNanos += event.getProcessingNanoseconds();
+
+        cpuDuration += event.getCpuNanoseconds();
+        contentReadDuration += event.getContentReadNanoseconds();
+        contentWriteDuration += event.getContentWriteNanoseconds();
+        sessionCommitDuration += event.getSessionCommitNanoseconds();
+        garbageCollectionDuration += event.getGargeCollectionMillis();
+    }
+
+    void addChildGroup(final GroupStatusTotals child) {
+        activeThreadCount += child.activeThreadCount;
+        terminatedThreadCount += child.terminatedThreadCount;
+        bytesRead += child.bytesRead;
+        bytesWritten += child.bytesWritten;
+        queuedCount += child.queuedCount;
+        queuedContentSize += child.queuedContentSize;
+        flowFilesReceived += child.flowFilesReceived;
+        bytesReceived += child.bytesReceived;
+        flowFilesSent += child.flowFilesSent;
+        bytesSent += child.bytesSent;
+        flowFilesTransferred += child.flowFilesTransferred;
+        bytesTransferred += child.bytesTransferred;
+        processingNanos += child.processingNanos;
+
+        cpuDuration += child.cpuDuration;
+        contentReadDuration += child.contentReadDuration;
+        contentWriteDuration += child.contentWriteDuration;
+        sessionCommitDuration += child.sessionCommitDuration;
+        garbageCollectionDuration += child.garbageCollectionDuration;
+    }
+
+    void addRemoteGroup(final int receivedCount, final long receivedContentSize, final int sentCount, final long sentContentSize) {
+        flowFilesReceived += receivedCount;
+        bytesReceived += receivedContentSize;
+        flowFilesSent += sentCount;
+        bytesSent += sentContentSize;
+    }
+
+    void addConnection(final FlowFileEvent event, final QueueSize queueSize) {
+        if (event != null) {
+            flowFilesTransferred += event.getFlowFilesIn() + event.getFlowFilesOut();
+            bytesTransferred += event.getContentSizeIn() + event.getContentSizeOut();
+        }
+
+        queuedCount += queueSize.getObjectCount();
+        queuedContentSize += queueSize.getByteCount();
+    }
+
+    void addInputPort(final FlowFileEvent event, final boolean publicPort, final int activeThreads) {
+        activeThreadCount += activeThreads;
+
+        if (event == null) {
+            return;
+        }
+
+        flowFilesIn += publicPort ? event.getFlowFilesReceived() : event.getFlowFilesIn();
+        bytesIn += publicPort ? event.getBytesReceived() : event.getContentSizeIn();
+        bytesWritten += event.getBytesWritten();
+        flowFilesReceived += event.getFlowFilesReceived();
+        bytesReceived += event.getBytesReceived();
+    }
+
+    void addOutputPort(final FlowFileEvent event, final boolean publicPort, final int activeThreads) {
+        activeThreadCount += activeThreads;
+
+        if (event == null) {
+            return;
+        }
+
+        bytesRead += event.getBytesRead();
+        flowFilesOut += publicPort ? event.getFlowFilesSent() : event.getFlowFilesOut();
+        bytesOut += publicPort ? event.getBytesSent() : event.getContentSizeOut();
+        flowFilesSent += event.getFlowFilesSent();
+        bytesSent += event.getBytesSent();
+    }
+
+    void addActiveThreads(final int activeThreads) {
+        activeThreadCount += activeThreads;
+    }
+
+    /**
+     * Indicates that the group is run by the stateless engine, in which case the threads of the group as a whole are reported as its
+     * active threads, rather than the threads of its individual components
+     *
+     * @param statelessActiveThreads the number of threads actively running the group
+     */
+    void setStatelessActiveThreadCount(final int statelessActiveThreads) {
+        statelessActiveThreadCount = statelessActiveThreads;
+        activeThreadCount = statelessActiveThreads;
+    }
+
+    void applyTo(final ProcessGroupStatus status) {
+        status.setActiveThreadCount(activeThreadCount);
+        status.setStatelessActiveThreadCount(statelessActiveThreadCount);
+        status.setTerminatedThreadCount(terminatedThreadCount);
+        status.setBytesRead(bytesRead);
+        status.setBytesWritten(bytesWritten);
+        status.setQueuedCount(queuedCount);
+        status.setQueuedContentSize(queuedContentSize);
+        status.setInputContentSize(bytesIn);
+        status.setInputCount(flowFilesIn);
+        status.setOutputContentSize(bytesOut);
+        status.setOutputCount(flowFilesOut);
+        status.setFlowFilesReceived(flowFilesReceived);
+        status.setBytesReceived(bytesReceived);
+        status.setFlowFilesSent(flowFilesSent);
+        status.setBytesSent(bytesSent);
+        status.setFlowFilesTransferred(flowFilesTransferred);
+        status.setBytesTransferred(bytesTransferred);
+        status.setProcessingNanos(processingNanos);
+
+        final ProcessingPerformanceStatus performanceStatus = new ProcessingPerformanceStatus();
+        performanceStatus.setIdentifier(status.getId());
+        performanceStatus.setCpuDuration(cpuDuration);
+        performanceStatus.setContentReadDuration(contentReadDuration);
+        performanceStatus.setContentWriteDuration(contentWriteDuration);
+        performanceStatus.setSessionCommitDuration(sessionCommitDuration);
+        performanceStatus.setGarbageCollectionDuration(garbageCollectionDuration);
+        status.setProcessingPerformanceStatus(performanceStatus);
+    }
+
+    int getActiveThreadCount() {
+        return activeThreadCount;
+    }
+
+    int getQueuedCount() {
+        return queuedCount;
+    }
+
+    long getQueuedContentSize() {
+        return queuedContentSize;
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestLongKeyedMap {
+
+    @Test
+    public void testPutGetRemove() {
+        final LongKeyedMap<String> map = new LongKeyedMap<>();
+        assertTrue(map.isEmpty());
+
+        assertNull(map.put(1L, "one"));
+        assertNull(map.put(-1L, "minus one"));
+        assertNull(map.put(Long.MAX_VALUE, "max"));
+        assertEquals(3, map.size());
+
+        assertEquals("one", map.get(1L));
+        assertEquals("minus one", map.get(-1L));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertNull(map.get(2L));
+
+        assertEquals("one", map.put(1L, "uno"));
+        assertEquals("uno", map.get(1L));
+        assertEquals("uno", map.putIfAbsent(1L, "ein"));
+        assertEquals("uno", map.get(1L));
+        assertEquals(3, map.size());
+
+        assertEquals("uno", map.remove(1L));
+        assertNull(map.remove(1L));
+        assertFalse(map.containsKey(1L));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(-1L));
+    }
+
+    @Test
+    public void testConsistentWithHashMap() {
+        final LongKeyedMap<Long> map = new LongKeyedMap<>();
+        final Map<Long, Long> expected = new HashMap<>();
+        final Random random = new Random(1L);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Use a small key space so that collisions, removals and re-insertions all occur frequently
+            final long key = random.nextInt(5_000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (final Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        final Set<Long> values = new HashSet<>(map.values());
+        assertEquals(new HashSet<>(expected.values()), values);
+    }
+
+    @Test
+    public void testPutAll() {
+        final LongKeyedMap<String> first = new LongKeyedMap<>();
+        final LongKeyedMap<String> second = new LongKeyedMap<>();
+        for (int i = 0; i < 100; i++) {
+            first.put(i, "first-" + i);
+            second.put(i + 50, "second-" + i);
+        }
+
+        first.putAll(second);
+        assertEquals(150, first.size());
+        assertEquals("first-0", first.get(0L));
+        assertEquals("second-0", first.get(50L));
+        assertEquals("second-99", first.get(149L));
+    }
+
+    @Test
+    public void testValuesFailFastOnModification() {
+        final LongKeyedMap<String> map = new LongKeyedMap<>();
+        map.put(1L, "one");
+        map.put(2L, "two");
+
+        final Iterator<String> itr = map.values().iterator();
+        itr.next();
+        map.put(3L, "three");
+        assertThrows(ConcurrentModificationException.class, itr::next);
+        assertThrows(UnsupportedOperationException.class, () -> map.values().iterator().remove());
+    }
+}
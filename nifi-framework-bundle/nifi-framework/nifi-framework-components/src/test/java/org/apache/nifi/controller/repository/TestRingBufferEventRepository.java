@@ -18,18 +18,27 @@ package org.apache.nifi.controller.repository;
 
 import org.apache.nifi.controller.repository.metrics.RingBufferEventRepository;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestRingBufferEventRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(TestRingBufferEventRepository.class);
+
     @Test
     public void testAdd() throws IOException {
         final RingBufferEventRepository repo = new RingBufferEventRepository(5);
@@ -80,6 +89,79 @@ public class TestRingBufferEventRepository {
         repo.close();
     }
 
+    @Test
+    public void testConcurrentUpdates() throws IOException, InterruptedException {
+        final RingBufferEventRepository repo = new RingBufferEventRepository(5);
+        final int threadCount = 8;
+        final int eventsPerThread = 25_000;
+
+        runConcurrently(repo, threadCount, eventsPerThread);
+
+        final long expectedEvents = (long) threadCount * eventsPerThread;
+        final FlowFileEvent componentEvent = repo.reportTransferEvents("ABC", System.currentTimeMillis());
+        assertEquals(expectedEvents, componentEvent.getInvocations());
+        assertEquals(expectedEvents, componentEvent.getFlowFilesIn());
+        assertEquals(expectedEvents * 1024L, componentEvent.getBytesRead());
+        assertEquals(expectedEvents * 783L, componentEvent.getAggregateLineageMillis());
+
+        final FlowFileEvent aggregateEvent = repo.reportAggregateEvent();
+        assertEquals(expectedEvents, aggregateEvent.getInvocations());
+        assertEquals(expectedEvents * 1024L * 1024L, aggregateEvent.getBytesWritten());
+
+        repo.close();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nifi.test.performance", matches = "true",
+            disabledReason = "Intended only for local performance testing before/after making changes")
+    public void testConcurrentUpdatePerformance() throws IOException, InterruptedException {
+        final RingBufferEventRepository repo = new RingBufferEventRepository(5);
+        final int threadCount = 32;
+        final int eventsPerThread = 1_000_000;
+
+        // Warm up before measuring
+        runConcurrently(repo, threadCount, eventsPerThread / 10);
+
+        for (int iteration = 0; iteration < 5; iteration++) {
+            final long start = System.nanoTime();
+            runConcurrently(repo, threadCount, eventsPerThread);
+            final long nanos = System.nanoTime() - start;
+
+            final long events = (long) threadCount * eventsPerThread;
+            logger.info("Committed {} events from {} threads against one component in {} millis ({} events/sec)",
+                events, threadCount, TimeUnit.NANOSECONDS.toMillis(nanos), events * 1_000_000_000L / nanos);
+        }
+
+        repo.close();
+    }
+
+    private void runConcurrently(final RingBufferEventRepository repo, final int threadCount, final int eventsPerThread) throws InterruptedException {
+        final FlowFileEvent event = generateEvent();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                for (int j = 0; j < eventsPerThread; j++) {
+                    repo.updateRepository(event, "ABC");
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        startLatch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+    }
+
     private FlowFileEvent generateEvent() {
         return new FlowFileEvent() {
             @Override
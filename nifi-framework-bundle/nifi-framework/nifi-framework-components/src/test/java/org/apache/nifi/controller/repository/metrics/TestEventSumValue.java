@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository.metrics;
+
+import org.apache.nifi.controller.repository.FlowFileEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestEventSumValue {
+
+    @Test
+    public void testEmpty() {
+        final EventSumValue value = new EventSumValue(0L);
+        assertSame(EmptyFlowFileEvent.INSTANCE, value.toFlowFileEvent());
+    }
+
+    @Test
+    public void testAddAndSubtract() {
+        final EventSumValue value = new EventSumValue(0L);
+        value.add(createEvent(Map.of("counter", 2L)));
+        value.add(createEvent(Map.of("counter", 3L)));
+
+        final EventSumValue other = new EventSumValue(0L);
+        other.add(createEvent(Map.of("counter", 4L, "other", 1L)));
+        value.add(other);
+
+        FlowFileEvent event = value.toFlowFileEvent();
+        assertEquals(3, event.getInvocations());
+        assertEquals(3, event.getFlowFilesIn());
+        assertEquals(300L, event.getBytesRead());
+        assertEquals(9L, event.getCounters().get("counter"));
+        assertEquals(1L, event.getCounters().get("other"));
+
+        value.subtract(other);
+        event = value.toFlowFileEvent();
+        assertEquals(2, event.getInvocations());
+        assertEquals(2, event.getFlowFilesIn());
+        assertEquals(200L, event.getBytesRead());
+        assertEquals(5L, event.getCounters().get("counter"));
+        assertEquals(0L, event.getCounters().get("other"));
+    }
+
+    @Test
+    public void testConcurrentAdd() throws InterruptedException {
+        final EventSumValue value = new EventSumValue(0L);
+        final FlowFileEvent event = createEvent(Map.of("counter", 1L));
+        final int threadCount = 16;
+        final int eventsPerThread = 20_000;
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(() -> {
+                for (int j = 0; j < eventsPerThread; j++) {
+                    value.add(event);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final int expected = threadCount * eventsPerThread;
+        final FlowFileEvent result = value.toFlowFileEvent();
+        assertEquals(expected, result.getInvocations());
+        assertEquals(expected, result.getFlowFilesIn());
+        assertEquals(expected * 100L, result.getBytesRead());
+        assertEquals(expected * 5L, result.getProcessingNanoseconds());
+        assertEquals((long) expected, result.getCounters().get("counter"));
+    }
+
+    private FlowFileEvent createEvent(final Map<String, Long> counters) {
+        final StandardFlowFileEvent event = new StandardFlowFileEvent();
+        event.setInvocations(1);
+        event.setFlowFilesIn(1);
+        event.setBytesRead(100L);
+        event.setProcessingNanos(5L);
+        event.setCounters(counters);
+        return event;
+    }
+}
@@ -80,6 +80,15 @@ public interface Connection extends Authorizable, VersionedComponent {
 
     FlowFileRecord poll(Set<FlowFileRecord> expiredRecords);
 
+    /**
+     * Polls up to the given number of FlowFiles from the Connection's queue while obtaining the queue's lock only once
+     *
+     * @param maxResults the maximum number of FlowFiles to return
+     * @param expiredRecords a Set to which any FlowFiles that are found to have expired are added
+     * @return the FlowFiles that were polled
+     */
+    List<FlowFileRecord> poll(int maxResults, Set<FlowFileRecord> expiredRecords);
+
     void verifyCanUpdate() throws IllegalStateException;
 
     void verifyCanDelete() throws IllegalStateException;
@@ -17,6 +17,7 @@
 package org.apache.nifi.controller;
 
 import org.apache.nifi.annotation.notification.PrimaryNodeState;
+import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Funnel;
 import org.apache.nifi.connectable.Port;
 import org.apache.nifi.controller.service.ControllerServiceNode;
@@ -147,6 +148,13 @@ public interface ProcessScheduler {
      */
     void onReportingTaskRemoved(ReportingTaskNode reportingTask);
 
+    /**
+     * Notifies the scheduler that the given connection has been removed from the flow
+     *
+     * @param connection the connection being removed
+     */
+    void onConnectionRemoved(Connection connection);
+
     /**
      * Starts scheduling the given Port to run. If the Port is already scheduled
      * to run, does nothing.
@@ -229,6 +237,14 @@ public interface ProcessScheduler {
      */
     void yield(ProcessorNode procNode);
 
+    /**
+     * Notifies the Scheduler that FlowFiles have been enqueued into the FlowFileQueue with the given identifier, so that
+     * any component that is waiting for work from that queue can be triggered
+     *
+     * @param queueIdentifier the identifier of the FlowFileQueue that FlowFiles were enqueued into
+     */
+    void onFlowFilesEnqueued(String queueIdentifier);
+
     /**
      * Stops scheduling the given Reporting Task to run
      *
@@ -33,6 +33,10 @@ public interface SchedulingAgent {
 
     void onEvent(Connectable connectable);
 
+    void onFlowFilesEnqueued(String queueIdentifier);
+
+    void onFlowFileQueueRemoved(String queueIdentifier);
+
     void schedule(ReportingTaskNode taskNode, LifecycleState scheduleState);
 
     void unschedule(ReportingTaskNode taskNode, LifecycleState scheduleState);
@@ -25,6 +25,7 @@ import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.FlowFileSwapManager;
 import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
+import org.apache.nifi.controller.repository.SwapPrefetcher;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
 import org.apache.nifi.controller.swap.SchemaSwapDeserializer;
@@ -61,9 +62,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -84,13 +89,22 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
     public static final String EVENT_CATEGORY = "Swap FlowFiles";
     private static final Logger logger = LoggerFactory.getLogger(FileSystemSwapManager.class);
 
+    // The number of swap files held in memory is bounded across all queues by the shared SwapPrefetcher. This limit only keeps a single
+    // queue from taking the whole of that budget.
+    static final int MAX_PREFETCHED_SWAP_FILES_PER_QUEUE = 2;
+
     private final File storageDirectory;
     private final FieldCache fieldCache = new CaffeineFieldCache(10_000_000);
+    private final Map<String, Future<SwapContents>> prefetchedContents = new ConcurrentHashMap<>();
 
     // effectively final
     private FlowFileRepository flowFileRepository;
     private EventReporter eventReporter;
     private ResourceClaimManager claimManager;
+    private SwapPrefetcher swapPrefetcher;
+
+    // Guarded by prefetchedContents
+    private boolean shutdown = false;
 
     private static final byte[] MAGIC_HEADER = {'S', 'W', 'A', 'P'};
 
@@ -118,6 +132,7 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         this.claimManager = initializationContext.getResourceClaimManager();
         this.eventReporter = initializationContext.getEventReporter();
         this.flowFileRepository = initializationContext.getFlowFileRepository();
+        this.swapPrefetcher = initializationContext.getSwapPrefetcher();
     }
 
     protected InputStream getInputStream(final File file) throws IOException {
@@ -175,11 +190,12 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
             warn("Cannot swap in FlowFiles from location " + swapLocation + " because the FlowFile Repository does not know about this Swap Location. " +
                 "This file should be manually removed. This typically occurs when a Swap File is written but the FlowFile Repository is not updated yet to reflect this. " +
                 "This is generally not a cause for concern, but may be indicative of a failure to update the FlowFile Repository.");
+            cancelPrefetch(swapLocation);
             final SwapSummary swapSummary = new StandardSwapSummary(new QueueSize(0, 0), 0L, Collections.emptyList(), 0L, 0L);
             return new StandardSwapContents(swapSummary, Collections.emptyList());
         }
 
-        final SwapContents swapContents = peek(swapLocation, flowFileQueue);
+        final SwapContents swapContents = readSwapContents(swapLocation, flowFileQueue);
         flowFileRepository.swapFlowFilesIn(swapFile.getAbsolutePath(), swapContents.getFlowFiles(), flowFileQueue);
 
         if (!swapFile.delete()) {
@@ -189,6 +205,105 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         return swapContents;
     }
 
+    @Override
+    public boolean prefetch(final String swapLocation, final FlowFileQueue flowFileQueue) {
+        if (prefetchedContents.containsKey(swapLocation)) {
+            return true;
+        }
+
+        final SwapPrefetcher prefetcher = swapPrefetcher;
+        if (prefetcher == null) {
+            return false;
+        }
+
+        synchronized (prefetchedContents) {
+            if (shutdown) {
+                return false;
+            }
+            if (prefetchedContents.containsKey(swapLocation)) {
+                return true;
+            }
+
+            if (prefetchedContents.size() >= MAX_PREFETCHED_SWAP_FILES_PER_QUEUE) {
+                removeAbandonedPrefetches();
+
+                if (prefetchedContents.size() >= MAX_PREFETCHED_SWAP_FILES_PER_QUEUE) {
+                    logger.debug("Will not prefetch Swap File {} because {} Swap Files have already been prefetched", swapLocation, prefetchedContents.size());
+                    return false;
+                }
+            }
+
+            final Future<SwapContents> future = prefetcher.submit(() -> peek(swapLocation, flowFileQueue));
+            if (future == null) {
+                logger.debug("Will not prefetch Swap File {} because the maximum number of Swap Files across all queues have already been prefetched", swapLocation);
+                return false;
+            }
+
+            prefetchedContents.put(swapLocation, future);
+        }
+
+        logger.debug("Prefetching Swap File {} for {}", swapLocation, flowFileQueue);
+        return true;
+    }
+
+    /**
+     * Removes any prefetched contents whose swap file no longer exists, such as when the swap file was purged or removed by some other means.
+     * Without this, a prefetch that is never followed by a swap-in would permanently occupy one of the prefetch slots.
+     */
+    private void removeAbandonedPrefetches() {
+        for (final String swapLocation : new ArrayList<>(prefetchedContents.keySet())) {
+            if (!new File(swapLocation).exists()) {
+                logger.debug("Discarding prefetched contents of Swap File {} because the Swap File no longer exists", swapLocation);
+                cancelPrefetch(swapLocation);
+            }
+        }
+    }
+
+    private void cancelPrefetch(final String swapLocation) {
+        final Future<SwapContents> future = prefetchedContents.remove(swapLocation);
+        if (future != null) {
+            future.cancel(false);
+            swapPrefetcher.release();
+        }
+    }
+
+    /**
+     * Returns the contents of the given swap file, waiting for a prefetch to complete if one was requested, or reading the swap file
+     * in the calling thread otherwise
+     */
+    private SwapContents readSwapContents(final String swapLocation, final FlowFileQueue flowFileQueue) throws IOException {
+        final Future<SwapContents> future = prefetchedContents.remove(swapLocation);
+        if (future == null) {
+            return peek(swapLocation, flowFileQueue);
+        }
+
+        try {
+            if (future.isCancelled()) {
+                return peek(swapLocation, flowFileQueue);
+            }
+
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Swap File " + swapLocation + " to be read", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+
+            throw new IOException("Failed to read Swap File " + swapLocation, cause);
+        } finally {
+            swapPrefetcher.release();
+        }
+    }
+
     @Override
     public SwapContents peek(final String swapLocation, final FlowFileQueue flowFileQueue) throws IOException {
         final File swapFile = new File(swapLocation);
@@ -207,6 +322,10 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
     @Override
     public void purge() {
+        synchronized (prefetchedContents) {
+            cancelPrefetches();
+        }
+
         final File[] swapFiles = storageDirectory.listFiles((dir, name) -> SWAP_FILE_PATTERN.matcher(name).matches() || TEMP_SWAP_FILE_PATTERN.matcher(name).matches());
 
         for (final File file : swapFiles) {
@@ -216,6 +335,23 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         }
     }
 
+    @Override
+    public void shutdown() {
+        synchronized (prefetchedContents) {
+            shutdown = true;
+            cancelPrefetches();
+        }
+    }
+
+    /**
+     * Discards the contents of all prefetched swap files. This method MUST be called while synchronized on prefetchedContents.
+     */
+    private void cancelPrefetches() {
+        for (final String swapLocation : new ArrayList<>(prefetchedContents.keySet())) {
+            cancelPrefetch(swapLocation);
+        }
+    }
+
     @Override
     public String getQueueIdentifier(final String swapLocation) {
         final String filename = swapLocation.contains("/") ? StringUtils.substringAfterLast(swapLocation, "/") : swapLocation;
@@ -446,6 +582,8 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
     @Override
     public String changePartitionName(final String swapLocation, final String newPartitionName) throws IOException {
+        cancelPrefetch(swapLocation);
+
         final File existingFile = new File(swapLocation);
         if (!existingFile.exists()) {
             throw new FileNotFoundException("Could not change name of partition for swap location " + swapLocation + " because no swap file exists at that location");
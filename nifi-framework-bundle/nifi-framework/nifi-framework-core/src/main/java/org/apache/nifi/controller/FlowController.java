@@ -95,13 +95,13 @@ import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.FlowFileSwapManager;
 import org.apache.nifi.controller.repository.QueueProvider;
-import org.apache.nifi.controller.repository.RepositoryStatusReport;
 import org.apache.nifi.controller.repository.StandardContentRepositoryContext;
 import org.apache.nifi.controller.repository.StandardCounterRepository;
 import org.apache.nifi.controller.repository.StandardFlowFileRecord;
 import org.apache.nifi.controller.repository.StandardQueueProvider;
 import org.apache.nifi.controller.repository.StandardRepositoryRecord;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
+import org.apache.nifi.controller.repository.SwapPrefetcher;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ContentDirection;
@@ -132,7 +132,7 @@ import org.apache.nifi.controller.state.providers.ManagedStateProvider;
 import org.apache.nifi.controller.status.NodeStatus;
 import org.apache.nifi.controller.status.StorageStatus;
 import org.apache.nifi.controller.status.analytics.CachingConnectionStatusAnalyticsEngine;
-import org.apache.nifi.controller.status.analytics.ConnectionStatusAnalytics;
+import org.apache.nifi.controller.status.analytics.ConnectionStatusPredictionTask;
 import org.apache.nifi.controller.status.analytics.StatusAnalyticsEngine;
 import org.apache.nifi.controller.status.analytics.StatusAnalyticsModelMapFactory;
 import org.apache.nifi.controller.status.history.GarbageCollectionHistory;
@@ -140,6 +140,7 @@ import org.apache.nifi.controller.status.history.GarbageCollectionStatus;
 import org.apache.nifi.controller.status.history.StandardGarbageCollectionStatus;
 import org.apache.nifi.controller.status.history.StatusHistoryRepository;
 import org.apache.nifi.controller.status.history.StatusHistoryUtil;
+import org.apache.nifi.controller.swap.StandardSwapPrefetcher;
 import org.apache.nifi.controller.tasks.ExpireFlowFiles;
 import org.apache.nifi.diagnostics.StorageUsage;
 import org.apache.nifi.diagnostics.SystemDiagnostics;
@@ -267,6 +268,9 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
     public static final String GRACEFUL_SHUTDOWN_PERIOD = "nifi.flowcontroller.graceful.shutdown.seconds";
     public static final long DEFAULT_GRACEFUL_SHUTDOWN_SECONDS = 10;
 
+    private static final int SWAP_PREFETCH_THREAD_COUNT = 2;
+    private static final int MAX_PREFETCHED_SWAP_FILES = 8;
+
     private static final String ZOOKEEPER_STATE_PROVIDER_SERVER_CLASS = "org.apache.nifi.controller.state.providers.zookeeper.server.ZooKeeperStateProviderServer";
 
     private final AtomicInteger maxTimerDrivenThreads;
@@ -351,6 +355,8 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
 
     private final ScheduledExecutorService clusterTaskExecutor = new FlowEngine(3, "Clustering Tasks", true);
     private final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+    // Shared by the Swap Managers of all connections, so that the threads reading swap files, and the swap files held in memory, are bounded
+    private final StandardSwapPrefetcher swapPrefetcher = new StandardSwapPrefetcher(SWAP_PREFETCH_THREAD_COUNT, MAX_PREFETCHED_SWAP_FILES);
 
     // guarded by rwLock
     /**
@@ -726,21 +732,19 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
             analyticsEngine = new CachingConnectionStatusAnalyticsEngine(flowManager, statusHistoryRepository, statusAnalyticsModelMapFactory,
                     predictionIntervalMillis, queryIntervalMillis, modelScoreName, modelScoreThreshold);
 
-            timerDrivenEngineRef.get().scheduleWithFixedDelay(() -> {
-                try {
-                    Long startTs = System.currentTimeMillis();
-                    RepositoryStatusReport statusReport = flowFileEventRepository.reportTransferEvents(startTs);
-                    flowManager.findAllConnections().forEach(connection -> {
-                        ConnectionStatusAnalytics connectionStatusAnalytics = ((ConnectionStatusAnalytics) analyticsEngine.getStatusAnalytics(connection.getIdentifier()));
-                        connectionStatusAnalytics.refresh();
-                        connectionStatusAnalytics.loadPredictions(statusReport);
-                    });
-                    Long endTs = System.currentTimeMillis();
-                    LOG.debug("Time Elapsed for Prediction for loading all predictions: {}", endTs - startTs);
-                } catch (final Exception e) {
-                    LOG.error("Failed to generate predictions", e);
-                }
-            }, 0L, 15, TimeUnit.SECONDS);
+            // Determine the maximum amount of time to spend refreshing predictions each time that they are generated
+            final String predictionBudget = nifiProperties.getProperty(NiFiProperties.ANALYTICS_PREDICTION_BUDGET, NiFiProperties.DEFAULT_ANALYTICS_PREDICTION_BUDGET);
+            long predictionBudgetMillis;
+            try {
+                predictionBudgetMillis = FormatUtils.getTimeDuration(predictionBudget, TimeUnit.MILLISECONDS);
+            } catch (final Exception e) {
+                LOG.warn("Analytics is enabled however could not retrieve value for {}. This property has been set to '{}'",
+                        NiFiProperties.ANALYTICS_PREDICTION_BUDGET, NiFiProperties.DEFAULT_ANALYTICS_PREDICTION_BUDGET);
+                predictionBudgetMillis = FormatUtils.getTimeDuration(NiFiProperties.DEFAULT_ANALYTICS_PREDICTION_BUDGET, TimeUnit.MILLISECONDS);
+            }
+
+            final ConnectionStatusPredictionTask predictionTask = new ConnectionStatusPredictionTask(flowManager, flowFileEventRepository, analyticsEngine, predictionBudgetMillis);
+            timerDrivenEngineRef.get().scheduleWithFixedDelay(predictionTask, 0L, 15, TimeUnit.SECONDS);
 
         }
 
@@ -971,6 +975,11 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
                     public EventReporter getEventReporter() {
                         return eventReporter;
                     }
+
+                    @Override
+                    public SwapPrefetcher getSwapPrefetcher() {
+                        return swapPrefetcher;
+                    }
                 };
 
                 swapManager.initialize(initializationContext);
@@ -1616,6 +1625,11 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
                 LOG.info("Interrupted while waiting for controller termination.");
             }
 
+            for (final Connection connection : flowManager.findAllConnections()) {
+                connection.getFlowFileQueue().shutdown();
+            }
+            swapPrefetcher.shutdown();
+
             try {
                 flowFileRepository.close();
             } catch (final Throwable t) {
@@ -2322,6 +2336,11 @@ public class FlowController implements ReportingTaskProvider, FlowAnalysisRulePr
                 public EventReporter getEventReporter() {
                     return eventReporter;
                 }
+
+                @Override
+                public SwapPrefetcher getSwapPrefetcher() {
+                    return swapPrefetcher;
+                }
             };
 
             swapManager.initialize(initializationContext);
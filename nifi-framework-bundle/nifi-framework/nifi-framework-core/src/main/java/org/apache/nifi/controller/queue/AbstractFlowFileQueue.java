@@ -89,6 +89,16 @@ public abstract class AbstractFlowFileQueue implements FlowFileQueue {
         return scheduler;
     }
 
+    /**
+     * Notifies the scheduler that FlowFiles have been made available in this queue so that a destination that is idle
+     * for lack of work can be triggered without waiting for its bored yield duration to elapse
+     */
+    protected void onFlowFilesEnqueued() {
+        if (scheduler != null) {
+            scheduler.onFlowFilesEnqueued(identifier);
+        }
+    }
+
     @Override
     public String getFlowFileExpiration() {
         return expirationPeriod.get().getPeriod();
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.repository.FlowFileRecord;
+
+import java.util.AbstractQueue;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * An active queue for connections that have no FlowFile Prioritizers configured. Rather than maintaining a binary heap, which
+ * requires O(log n) comparisons for every insertion and removal, FlowFiles that are not penalized are kept in a simple
+ * first-in-first-out deque so that adding and polling are constant-time operations that, in the common case, require only the
+ * read lock of the owning {@link SwappablePriorityQueue}. Several threads can then add to and poll from the same connection
+ * without excluding one another.
+ * </p>
+ *
+ * <p>
+ * Penalized FlowFiles are held separately, ordered by their penalty expiration, and are only handed out ahead of the FIFO
+ * queue once their penalty has expired, so that the penalization semantics of {@link QueuePrioritizer} are retained.
+ * </p>
+ *
+ * <p>
+ * Without prioritizers, a {@link QueuePrioritizer} orders FlowFiles by their Content Claim and offset, which tends to hand out FlowFiles
+ * whose content is stored together one after another. This queue does not retain that ordering: FlowFiles are handed out in the order
+ * in which they were queued, which is what callers of an unprioritized connection expect and what allows adding and polling to be done
+ * without comparisons.
+ * </p>
+ *
+ * <p>
+ * Unpenalized FlowFiles are held in a lock-free deque, so that {@link #offerUnpenalized(FlowFileRecord)} and {@link #pollUnpenalized()}
+ * may be called by several threads at once while the owning queue's read lock is held, provided that no penalized FlowFiles are queued.
+ * All other methods must be called with the write lock of the owning queue held.
+ * </p>
+ */
+class FifoFlowFileQueue extends AbstractQueue<FlowFileRecord> {
+    private static final Comparator<FlowFileRecord> penaltyComparator = Comparator
+        .comparingLong(FlowFileRecord::getPenaltyExpirationMillis)
+        .thenComparingLong(FlowFileRecord::getId);
+
+    private final ConcurrentLinkedDeque<FlowFileRecord> unpenalized = new ConcurrentLinkedDeque<>();
+    // ConcurrentLinkedDeque.size() must traverse the deque, so the number of unpenalized FlowFiles is tracked separately
+    private final AtomicInteger unpenalizedCount = new AtomicInteger(0);
+    private final PriorityQueue<FlowFileRecord> penalized = new PriorityQueue<>(penaltyComparator);
+
+    @Override
+    public boolean offer(final FlowFileRecord flowFile) {
+        if (flowFile.isPenalized()) {
+            penalized.add(flowFile);
+        } else {
+            offerUnpenalized(flowFile);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the given FlowFile, which must not be penalized, to the tail of the queue. This method may be called concurrently with itself
+     * and with {@link #pollUnpenalized()}.
+     *
+     * @param flowFile the FlowFile to add
+     */
+    void offerUnpenalized(final FlowFileRecord flowFile) {
+        unpenalized.addLast(flowFile);
+        unpenalizedCount.incrementAndGet();
+    }
+
+    /**
+     * Removes the FlowFile at the head of the unpenalized FlowFiles. This method may be called concurrently with itself and with
+     * {@link #offerUnpenalized(FlowFileRecord)}, and is equivalent to {@link #poll()} if {@link #hasPenalized()} is <code>false</code>.
+     *
+     * @return the FlowFile at the head of the unpenalized FlowFiles, or <code>null</code> if there are none
+     */
+    FlowFileRecord pollUnpenalized() {
+        final FlowFileRecord flowFile = unpenalized.pollFirst();
+        if (flowFile != null) {
+            unpenalizedCount.decrementAndGet();
+        }
+
+        return flowFile;
+    }
+
+    /**
+     * @return <code>true</code> if any FlowFile that was penalized when it was added is still held by this queue
+     */
+    boolean hasPenalized() {
+        return !penalized.isEmpty();
+    }
+
+    /**
+     * Places the given FlowFiles, which were previously polled from this queue, back at the head of the queue so that they
+     * are handed out again in the order given and before any FlowFiles that were queued after them.
+     *
+     * @param flowFiles the FlowFiles to requeue
+     */
+    void requeue(final List<FlowFileRecord> flowFiles) {
+        for (int i = flowFiles.size() - 1; i >= 0; i--) {
+            final FlowFileRecord flowFile = flowFiles.get(i);
+            if (flowFile.isPenalized()) {
+                penalized.add(flowFile);
+            } else {
+                unpenalized.addFirst(flowFile);
+                unpenalizedCount.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public FlowFileRecord poll() {
+        if (isPenaltyExpired()) {
+            return penalized.poll();
+        }
+
+        final FlowFileRecord flowFile = pollUnpenalized();
+        if (flowFile != null) {
+            return flowFile;
+        }
+
+        return penalized.poll();
+    }
+
+    @Override
+    public FlowFileRecord peek() {
+        if (isPenaltyExpired()) {
+            return penalized.peek();
+        }
+
+        final FlowFileRecord flowFile = unpenalized.peekFirst();
+        if (flowFile != null) {
+            return flowFile;
+        }
+
+        return penalized.peek();
+    }
+
+    private boolean isPenaltyExpired() {
+        final FlowFileRecord head = penalized.peek();
+        return head != null && !head.isPenalized();
+    }
+
+    @Override
+    public int size() {
+        return unpenalizedCount.get() + penalized.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return unpenalized.isEmpty() && penalized.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        unpenalized.clear();
+        unpenalizedCount.set(0);
+        penalized.clear();
+    }
+
+    @Override
+    public Iterator<FlowFileRecord> iterator() {
+        final Iterator<FlowFileRecord> unpenalizedIterator = unpenalized.iterator();
+        final Iterator<FlowFileRecord> penalizedIterator = penalized.iterator();
+
+        return new Iterator<>() {
+            private Iterator<FlowFileRecord> current = unpenalizedIterator;
+            private Iterator<FlowFileRecord> lastReturnedFrom;
+
+            @Override
+            public boolean hasNext() {
+                if (current.hasNext()) {
+                    return true;
+                }
+
+                if (current == unpenalizedIterator) {
+                    current = penalizedIterator;
+                    return current.hasNext();
+                }
+
+                return false;
+            }
+
+            @Override
+            public FlowFileRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                lastReturnedFrom = current;
+                return current.next();
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturnedFrom == null) {
+                    throw new IllegalStateException();
+                }
+
+                lastReturnedFrom.remove();
+                if (lastReturnedFrom == unpenalizedIterator) {
+                    unpenalizedCount.decrementAndGet();
+                }
+            }
+        };
+    }
+}
@@ -47,6 +47,34 @@ public class QueuePrioritizer implements Comparator<FlowFileRecord>, Serializabl
             return penaltyComparisonResult;
         }
 
+        return comparePriority(f1, f2);
+    }
+
+    /**
+     * Returns a Comparator that orders FlowFiles in the same way as this QueuePrioritizer, except that whether or not a FlowFile is
+     * penalized is determined as of the given time rather than as of the time of each comparison. A penalty that expires while FlowFiles
+     * are being sorted then cannot change the result of comparing two FlowFiles, which sorting algorithms such as the one used by
+     * {@link java.util.Arrays#sort(Object[], Comparator)} require.
+     *
+     * @param timestamp the time, in milliseconds since the epoch, as of which FlowFiles are considered penalized
+     * @return a Comparator that orders FlowFiles as of the given time
+     */
+    public Comparator<FlowFileRecord> asOf(final long timestamp) {
+        final Comparator<FlowFileRecord> fixedPenaltyComparator = Comparator
+                .comparing((FlowFileRecord record) -> record.getPenaltyExpirationMillis() > timestamp)
+                .thenComparingLong(record -> record.getPenaltyExpirationMillis() > timestamp ? record.getPenaltyExpirationMillis() : 0);
+
+        return (f1, f2) -> {
+            final int penaltyComparisonResult = fixedPenaltyComparator.compare(f1, f2);
+            if (penaltyComparisonResult != 0) {
+                return penaltyComparisonResult;
+            }
+
+            return comparePriority(f1, f2);
+        };
+    }
+
+    private int comparePriority(final FlowFileRecord f1, final FlowFileRecord f2) {
         for (FlowFilePrioritizer comparator : prioritizers) {
             final int prioritizerComparisonResult = comparator.compare(f1, f2);
             if (prioritizerComparisonResult != 0) {
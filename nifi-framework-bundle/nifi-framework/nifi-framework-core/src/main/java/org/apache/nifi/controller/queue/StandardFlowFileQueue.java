@@ -109,11 +109,19 @@ public class StandardFlowFileQueue extends AbstractFlowFileQueue implements Flow
     @Override
     public void put(final FlowFileRecord file) {
         queue.put(file);
+        onFlowFilesEnqueued();
     }
 
     @Override
     public void putAll(final Collection<FlowFileRecord> files) {
         queue.putAll(files);
+        onFlowFilesEnqueued();
+    }
+
+    @Override
+    public void requeue(final Collection<FlowFileRecord> files) {
+        queue.requeue(files);
+        onFlowFilesEnqueued();
     }
 
 
@@ -188,6 +196,11 @@ public class StandardFlowFileQueue extends AbstractFlowFileQueue implements Flow
         swapManager.purge();
     }
 
+    @Override
+    public void shutdown() {
+        swapManager.shutdown();
+    }
+
     @Override
     public SwapSummary recoverSwappedFlowFiles() {
         return queue.recoverSwappedFlowFiles();
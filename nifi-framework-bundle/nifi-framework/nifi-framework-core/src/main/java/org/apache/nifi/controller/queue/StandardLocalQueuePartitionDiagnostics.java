@@ -21,11 +21,16 @@ public class StandardLocalQueuePartitionDiagnostics implements LocalQueuePartiti
     private final FlowFileQueueSize queueSize;
     private final boolean anyPenalized;
     private final boolean allPenalized;
+    private final long swapStallCount;
+    private final long swapStallMillis;
 
-    public StandardLocalQueuePartitionDiagnostics(final FlowFileQueueSize queueSize, final boolean anyPenalized, final boolean allPenalized) {
+    public StandardLocalQueuePartitionDiagnostics(final FlowFileQueueSize queueSize, final boolean anyPenalized, final boolean allPenalized,
+                                                  final long swapStallCount, final long swapStallMillis) {
         this.queueSize = queueSize;
         this.anyPenalized = anyPenalized;
         this.allPenalized = allPenalized;
+        this.swapStallCount = swapStallCount;
+        this.swapStallMillis = swapStallMillis;
     }
 
     @Override
@@ -48,6 +53,16 @@ public class StandardLocalQueuePartitionDiagnostics implements LocalQueuePartiti
         return queueSize.getSwapFileCount();
     }
 
+    @Override
+    public long getSwapStallCount() {
+        return swapStallCount;
+    }
+
+    @Override
+    public long getSwapStallMillis() {
+        return swapStallMillis;
+    }
+
     @Override
     public boolean isAnyActiveFlowFilePenalized() {
         return anyPenalized;
@@ -39,8 +39,10 @@ import org.slf4j.LoggerFactory;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -58,6 +60,7 @@ public class SwappablePriorityQueue {
     private static final Logger logger = LoggerFactory.getLogger(SwappablePriorityQueue.class);
     private static final int SWAP_RECORD_POLL_SIZE = 10_000;
     private static final int MAX_EXPIRED_RECORDS_PER_ITERATION = 10_000;
+    private static final long PREFETCH_RETRY_MILLIS = 1000L;
 
     private final int swapThreshold;
     private final FlowFileSwapManager swapManager;
@@ -87,6 +90,14 @@ public class SwappablePriorityQueue {
     private boolean swapMode = false;
     private volatile long topPenaltyExpiration = -1L;
 
+    // The swap location whose swap file the Swap Manager most recently agreed to prefetch, the time before which a prefetch is not
+    // requested again after the Swap Manager ignored the request, and the number of times and total number of nanoseconds that polling
+    // had to wait for a swap file that was not prefetched to be swapped in. Guarded by lock.
+    private String prefetchRequestedSwapLocation;
+    private long prefetchRetryTime = 0L;
+    private long swapStallCount = 0L;
+    private long swapStallNanos = 0L;
+
     // The following members are used to keep metrics in memory for reporting purposes so that we don't have to constantly
     // read these values from swap files on disk.
     private final Map<String, Long> minQueueDateInSwapLocation = new HashMap<>();
@@ -97,7 +108,7 @@ public class SwappablePriorityQueue {
         this.swapManager = swapManager;
         this.swapThreshold = swapThreshold;
 
-        this.activeQueue = new PriorityQueue<>(20, new QueuePrioritizer(Collections.emptyList()));
+        this.activeQueue = createActiveQueue(Collections.emptyList(), 20);
         this.swapQueue = new ArrayList<>();
         this.eventReporter = eventReporter;
         this.flowFileQueue = flowFileQueue;
@@ -122,14 +133,50 @@ public class SwappablePriorityQueue {
         try {
             this.priorities = new ArrayList<>(newPriorities);
 
-            final Queue<FlowFileRecord> newQueue = new PriorityQueue<>(Math.max(20, activeQueue.size()), new QueuePrioritizer(newPriorities));
-            newQueue.addAll(activeQueue);
+            // Drain the current queue in order, rather than iterating over it, so that the existing ordering carries over if the new queue is FIFO
+            final Queue<FlowFileRecord> newQueue = createActiveQueue(newPriorities, Math.max(20, activeQueue.size()));
+            FlowFileRecord flowFile;
+            while ((flowFile = activeQueue.poll()) != null) {
+                newQueue.add(flowFile);
+            }
             activeQueue = newQueue;
         } finally {
             writeLock.unlock("setPriorities");
         }
     }
 
+    private static Queue<FlowFileRecord> createActiveQueue(final List<FlowFilePrioritizer> priorities, final int initialCapacity) {
+        if (priorities.isEmpty()) {
+            return new FifoFlowFileQueue();
+        }
+
+        return new PriorityQueue<>(initialCapacity, new QueuePrioritizer(priorities));
+    }
+
+    /**
+     * Creates a queue holding the given FlowFiles, ordered in the same way as the active queue. This is used to determine which FlowFiles
+     * of the swap queue are swapped out or migrated to the active queue first.
+     */
+    private Queue<FlowFileRecord> createOrderedQueue(final Collection<FlowFileRecord> flowFiles) {
+        final Queue<FlowFileRecord> orderedQueue = createActiveQueue(getPriorities(), Math.max(1, flowFiles.size()));
+        orderedQueue.addAll(flowFiles);
+        return orderedQueue;
+    }
+
+    /**
+     * Returns FlowFiles that were polled from the active queue back to it. For a FIFO queue, they are placed back at the head of the queue
+     * so that they retain their position; for a prioritized queue, their position is determined by the prioritizers.
+     *
+     * This method MUST be called with the write lock held.
+     */
+    private void returnToActiveQueue(final List<FlowFileRecord> flowFiles) {
+        if (activeQueue instanceof FifoFlowFileQueue fifoQueue) {
+            fifoQueue.requeue(flowFiles);
+        } else {
+            activeQueue.addAll(flowFiles);
+        }
+    }
+
 
     public LocalQueuePartitionDiagnostics getQueueDiagnostics() {
         readLock.lock();
@@ -137,7 +184,7 @@ public class SwappablePriorityQueue {
             final boolean anyPenalized = !activeQueue.isEmpty() && activeQueue.peek().isPenalized();
             final boolean allPenalized = anyPenalized && activeQueue.stream().anyMatch(FlowFileRecord::isPenalized);
 
-            return new StandardLocalQueuePartitionDiagnostics(getFlowFileQueueSize(), anyPenalized, allPenalized);
+            return new StandardLocalQueuePartitionDiagnostics(getFlowFileQueueSize(), anyPenalized, allPenalized, swapStallCount, TimeUnit.NANOSECONDS.toMillis(swapStallNanos));
         } finally {
             readLock.unlock("getQueueDiagnostics");
         }
@@ -177,12 +224,12 @@ public class SwappablePriorityQueue {
             originalSwapQueueBytes += flowFile.getSize();
         }
 
-        // Create a new Priority queue with the same prioritizers that are set for this queue. We want to swap out the highest priority data first, because
+        // Create a new queue that orders FlowFiles in the same way as the active queue. We want to swap out the highest priority data first, because
         // whatever data we don't write out to a swap file (because there isn't enough to fill a swap file) will be added back to the swap queue.
         // Since the swap queue cannot be processed until all swap files, we want to ensure that only the lowest priority data goes back onto it. Which means
-        // that we must swap out the highest priority data that is currently on the swap queue.
-        final Queue<FlowFileRecord> tempQueue = new PriorityQueue<>(swapQueue.size(), new QueuePrioritizer(getPriorities()));
-        tempQueue.addAll(swapQueue);
+        // that we must swap out the highest priority data that is currently on the swap queue. If no prioritizers are configured, this is the data that
+        // was queued first.
+        final Queue<FlowFileRecord> tempQueue = createOrderedQueue(swapQueue);
 
         long bytesSwappedOut = 0L;
         int flowFilesSwappedOut = 0;
@@ -203,7 +250,9 @@ public class SwappablePriorityQueue {
             }
 
             try {
-                Collections.reverse(toSwap); // currently ordered in reverse priority order based on the ordering of the temp queue.
+                // The FlowFiles are written in priority order so that, when no prioritizers are configured, they are swapped back in to the
+                // active queue in the order in which they were queued. Swap files written by earlier versions hold the FlowFiles in reverse
+                // priority order; the Swap Manager reverses those when it reads them.
                 final String swapLocation = swapManager.swapOut(toSwap, flowFileQueue, swapPartitionName);
                 swapLocations.add(swapLocation);
 
@@ -240,8 +289,6 @@ public class SwappablePriorityQueue {
             updatedSwapQueueBytes += record.getSize();
         }
 
-        Collections.reverse(swapQueue); // currently ordered in reverse priority order based on the ordering of the temp queue
-
         boolean updated = false;
         while (!updated) {
             final FlowFileQueueSize originalSize = getFlowFileQueueSize();
@@ -291,6 +338,7 @@ public class SwappablePriorityQueue {
         // Swap Queue to the Active Queue. However, we don't do this if there are FlowFiles already swapped out
         // to disk, because we want them to be swapped back in in the same order that they were swapped out.
         if (!activeQueue.isEmpty()) {
+            prefetchSwapFileIfNecessary();
             return;
         }
 
@@ -300,7 +348,15 @@ public class SwappablePriorityQueue {
         // keep up with queue), we will end up always processing the new FlowFiles first instead of the FlowFiles that arrived
         // first.
         if (!swapLocations.isEmpty()) {
+            final boolean prefetched = swapLocations.get(0).equals(prefetchRequestedSwapLocation);
+            final long stallStart = System.nanoTime();
             swapIn();
+            if (!prefetched) {
+                swapStallCount++;
+                swapStallNanos += System.nanoTime() - stallStart;
+            }
+
+            prefetchSwapFileIfNecessary();
             return;
         }
 
@@ -318,8 +374,7 @@ public class SwappablePriorityQueue {
         }
 
         // Swap Queue is not currently ordered. We want to migrate the highest priority FlowFiles to the Active Queue, then re-queue the lowest priority items.
-        final Queue<FlowFileRecord> tempQueue = new PriorityQueue<>(swapQueue.size(), new QueuePrioritizer(getPriorities()));
-        tempQueue.addAll(swapQueue);
+        final Queue<FlowFileRecord> tempQueue = createOrderedQueue(swapQueue);
 
         int recordsMigrated = 0;
         long bytesMigrated = 0L;
@@ -352,6 +407,37 @@ public class SwappablePriorityQueue {
         }
     }
 
+    /**
+     * If the Active Queue has drained to the point that it holds no more FlowFiles than a single swap file, asks the Swap Manager
+     * to begin reading the next swap file in the background, so that it is ready by the time that the Active Queue is empty.
+     * Only the next swap file is requested, which bounds the amount of heap that prefetching can use for this queue.
+     *
+     * This method MUST be called with the writeLock held.
+     */
+    private void prefetchSwapFileIfNecessary() {
+        if (swapLocations.isEmpty() || activeQueue.size() > SWAP_RECORD_POLL_SIZE) {
+            return;
+        }
+
+        final String nextSwapLocation = swapLocations.get(0);
+        if (nextSwapLocation.equals(prefetchRequestedSwapLocation)) {
+            return;
+        }
+
+        // If the Swap Manager ignored the last request, don't ask again on every poll
+        final long now = System.currentTimeMillis();
+        if (now < prefetchRetryTime) {
+            return;
+        }
+
+        logger.debug("Requesting that {} be prefetched for {}", nextSwapLocation, this);
+        if (swapManager.prefetch(nextSwapLocation, flowFileQueue)) {
+            prefetchRequestedSwapLocation = nextSwapLocation;
+        } else {
+            prefetchRetryTime = now + PREFETCH_RETRY_MILLIS;
+        }
+    }
+
     private void swapIn() {
         final String swapLocation = swapLocations.get(0);
         boolean partialContents = false;
@@ -469,6 +555,10 @@ public class SwappablePriorityQueue {
 
 
     public void put(final FlowFileRecord flowFile) {
+        if (putUnprioritized(flowFile)) {
+            return;
+        }
+
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold) {
@@ -514,12 +604,42 @@ public class SwappablePriorityQueue {
         }
     }
 
+    /**
+     * Places FlowFiles that were previously polled from this queue back into it, such as when the session that polled them is rolled back.
+     * The FlowFiles are returned to the active queue even if the queue is in swap mode, because they were only just taken from it. When no
+     * prioritizers are configured, they are placed at the head of the queue in the order given so that they retain their position.
+     *
+     * @param flowFiles the FlowFiles to requeue
+     */
+    public void requeue(final Collection<FlowFileRecord> flowFiles) {
+        final int numFiles = flowFiles.size();
+        long bytes = 0L;
+        for (final FlowFile flowFile : flowFiles) {
+            bytes += flowFile.getSize();
+        }
+
+        writeLock.lock();
+        try {
+            incrementActiveQueueSize(numFiles, bytes);
+            returnToActiveQueue(new ArrayList<>(flowFiles));
+
+            updateTopPenaltyExpiration();
+            logger.trace("{} requeued to {}", flowFiles, this);
+        } finally {
+            writeLock.unlock("requeue");
+        }
+    }
+
     public FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         return poll(expiredRecords, expirationMillis, PollStrategy.UNPENALIZED_FLOWFILES);
     }
 
     public FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords, final long expirationMillis, final PollStrategy pollStrategy) {
-        FlowFileRecord flowFile;
+        final int expiredCount = expiredRecords.size();
+        FlowFileRecord flowFile = pollUnprioritized(expiredRecords, expirationMillis);
+        if (flowFile != null || expiredRecords.size() > expiredCount) {
+            return flowFile;
+        }
 
         // First check if we have any records Pre-Fetched.
         writeLock.lock();
@@ -540,6 +660,78 @@ public class SwappablePriorityQueue {
     }
 
 
+    /**
+     * Adds the given FlowFile to the active queue while holding only the read lock, if no prioritizers are configured and nothing else
+     * requires the write lock: the queue is not in swap mode, neither the given FlowFile nor any FlowFile on the active queue is penalized,
+     * and the active queue is below the swap threshold. Threads that put FlowFiles into, and poll FlowFiles from, a connection without
+     * prioritizers then do not exclude one another. Because several threads may check the swap threshold at once, the active queue may
+     * exceed it by up to one FlowFile per thread.
+     *
+     * @param flowFile the FlowFile to add
+     * @return <code>true</code> if the FlowFile was added, <code>false</code> if it must be added while holding the write lock
+     */
+    private boolean putUnprioritized(final FlowFileRecord flowFile) {
+        readLock.lock();
+        try {
+            if (!(activeQueue instanceof FifoFlowFileQueue fifoQueue) || swapMode || fifoQueue.hasPenalized() || flowFile.isPenalized()
+                || fifoQueue.size() >= swapThreshold) {
+                return false;
+            }
+
+            incrementActiveQueueSize(1, flowFile.getSize());
+            fifoQueue.offerUnpenalized(flowFile);
+            logger.trace("{} put to {}", flowFile, this);
+            return true;
+        } finally {
+            readLock.unlock("put(FlowFileRecord)");
+        }
+    }
+
+    /**
+     * Polls a FlowFile from the active queue while holding only the read lock, if no prioritizers are configured, no FlowFile on the active
+     * queue is penalized, and there is no swap file to swap in or prefetch. Expired FlowFiles are added to the given set, as they are by
+     * {@link #doPoll(Set, long, PollStrategy)}. Because the head of the queue is never penalized under these conditions, the top penalty
+     * expiration does not need to be updated.
+     *
+     * @return the FlowFile that was polled, or <code>null</code> if no FlowFile could be polled. If no expired FlowFiles were added to the
+     *         given set either, a FlowFile must be polled while holding the write lock
+     */
+    private FlowFileRecord pollUnprioritized(final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
+        readLock.lock();
+        try {
+            if (!(activeQueue instanceof FifoFlowFileQueue fifoQueue) || fifoQueue.hasPenalized() || !swapLocations.isEmpty()) {
+                return null;
+            }
+
+            FlowFileRecord flowFile;
+            int expiredCount = 0;
+            long expiredBytes = 0L;
+            while ((flowFile = fifoQueue.pollUnpenalized()) != null && isExpired(flowFile, expirationMillis)) {
+                expiredRecords.add(flowFile);
+                expiredCount++;
+                expiredBytes += flowFile.getSize();
+                flowFile = null;
+
+                if (expiredRecords.size() >= MAX_EXPIRED_RECORDS_PER_ITERATION) {
+                    break;
+                }
+            }
+
+            if (expiredCount > 0) {
+                incrementActiveQueueSize(-expiredCount, -expiredBytes);
+            }
+
+            if (flowFile != null) {
+                logger.trace("{} poll() returning {}", this, flowFile);
+                unacknowledge(1, flowFile.getSize());
+            }
+
+            return flowFile;
+        } finally {
+            readLock.unlock("poll(Set)");
+        }
+    }
+
     private FlowFileRecord doPoll(final Set<FlowFileRecord> expiredRecords, final long expirationMillis, final PollStrategy pollStrategy) {
         FlowFileRecord flowFile;
         boolean isExpired;
@@ -642,8 +834,8 @@ public class SwappablePriorityQueue {
                     result = filter.filter(flowFile);
                 } catch (final Throwable t) {
                     unselected.add(flowFile);
-                    activeQueue.addAll(unselected);
-                    activeQueue.addAll(selectedFlowFiles);
+                    returnToActiveQueue(unselected);
+                    returnToActiveQueue(selectedFlowFiles);
                     throw t;
                 }
 
@@ -661,7 +853,7 @@ public class SwappablePriorityQueue {
                 }
             }
 
-            this.activeQueue.addAll(unselected);
+            returnToActiveQueue(unselected);
 
             unacknowledge(flowFilesPulled, bytesPulled);
 
@@ -740,6 +932,10 @@ public class SwappablePriorityQueue {
     private long drainQueue(final Queue<FlowFileRecord> sourceQueue, final List<FlowFileRecord> destination,
                             int maxResults, final Set<FlowFileRecord> expiredRecords, final long expirationMillis,
                             final PollStrategy pollStrategy) {
+        if (sourceQueue instanceof PriorityQueue<FlowFileRecord> priorityQueue && priorityQueue.size() > 1 && maxResults - destination.size() >= priorityQueue.size()) {
+            return drainAll(priorityQueue, destination, expiredRecords, expirationMillis, pollStrategy);
+        }
+
         long drainedSize = 0L;
         FlowFileRecord pulled;
 
@@ -755,13 +951,68 @@ public class SwappablePriorityQueue {
                     break;
                 }
                 destination.add(pulled);
+                drainedSize += pulled.getSize();
             }
-            drainedSize += pulled.getSize();
         }
         return drainedSize;
     }
 
 
+    /**
+     * Drains the entire given queue with a single sort rather than polling each FlowFile individually. Each poll from the heap requires
+     * O(log n) comparisons with poor memory locality, whereas sorting a snapshot is considerably cheaper, and close to linear when the
+     * FlowFiles were just swapped in, because swap files are written in priority order. The same expiration and penalization
+     * rules are applied as when polling one FlowFile at a time.
+     *
+     * This method MUST be called with the write lock held.
+     */
+    private long drainAll(final PriorityQueue<FlowFileRecord> sourceQueue, final List<FlowFileRecord> destination, final Set<FlowFileRecord> expiredRecords,
+                          final long expirationMillis, final PollStrategy pollStrategy) {
+        // The heap's comparator determines whether FlowFiles are penalized as of the time of each comparison. A penalty that expires during
+        // the sort would make the ordering inconsistent, so the FlowFiles are sorted as of a single point in time instead.
+        final FlowFileRecord[] sorted = sourceQueue.toArray(new FlowFileRecord[0]);
+        Arrays.sort(sorted, getSortComparator(sourceQueue.comparator()));
+        sourceQueue.clear();
+
+        long drainedSize = 0L;
+        int index = 0;
+        while (index < sorted.length) {
+            final FlowFileRecord pulled = sorted[index];
+
+            if (isExpired(pulled, expirationMillis)) {
+                expiredRecords.add(pulled);
+                index++;
+                if (expiredRecords.size() >= MAX_EXPIRED_RECORDS_PER_ITERATION) {
+                    break;
+                }
+            } else {
+                if (pulled.isPenalized() && pollStrategy == PollStrategy.UNPENALIZED_FLOWFILES) {
+                    // Penalized FlowFiles are sorted after all others, so all remaining FlowFiles are penalized as well
+                    break;
+                }
+
+                destination.add(pulled);
+                drainedSize += pulled.getSize();
+                index++;
+            }
+        }
+
+        // Return whatever was not drained. These are still in priority order, so they are added to the heap without re-ordering.
+        for (int i = index; i < sorted.length; i++) {
+            sourceQueue.add(sorted[i]);
+        }
+
+        return drainedSize;
+    }
+
+    private static Comparator<? super FlowFileRecord> getSortComparator(final Comparator<? super FlowFileRecord> queueComparator) {
+        if (queueComparator instanceof QueuePrioritizer queuePrioritizer) {
+            return queuePrioritizer.asOf(System.currentTimeMillis());
+        }
+
+        return queueComparator;
+    }
+
     public FlowFileRecord getFlowFile(final String flowFileUuid) {
         if (flowFileUuid == null) {
             return null;
@@ -540,6 +540,11 @@ public class SocketLoadBalancedFlowFileQueue extends AbstractFlowFileQueue imple
         swapManager.purge();
     }
 
+    @Override
+    public void shutdown() {
+        swapManager.shutdown();
+    }
+
     @Override
     public QueueSize size() {
         return totalSize.get();
@@ -800,6 +805,7 @@ public class SocketLoadBalancedFlowFileQueue extends AbstractFlowFileQueue imple
     @Override
     public void put(final FlowFileRecord flowFile) {
         putAndGetPartition(flowFile);
+        onFlowFilesEnqueued();
     }
 
 
@@ -855,6 +861,7 @@ public class SocketLoadBalancedFlowFileQueue extends AbstractFlowFileQueue imple
                 // size has been updated to account for them and therefore we will not attempt to assign a negative queue size.
                 adjustSize(flowFiles.size(), flowFiles.stream().mapToLong(FlowFileRecord::getSize).sum());
                 localPartition.putAll(flowFiles);
+                onFlowFilesEnqueued();
             }
         } finally {
             partitionReadLock.unlock();
@@ -864,6 +871,7 @@ public class SocketLoadBalancedFlowFileQueue extends AbstractFlowFileQueue imple
     @Override
     public void putAll(final Collection<FlowFileRecord> flowFiles) {
         putAllAndGetPartitions(flowFiles);
+        onFlowFilesEnqueued();
     }
 
     protected Map<QueuePartition, List<FlowFileRecord>> putAllAndGetPartitions(final Collection<FlowFileRecord> flowFiles) {
@@ -885,6 +893,40 @@ public class SocketLoadBalancedFlowFileQueue extends AbstractFlowFileQueue imple
         }
     }
 
+    @Override
+    public void requeue(final Collection<FlowFileRecord> flowFiles) {
+        if (flowFiles.isEmpty()) {
+            return;
+        }
+
+        partitionReadLock.lock();
+        try {
+            // As in putAllAndGetPartitions, the size must be adjusted before the FlowFiles are made available to the partitions.
+            final long bytes = flowFiles.stream().mapToLong(FlowFileRecord::getSize).sum();
+            adjustSize(flowFiles.size(), bytes);
+
+            // FlowFiles that still belong to the local partition are placed back at its head. Any others are distributed as new FlowFiles would be.
+            final List<FlowFileRecord> localFlowFiles = new ArrayList<>(flowFiles.size());
+            final List<FlowFileRecord> redistributedFlowFiles = new ArrayList<>();
+            for (final FlowFileRecord flowFile : flowFiles) {
+                if (getPartition(flowFile) == localPartition) {
+                    localFlowFiles.add(flowFile);
+                } else {
+                    redistributedFlowFiles.add(flowFile);
+                }
+            }
+
+            if (!localFlowFiles.isEmpty()) {
+                localPartition.requeue(localFlowFiles);
+            }
+            distributeToPartitionsAndGet(redistributedFlowFiles);
+        } finally {
+            partitionReadLock.unlock();
+        }
+
+        onFlowFilesEnqueued();
+    }
+
     @Override
     public void distributeToPartitions(final Collection<FlowFileRecord> flowFiles) {
         distributeToPartitionsAndGet(flowFiles);
@@ -18,10 +18,22 @@
 package org.apache.nifi.controller.queue.clustered.client;
 
 import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.io.StringDictionaryEncoder;
 
 import java.io.IOException;
 import java.io.OutputStream;
 
 public interface LoadBalanceFlowFileCodec {
     void encode(FlowFileRecord flowFile, OutputStream out) throws IOException;
+
+    /**
+     * Encodes the given FlowFile, writing attribute keys and values with the given dictionary so that a String that has already been
+     * written in the same transaction is written as a reference. This is the encoding used by version 2 of the Load Balance Protocol.
+     *
+     * @param flowFile the FlowFile to encode
+     * @param out the OutputStream to write to
+     * @param dictionary the dictionary that is shared by all FlowFiles in the transaction
+     * @throws IOException if unable to write to the given OutputStream
+     */
+    void encode(FlowFileRecord flowFile, OutputStream out, StringDictionaryEncoder dictionary) throws IOException;
 }
@@ -18,6 +18,7 @@
 package org.apache.nifi.controller.queue.clustered.client;
 
 import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.io.StringDictionaryEncoder;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -42,6 +43,17 @@ public class StandardLoadBalanceFlowFileCodec implements LoadBalanceFlowFileCode
         out.writeLong(flowFile.getPenaltyExpirationMillis());
     }
 
+    @Override
+    public void encode(final FlowFileRecord flowFile, final OutputStream destination, final StringDictionaryEncoder dictionary) throws IOException {
+        final DataOutputStream out = new DataOutputStream(destination);
+
+        dictionary.writeStringMap(flowFile.getAttributes(), out);
+
+        out.writeLong(flowFile.getLineageStartDate());
+        out.writeLong(flowFile.getEntryDate());
+        out.writeLong(flowFile.getPenaltyExpirationMillis());
+    }
+
     private void writeString(final String value, final DataOutputStream out) throws IOException {
         final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
         out.writeInt(bytes.length);
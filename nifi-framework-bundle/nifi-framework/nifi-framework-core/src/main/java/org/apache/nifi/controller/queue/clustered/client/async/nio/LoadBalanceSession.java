@@ -25,6 +25,7 @@ import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolCo
 import org.apache.nifi.controller.queue.clustered.server.TransactionAbortedException;
 import org.apache.nifi.controller.repository.ContentNotFoundException;
 import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.io.StringDictionaryEncoder;
 import org.apache.nifi.remote.StandardVersionNegotiator;
 import org.apache.nifi.remote.VersionNegotiator;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
@@ -43,7 +44,10 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import java.util.function.Supplier;
 import java.util.zip.CRC32;
@@ -53,6 +57,10 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.ABORT_TRANSACTION;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_CONNECTIONS;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_CONNECTIONS;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.PROTOCOL_VERSION_1;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.PROTOCOL_VERSION_2;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.QUEUE_FULL;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.REJECT_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.REQEUST_DIFFERENT_VERSION;
@@ -64,36 +72,64 @@ public class LoadBalanceSession {
     private static final Logger logger = LoggerFactory.getLogger(LoadBalanceSession.class);
     static final int MAX_DATA_FRAME_SIZE = 65535;
 
-    private final RegisteredPartition partition;
-    private final Supplier<FlowFileRecord> flowFileSupplier;
+    private final List<RegisteredPartition> candidatePartitions;
     private final FlowFileContentAccess flowFileContentAccess;
     private final LoadBalanceFlowFileCodec flowFileCodec;
     private final PeerChannel channel;
     private final int timeoutMillis;
     private final String peerDescription;
-    private final String connectionId;
     private final TransactionThreshold transactionThreshold;
 
-    final VersionNegotiator negotiator = new StandardVersionNegotiator(1);
-    private int protocolVersion = 1;
+    final VersionNegotiator negotiator = new StandardVersionNegotiator(PROTOCOL_VERSION_2, PROTOCOL_VERSION_1);
+    private int protocolVersion;
 
     private final Checksum checksum = new CRC32();
+    private final StringDictionaryEncoder attributeDictionary = new StringDictionaryEncoder();
 
     // guarded by synchronizing on 'this'
+    private RegisteredPartition partition;
+    private Supplier<FlowFileRecord> flowFileSupplier;
+    private String connectionId;
+    private final Iterator<RegisteredPartition> additionalPartitions;
+    private final List<RegisteredPartition> transactionPartitions = new ArrayList<>();
+    private int completionResponsesReceived = 0;
+    private boolean protocolVersionNegotiated;
+    private boolean awaitingVersionAcknowledgment = false;
     private ByteBuffer preparedFrame;
     private FlowFileRecord currentFlowFile;
-    private final List<FlowFileRecord> flowFilesSent = new ArrayList<>();
+    private final Map<RegisteredPartition, List<FlowFileRecord>> flowFilesSent = new LinkedHashMap<>();
+    private final Map<RegisteredPartition, List<FlowFileRecord>> flowFilesRejected = new LinkedHashMap<>();
     private TransactionPhase phase = TransactionPhase.RECOMMEND_PROTOCOL_VERSION;
     private InputStream flowFileInputStream;
     private final byte[] byteBuffer = new byte[MAX_DATA_FRAME_SIZE];
     private long readTimeout;
     private volatile LoadBalanceSessionState sessionState = LoadBalanceSessionState.ACTIVE;
 
-    public LoadBalanceSession(final RegisteredPartition partition, final FlowFileContentAccess contentAccess, final LoadBalanceFlowFileCodec flowFileCodec, final PeerChannel peerChannel,
-                              final int timeoutMillis, final TransactionThreshold transactionThreshold) {
-        this.partition = partition;
-        this.flowFileSupplier = partition.getFlowFileRecordSupplier();
-        this.connectionId = partition.getConnectionId();
+    /**
+     * Creates a session that sends the FlowFiles of the given partition and, if the peer uses version 2 or later of the protocol, the FlowFiles of any of the
+     * additional partitions that have data available, all in a single transaction.
+     *
+     * @param partition the partition whose FlowFiles should be sent first
+     * @param additionalPartitions other partitions whose FlowFiles may be sent in the same transaction, in the order in which they should be considered
+     * @param contentAccess provides access to the content of the FlowFiles
+     * @param flowFileCodec the codec used to encode the FlowFiles' attributes
+     * @param peerChannel the channel to communicate over
+     * @param timeoutMillis the amount of time to wait for a response from the peer
+     * @param transactionThreshold determines when the transaction is large enough that no more FlowFiles should be added to it
+     * @param protocolVersion the version of the protocol to recommend to the peer
+     * @param protocolVersionNegotiated whether or not the peer has already accepted the given version on this channel, in which case the session does not
+     * wait for the peer to accept it again before sending FlowFiles
+     */
+    public LoadBalanceSession(final RegisteredPartition partition, final List<RegisteredPartition> additionalPartitions, final FlowFileContentAccess contentAccess,
+                              final LoadBalanceFlowFileCodec flowFileCodec, final PeerChannel peerChannel, final int timeoutMillis, final TransactionThreshold transactionThreshold,
+                              final int protocolVersion, final boolean protocolVersionNegotiated) {
+        setPartition(partition);
+        this.candidatePartitions = new ArrayList<>();
+        this.candidatePartitions.add(partition);
+        this.candidatePartitions.addAll(additionalPartitions);
+        this.additionalPartitions = candidatePartitions.listIterator(1);
+        this.protocolVersion = protocolVersion;
+        this.protocolVersionNegotiated = protocolVersionNegotiated;
         this.flowFileContentAccess = contentAccess;
         this.flowFileCodec = flowFileCodec;
         this.channel = peerChannel;
@@ -106,20 +142,67 @@ public class LoadBalanceSession {
         this.transactionThreshold = transactionThreshold;
     }
 
+    /**
+     * @return the partition that this session was created for; FlowFiles from other partitions may also be sent in the same session
+     */
     public RegisteredPartition getPartition() {
-        return partition;
+        return candidatePartitions.get(0);
+    }
+
+    private void setPartition(final RegisteredPartition partition) {
+        this.partition = partition;
+        this.flowFileSupplier = partition.getFlowFileRecordSupplier();
+        this.connectionId = partition.getConnectionId();
+    }
+
+    /**
+     * @param connectionId the ID of a connection
+     * @return <code>true</code> if this session has sent, or may send, FlowFiles for the connection with the given ID
+     */
+    public boolean isPartitionIncluded(final String connectionId) {
+        for (final RegisteredPartition candidate : candidatePartitions) {
+            if (candidate.getConnectionId().equals(connectionId)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     public synchronized int getDesiredReadinessFlag() {
+        if (awaitingVersionAcknowledgment && phase.getRequiredSelectionKey() == SelectionKey.OP_READ) {
+            return SelectionKey.OP_READ;
+        }
+
         return phase.getRequiredSelectionKey();
     }
 
-    public synchronized List<FlowFileRecord> getAndPurgeFlowFilesSent() {
-        final List<FlowFileRecord> copy = new ArrayList<>(flowFilesSent);
+    /**
+     * @return the version of the protocol that the peer has accepted on this channel, or 0 if no version has been accepted yet
+     */
+    public synchronized int getNegotiatedProtocolVersion() {
+        return protocolVersionNegotiated ? protocolVersion : 0;
+    }
+
+    /**
+     * @return the FlowFiles that have been sent in this session and that have not been rejected by the peer, grouped by the partition that they belong to
+     */
+    public synchronized Map<RegisteredPartition, List<FlowFileRecord>> getAndPurgeFlowFilesSent() {
+        final Map<RegisteredPartition, List<FlowFileRecord>> copy = new LinkedHashMap<>(flowFilesSent);
         flowFilesSent.clear();
         return copy;
     }
 
+    /**
+     * @return the FlowFiles that were sent in this session but that the peer refused to accept when completing the transaction, grouped by the
+     * partition that they belong to
+     */
+    public synchronized Map<RegisteredPartition, List<FlowFileRecord>> getAndPurgeFlowFilesRejected() {
+        final Map<RegisteredPartition, List<FlowFileRecord>> copy = new LinkedHashMap<>(flowFilesRejected);
+        flowFilesRejected.clear();
+        return copy;
+    }
+
     public synchronized LoadBalanceSessionState getSessionState() {
         return sessionState;
     }
@@ -137,6 +220,11 @@ public class LoadBalanceSession {
                 return bytesWritten > 0;
             }
 
+            // If the protocol version was sent without waiting for the peer to accept it, the acknowledgment precedes any other response.
+            if (awaitingVersionAcknowledgment && phase.getRequiredSelectionKey() == SelectionKey.OP_READ) {
+                return receiveDeferredVersionAcknowledgment();
+            }
+
             // Check if the phase is one that needs to receive data and if so, call the appropriate method.
             switch (phase) {
                 case RECEIVE_SPACE_RESPONSE:
@@ -189,6 +277,10 @@ public class LoadBalanceSession {
             throw new EOFException("Confirmed checksum when writing data to Peer " + peerDescription + " but encountered End-of-File when expecting a Transaction Complete confirmation");
         }
 
+        if (protocolVersion >= PROTOCOL_VERSION_2) {
+            return confirmConnectionComplete(response);
+        }
+
         if (response == ABORT_TRANSACTION) {
             throw new TransactionAbortedException("Confirmed checksum when writing data to Peer " + peerDescription + " but Peer aborted transaction instead of completing it");
         }
@@ -197,11 +289,49 @@ public class LoadBalanceSession {
         }
 
         sessionState = LoadBalanceSessionState.COMPLETED_SUCCESSFULLY;
-        logger.debug("Successfully completed Transaction to send {} FlowFiles to Peer {} for Connection {}", flowFilesSent.size(), peerDescription, connectionId);
+        logger.debug("Successfully completed Transaction to send {} FlowFiles to Peer {} for Connection {}", getFlowFilesSentCount(), peerDescription, connectionId);
 
         return true;
     }
 
+    /**
+     * With version 2 of the protocol, the peer responds to the completion of the transaction once for each connection in the transaction, in the order in which
+     * the connections were sent, so that FlowFiles for one connection can be rejected while those for other connections are accepted.
+     */
+    private boolean confirmConnectionComplete(final int response) throws IOException {
+        final RegisteredPartition respondingPartition = transactionPartitions.get(completionResponsesReceived++);
+
+        if (response == ABORT_TRANSACTION) {
+            logger.debug("Peer {} aborted the transfer of FlowFiles for Connection {}", peerDescription, respondingPartition.getConnectionId());
+            final List<FlowFileRecord> rejected = flowFilesSent.remove(respondingPartition);
+            if (rejected != null) {
+                flowFilesRejected.put(respondingPartition, rejected);
+            }
+        } else if (response != CONFIRM_COMPLETE_TRANSACTION) {
+            throw new IOException("Expected a CONFIRM_COMPLETE_TRANSACTION response from Peer " + peerDescription + " for Connection " + respondingPartition.getConnectionId()
+                + " but received a value of " + response);
+        }
+
+        if (completionResponsesReceived < transactionPartitions.size()) {
+            readTimeout = System.currentTimeMillis() + timeoutMillis;
+            return true;
+        }
+
+        sessionState = LoadBalanceSessionState.COMPLETED_SUCCESSFULLY;
+        logger.debug("Successfully completed Transaction to send {} FlowFiles for {} Connections to Peer {}", getFlowFilesSentCount(), transactionPartitions.size(), peerDescription);
+
+        return true;
+    }
+
+    private int getFlowFilesSentCount() {
+        int count = 0;
+        for (final List<FlowFileRecord> flowFiles : flowFilesSent.values()) {
+            count += flowFiles.size();
+        }
+
+        return count;
+    }
+
 
     private boolean verifyChecksum() throws IOException {
         logger.debug("Verifying Checksum for Peer {}", peerDescription);
@@ -228,8 +358,15 @@ public class LoadBalanceSession {
                     + ". Aborting transaction.");
         }
 
-        logger.debug("Checksum confirmed. Writing COMPLETE_TRANSACTION flag");
-        phase = TransactionPhase.SEND_TRANSACTION_COMPLETE;
+        if (protocolVersion >= PROTOCOL_VERSION_2) {
+            // The COMPLETE_TRANSACTION flag was sent along with the checksum
+            logger.debug("Checksum confirmed. Awaiting Transaction Complete confirmation");
+            readTimeout = System.currentTimeMillis() + timeoutMillis;
+            phase = TransactionPhase.CONFIRM_TRANSACTION_COMPLETE;
+        } else {
+            logger.debug("Checksum confirmed. Writing COMPLETE_TRANSACTION flag");
+            phase = TransactionPhase.SEND_TRANSACTION_COMPLETE;
+        }
 
         return true;
     }
@@ -243,6 +380,7 @@ public class LoadBalanceSession {
             case SEND_CONNECTION_ID -> getConnectionId();
             case CHECK_SPACE -> checkSpace();
             case GET_NEXT_FLOWFILE -> getNextFlowFile();
+            case SEND_NEXT_CONNECTION_INDICATOR -> getNextConnectionIndicator();
             case SEND_FLOWFILE_DEFINITION, SEND_FLOWFILE_CONTENTS -> getFlowFileContent();
             case SEND_CHECKSUM -> getChecksum();
             case SEND_TRANSACTION_COMPLETE -> getTransactionComplete();
@@ -269,9 +407,14 @@ public class LoadBalanceSession {
     private ByteBuffer getChecksum() {
         logger.debug("Sending Checksum of {} to Peer {}", checksum.getValue(), peerDescription);
 
-        // No more FlowFiles.
-        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        // No more FlowFiles. With version 2 of the protocol, the Transaction Complete indicator is sent immediately after the checksum instead of
+        // waiting for the peer to confirm the checksum first. If the peer rejects the checksum, it aborts the transaction without reading the indicator.
+        final boolean sendTransactionComplete = protocolVersion >= PROTOCOL_VERSION_2;
+        final ByteBuffer buffer = ByteBuffer.allocate(sendTransactionComplete ? 9 : 8);
         buffer.putLong(checksum.getValue());
+        if (sendTransactionComplete) {
+            buffer.put((byte) LoadBalanceProtocolConstants.COMPLETE_TRANSACTION);
+        }
 
         readTimeout = System.currentTimeMillis() + timeoutMillis;
         phase = TransactionPhase.VERIFY_CHECKSUM;
@@ -360,13 +503,13 @@ public class LoadBalanceSession {
         }
 
         if (currentFlowFile == null) {
-            phase = TransactionPhase.SEND_CHECKSUM;
+            phase = protocolVersion >= PROTOCOL_VERSION_2 ? TransactionPhase.SEND_NEXT_CONNECTION_INDICATOR : TransactionPhase.SEND_CHECKSUM;
             return noMoreFlowFiles();
         }
 
         transactionThreshold.adjust(1, currentFlowFile.getSize());
         logger.debug("Next FlowFile to send to Peer {} is {}", peerDescription, currentFlowFile);
-        flowFilesSent.add(currentFlowFile);
+        flowFilesSent.computeIfAbsent(partition, key -> new ArrayList<>()).add(currentFlowFile);
 
         final LoadBalanceCompression compression = partition.getCompression();
         final boolean compressAttributes = compression != LoadBalanceCompression.DO_NOT_COMPRESS;
@@ -378,10 +521,10 @@ public class LoadBalanceSession {
                 try (final OutputStream gzipOut = new GZIPOutputStream(baos, 1);
                      final ByteCountingOutputStream out = new ByteCountingOutputStream(gzipOut)) {
 
-                    flowFileCodec.encode(currentFlowFile, out);
+                    encodeFlowFile(out);
                 }
             } else {
-                flowFileCodec.encode(currentFlowFile, baos);
+                encodeFlowFile(baos);
             }
 
             flowFileEncoded = baos.toByteArray();
@@ -407,6 +550,48 @@ public class LoadBalanceSession {
     }
 
 
+    private void encodeFlowFile(final OutputStream out) throws IOException {
+        if (protocolVersion >= PROTOCOL_VERSION_2) {
+            flowFileCodec.encode(currentFlowFile, out, attributeDictionary);
+        } else {
+            flowFileCodec.encode(currentFlowFile, out);
+        }
+    }
+
+    private ByteBuffer getNextConnectionIndicator() {
+        final RegisteredPartition nextPartition = transactionThreshold.isThresholdMet() ? null : getNextAdditionalPartition();
+
+        final int indicator;
+        if (nextPartition == null) {
+            logger.debug("No more Connections with data to send to Peer {} in this Transaction; Transitioning phase to SEND_CHECKSUM", peerDescription);
+            indicator = NO_MORE_CONNECTIONS;
+            phase = TransactionPhase.SEND_CHECKSUM;
+        } else {
+            logger.debug("Will send FlowFiles for Connection {} to Peer {} in the same Transaction", nextPartition.getConnectionId(), peerDescription);
+            indicator = MORE_CONNECTIONS;
+            setPartition(nextPartition);
+            phase = TransactionPhase.SEND_CONNECTION_ID;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        buffer.put((byte) indicator);
+        buffer.rewind();
+
+        checksum.update(indicator);
+        return buffer;
+    }
+
+    private RegisteredPartition getNextAdditionalPartition() {
+        while (additionalPartitions.hasNext()) {
+            final RegisteredPartition candidate = additionalPartitions.next();
+            if (!candidate.isEmpty() && !candidate.isPenalized()) {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
     private ByteBuffer recommendProtocolVersion() {
         logger.debug("Recommending to Peer {} that Protocol Version {} be used", peerDescription, protocolVersion);
 
@@ -415,10 +600,41 @@ public class LoadBalanceSession {
         buffer.rewind();
 
         readTimeout = System.currentTimeMillis() + timeoutMillis;
-        phase = TransactionPhase.RECEIVE_PROTOCOL_VERSION_ACKNOWLEDGMENT;
+        if (protocolVersionNegotiated) {
+            // The peer has already accepted this version on this channel, so there is no need to wait for it to do so again before sending data.
+            // The acknowledgment is consumed before the next response that we need to read.
+            awaitingVersionAcknowledgment = true;
+            phase = TransactionPhase.SEND_CONNECTION_ID;
+        } else {
+            phase = TransactionPhase.RECEIVE_PROTOCOL_VERSION_ACKNOWLEDGMENT;
+        }
+
         return buffer;
     }
 
+    private boolean receiveDeferredVersionAcknowledgment() throws IOException {
+        final OptionalInt ackResponse = channel.read();
+        if (!ackResponse.isPresent()) {
+            if (System.currentTimeMillis() > readTimeout) {
+                throw new SocketTimeoutException("Timed out waiting for Peer " + peerDescription + " to acknowledge Protocol Version");
+            }
+
+            return false;
+        }
+
+        final int response = ackResponse.getAsInt();
+        if (response < 0) {
+            throw new EOFException("Encounter End-of-File with Peer " + peerDescription + " when expecting a Protocol Version Acknowledgment");
+        }
+        if (response != VERSION_ACCEPTED) {
+            throw new IOException("Peer " + peerDescription + " previously accepted Protocol Version " + protocolVersion + " but responded with " + response
+                + " instead of accepting it for a subsequent Transaction");
+        }
+
+        awaitingVersionAcknowledgment = false;
+        return true;
+    }
+
     private boolean receiveProtocolVersionAcknowledgment() throws IOException {
         logger.debug("Confirming Protocol Version for Peer {}", peerDescription);
 
@@ -438,6 +654,7 @@ public class LoadBalanceSession {
 
         if (response == VERSION_ACCEPTED) {
             logger.debug("Peer {} accepted Protocol Version {}", peerDescription, protocolVersion);
+            protocolVersionNegotiated = true;
             phase = TransactionPhase.SEND_CONNECTION_ID;
             return true;
         }
@@ -471,8 +688,9 @@ public class LoadBalanceSession {
         }
 
         if (negotiator.isVersionSupported(requestedVersion)) {
+            // The peer expects another recommendation after requesting a different version, so recommend the version that it requested.
             protocolVersion = requestedVersion;
-            phase = TransactionPhase.SEND_CONNECTION_ID;
+            phase = TransactionPhase.RECOMMEND_PROTOCOL_VERSION;
             logger.debug("Peer {} recommended Protocol Version of {}. Accepting version.", peerDescription, requestedVersion);
         } else {
             final Integer preferred = negotiator.getPreferredVersion(requestedVersion);
@@ -517,6 +735,7 @@ public class LoadBalanceSession {
         final byte[] frameBytes = buffer.array();
         checksum.update(frameBytes, 0, frameBytes.length);
 
+        transactionPartitions.add(partition);
         phase = TransactionPhase.CHECK_SPACE;
         return buffer;
     }
@@ -564,6 +783,11 @@ public class LoadBalanceSession {
         if (response == SPACE_AVAILABLE) {
             logger.debug("Peer {} has confirmed that space is available in Connection {}", peerDescription, connectionId);
             phase = TransactionPhase.GET_NEXT_FLOWFILE;
+        } else if (response == QUEUE_FULL && protocolVersion >= PROTOCOL_VERSION_2) {
+            // Other connections may still have space available, so continue the transaction without sending any FlowFiles for this one.
+            logger.debug("Peer {} has confirmed that the queue is full for Connection {}", peerDescription, connectionId);
+            partition.penalize(1000L);
+            phase = TransactionPhase.SEND_NEXT_CONNECTION_INDICATOR;
         } else if (response == QUEUE_FULL) {
             logger.debug("Peer {} has confirmed that the queue is full for Connection {}", peerDescription, connectionId);
             phase = TransactionPhase.RECOMMEND_PROTOCOL_VERSION;
@@ -603,6 +827,8 @@ public class LoadBalanceSession {
 
         GET_NEXT_FLOWFILE(SelectionKey.OP_WRITE),
 
+        SEND_NEXT_CONNECTION_INDICATOR(SelectionKey.OP_WRITE),
+
         SEND_CHECKSUM(SelectionKey.OP_WRITE),
 
         VERIFY_CHECKSUM(SelectionKey.OP_READ),
@@ -29,6 +29,8 @@ import org.apache.nifi.controller.queue.clustered.client.LoadBalanceFlowFileCode
 import org.apache.nifi.controller.queue.clustered.client.async.AsyncLoadBalanceClient;
 import org.apache.nifi.controller.queue.clustered.client.async.TransactionCompleteCallback;
 import org.apache.nifi.controller.queue.clustered.client.async.TransactionFailureCallback;
+import org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants;
+import org.apache.nifi.controller.queue.clustered.server.TransactionAbortedException;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.reporting.Severity;
@@ -57,6 +59,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 
 public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
@@ -89,6 +92,7 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
     // I.e., we need to use the capability of Lock#tryLock, and the synchronized keyword does not offer this sort of functionality.
     private final Lock loadBalanceSessionLock = new ReentrantLock();
     private LoadBalanceSession loadBalanceSession = null;
+    private int negotiatedProtocolVersion = 0; // guarded by synchronizing on this; 0 until the peer accepts a version on the current channel
 
 
     public NioAsyncLoadBalanceClient(final NodeIdentifier nodeIdentifier, final SSLContext sslContext, final int timeoutMillis, final FlowFileContentAccess flowFileContentAccess,
@@ -131,15 +135,19 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
         }
 
         logger.debug("{} Unregistered Connection with ID {}. Will fail any in-flight FlowFiles for Registered Partition {}", this, connectionId, removedPartition);
-        final boolean validSession = loadBalanceSession != null && connectionId.equals(loadBalanceSession.getPartition().getConnectionId());
+        final boolean validSession = loadBalanceSession != null && loadBalanceSession.isPartitionIncluded(connectionId);
         if (validSession && !loadBalanceSession.getSessionState().isComplete()) {
-            // Attempt to cancel the session. If successful, trigger the failure callback for the partition.
+            // Attempt to cancel the session. If successful, trigger the failure callback for each partition whose FlowFiles were sent in the session.
             // If not successful, it indicates that another thread has completed the session and is responsible or the transaction success/failure
             if (loadBalanceSession.cancel()) {
-                final List<FlowFileRecord> flowFilesSent = loadBalanceSession.getAndPurgeFlowFilesSent();
+                for (final Map.Entry<RegisteredPartition, List<FlowFileRecord>> entry : loadBalanceSession.getAndPurgeFlowFilesSent().entrySet()) {
+                    final RegisteredPartition partition = entry.getKey();
+                    final List<FlowFileRecord> flowFilesSent = entry.getValue();
 
-                logger.debug("{} Triggering failure callback for {} FlowFiles for Registered Partition {} because partition was unregistered", this, flowFilesSent.size(), removedPartition);
-                removedPartition.getFailureCallback().onTransactionFailed(flowFilesSent, TransactionFailureCallback.TransactionPhase.SENDING);
+                    logger.debug("{} Triggering failure callback for {} FlowFiles for Registered Partition {} because partition {} was unregistered", this, flowFilesSent.size(), partition,
+                        removedPartition);
+                    partition.getFailureCallback().onTransactionFailed(flowFilesSent, TransactionFailureCallback.TransactionPhase.SENDING);
+                }
             }
         }
     }
@@ -185,6 +193,7 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
 
         channel = null;
         selector = null;
+        negotiatedProtocolVersion = 0;
     }
 
     @Override
@@ -272,11 +281,19 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
                     success = loadBalanceSession.communicate();
                 } catch (final Exception e) {
                     logger.error("Failed to communicate with Peer {}", nodeIdentifier, e);
+                    final Map<RegisteredPartition, List<FlowFileRecord>> flowFilesSent = loadBalanceSession.getAndPurgeFlowFilesSent();
+                    final String connectionIds = flowFilesSent.isEmpty() ? loadBalanceSession.getPartition().getConnectionId() : flowFilesSent.keySet().stream()
+                        .map(RegisteredPartition::getConnectionId)
+                        .collect(Collectors.joining(", "));
                     eventReporter.reportEvent(Severity.ERROR, "Load Balanced Connection", "Failed to communicate with Peer " + nodeIdentifier + " when load balancing data for Connection with ID " +
-                        loadBalanceSession.getPartition().getConnectionId() + " due to " + e);
+                        connectionIds + " due to " + e);
 
                     penalize();
-                    loadBalanceSession.getPartition().getFailureCallback().onTransactionFailed(loadBalanceSession.getAndPurgeFlowFilesSent(), e, TransactionFailureCallback.TransactionPhase.SENDING);
+                    if (flowFilesSent.isEmpty()) {
+                        loadBalanceSession.getPartition().getFailureCallback().onTransactionFailed(Collections.emptyList(), e, TransactionFailureCallback.TransactionPhase.SENDING);
+                    } else {
+                        flowFilesSent.forEach((partition, flowFiles) -> partition.getFailureCallback().onTransactionFailed(flowFiles, e, TransactionFailureCallback.TransactionPhase.SENDING));
+                    }
                     close();
 
                     return false;
@@ -285,9 +302,21 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
                 anySuccess = anySuccess || success;
             } while (success);
 
+            setNegotiatedProtocolVersion(loadBalanceSession.getNegotiatedProtocolVersion());
+
             final LoadBalanceSession.LoadBalanceSessionState sessionState = loadBalanceSession.getSessionState();
             if (sessionState.isComplete() && sessionState != LoadBalanceSession.LoadBalanceSessionState.CANCELED) {
-                loadBalanceSession.getPartition().getSuccessCallback().onTransactionComplete(loadBalanceSession.getAndPurgeFlowFilesSent(), nodeIdentifier);
+                final Map<RegisteredPartition, List<FlowFileRecord>> flowFilesSent = loadBalanceSession.getAndPurgeFlowFilesSent();
+                if (flowFilesSent.isEmpty()) {
+                    loadBalanceSession.getPartition().getSuccessCallback().onTransactionComplete(Collections.emptyList(), nodeIdentifier);
+                } else {
+                    flowFilesSent.forEach((partition, flowFiles) -> partition.getSuccessCallback().onTransactionComplete(flowFiles, nodeIdentifier));
+                }
+
+                final Map<RegisteredPartition, List<FlowFileRecord>> flowFilesRejected = loadBalanceSession.getAndPurgeFlowFilesRejected();
+                flowFilesRejected.forEach((partition, flowFiles) -> partition.getFailureCallback().onTransactionFailed(flowFiles,
+                    new TransactionAbortedException("Peer " + nodeIdentifier + " aborted the transfer of FlowFiles for Connection " + partition.getConnectionId()),
+                    TransactionFailureCallback.TransactionPhase.SENDING));
             }
 
             return anySuccess;
@@ -321,11 +350,12 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
                 loadBalanceSession = null;
 
                 logger.debug("Node {} disconnected so will terminate the Load Balancing Session", nodeIdentifier);
-                final List<FlowFileRecord> flowFilesSent = session.getAndPurgeFlowFilesSent();
-
-                if (!flowFilesSent.isEmpty()) {
-                    session.getPartition().getFailureCallback().onTransactionFailed(flowFilesSent, TransactionFailureCallback.TransactionPhase.SENDING);
-                }
+                final Map<RegisteredPartition, List<FlowFileRecord>> flowFilesSent = session.getAndPurgeFlowFilesSent();
+                flowFilesSent.forEach((partition, flowFiles) -> {
+                    if (!flowFiles.isEmpty()) {
+                        partition.getFailureCallback().onTransactionFailed(flowFiles, TransactionFailureCallback.TransactionPhase.SENDING);
+                    }
+                });
 
                 close();
                 penalize();
@@ -420,12 +450,26 @@ public class NioAsyncLoadBalanceClient implements AsyncLoadBalanceClient {
             return null;
         }
 
-        loadBalanceSession = new LoadBalanceSession(readyPartition, flowFileContentAccess, flowFileCodec, channel, timeoutMillis, newTransactionThreshold());
+        // Other partitions may be included in the same transaction if the peer supports it. They are considered in the order in which they would otherwise be
+        // polled so that no partition is starved.
+        final List<RegisteredPartition> additionalPartitions = new ArrayList<>(partitionQueue);
+        additionalPartitions.remove(readyPartition);
+
+        final boolean versionNegotiated = negotiatedProtocolVersion > 0;
+        final int protocolVersion = versionNegotiated ? negotiatedProtocolVersion : LoadBalanceProtocolConstants.PROTOCOL_VERSION_2;
+        loadBalanceSession = new LoadBalanceSession(readyPartition, additionalPartitions, flowFileContentAccess, flowFileCodec, channel, timeoutMillis, newTransactionThreshold(),
+            protocolVersion, versionNegotiated);
         partitionQueue.offer(readyPartition);
 
         return loadBalanceSession;
     }
 
+    private synchronized void setNegotiatedProtocolVersion(final int protocolVersion) {
+        if (protocolVersion > 0 && channel != null) {
+            negotiatedProtocolVersion = protocolVersion;
+        }
+    }
+
     private TransactionThreshold newTransactionThreshold() {
          return new SimpleLimitThreshold(1000, 10_000_000L);
     }
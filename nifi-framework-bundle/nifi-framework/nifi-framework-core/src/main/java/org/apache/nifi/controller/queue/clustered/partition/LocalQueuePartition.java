@@ -96,6 +96,12 @@ public interface LocalQueuePartition extends QueuePartition {
      */
     void acknowledge(Collection<FlowFileRecord> flowFiles);
 
+    /**
+     * Places FlowFiles that were previously polled from this partition back into it, ahead of the FlowFiles that were queued after them
+     * @param flowFiles the FlowFiles to requeue
+     */
+    void requeue(Collection<FlowFileRecord> flowFiles);
+
     /**
      * Returns the FlowFile with the given UUID, or <code>null</code> if the FlowFile with that UUID is not found in the partition
      *
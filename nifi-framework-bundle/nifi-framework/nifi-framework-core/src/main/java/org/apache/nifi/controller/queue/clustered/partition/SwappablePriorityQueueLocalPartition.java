@@ -98,6 +98,11 @@ public class SwappablePriorityQueueLocalPartition implements LocalQueuePartition
         priorityQueue.putAll(flowFiles);
     }
 
+    @Override
+    public void requeue(final Collection<FlowFileRecord> flowFiles) {
+        priorityQueue.requeue(flowFiles);
+    }
+
     @Override
     public boolean isActiveQueueEmpty() {
         return priorityQueue.isActiveQueueEmpty();
@@ -18,6 +18,16 @@
 package org.apache.nifi.controller.queue.clustered.protocol;
 
 public class LoadBalanceProtocolConstants {
+    // Protocol versions
+    public static final int PROTOCOL_VERSION_1 = 1;
+    /**
+     * Version 2 batches the FlowFiles of multiple connections into a single transaction, writes attribute keys and values using a
+     * dictionary that spans the transaction, and allows the client to send the checksum and the completion indicator together.
+     * The peer responds to the completion indicator once for each connection in the transaction. Transactions are not pipelined:
+     * the client waits for those responses before it begins the next transaction on the channel.
+     */
+    public static final int PROTOCOL_VERSION_2 = 2;
+
     // Protocol negotiation constants
     public static final int VERSION_ACCEPTED = 0x10;
     public static final int REQEUST_DIFFERENT_VERSION = 0x11;
@@ -34,6 +44,10 @@ public class LoadBalanceProtocolConstants {
     public static final int MORE_FLOWFILES = 0x31;
     public static final int NO_MORE_FLOWFILES = 0x32;
 
+    // Connection constants (Protocol Version 2+)
+    public static final int MORE_CONNECTIONS = 0x51;
+    public static final int NO_MORE_CONNECTIONS = 0x52;
+
     // Backpressure / Space constants
     public static final int CHECK_SPACE = 0x61;
     public static final int SKIP_SPACE_CHECK = 0x62;
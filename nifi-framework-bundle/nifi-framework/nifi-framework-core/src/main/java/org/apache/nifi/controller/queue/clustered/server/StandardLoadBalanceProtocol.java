@@ -32,6 +32,7 @@ import org.apache.nifi.controller.repository.StandardRepositoryRecord;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.io.LimitedInputStream;
+import org.apache.nifi.controller.repository.io.StringDictionaryDecoder;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.provenance.ProvenanceEventBuilder;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
@@ -75,9 +76,13 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_CONNECTIONS;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_FLOWFILES;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_DATA_FRAME;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_CONNECTIONS;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_FLOWFILES;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.PROTOCOL_VERSION_1;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.PROTOCOL_VERSION_2;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.QUEUE_FULL;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.REJECT_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.REQEUST_DIFFERENT_VERSION;
@@ -138,7 +143,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
 
 
     protected int negotiateProtocolVersion(final InputStream in, final OutputStream out, final String peerDescription, final String channelDescription) throws IOException {
-        final VersionNegotiator negotiator = new StandardVersionNegotiator(1);
+        final VersionNegotiator negotiator = new StandardVersionNegotiator(PROTOCOL_VERSION_2, PROTOCOL_VERSION_1);
 
         for (int i = 0;; i++) {
             final int requestedVersion;
@@ -189,6 +194,11 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
 
 
     protected void receiveFlowFiles(final InputStream in, final OutputStream out, final String peerDescription, final int protocolVersion) throws IOException {
+        if (protocolVersion >= PROTOCOL_VERSION_2) {
+            receiveBatchedFlowFiles(in, out, peerDescription, protocolVersion);
+            return;
+        }
+
         logger.debug("Receiving FlowFiles from {}", peerDescription);
         final long startTimestamp = System.currentTimeMillis();
 
@@ -202,42 +212,12 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
             return;
         }
 
-        final Connection connection = flowController.getFlowManager().getConnection(connectionId);
-        if (connection == null) {
-            logger.error("Attempted to receive FlowFiles from Peer {} for Connection with ID {} but no connection exists with that ID", peerDescription, connectionId);
-            throw new TransactionAbortedException("Attempted to receive FlowFiles from Peer " + peerDescription + " for Connection with ID " + connectionId + " but no Connection exists with that ID");
-        }
-
-        final FlowFileQueue flowFileQueue = connection.getFlowFileQueue();
-        if (!(flowFileQueue instanceof LoadBalancedFlowFileQueue)) {
-            throw new TransactionAbortedException("Attempted to receive FlowFiles from Peer " + peerDescription + " for Connection with ID " + connectionId + " but the Connection with that ID is " +
-                    "not configured to allow for Load Balancing");
-        }
-
-        final LoadBalancedFlowFileQueue loadBalancedFlowFileQueue = (LoadBalancedFlowFileQueue) flowFileQueue;
-
-        final int spaceCheck = dataIn.read();
-        if (spaceCheck < 0) {
-            throw new EOFException("Expected to receive a request to determine whether or not space was available for Connection with ID " + connectionId + " from Peer " + peerDescription);
+        final LoadBalancedFlowFileQueue flowFileQueue = getLoadBalancedFlowFileQueue(connectionId, peerDescription);
+        if (!isSpaceAvailable(dataIn, out, flowFileQueue, connectionId, peerDescription)) {
+            return; // we're finished receiving flowfiles for now, and we'll restart the communication process.
         }
 
-        if (spaceCheck == CHECK_SPACE) {
-            if (loadBalancedFlowFileQueue.isLocalPartitionFull()) {
-                logger.debug("Received a 'Check Space' request from Peer {} for Connection with ID {}; responding with QUEUE_FULL", peerDescription, connectionId);
-                out.write(QUEUE_FULL);
-                out.flush();
-                return; // we're finished receiving flowfiles for now, and we'll restart the communication process.
-            } else {
-                logger.debug("Received a 'Check Space' request from Peer {} for Connection with ID {}; responding with SPACE_AVAILABLE", peerDescription, connectionId);
-                out.write(SPACE_AVAILABLE);
-                out.flush();
-            }
-        } else if (spaceCheck != SKIP_SPACE_CHECK) {
-            throw new TransactionAbortedException("Expected to receive a request to determine whether or not space was available for Connection with ID "
-                + connectionId + " from Peer " + peerDescription + " but instead received value " + spaceCheck);
-        }
-
-        final LoadBalanceCompression compression = connection.getFlowFileQueue().getLoadBalanceCompression();
+        final LoadBalanceCompression compression = flowFileQueue.getLoadBalanceCompression();
         logger.debug("Receiving FlowFiles from Peer {} for Connection {}; Compression = {}", peerDescription, connectionId, compression);
 
         ContentClaim contentClaim = null;
@@ -253,7 +233,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
                         contentClaimOut = contentRepository.write(contentClaim);
                     }
 
-                    final RemoteFlowFileRecord flowFile = receiveFlowFile(dataIn, contentClaimOut, contentClaim, claimOffset, protocolVersion, peerDescription, compression);
+                    final RemoteFlowFileRecord flowFile = receiveFlowFile(dataIn, contentClaimOut, contentClaim, claimOffset, protocolVersion, peerDescription, compression, null);
 
                     // The FlowFile's Content Claim will either be null or equal to the provided Content Claim.
                     // Incrementing the FlowFile's content claim will increment the count for the provided Content Claim, if it was
@@ -276,7 +256,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
             final int count = contentRepository.decrementClaimantCount(contentClaim);
 
             verifyChecksum(checksum, in, out, peerDescription, flowFilesReceived.size());
-            completeTransaction(in, out, peerDescription, flowFilesReceived, connectionId, startTimestamp, (LoadBalancedFlowFileQueue) flowFileQueue);
+            completeTransaction(in, out, peerDescription, flowFilesReceived, connectionId, startTimestamp, flowFileQueue);
 
             if (count == 0) {
                 contentRepository.remove(contentClaim);
@@ -296,6 +276,216 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
         logger.debug("Successfully received {} FlowFiles from Peer {} to Load Balance for Connection {}", flowFilesReceived.size(), peerDescription, connectionId);
     }
 
+    /**
+     * Receives FlowFiles using version 2 or later of the protocol, which allows FlowFiles for any number of Connections to be sent in a single transaction.
+     * All FlowFiles are written to the same Content Claim and are persisted to the FlowFile Repository in a single update. Once the transaction completes,
+     * the peer is sent one response per Connection, in the order in which the Connections were received, indicating whether or not the FlowFiles for that
+     * Connection were accepted.
+     */
+    private void receiveBatchedFlowFiles(final InputStream in, final OutputStream out, final String peerDescription, final int protocolVersion) throws IOException {
+        logger.debug("Receiving FlowFiles from {}", peerDescription);
+        final long startTimestamp = System.currentTimeMillis();
+
+        final Checksum checksum = new CRC32();
+        final InputStream checkedInput = new CheckedInputStream(in, checksum);
+
+        final DataInputStream dataIn = new DataInputStream(checkedInput);
+        String connectionId = getConnectionID(dataIn, peerDescription);
+        if (connectionId == null) {
+            logger.debug("Received no Connection ID from Peer {}. Will consider receipt of FlowFiles complete", peerDescription);
+            return;
+        }
+
+        final StringDictionaryDecoder attributeDictionary = new StringDictionaryDecoder();
+        final List<ConnectionTransaction> connectionTransactions = new ArrayList<>();
+        ContentClaim contentClaim = null;
+        OutputStream contentClaimOut = null;
+        long claimOffset = 0L;
+        int flowFileCount = 0;
+
+        try {
+            try {
+                while (true) {
+                    final LoadBalancedFlowFileQueue flowFileQueue = getLoadBalancedFlowFileQueue(connectionId, peerDescription);
+                    final ConnectionTransaction connectionTransaction = new ConnectionTransaction(connectionId, flowFileQueue);
+                    connectionTransactions.add(connectionTransaction);
+
+                    if (isSpaceAvailable(dataIn, out, flowFileQueue, connectionId, peerDescription)) {
+                        final LoadBalanceCompression compression = flowFileQueue.getLoadBalanceCompression();
+                        logger.debug("Receiving FlowFiles from Peer {} for Connection {}; Compression = {}", peerDescription, connectionId, compression);
+
+                        while (isMoreFlowFiles(dataIn, protocolVersion)) {
+                            if (contentClaim == null) {
+                                contentClaim = contentRepository.create(false);
+                                contentClaimOut = contentRepository.write(contentClaim);
+                            }
+
+                            final RemoteFlowFileRecord flowFile = receiveFlowFile(dataIn, contentClaimOut, contentClaim, claimOffset, protocolVersion, peerDescription, compression,
+                                attributeDictionary);
+                            contentRepository.incrementClaimaintCount(flowFile.getFlowFile().getContentClaim());
+
+                            connectionTransaction.getFlowFiles().add(flowFile);
+                            flowFileCount++;
+
+                            claimOffset += flowFile.getFlowFile().getSize();
+                        }
+                    }
+
+                    if (!isMoreConnections(dataIn, peerDescription)) {
+                        break;
+                    }
+
+                    connectionId = dataIn.readUTF();
+                }
+            } finally {
+                if (contentClaimOut != null) {
+                    contentClaimOut.close();
+                }
+            }
+
+            // See #receiveFlowFiles(InputStream, OutputStream, String, int) for why the claimant count is decremented here.
+            final int count = contentRepository.decrementClaimantCount(contentClaim);
+
+            verifyChecksum(checksum, in, out, peerDescription, flowFileCount);
+            completeBatchedTransaction(in, out, peerDescription, connectionTransactions, startTimestamp);
+
+            if (count == 0) {
+                contentRepository.remove(contentClaim);
+            }
+        } catch (final Exception e) {
+            for (final ConnectionTransaction connectionTransaction : connectionTransactions) {
+                for (final RemoteFlowFileRecord remoteFlowFile : connectionTransaction.getFlowFiles()) {
+                    contentRepository.decrementClaimantCount(remoteFlowFile.getFlowFile().getContentClaim());
+                }
+            }
+
+            contentRepository.remove(contentClaim);
+
+            throw e;
+        }
+
+        logger.debug("Successfully received {} FlowFiles from Peer {} to Load Balance for {} Connections", flowFileCount, peerDescription, connectionTransactions.size());
+    }
+
+    private void completeBatchedTransaction(final InputStream in, final OutputStream out, final String peerDescription, final List<ConnectionTransaction> connectionTransactions,
+                                             final long startTimestamp) throws IOException {
+        final int completionIndicator = in.read();
+        if (completionIndicator < 0) {
+            throw new EOFException("Expected to receive a Transaction Completion Indicator from Peer " + peerDescription + " but encountered EOF");
+        }
+
+        if (completionIndicator == ABORT_TRANSACTION) {
+            throw new TransactionAbortedException("Peer " + peerDescription + " chose to Abort Load Balance Transaction");
+        }
+
+        if (completionIndicator != COMPLETE_TRANSACTION) {
+            logger.debug("Expected to receive Transaction Completion Indicator from Peer {} but instead received a value of {}. Sending back an Abort Transaction Flag.",
+                    peerDescription, completionIndicator);
+            out.write(ABORT_TRANSACTION);
+            out.flush();
+            throw new IOException("Expected to receive Transaction Completion Indicator from Peer " + peerDescription + " but instead received a value of " + completionIndicator);
+        }
+
+        logger.debug("Received Complete Transaction indicator from Peer {}", peerDescription);
+
+        final List<RepositoryRecord> repoRecords = new ArrayList<>();
+        for (final ConnectionTransaction connectionTransaction : connectionTransactions) {
+            registerReceiveProvenanceEvents(connectionTransaction.getFlowFiles(), peerDescription, connectionTransaction.getConnectionId(), startTimestamp);
+            repoRecords.addAll(createRepositoryRecords(connectionTransaction.getFlowFiles(), connectionTransaction.getFlowFileQueue()));
+        }
+        flowFileRepository.updateRepository(repoRecords);
+
+        for (final ConnectionTransaction connectionTransaction : connectionTransactions) {
+            final LoadBalancedFlowFileQueue flowFileQueue = connectionTransaction.getFlowFileQueue();
+
+            try {
+                transferFlowFilesToQueue(connectionTransaction.getFlowFiles(), flowFileQueue);
+            } catch (final IllegalClusterStateException e) {
+                logger.error("Failed to transferred received data into FlowFile Queue {}", flowFileQueue, e);
+                out.write(ABORT_TRANSACTION);
+
+                try {
+                    cleanupRepositoriesOnTransferFailure(connectionTransaction.getFlowFiles(), flowFileQueue, "Rejected transfer due to " + e.getMessage());
+                } catch (final Exception e1) {
+                    logger.error("Failed to update FlowFile/Provenance Repositories to denote that the data that could not be received should no longer be present on this node", e1);
+                }
+
+                // As with a single Connection, we do not throw an Exception here because the FlowFile Repository has already been updated to DROP the data.
+                continue;
+            }
+
+            out.write(CONFIRM_COMPLETE_TRANSACTION);
+        }
+
+        out.flush();
+    }
+
+    private boolean isMoreConnections(final DataInputStream in, final String peerDescription) throws IOException {
+        final int indicator = in.read();
+        if (indicator < 0) {
+            throw new EOFException("Encountered End-of-File when expecting to receive a 'More Connections' indicator from Peer " + peerDescription);
+        }
+
+        if (indicator == MORE_CONNECTIONS) {
+            logger.debug("Peer {} indicates that there is another Connection in transaction", peerDescription);
+            return true;
+        }
+        if (indicator == NO_MORE_CONNECTIONS) {
+            logger.debug("Peer {} indicates that there are no more Connections in transaction", peerDescription);
+            return false;
+        }
+
+        throw new IOException("Expected to receive 'More Connections' indicator (" + MORE_CONNECTIONS
+            + ") or 'No More Connections' indicator (" + NO_MORE_CONNECTIONS + ") but received invalid value of " + indicator);
+    }
+
+    private LoadBalancedFlowFileQueue getLoadBalancedFlowFileQueue(final String connectionId, final String peerDescription) throws TransactionAbortedException {
+        final Connection connection = flowController.getFlowManager().getConnection(connectionId);
+        if (connection == null) {
+            logger.error("Attempted to receive FlowFiles from Peer {} for Connection with ID {} but no connection exists with that ID", peerDescription, connectionId);
+            throw new TransactionAbortedException("Attempted to receive FlowFiles from Peer " + peerDescription + " for Connection with ID " + connectionId + " but no Connection exists with that ID");
+        }
+
+        final FlowFileQueue flowFileQueue = connection.getFlowFileQueue();
+        if (!(flowFileQueue instanceof LoadBalancedFlowFileQueue)) {
+            throw new TransactionAbortedException("Attempted to receive FlowFiles from Peer " + peerDescription + " for Connection with ID " + connectionId + " but the Connection with that ID is " +
+                    "not configured to allow for Load Balancing");
+        }
+
+        return (LoadBalancedFlowFileQueue) flowFileQueue;
+    }
+
+    /**
+     * Reads the peer's space check request for the given queue and responds to it, if necessary
+     *
+     * @return <code>false</code> if the peer asked whether or not space was available and the queue is full, <code>true</code> otherwise
+     */
+    private boolean isSpaceAvailable(final DataInputStream dataIn, final OutputStream out, final LoadBalancedFlowFileQueue flowFileQueue, final String connectionId,
+                                     final String peerDescription) throws IOException {
+        final int spaceCheck = dataIn.read();
+        if (spaceCheck < 0) {
+            throw new EOFException("Expected to receive a request to determine whether or not space was available for Connection with ID " + connectionId + " from Peer " + peerDescription);
+        }
+
+        if (spaceCheck == CHECK_SPACE) {
+            if (flowFileQueue.isLocalPartitionFull()) {
+                logger.debug("Received a 'Check Space' request from Peer {} for Connection with ID {}; responding with QUEUE_FULL", peerDescription, connectionId);
+                out.write(QUEUE_FULL);
+                out.flush();
+                return false;
+            } else {
+                logger.debug("Received a 'Check Space' request from Peer {} for Connection with ID {}; responding with SPACE_AVAILABLE", peerDescription, connectionId);
+                out.write(SPACE_AVAILABLE);
+                out.flush();
+            }
+        } else if (spaceCheck != SKIP_SPACE_CHECK) {
+            throw new TransactionAbortedException("Expected to receive a request to determine whether or not space was available for Connection with ID "
+                + connectionId + " from Peer " + peerDescription + " but instead received value " + spaceCheck);
+        }
+
+        return true;
+    }
+
     private void completeTransaction(final InputStream in, final OutputStream out, final String peerDescription, final List<RemoteFlowFileRecord> flowFilesReceived,
                                      final String connectionId, final long startTimestamp, final LoadBalancedFlowFileQueue flowFileQueue) throws IOException {
         final int completionIndicator = in.read();
@@ -422,14 +612,17 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
     }
 
     private void updateFlowFileRepository(final List<RemoteFlowFileRecord> flowFiles, final FlowFileQueue flowFileQueue) throws IOException {
-        final List<RepositoryRecord> repoRecords = flowFiles.stream()
+        flowFileRepository.updateRepository(createRepositoryRecords(flowFiles, flowFileQueue));
+    }
+
+    private List<RepositoryRecord> createRepositoryRecords(final List<RemoteFlowFileRecord> flowFiles, final FlowFileQueue flowFileQueue) {
+        return flowFiles.stream()
                 .map(remoteFlowFile -> {
                     final StandardRepositoryRecord record = new StandardRepositoryRecord(flowFileQueue, remoteFlowFile.getFlowFile());
                     record.setDestination(flowFileQueue);
                     return record;
                 })
                 .collect(Collectors.toList());
-        flowFileRepository.updateRepository(repoRecords);
     }
 
     private void transferFlowFilesToQueue(final List<RemoteFlowFileRecord> remoteFlowFiles, final LoadBalancedFlowFileQueue flowFileQueue) throws IllegalClusterStateException {
@@ -497,7 +690,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
     }
 
     private RemoteFlowFileRecord receiveFlowFile(final DataInputStream dis, final OutputStream out, final ContentClaim contentClaim, final long claimOffset, final int protocolVersion,
-                                                 final String peerDescription, final LoadBalanceCompression compression) throws IOException {
+                                                 final String peerDescription, final LoadBalanceCompression compression, final StringDictionaryDecoder attributeDictionary) throws IOException {
         final int metadataLength = dis.readInt();
 
         DataInputStream metadataIn = new DataInputStream(new LimitingInputStream(dis, metadataLength));
@@ -505,7 +698,7 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
             metadataIn = new DataInputStream(new GZIPInputStream(metadataIn));
         }
 
-        final Map<String, String> attributes = readAttributes(metadataIn);
+        final Map<String, String> attributes = attributeDictionary == null ? readAttributes(metadataIn) : attributeDictionary.readStringMap(metadataIn);
         final String sourceSystemUuid = attributes.get(CoreAttributes.UUID.key());
 
         logger.debug("Received Attributes {} from Peer {}", attributes, peerDescription);
@@ -639,6 +832,29 @@ public class StandardLoadBalanceProtocol implements LoadBalanceProtocol {
         }
     }
 
+    private static class ConnectionTransaction {
+        private final String connectionId;
+        private final LoadBalancedFlowFileQueue flowFileQueue;
+        private final List<RemoteFlowFileRecord> flowFiles = new ArrayList<>();
+
+        public ConnectionTransaction(final String connectionId, final LoadBalancedFlowFileQueue flowFileQueue) {
+            this.connectionId = connectionId;
+            this.flowFileQueue = flowFileQueue;
+        }
+
+        public String getConnectionId() {
+            return connectionId;
+        }
+
+        public LoadBalancedFlowFileQueue getFlowFileQueue() {
+            return flowFileQueue;
+        }
+
+        public List<RemoteFlowFileRecord> getFlowFiles() {
+            return flowFiles;
+        }
+    }
+
     private static class RemoteFlowFileRecord {
         private final String remoteUuid;
         private final FlowFileRecord flowFile;
@@ -47,8 +47,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardOpenOption;
@@ -123,6 +127,9 @@ public class FileSystemRepository implements ContentRepository {
     private final boolean alwaysSync;
     private final ScheduledExecutorService containerCleanupExecutor;
 
+    // Memory mappings of completed Resource Claims, used to serve reads without opening and skipping through the file. Null if disabled.
+    private final MappedResourceClaimCache mappedClaimCache;
+
     private ResourceClaimManager resourceClaimManager; // effectively final
     private EventReporter eventReporter;
 
@@ -230,6 +237,15 @@ public class FileSystemRepository implements ContentRepository {
 
         this.alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty("nifi.content.repository.always.sync"));
         LOG.info("Initializing FileSystemRepository with 'Always Sync' set to {}", alwaysSync);
+
+        if (nifiProperties.isContentRepositoryMemoryMappedReads()) {
+            final int maxMappedFiles = nifiProperties.getContentRepositoryMemoryMappedMaxFiles();
+            LOG.info("Content Claims will be read from memory-mapped files, with at most {} files mapped at once", maxMappedFiles);
+            mappedClaimCache = new MappedResourceClaimCache(maxMappedFiles);
+        } else {
+            mappedClaimCache = null;
+        }
+
         initializeRepository();
 
         containerCleanupExecutor = new FlowEngine(containers.size(), "Cleanup FileSystemRepository Container", true);
@@ -262,6 +278,10 @@ public class FileSystemRepository implements ContentRepository {
         executor.shutdown();
         containerCleanupExecutor.shutdown();
 
+        if (mappedClaimCache != null) {
+            mappedClaimCache.clear();
+        }
+
         // Close any of the writable claim streams that are currently open.
         // Other threads may be writing to these streams, and that's okay.
         // If that happens, we will simply close the stream, resulting in an
@@ -767,8 +787,9 @@ public class FileSystemRepository implements ContentRepository {
 
     @Override
     public long importFrom(final Path content, final ContentClaim claim) throws IOException {
-        try (final InputStream in = Files.newInputStream(content, StandardOpenOption.READ)) {
-            return importFrom(in, claim);
+        try (final FileChannel in = FileChannel.open(content, StandardOpenOption.READ);
+             final ContentRepositoryOutputStream out = write(claim, false)) {
+            return out.transferFrom(in);
         }
     }
 
@@ -789,14 +810,7 @@ public class FileSystemRepository implements ContentRepository {
             return 0L;
         }
 
-        try (final InputStream in = read(claim);
-             final FileOutputStream fos = new FileOutputStream(destination.toFile(), append)) {
-            final long copied = StreamUtils.copy(in, fos);
-            if (alwaysSync) {
-                fos.getFD().sync();
-            }
-            return copied;
-        }
+        return exportTo(claim, destination, append, 0L, size(claim));
     }
 
     @Override
@@ -817,15 +831,14 @@ public class FileSystemRepository implements ContentRepository {
             throw new IllegalArgumentException("Offset of " + offset + " exceeds claim size of " + claimSize);
 
         }
+        verifyRange(claim, claimSize, offset, length);
 
-        try (final InputStream in = read(claim);
-             final FileOutputStream fos = new FileOutputStream(destination.toFile(), append)) {
-            if (offset > 0) {
-                StreamUtils.skip(in, offset);
-            }
-            StreamUtils.copy(in, fos, length);
+        final StandardOpenOption writeMode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (final FileChannel in = openChannel(claim);
+             final FileChannel out = FileChannel.open(destination, StandardOpenOption.WRITE, StandardOpenOption.CREATE, writeMode)) {
+            transfer(claim, in, offset, length, out);
             if (alwaysSync) {
-                fos.getFD().sync();
+                out.force(true);
             }
             return length;
         }
@@ -867,6 +880,82 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    /**
+     * Transfers the content directly from the file that backs the claim's Resource Claim to the destination, so that the kernel
+     * can move the bytes without copying them through the JVM heap. The destination is expected to be in blocking mode.
+     */
+    @Override
+    public long exportTo(final ContentClaim claim, final WritableByteChannel destination, final long offset, final long length) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset cannot be negative");
+        }
+        if (claim == null) {
+            if (offset > 0) {
+                throw new IllegalArgumentException("Cannot specify an offset of " + offset + " for a null claim");
+            }
+            return 0L;
+        }
+
+        final long claimSize = size(claim);
+        if (offset > claimSize) {
+            throw new IllegalArgumentException("Offset of " + offset + " exceeds claim size of " + claimSize);
+        }
+        verifyRange(claim, claimSize, offset, length);
+        if (length == 0) {
+            return 0L;
+        }
+
+        try (final FileChannel source = openChannel(claim)) {
+            return transfer(claim, source, offset, length, destination);
+        }
+    }
+
+    private void verifyRange(final ContentClaim claim, final long claimSize, final long offset, final long length) throws EOFException {
+        if (offset + length > claimSize) {
+            throw new EOFException("Expected " + claim + " to contain " + length + " bytes starting at offset " + offset + " but the claim is only " + claimSize + " bytes");
+        }
+    }
+
+    /**
+     * Transfers the given range of the claim to the destination. The range must already have been verified to lie within the claim, and no
+     * transfer reads past the end of the claim, because the Resource Claim's file may contain other Content Claims after this one.
+     */
+    private long transfer(final ContentClaim claim, final FileChannel source, final long offset, final long length, final WritableByteChannel destination) throws IOException {
+        final long startPosition = claim.getOffset() + offset;
+        final long claimEnd = claim.getOffset() + size(claim);
+        long transferred = 0L;
+        while (transferred < length) {
+            final long position = startPosition + transferred;
+            final long count = source.transferTo(position, Math.min(length - transferred, claimEnd - position), destination);
+            if (count <= 0 && position >= source.size()) {
+                throw new EOFException("Expected " + claim + " to contain " + length + " bytes starting at offset " + offset + " but only " + transferred + " bytes were available");
+            }
+
+            transferred += count;
+        }
+
+        return transferred;
+    }
+
+    private FileChannel openChannel(final ContentClaim claim) throws IOException {
+        final Path path = getPath(claim);
+        if (path == null) {
+            throw new ContentNotFoundException(claim);
+        }
+
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (final NoSuchFileException ignored) {
+            // If this occurs, we will also check the archive directory.
+        }
+
+        try {
+            return FileChannel.open(getArchivePath(claim.getResourceClaim()), StandardOpenOption.READ);
+        } catch (final NoSuchFileException nsfe) {
+            throw new ContentNotFoundException(claim, nsfe);
+        }
+    }
+
     @Override
     public long size(final ContentClaim claim) throws IOException {
         if (claim == null) {
@@ -906,6 +995,11 @@ public class FileSystemRepository implements ContentRepository {
             return new ByteArrayInputStream(new byte[0]);
         }
 
+        final ByteBuffer mappedContent = getMappedContent(claim);
+        if (mappedContent != null) {
+            return new MappedResourceClaimCache.ByteBufferInputStream(mappedContent);
+        }
+
         final InputStream fis = getInputStream(claim);
         if (claim.getOffset() > 0L) {
             try {
@@ -944,6 +1038,40 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    @Override
+    public ByteBuffer readAsByteBuffer(final ContentClaim claim) throws IOException {
+        if (claim != null) {
+            final ByteBuffer mappedContent = getMappedContent(claim);
+            if (mappedContent != null) {
+                return mappedContent;
+            }
+        }
+
+        return ContentRepository.super.readAsByteBuffer(claim);
+    }
+
+    /**
+     * When memory-mapped reads are enabled, reading an individual Content Claim is inexpensive, so the Process Session
+     * should read each claim individually rather than holding open a stream to the entire Resource Claim.
+     */
+    @Override
+    public boolean isResourceClaimStreamSupported() {
+        return mappedClaimCache == null;
+    }
+
+    private ByteBuffer getMappedContent(final ContentClaim claim) throws IOException {
+        if (mappedClaimCache == null) {
+            return null;
+        }
+
+        final Path path = getPath(claim);
+        if (path == null) {
+            throw new ContentNotFoundException(claim);
+        }
+
+        return mappedClaimCache.getContent(claim, path);
+    }
+
     private void closeQuietly(final Closeable closeable) {
         if (closeable == null) {
             return;
@@ -961,7 +1089,7 @@ public class FileSystemRepository implements ContentRepository {
         return write(claim, false);
     }
 
-    private OutputStream write(final ContentClaim claim, final boolean append) {
+    private ContentRepositoryOutputStream write(final ContentClaim claim, final boolean append) {
         StandardContentClaim scc = validateContentClaimForWriting(claim);
 
         ByteCountingOutputStream claimStream = writableClaimStreams.get(scc.getResourceClaim());
@@ -969,7 +1097,7 @@ public class FileSystemRepository implements ContentRepository {
 
         final ByteCountingOutputStream bcos = claimStream;
 
-        final OutputStream out = new ContentRepositoryOutputStream(scc, bcos, initialLength);
+        final ContentRepositoryOutputStream out = new ContentRepositoryOutputStream(scc, bcos, initialLength);
 
         LOG.debug("Writing to {}", out);
         if (LOG.isTraceEnabled()) {
@@ -1135,6 +1263,10 @@ public class FileSystemRepository implements ContentRepository {
             return false;
         }
 
+        if (mappedClaimCache != null) {
+            mappedClaimCache.evict(claim);
+        }
+
         // If the claim count is decremented to 0 (<= 0 as a 'defensive programming' strategy), ensure that
         // we close the stream if there is one. There may be a stream open if create() is called and then
         // claimant count is removed without writing to the claim (or more specifically, without closing the
@@ -1833,6 +1965,49 @@ public class FileSystemRepository implements ContentRepository {
             bcos.flush();
         }
 
+        /**
+         * Appends the remaining content of the given channel to the claim, transferring the bytes directly into the file that
+         * backs the Resource Claim rather than copying them through a buffer on the heap.
+         *
+         * @param source the channel to read from, starting at its current position
+         * @return the number of bytes written to the claim
+         * @throws IOException if unable to read from the source or write to the Resource Claim
+         */
+        public synchronized long transferFrom(final FileChannel source) throws IOException {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+
+            final long startPosition = source.position();
+            final long toTransfer = source.size() - startPosition;
+            long transferred = 0L;
+
+            try {
+                // The Resource Claim's stream may be shared with other Content Claims, so hold its lock while writing to the underlying file
+                synchronized (bcos) {
+                    final FileChannel destination = ((FileOutputStream) bcos.getWrappedStream()).getChannel();
+                    while (transferred < toTransfer) {
+                        final long count = source.transferTo(startPosition + transferred, toTransfer - transferred, destination);
+                        if (count <= 0) {
+                            // The source was truncated while it was being transferred
+                            break;
+                        }
+
+                        transferred += count;
+                        bcos.incrementBytesWritten(count);
+                    }
+                }
+            } catch (final IOException ioe) {
+                recycle = false;
+                throw new IOException("Failed to write to " + this, ioe);
+            }
+
+            source.position(startPosition + transferred);
+            bytesWritten += transferred;
+            scc.setLength(bytesWritten + initialLength);
+            return transferred;
+        }
+
         @Override
         public synchronized void close() throws IOException {
             if (closed) {
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository;
+
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.InvalidMarkException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Maintains a bounded set of read-only memory mappings of Resource Claim files so that Content Claims can be read as
+ * slices of a mapped file instead of opening the file and skipping to the claim's offset for every read. When the
+ * maximum number of mappings is reached, the least recently used mapping is discarded.
+ * </p>
+ *
+ * <p>
+ * Only Resource Claims that are no longer writable are mapped, as the file backing a writable claim may still grow.
+ * A discarded mapping is released by the JVM once no slice of it is referenced any longer.
+ * </p>
+ */
+class MappedResourceClaimCache {
+    private final int maxMappings;
+    private final Map<ResourceClaim, MappedByteBuffer> mappings; // guarded by synchronizing on this
+
+    MappedResourceClaimCache(final int maxMappings) {
+        if (maxMappings < 1) {
+            throw new IllegalArgumentException("Maximum number of memory-mapped files must be at least 1");
+        }
+
+        this.maxMappings = maxMappings;
+        this.mappings = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ResourceClaim, MappedByteBuffer> eldest) {
+                return size() > MappedResourceClaimCache.this.maxMappings;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the content of the given claim, mapping the file that backs its Resource Claim if necessary
+     *
+     * @param claim the claim to read
+     * @param path the path of the file backing the claim's Resource Claim
+     * @return a read-only buffer whose position is 0 and whose limit is the length of the claim, or <code>null</code> if the claim cannot be served from a mapping
+     * @throws IOException if unable to map the file
+     */
+    ByteBuffer getContent(final ContentClaim claim, final Path path) throws IOException {
+        final ResourceClaim resourceClaim = claim.getResourceClaim();
+        if (claim.getLength() < 0 || resourceClaim.isWritable()) {
+            return null;
+        }
+
+        final MappedByteBuffer mapped = getMapping(resourceClaim, path);
+        if (mapped == null) {
+            return null;
+        }
+
+        final long end = claim.getOffset() + claim.getLength();
+        if (end > mapped.capacity()) {
+            throw new ContentNotFoundException(claim, "Content Claim ends at offset " + end + " but Resource Claim " + path + " is only " + mapped.capacity() + " bytes");
+        }
+
+        return mapped.slice((int) claim.getOffset(), (int) claim.getLength()).asReadOnlyBuffer();
+    }
+
+    private MappedByteBuffer getMapping(final ResourceClaim resourceClaim, final Path path) throws IOException {
+        synchronized (this) {
+            final MappedByteBuffer existing = mappings.get(resourceClaim);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        final MappedByteBuffer mapped;
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+        } catch (final NoSuchFileException nsfe) {
+            // The file may have been archived; let the caller fall back to reading it as a stream.
+            return null;
+        }
+
+        synchronized (this) {
+            final MappedByteBuffer existing = mappings.putIfAbsent(resourceClaim, mapped);
+            return existing == null ? mapped : existing;
+        }
+    }
+
+    synchronized void evict(final ResourceClaim resourceClaim) {
+        mappings.remove(resourceClaim);
+    }
+
+    synchronized void clear() {
+        mappings.clear();
+    }
+
+    synchronized int size() {
+        return mappings.size();
+    }
+
+    /**
+     * An InputStream that reads from a ByteBuffer without copying its content up front
+     */
+    static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int toRead = Math.min(len, buffer.remaining());
+            buffer.get(b, off, toRead);
+            return toRead;
+        }
+
+        @Override
+        public long skip(final long n) {
+            if (n <= 0) {
+                return 0L;
+            }
+
+            final int toSkip = (int) Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + toSkip);
+            return toSkip;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readLimit) {
+            buffer.mark();
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            try {
+                buffer.reset();
+            } catch (final InvalidMarkException ime) {
+                throw new IOException("Cannot reset stream because it has not been marked", ime);
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.repository.schema.FieldCache;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.wali.GroupCommitStatistics;
 import org.apache.nifi.wali.SequentialAccessWriteAheadLog;
 import org.apache.nifi.wali.SnapshotCapture;
 import org.slf4j.Logger;
@@ -78,6 +79,13 @@ import java.util.stream.Collectors;
  * choose instead to not sync to disk for every write but instead sync only when
  * we checkpoint.
  * </p>
+ *
+ * <p>
+ * When syncing on each update, the <code>nifi.flowfile.repository.group.commit.delay</code>
+ * property may be set so that concurrent updates share a single sync rather than
+ * each paying for their own. See {@link GroupCommitStatistics} for the metrics
+ * that are gathered in this mode.
+ * </p>
  */
 public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncListener {
     static final String FLOWFILE_REPOSITORY_DIRECTORY_PREFIX = "nifi.flowfile.repository.directory";
@@ -89,6 +97,7 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
 
     private final AtomicLong flowFileSequenceGenerator = new AtomicLong(0L);
     private final boolean alwaysSync;
+    private final long groupCommitDelayNanos;
     private final boolean retainOrphanedFlowFiles;
 
     private static final Logger logger = LoggerFactory.getLogger(WriteAheadFlowFileRepository.class);
@@ -138,6 +147,7 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
      */
     public WriteAheadFlowFileRepository() {
         alwaysSync = false;
+        groupCommitDelayNanos = -1L;
         checkpointDelayMillis = 0L;
         checkpointExecutor = null;
         nifiProperties = null;
@@ -149,6 +159,9 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
         alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty(NiFiProperties.FLOWFILE_REPOSITORY_ALWAYS_SYNC, "false"));
         this.nifiProperties = nifiProperties;
 
+        final String groupCommitDelay = nifiProperties.getFlowFileRepositoryGroupCommitDelay();
+        groupCommitDelayNanos = (alwaysSync && groupCommitDelay != null) ? FormatUtils.getTimeDuration(groupCommitDelay, TimeUnit.NANOSECONDS) : -1L;
+
         final String orphanedFlowFileProperty = nifiProperties.getProperty(RETAIN_ORPHANED_FLOWFILES);
         retainOrphanedFlowFiles = orphanedFlowFileProperty == null || Boolean.parseBoolean(orphanedFlowFileProperty);
 
@@ -190,8 +203,23 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
         // delete backup. On restore, if no files exist in partition's directory, would have to check backup directory
         this.serdeFactory = serdeFactory;
 
-        wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this);
-        logger.info("Initialized FlowFile Repository");
+        wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this, groupCommitDelayNanos);
+        if (groupCommitDelayNanos >= 0) {
+            logger.info("Initialized FlowFile Repository with group commit delay of {} nanos", groupCommitDelayNanos);
+        } else {
+            logger.info("Initialized FlowFile Repository");
+        }
+    }
+
+    /**
+     * @return statistics about the syncs that have been shared between concurrent updates, or <code>null</code> if group commit is not enabled
+     */
+    public GroupCommitStatistics getGroupCommitStatistics() {
+        if (wal instanceof SequentialAccessWriteAheadLog<?> sequentialAccessWal) {
+            return sequentialAccessWal.getGroupCommitStatistics();
+        }
+
+        return null;
     }
 
     @Override
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Strings that were written by a {@link StringDictionaryEncoder}. See that class for a description of the encoding.
+ */
+public class StringDictionaryDecoder {
+    private final int maxEntries;
+    private final List<String> entries = new ArrayList<>();
+
+    public StringDictionaryDecoder() {
+        this(StringDictionaryEncoder.DEFAULT_MAX_ENTRIES);
+    }
+
+    public StringDictionaryDecoder(final int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Maximum number of dictionary entries cannot be negative");
+        }
+
+        this.maxEntries = maxEntries;
+    }
+
+    public String readString(final DataInput in) throws IOException {
+        final int header = readVarInt(in);
+        if (header > 0) {
+            if (header > entries.size()) {
+                throw new IOException("Encountered reference to dictionary entry " + (header - 1) + " but dictionary only contains " + entries.size() + " entries");
+            }
+
+            return entries.get(header - 1);
+        }
+
+        final int length = readVarInt(in);
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        final String value = new String(bytes, StandardCharsets.UTF_8);
+
+        if (entries.size() < maxEntries) {
+            entries.add(value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads a map that was written by {@link StringDictionaryEncoder#writeStringMap(Map, DataOutput)}
+     *
+     * @param in the input to read from
+     * @return the map that was read
+     * @throws IOException if unable to read from the input or the data is not valid
+     */
+    public Map<String, String> readStringMap(final DataInput in) throws IOException {
+        final int size = readVarInt(in);
+        final Map<String, String> map = new HashMap<>(Math.max(16, (int) (size / 0.75F) + 1));
+        for (int i = 0; i < size; i++) {
+            final String key = readString(in);
+            final String value = readString(in);
+            map.put(key, value);
+        }
+
+        return map;
+    }
+
+    public static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Variable-length integer exceeds the maximum value of an int");
+                }
+
+                return value;
+            }
+        }
+
+        throw new IOException("Variable-length integer is longer than 5 bytes");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.repository.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Writes Strings such that a String that has already been written by this encoder is written as a reference to its
+ * first occurrence rather than in full. This is useful when serializing many FlowFiles whose attributes share the same
+ * keys and, often, the same values.
+ * </p>
+ *
+ * <p>
+ * Each String is written as a variable-length integer header. A header of 0 indicates that a literal follows, consisting of
+ * a variable-length byte count and the UTF-8 bytes of the String; the String is then added to the dictionary, provided that
+ * the dictionary has not reached its maximum size. Any other header <code>n</code> refers to the dictionary entry at index
+ * <code>n - 1</code>. The data must be read with a {@link StringDictionaryDecoder} that has the same maximum size and that has
+ * read everything that this encoder has written, in the same order.
+ * </p>
+ */
+public class StringDictionaryEncoder {
+    public static final int DEFAULT_MAX_ENTRIES = 16384;
+
+    private final int maxEntries;
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    public StringDictionaryEncoder() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public StringDictionaryEncoder(final int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Maximum number of dictionary entries cannot be negative");
+        }
+
+        this.maxEntries = maxEntries;
+    }
+
+    public void writeString(final String value, final DataOutput out) throws IOException {
+        final Integer index = indices.get(value);
+        if (index != null) {
+            writeVarInt(index + 1, out);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(0, out);
+        writeVarInt(bytes.length, out);
+        out.write(bytes);
+
+        if (indices.size() < maxEntries) {
+            indices.put(value, indices.size());
+        }
+    }
+
+    /**
+     * Writes the number of entries in the given map followed by the key and value of each entry
+     *
+     * @param map the map to write, such as the attributes of a FlowFile
+     * @param out the output to write to
+     * @throws IOException if unable to write to the output
+     */
+    public void writeStringMap(final Map<String, String> map, final DataOutput out) throws IOException {
+        writeVarInt(map.size(), out);
+        for (final Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(entry.getKey(), out);
+            writeString(entry.getValue(), out);
+        }
+    }
+
+    /**
+     * @return the number of Strings that can currently be written as references
+     */
+    public int getDictionarySize() {
+        return indices.size();
+    }
+
+    public static void writeVarInt(final int value, final DataOutput out) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cannot write negative value " + value + " as a variable-length integer");
+        }
+
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+
+        out.write(remaining);
+    }
+}
@@ -179,6 +179,14 @@ public class CronSchedulingAgent extends AbstractTimeBasedSchedulingAgent {
     public void onEvent(final Connectable connectable) {
     }
 
+    @Override
+    public void onFlowFilesEnqueued(final String queueIdentifier) {
+    }
+
+    @Override
+    public void onFlowFileQueueRemoved(final String queueIdentifier) {
+    }
+
     @Override
     public void setMaxThreadCount(final int maxThreads) {
     }
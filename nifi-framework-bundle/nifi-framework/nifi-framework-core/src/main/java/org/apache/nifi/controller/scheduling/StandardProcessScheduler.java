@@ -26,6 +26,7 @@ import org.apache.nifi.components.state.StateManager;
 import org.apache.nifi.components.state.StateManagerProvider;
 import org.apache.nifi.components.validation.ValidationStatus;
 import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Funnel;
 import org.apache.nifi.connectable.Port;
 import org.apache.nifi.controller.AbstractPort;
@@ -221,6 +222,14 @@ public final class StandardProcessScheduler implements ProcessScheduler {
         return getSchedulingAgent(connectable.getSchedulingStrategy());
     }
 
+    @Override
+    public void onFlowFilesEnqueued(final String queueIdentifier) {
+        final SchedulingAgent agent = getSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN);
+        if (agent != null) {
+            agent.onFlowFilesEnqueued(queueIdentifier);
+        }
+    }
+
     @Override
     public void shutdown() {
         shutdown = true;
@@ -645,6 +654,14 @@ public final class StandardProcessScheduler implements ProcessScheduler {
         lifecycleStateManager.removeLifecycleState(reportingTask.getIdentifier());
     }
 
+    @Override
+    public void onConnectionRemoved(final Connection connection) {
+        final SchedulingAgent agent = getSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN);
+        if (agent != null) {
+            agent.onFlowFileQueueRemoved(connection.getFlowFileQueue().getIdentifier());
+        }
+    }
+
     @Override
     public void yield(final ProcessorNode procNode) {
         // This exists in the ProcessScheduler so that the scheduler can take
@@ -17,6 +17,7 @@
 package org.apache.nifi.controller.scheduling;
 
 import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.ReportingTaskNode;
 import org.apache.nifi.controller.tasks.ConnectableTask;
@@ -27,13 +28,28 @@ import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent {
     private final long noWorkYieldNanos;
+    private final boolean wakeOnEnqueue;
+
+    // Triggers of components that are waiting out the bored yield duration, keyed by the identifier of each of their incoming queues
+    private final ConcurrentMap<String, Set<TimerDrivenTrigger>> idleTriggers = new ConcurrentHashMap<>();
+
+    private final LongAdder wastedTriggerCount = new LongAdder();
+    private final LongAdder wakeUpCount = new LongAdder();
+    private final LongAdder wakeUpLatencyNanos = new LongAdder();
 
     public TimerDrivenSchedulingAgent(final FlowController flowController, final FlowEngine flowEngine, final RepositoryContextFactory contextFactory,
                                       final NiFiProperties nifiProperties) {
@@ -45,6 +61,8 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
         } catch (final IllegalArgumentException e) {
             throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_DURATION + " property is set to an invalid time duration: " + boredYieldDuration);
         }
+
+        wakeOnEnqueue = nifiProperties.isBoredYieldWakeOnEnqueue();
     }
 
     @Override
@@ -68,7 +86,7 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
     @Override
     public void doSchedule(final Connectable connectable, final LifecycleState scheduleState) {
         final List<ScheduledFuture<?>> futures = new ArrayList<>();
-        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState);
+        final ConnectableTask connectableTask = createConnectableTask(connectable, scheduleState);
 
         for (int i = 0; i < connectable.getMaxConcurrentTasks(); i++) {
             // Determine the task to run and create it.
@@ -92,73 +110,286 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
         logger.info("Scheduled {} to run with {} threads", connectable, connectable.getMaxConcurrentTasks());
     }
 
+    ConnectableTask createConnectableTask(final Connectable connectable, final LifecycleState scheduleState) {
+        return new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState);
+    }
+
     private Runnable createTrigger(final ConnectableTask connectableTask, final LifecycleState scheduleState, final AtomicReference<ScheduledFuture<?>> futureRef) {
-        final Connectable connectable = connectableTask.getConnectable();
-        final Runnable yieldDetectionRunnable = new Runnable() {
-            @Override
-            public void run() {
-                // Call the task. It will return a boolean indicating whether or not we should yield
-                // based on a lack of work for to do for the component.
-                final InvocationResult invocationResult = connectableTask.invoke();
-                if (invocationResult.isYield()) {
-                    logger.debug("Yielding {} due to {}", connectable, invocationResult.getYieldExplanation());
-                }
+        return new TimerDrivenTrigger(connectableTask, scheduleState, futureRef);
+    }
 
-                // If the component is yielded, cancel its future and re-submit it to run again
-                // after the yield has expired.
-                final long newYieldExpiration = connectable.getYieldExpiration();
-                final long now = System.currentTimeMillis();
-                if (newYieldExpiration > now) {
-                    final long yieldMillis = newYieldExpiration - now;
-                    final long scheduleMillis = connectable.getSchedulingPeriod(TimeUnit.MILLISECONDS);
-                    final ScheduledFuture<?> scheduledFuture = futureRef.get();
-                    if (scheduledFuture == null) {
-                        return;
-                    }
+    /**
+     * @return the number of times that a component was triggered but had no work to do
+     */
+    public long getWastedTriggerCount() {
+        return wastedTriggerCount.sum();
+    }
+
+    /**
+     * @return the number of times that an idle component was triggered early because FlowFiles were enqueued into one of its incoming connections
+     */
+    public long getWakeUpCount() {
+        return wakeUpCount.sum();
+    }
 
-                    // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
-                    // an accurate accounting of which futures are outstanding; we must then also update the futureRef
-                    // so that we can do this again the next time that the component is yielded.
-                    if (scheduledFuture.cancel(false)) {
-                        final long yieldNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(scheduleMillis), TimeUnit.MILLISECONDS.toNanos(yieldMillis));
+    /**
+     * @return the total number of nanoseconds between FlowFiles being enqueued and the idle components that were woken up being triggered
+     */
+    public long getTotalWakeUpLatencyNanos() {
+        return wakeUpLatencyNanos.sum();
+    }
 
-                        synchronized (scheduleState) {
-                            if (scheduleState.isScheduled()) {
-                                final long schedulingNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
-                                final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, yieldNanos, schedulingNanos, TimeUnit.NANOSECONDS);
+    public boolean isWakeOnEnqueue() {
+        return wakeOnEnqueue;
+    }
 
-                                scheduleState.replaceFuture(scheduledFuture, newFuture);
-                                futureRef.set(newFuture);
-                            }
-                        }
+    /**
+     * @return the number of registrations of idle components with their incoming queues
+     */
+    int getIdleTriggerRegistrationCount() {
+        int count = 0;
+        for (final Set<TimerDrivenTrigger> triggers : idleTriggers.values()) {
+            count += triggers.size();
+        }
+        return count;
+    }
+
+    private class TimerDrivenTrigger implements Runnable {
+        private final ConnectableTask connectableTask;
+        private final Connectable connectable;
+        private final LifecycleState scheduleState;
+        private final AtomicReference<ScheduledFuture<?>> futureRef;
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private final AtomicBoolean runRequested = new AtomicBoolean(false);
+        private final AtomicBoolean idle = new AtomicBoolean(false);
+        private final AtomicLong wakeUpRequestedNanos = new AtomicLong(0L);
+
+        // Guarded by the monitor of this trigger, which is only acquired when the component becomes idle or is woken up
+        private final List<String> registeredQueueIdentifiers = new ArrayList<>();
+
+        TimerDrivenTrigger(final ConnectableTask connectableTask, final LifecycleState scheduleState, final AtomicReference<ScheduledFuture<?>> futureRef) {
+            this.connectableTask = connectableTask;
+            this.connectable = connectableTask.getConnectable();
+            this.scheduleState = scheduleState;
+            this.futureRef = futureRef;
+        }
+
+        Connectable getConnectable() {
+            return connectable;
+        }
+
+        @Override
+        public void run() {
+            // A wake-up may replace the future of a trigger that is already running. In that case, the new future must not
+            // invoke the component concurrently with the running invocation, as that would exceed the configured number of concurrent tasks.
+            // Instead, the request is recorded so that the running invocation triggers the component again once it completes, rather
+            // than the wake-up being lost until the next scheduling period.
+            runRequested.set(true);
+            while (runRequested.get() && running.compareAndSet(false, true)) {
+                try {
+                    runRequested.set(false);
+                    trigger();
+                } finally {
+                    running.set(false);
+                }
+            }
+        }
+
+        private void trigger() {
+            if (wakeOnEnqueue) {
+                // Whether woken up or triggered by its timer, the component is no longer waiting on its incoming queues
+                if (idle.getAndSet(false)) {
+                    synchronized (this) {
+                        deregister();
                     }
-                } else if (noWorkYieldNanos > 0L && invocationResult.isYield()) {
-                    // Component itself didn't yield but there was no work to do, so the framework will choose
-                    // to yield the component automatically for a short period of time.
-                    final ScheduledFuture<?> scheduledFuture = futureRef.get();
-                    if (scheduledFuture == null) {
-                        return;
+                }
+
+                if (wakeUpRequestedNanos.get() > 0L) {
+                    final long requestedNanos = wakeUpRequestedNanos.getAndSet(0L);
+                    if (requestedNanos > 0L) {
+                        wakeUpLatencyNanos.add(System.nanoTime() - requestedNanos);
                     }
+                }
+            }
+
+            // Call the task. It will return a boolean indicating whether or not we should yield
+            // based on a lack of work for to do for the component.
+            final InvocationResult invocationResult = connectableTask.invoke();
+            if (invocationResult.isYield()) {
+                wastedTriggerCount.increment();
+                logger.debug("Yielding {} due to {}", connectable, invocationResult.getYieldExplanation());
+            }
 
-                    // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
-                    // an accurate accounting of which futures are outstanding; we must then also update the futureRef
-                    // so that we can do this again the next time that the component is yielded.
-                    if (scheduledFuture.cancel(false)) {
-                        synchronized (scheduleState) {
-                            if (scheduleState.isScheduled()) {
-                                final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, noWorkYieldNanos,
-                                    connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
-
-                                scheduleState.replaceFuture(scheduledFuture, newFuture);
-                                futureRef.set(newFuture);
-                            }
+            // If the component is yielded, cancel its future and re-submit it to run again
+            // after the yield has expired.
+            final long newYieldExpiration = connectable.getYieldExpiration();
+            final long now = System.currentTimeMillis();
+            if (newYieldExpiration > now) {
+                final long yieldMillis = newYieldExpiration - now;
+                final long scheduleMillis = connectable.getSchedulingPeriod(TimeUnit.MILLISECONDS);
+                final ScheduledFuture<?> scheduledFuture = futureRef.get();
+                if (scheduledFuture == null) {
+                    return;
+                }
+
+                // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
+                // an accurate accounting of which futures are outstanding; we must then also update the futureRef
+                // so that we can do this again the next time that the component is yielded.
+                if (scheduledFuture.cancel(false)) {
+                    final long yieldNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(scheduleMillis), TimeUnit.MILLISECONDS.toNanos(yieldMillis));
+                    reschedule(scheduledFuture, yieldNanos);
+                }
+            } else if (noWorkYieldNanos > 0L && invocationResult.isYield()) {
+                // Component itself didn't yield but there was no work to do, so the framework will choose
+                // to yield the component automatically for a short period of time.
+                final ScheduledFuture<?> scheduledFuture = futureRef.get();
+                if (scheduledFuture == null) {
+                    return;
+                }
+
+                // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
+                // an accurate accounting of which futures are outstanding; we must then also update the futureRef
+                // so that we can do this again the next time that the component is yielded.
+                if (scheduledFuture.cancel(false) && reschedule(scheduledFuture, noWorkYieldNanos)) {
+                    // Source components have no incoming connections to be notified about, so they continue to rely
+                    // solely on the bored yield duration. All others also register to be woken up by their incoming queues.
+                    if (wakeOnEnqueue && connectable.hasIncomingConnection()) {
+                        synchronized (this) {
+                            register();
+                            idle.set(true);
                         }
                     }
                 }
             }
-        };
+        }
+
+        /**
+         * Replaces the given, already cancelled, future with a new one that first runs after the given delay. The new future is
+         * published before the schedule state is checked, so that a concurrent unschedule either cancels it along with the other
+         * futures of the component or is observed here, without holding the monitor of the LifecycleState.
+         *
+         * @return <code>true</code> if the component is still scheduled and the new future is in place
+         */
+        private boolean reschedule(final ScheduledFuture<?> cancelledFuture, final long delayNanos) {
+            if (!scheduleState.isScheduled()) {
+                return false;
+            }
+
+            final long schedulingNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
+            final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, delayNanos, schedulingNanos, TimeUnit.NANOSECONDS);
+            scheduleState.replaceFuture(cancelledFuture, newFuture);
+            futureRef.set(newFuture);
+
+            if (!scheduleState.isScheduled()) {
+                newFuture.cancel(false);
+                return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Triggers the component immediately if it is currently waiting out its bored yield duration
+         */
+        void wakeUp() {
+            synchronized (this) {
+                deregister();
+                if (!scheduleState.isScheduled() || !idle.compareAndSet(true, false)) {
+                    return;
+                }
+
+                final ScheduledFuture<?> scheduledFuture = futureRef.get();
+                if (scheduledFuture == null || !scheduledFuture.cancel(false)) {
+                    return;
+                }
+
+                wakeUpRequestedNanos.set(System.nanoTime());
+                if (!reschedule(scheduledFuture, 0L)) {
+                    return;
+                }
+            }
+
+            wakeUpCount.increment();
+        }
+
+        /**
+         * Stops waiting on the incoming queues, so that the component is no longer woken up by them
+         */
+        synchronized void cancel() {
+            idle.set(false);
+            deregister();
+        }
+
+        /**
+         * Stops waiting on the given queue, which has been removed from the flow
+         *
+         * @param queueIdentifier the identifier of the queue
+         */
+        synchronized void onQueueRemoved(final String queueIdentifier) {
+            registeredQueueIdentifiers.remove(queueIdentifier);
+        }
+
+        // Must be called while holding the monitor of this trigger
+        private void register() {
+            for (final Connection connection : connectable.getIncomingConnections()) {
+                final String queueIdentifier = connection.getFlowFileQueue().getIdentifier();
+                registeredQueueIdentifiers.add(queueIdentifier);
+                registerIdleTrigger(queueIdentifier, this);
+            }
+        }
 
-        return yieldDetectionRunnable;
+        // Must be called while holding the monitor of this trigger
+        private void deregister() {
+            for (final String queueIdentifier : registeredQueueIdentifiers) {
+                deregisterIdleTrigger(queueIdentifier, this);
+            }
+            registeredQueueIdentifiers.clear();
+        }
+    }
+
+    private void registerIdleTrigger(final String queueIdentifier, final TimerDrivenTrigger trigger) {
+        idleTriggers.compute(queueIdentifier, (id, triggers) -> {
+            final Set<TimerDrivenTrigger> queueTriggers = triggers == null ? ConcurrentHashMap.newKeySet() : triggers;
+            queueTriggers.add(trigger);
+            return queueTriggers;
+        });
+    }
+
+    private void deregisterIdleTrigger(final String queueIdentifier, final TimerDrivenTrigger trigger) {
+        // Remove the set once it is empty, so that queues that are no longer read from do not accumulate
+        idleTriggers.computeIfPresent(queueIdentifier, (id, triggers) -> {
+            triggers.remove(trigger);
+            return triggers.isEmpty() ? null : triggers;
+        });
+    }
+
+    @Override
+    public void onFlowFilesEnqueued(final String queueIdentifier) {
+        if (!wakeOnEnqueue) {
+            return;
+        }
+
+        final Set<TimerDrivenTrigger> triggers = idleTriggers.get(queueIdentifier);
+        if (triggers == null || triggers.isEmpty()) {
+            return;
+        }
+
+        // Waking up a trigger removes it from every queue that it is registered with, including this one
+        for (final TimerDrivenTrigger trigger : List.copyOf(triggers)) {
+            trigger.wakeUp();
+        }
+    }
+
+    @Override
+    public void onFlowFileQueueRemoved(final String queueIdentifier) {
+        final Set<TimerDrivenTrigger> triggers = idleTriggers.remove(queueIdentifier);
+        if (triggers == null) {
+            return;
+        }
+
+        for (final TimerDrivenTrigger trigger : triggers) {
+            trigger.onQueueRemoved(queueIdentifier);
+        }
     }
 
     @Override
@@ -168,6 +399,16 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
             future.cancel(false);
         }
 
+        final Set<TimerDrivenTrigger> connectableTriggers = new HashSet<>();
+        for (final Set<TimerDrivenTrigger> triggers : idleTriggers.values()) {
+            for (final TimerDrivenTrigger trigger : triggers) {
+                if (trigger.getConnectable() == connectable) {
+                    connectableTriggers.add(trigger);
+                }
+            }
+        }
+        connectableTriggers.forEach(TimerDrivenTrigger::cancel);
+
         logger.info("Stopped scheduling {} to run", connectable);
     }
 
@@ -16,7 +16,7 @@
  */
 package org.apache.nifi.controller.status.analytics;
 
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
 
 import org.apache.nifi.controller.flow.FlowManager;
 import org.apache.nifi.controller.status.history.StatusHistoryRepository;
@@ -28,7 +28,9 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 /**
  * <p>
  * An implementation of {@link StatusAnalyticsEngine} that supports caching of ConnectionStatusAnalytics objects.
- * Caching engine in use is an in-memory cache where the caching policy is to expire 30 minutes after initial write to cache.
+ * Caching engine in use is an in-memory cache. Analytics are not expired after a period of time, because they hold the models that are
+ * updated incrementally each time that a connection is refreshed, and a flow may have too many connections to refresh all of them within
+ * any given period. Instead, the analytics of connections that are no longer in the flow are discarded by {@link #retainStatusAnalytics(Set)}.
  * </p>
  */
 public class CachingConnectionStatusAnalyticsEngine extends ConnectionStatusAnalyticsEngine {
@@ -42,7 +44,6 @@ public class CachingConnectionStatusAnalyticsEngine extends ConnectionStatusAnal
         super(flowManager, statusRepository,  statusAnalyticsModelMapFactory, predictionIntervalMillis,
                            queryIntervalMillis, scoreName, scoreThreshold);
         this.cache = Caffeine.newBuilder()
-                .expireAfterAccess(5, TimeUnit.MINUTES)
                 .build();
     }
 
@@ -64,5 +65,12 @@ public class CachingConnectionStatusAnalyticsEngine extends ConnectionStatusAnal
 
     }
 
+    /**
+     * Discard the analytics of all connections other than the given ones
+     * @param identifiers identifiers of the connections whose analytics are to be kept
+     */
+    public void retainStatusAnalytics(Set<String> identifiers) {
+        cache.asMap().keySet().retainAll(identifiers);
+    }
 
 }
@@ -86,13 +86,21 @@ public class ConnectionStatusAnalytics implements StatusAnalytics {
             this.queryWindow = new QueryWindow(extendWindow ? queryWindow.getStartTimeMillis() : queryWindow.getEndTimeMillis(), System.currentTimeMillis());
         } else {
             this.queryWindow = new QueryWindow(System.currentTimeMillis() - getQueryIntervalMillis(), System.currentTimeMillis());
+
+            // Every model is retrained from the entire query interval, so models that learn online must not hold any observations from that interval already
+            if (supportOnlineLearning) {
+                modelMap.values().forEach(modelFunction -> modelFunction.getKey().clear());
+            }
         }
 
+        // All models are trained from the same observations, so the status history is retrieved only once
+        final StatusHistory statusHistory = statusHistoryRepository.getConnectionStatusHistory(connectionIdentifier, queryWindow.getStartDateTime(),
+                queryWindow.getEndDateTime(), Integer.MAX_VALUE);
+
         modelMap.forEach((metric, modelFunction) -> {
 
             StatusAnalyticsModel model = modelFunction.getKey();
             StatusMetricExtractFunction extract = modelFunction.getValue();
-            StatusHistory statusHistory = statusHistoryRepository.getConnectionStatusHistory(connectionIdentifier, queryWindow.getStartDateTime(), queryWindow.getEndDateTime(), Integer.MAX_VALUE);
             Tuple<Stream<Double[]>, Stream<Double>> modelData = extract.extractMetric(metric, statusHistory);
             Double[][] features = modelData.getKey().toArray(size -> new Double[size][1]);
             Double[] values = modelData.getValue().toArray(size -> new Double[size]);
@@ -378,7 +386,9 @@ public class ConnectionStatusAnalytics implements StatusAnalytics {
 
         if (score == null || (score < scoreThreshold)) {
             if (supportOnlineLearning && model.supportsOnlineLearning()) {
+                // Retrain from the entire query interval on the next refresh, rather than only from the observations made since this refresh
                 model.clear();
+                queryWindow = null;
             }
             return false;
         } else {
@@ -56,7 +56,9 @@ public class ConnectionStatusAnalyticsEngine implements StatusAnalyticsEngine {
     @Override
     public StatusAnalytics getStatusAnalytics(String identifier) {
         Map<String, Tuple<StatusAnalyticsModel, StatusMetricExtractFunction>> modelMap = statusAnalyticsModelMapFactory.getConnectionStatusModelMap();
-        ConnectionStatusAnalytics connectionStatusAnalytics = new ConnectionStatusAnalytics(statusRepository, flowManager, modelMap, identifier, false);
+        // Models that maintain their own window of observations only need to be given the observations made since they were last refreshed
+        final boolean incremental = modelMap.values().stream().allMatch(modelFunction -> Boolean.TRUE.equals(modelFunction.getKey().supportsOnlineLearning()));
+        ConnectionStatusAnalytics connectionStatusAnalytics = new ConnectionStatusAnalytics(statusRepository, flowManager, modelMap, identifier, incremental);
         connectionStatusAnalytics.setIntervalTimeMillis(predictionIntervalMillis);
         connectionStatusAnalytics.setQueryIntervalMillis(queryIntervalMillis);
         connectionStatusAnalytics.setScoreName(scoreName);
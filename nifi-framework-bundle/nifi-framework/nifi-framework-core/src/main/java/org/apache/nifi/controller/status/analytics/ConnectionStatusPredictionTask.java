@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.analytics;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.flow.FlowManager;
+import org.apache.nifi.controller.repository.FlowFileEventRepository;
+import org.apache.nifi.controller.repository.RepositoryStatusReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Refreshes the models and predictions of each connection, spending no more than a configured amount of time each time that it runs. Connections
+ * are refreshed in order of their identifiers, and each run continues from the connection after the last one that was refreshed, so that every
+ * connection is eventually refreshed even when a flow has too many connections to refresh all of them within the budget.
+ * </p>
+ */
+public class ConnectionStatusPredictionTask implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionStatusPredictionTask.class);
+
+    private final FlowManager flowManager;
+    private final FlowFileEventRepository flowFileEventRepository;
+    private final StatusAnalyticsEngine analyticsEngine;
+    private final long budgetNanos;
+    private String lastConnectionId = null;
+
+    public ConnectionStatusPredictionTask(final FlowManager flowManager, final FlowFileEventRepository flowFileEventRepository,
+                                          final StatusAnalyticsEngine analyticsEngine, final long budgetMillis) {
+        this.flowManager = flowManager;
+        this.flowFileEventRepository = flowFileEventRepository;
+        this.analyticsEngine = analyticsEngine;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    @Override
+    public synchronized void run() {
+        try {
+            final long startNanos = System.nanoTime();
+            final RepositoryStatusReport statusReport = flowFileEventRepository.reportTransferEvents(System.currentTimeMillis());
+            final List<String> connectionIds = flowManager.findAllConnections().stream()
+                    .map(Connection::getIdentifier)
+                    .sorted()
+                    .toList();
+
+            // Analytics are kept until their connection is removed, so that every connection keeps its models from one rotation to the next
+            if (analyticsEngine instanceof CachingConnectionStatusAnalyticsEngine cachingAnalyticsEngine) {
+                cachingAnalyticsEngine.retainStatusAnalytics(new HashSet<>(connectionIds));
+            }
+
+            if (connectionIds.isEmpty()) {
+                return;
+            }
+
+            final int startIndex = getStartIndex(connectionIds);
+            int refreshed = 0;
+            while (refreshed < connectionIds.size()) {
+                final String connectionId = connectionIds.get((startIndex + refreshed) % connectionIds.size());
+                lastConnectionId = connectionId;
+                refreshed++;
+
+                final ConnectionStatusAnalytics connectionStatusAnalytics = (ConnectionStatusAnalytics) analyticsEngine.getStatusAnalytics(connectionId);
+                connectionStatusAnalytics.refresh();
+                connectionStatusAnalytics.loadPredictions(statusReport);
+
+                if (System.nanoTime() - startNanos >= budgetNanos) {
+                    break;
+                }
+            }
+
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (refreshed < connectionIds.size()) {
+                LOG.debug("Refreshed predictions for {} of {} connections in {} millis; the remaining connections will be refreshed next time", refreshed, connectionIds.size(), millis);
+            } else {
+                LOG.debug("Time Elapsed for Prediction for loading all predictions: {}", millis);
+            }
+        } catch (final Exception e) {
+            LOG.error("Failed to generate predictions", e);
+        }
+    }
+
+    /**
+     * @param connectionIds the sorted identifiers of all connections
+     * @return the index of the first connection after the last one that was refreshed
+     */
+    private int getStartIndex(final List<String> connectionIds) {
+        if (lastConnectionId == null) {
+            return 0;
+        }
+
+        final int searchIndex = Collections.binarySearch(connectionIds, lastConnectionId);
+        final int nextIndex = searchIndex >= 0 ? searchIndex + 1 : -searchIndex - 1;
+        return nextIndex >= connectionIds.size() ? 0 : nextIndex;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.analytics.models;
+
+import org.apache.nifi.controller.status.analytics.StatusAnalyticsModel;
+import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.NiFiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * An implementation of the {@link StatusAnalyticsModel} that computes the same multiple regression as {@link OrdinaryLeastSquares} but updates it
+ * incrementally. Rather than refitting the model from every observation in the query window, the model keeps the means and the centered sums of
+ * squares and cross-products of its observations, which are updated in constant time as each observation is added to the window or removed from it.
+ * The first feature of each observation must be its timestamp, in milliseconds; observations older than the query window, relative to the latest
+ * observation, are removed, and observations that are not newer than the latest observation are ignored, so that the same status snapshots
+ * may be provided more than once.
+ * </p>
+ */
+public class IncrementalOrdinaryLeastSquares implements StatusAnalyticsModel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalOrdinaryLeastSquares.class);
+
+    // Smallest pivot, relative to the correlation matrix of the features, for which the features are considered to be linearly independent
+    private static final double SINGULARITY_THRESHOLD = 1E-10;
+
+    private final long windowMillis;
+    private final Deque<Observation> observations = new ArrayDeque<>();
+
+    private int featureCount = -1;
+    private double[] featureMeans;
+    private double labelMean;
+    private double[][] featureCoMoments;
+    private double[] featureLabelCoMoments;
+    private double labelCoMoment;
+    private double[] coefficients;
+
+    public IncrementalOrdinaryLeastSquares() {
+        this(FormatUtils.getTimeDuration(NiFiProperties.DEFAULT_ANALYTICS_QUERY_INTERVAL, TimeUnit.MILLISECONDS));
+    }
+
+    public IncrementalOrdinaryLeastSquares(final NiFiProperties nifiProperties) {
+        this(FormatUtils.getTimeDuration(nifiProperties.getProperty(NiFiProperties.ANALYTICS_QUERY_INTERVAL, NiFiProperties.DEFAULT_ANALYTICS_QUERY_INTERVAL),
+            TimeUnit.MILLISECONDS));
+    }
+
+    public IncrementalOrdinaryLeastSquares(final long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Adds the given observations to the model, removes any observations that are no longer within the query window, and re-estimates the
+     * regression parameters
+     *
+     * @throws IllegalArgumentException if the window does not contain more observations than the model has parameters
+     */
+    @Override
+    public synchronized void learn(final Stream<Double[]> features, final Stream<Double> labels) {
+        final Iterator<Double[]> featureItr = features.iterator();
+        final Iterator<Double> labelItr = labels.iterator();
+
+        while (featureItr.hasNext() && labelItr.hasNext()) {
+            final Double[] feature = featureItr.next();
+            final Double label = labelItr.next();
+            if (featureCount < 0) {
+                initialize(feature.length);
+            } else if (feature.length != featureCount) {
+                throw new IllegalArgumentException("Expected " + featureCount + " features but received " + feature.length);
+            }
+
+            final Observation latest = observations.peekLast();
+            if (latest != null && feature[0] <= latest.features[0]) {
+                continue;
+            }
+
+            final double[] primitiveFeature = new double[featureCount];
+            for (int i = 0; i < featureCount; i++) {
+                primitiveFeature[i] = feature[i];
+            }
+
+            final Observation observation = new Observation(primitiveFeature, label);
+            observations.addLast(observation);
+            add(observation);
+        }
+
+        final Observation latest = observations.peekLast();
+        if (latest != null) {
+            final double windowStart = latest.features[0] - windowMillis;
+            while (observations.size() > 1 && observations.peekFirst().features[0] < windowStart) {
+                remove(observations.removeFirst());
+            }
+        }
+
+        if (observations.size() <= featureCount + 1) {
+            coefficients = null;
+            throw new IllegalArgumentException("Regression requires more than " + (featureCount + 1) + " observations but only " + observations.size() + " are available");
+        }
+
+        coefficients = estimateCoefficients();
+    }
+
+    @Override
+    public synchronized Double predict(final Double[] feature) {
+        if (coefficients == null) {
+            return null;
+        } else {
+            double sumX = 0;
+            for (int i = 0; i < feature.length; i++) {
+                sumX += coefficients[i + 1] * feature[i];
+            }
+            return sumX + coefficients[0];
+        }
+    }
+
+    @Override
+    public synchronized Double predictVariable(final Integer predictVariableIndex, final Map<Integer, Double> knownVariablesWithIndex, final Double label) {
+        if (coefficients == null) {
+            return null;
+        } else {
+            final double predictorCoeff = coefficients[predictVariableIndex + 1];
+            double sumX = 0;
+            for (final Map.Entry<Integer, Double> knownVariable : knownVariablesWithIndex.entrySet()) {
+                sumX += coefficients[knownVariable.getKey() + 1] * knownVariable.getValue();
+            }
+            return (label - coefficients[0] - sumX) / predictorCoeff;
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Double> getScores() {
+        if (coefficients == null) {
+            return null;
+        } else {
+            double explainedSumOfSquares = 0;
+            for (int i = 0; i < featureCount; i++) {
+                explainedSumOfSquares += coefficients[i + 1] * featureLabelCoMoments[i];
+            }
+
+            final Map<String, Double> scores = new HashMap<>();
+            scores.put("rSquared", 1 - (labelCoMoment - explainedSumOfSquares) / labelCoMoment);
+            scores.put("totalSumOfSquares", labelCoMoment);
+            return scores;
+        }
+    }
+
+    @Override
+    public Boolean supportsOnlineLearning() {
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        observations.clear();
+        featureCount = -1;
+        coefficients = null;
+    }
+
+    /**
+     * @return the number of observations within the query window
+     */
+    public synchronized int getObservationCount() {
+        return observations.size();
+    }
+
+    private void initialize(final int featureCount) {
+        this.featureCount = featureCount;
+        this.featureMeans = new double[featureCount];
+        this.labelMean = 0;
+        this.featureCoMoments = new double[featureCount][featureCount];
+        this.featureLabelCoMoments = new double[featureCount];
+        this.labelCoMoment = 0;
+    }
+
+    private void add(final Observation observation) {
+        final int count = observations.size();
+        final double[] featureDeltas = new double[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            featureDeltas[i] = observation.features[i] - featureMeans[i];
+            featureMeans[i] += featureDeltas[i] / count;
+        }
+        final double labelDelta = observation.label - labelMean;
+        labelMean += labelDelta / count;
+
+        updateCoMoments(observation, featureDeltas, labelDelta, 1);
+    }
+
+    private void remove(final Observation observation) {
+        final int count = observations.size();
+
+        // Adding an observation to the remaining observations would have updated the co-moments by the product of its deltas from the means
+        // before and after it was added, so the same product is subtracted before the means are updated to exclude the observation.
+        final double[] updatedFeatureMeans = new double[featureCount];
+        final double[] featureDeltas = new double[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            updatedFeatureMeans[i] = (featureMeans[i] * (count + 1) - observation.features[i]) / count;
+            featureDeltas[i] = observation.features[i] - updatedFeatureMeans[i];
+        }
+        final double updatedLabelMean = (labelMean * (count + 1) - observation.label) / count;
+
+        updateCoMoments(observation, featureDeltas, observation.label - updatedLabelMean, -1);
+        featureMeans = updatedFeatureMeans;
+        labelMean = updatedLabelMean;
+    }
+
+    private void updateCoMoments(final Observation observation, final double[] featureDeltas, final double labelDelta, final int sign) {
+        final double labelResidual = observation.label - labelMean;
+        for (int i = 0; i < featureCount; i++) {
+            for (int j = 0; j < featureCount; j++) {
+                featureCoMoments[i][j] += sign * featureDeltas[i] * (observation.features[j] - featureMeans[j]);
+            }
+            featureLabelCoMoments[i] += sign * featureDeltas[i] * labelResidual;
+        }
+        labelCoMoment += sign * labelDelta * labelResidual;
+    }
+
+    /**
+     * Solves the normal equations for the centered observations. The equations are scaled so that the matrix is the correlation matrix of the features,
+     * which keeps the elimination well-conditioned even though timestamps are many orders of magnitude larger than the other features.
+     *
+     * @return the intercept followed by the coefficient of each feature, or <code>null</code> if the features are linearly dependent
+     */
+    private double[] estimateCoefficients() {
+        final double[] scale = new double[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            if (featureCoMoments[i][i] <= 0) {
+                LOG.debug("Feature {} has no variance within the query window so regression parameters can not be estimated at this time.", i);
+                return null;
+            }
+            scale[i] = Math.sqrt(featureCoMoments[i][i]);
+        }
+
+        final double[][] matrix = new double[featureCount][featureCount + 1];
+        for (int i = 0; i < featureCount; i++) {
+            for (int j = 0; j < featureCount; j++) {
+                matrix[i][j] = featureCoMoments[i][j] / (scale[i] * scale[j]);
+            }
+            matrix[i][featureCount] = featureLabelCoMoments[i] / scale[i];
+        }
+
+        for (int column = 0; column < featureCount; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < featureCount; row++) {
+                if (Math.abs(matrix[row][column]) > Math.abs(matrix[pivot][column])) {
+                    pivot = row;
+                }
+            }
+
+            if (Math.abs(matrix[pivot][column]) < SINGULARITY_THRESHOLD) {
+                LOG.debug("The features within the query window are linearly dependent so regression parameters can not be estimated at this time.");
+                return null;
+            }
+
+            final double[] pivotRow = matrix[pivot];
+            matrix[pivot] = matrix[column];
+            matrix[column] = pivotRow;
+
+            for (int row = column + 1; row < featureCount; row++) {
+                final double factor = matrix[row][column] / pivotRow[column];
+                for (int k = column; k <= featureCount; k++) {
+                    matrix[row][k] -= factor * pivotRow[k];
+                }
+            }
+        }
+
+        final double[] estimated = new double[featureCount + 1];
+        double intercept = labelMean;
+        for (int row = featureCount - 1; row >= 0; row--) {
+            double sum = matrix[row][featureCount];
+            for (int k = row + 1; k < featureCount; k++) {
+                sum -= matrix[row][k] * estimated[k + 1] * scale[k];
+            }
+            estimated[row + 1] = sum / matrix[row][row] / scale[row];
+            intercept -= estimated[row + 1] * featureMeans[row];
+        }
+        estimated[0] = intercept;
+        return estimated;
+    }
+
+    private static final class Observation {
+        private final double[] features;
+        private final double label;
+
+        private Observation(final double[] features, final double label) {
+            this.features = features;
+            this.label = label;
+        }
+    }
+}
@@ -17,20 +17,43 @@
 package org.apache.nifi.controller.status.history;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * A rolling buffer of the status snapshots of a single component. Rather than holding on to each {@link StatusSnapshot}, the buffer stores
+ * the timestamps of the snapshots in one array and the values of each metric in another, so that a component's history consists of a few
+ * primitive arrays no matter how many snapshots it contains. Snapshots are recreated from these arrays when they are requested.
+ */
 public class MetricRollingBuffer {
+    private static final int INITIAL_SIZE = 16;
+    private static final int GROWTH_INCREMENT = 64;
+
+    // Stored in place of a value that a snapshot does not have, such as a counter that was not updated during that snapshot's interval
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
     private final int capacity;
 
-    private StatusSnapshot[] snapshots;
-    private int writeIndex = 0;
-    private int readIndex;
-    private boolean readExhausted;
+    // The buffer holds 'count' snapshots, the oldest of which is at 'headIndex'
+    private long[] timestamps;
+    private int headIndex = 0;
     private int count = 0;
 
+    // Values of the non-counter metrics, indexed by metric identifier and then by the index of the snapshot
+    private MetricDescriptor<?>[] metricDescriptors = new MetricDescriptor<?>[0];
+    private long[][] metricValues = new long[0][];
+    private Set<MetricDescriptor<?>> metricDescriptorSet = Collections.emptySet();
+
+    // Values of counters, indexed by the index of the snapshot
+    private final Map<MetricDescriptor<?>, long[]> counterValues = new LinkedHashMap<>();
+
     public MetricRollingBuffer(final int maxCapacity) {
         this.capacity = maxCapacity;
     }
@@ -40,159 +63,202 @@ public class MetricRollingBuffer {
             return;
         }
 
-        if (snapshots == null) {
-            snapshots = new StatusSnapshot[Math.min(capacity, 16)];
+        if (timestamps == null) {
+            resize(Math.min(capacity, INITIAL_SIZE));
+        } else if (count == timestamps.length) {
+            if (timestamps.length < capacity) {
+                resize(Math.min(capacity, timestamps.length + GROWTH_INCREMENT));
+            } else {
+                // The buffer is full, so the oldest snapshot is overwritten
+                headIndex = nextIndex(headIndex);
+                count--;
+            }
         }
 
-        if (snapshots[writeIndex] == null) {
-            count++;
+        // The slot may hold the values of a snapshot that was overwritten or expired, and this snapshot need not have a value for every metric
+        final int writeIndex = physicalIndex(count);
+        timestamps[writeIndex] = snapshot.getTimestamp().getTime();
+        for (final long[] values : metricValues) {
+            values[writeIndex] = NO_VALUE;
+        }
+        for (final long[] values : counterValues.values()) {
+            values[writeIndex] = NO_VALUE;
         }
 
-        snapshots[writeIndex++] = snapshot;
-
-        if (writeIndex >= snapshots.length) {
-            if (snapshots.length < capacity) {
-                grow();
-            } else {
-                writeIndex = 0;
-            }
+        for (final MetricDescriptor<?> descriptor : snapshot.getMetricDescriptors()) {
+            final Long value = snapshot.getStatusMetric(descriptor);
+            final long[] values = descriptor.isCounter() ? getCounterValues(descriptor) : getMetricValues(descriptor);
+            values[writeIndex] = value == null ? NO_VALUE : value;
         }
+
+        count++;
     }
 
     public int size() {
         return count;
     }
 
-    @SuppressWarnings("PMD.ForLoopCanBeForeach")
     public void expireBefore(final Date date) {
-        if (snapshots == null) {
+        if (timestamps == null) {
             return;
         }
 
-        int readIndex = writeIndex;
-        for (int i = 0; i < snapshots.length; i++) {
-            final StatusSnapshot snapshot = snapshots[readIndex];
-            if (snapshot == null) {
-                readIndex++;
-                if (readIndex >= snapshots.length) {
-                    readIndex = 0;
-                }
+        final long expirationTime = date.getTime();
+        while (count > 0 && timestamps[headIndex] <= expirationTime) {
+            headIndex = nextIndex(headIndex);
+            count--;
+        }
 
-                continue;
-            }
+        if (!counterValues.isEmpty()) {
+            removeExpiredCounters();
+        }
 
-            final Date snapshotTimestamp = snapshot.getTimestamp();
-            if (snapshotTimestamp.after(date)) {
-                break;
-            }
+        if (count < timestamps.length / 4 || timestamps.length - count > 128) {
+            // If we're using less than 1/4 of the arrays or we have at least 128 unused entries, compact.
+            resize(count + 1);
+        }
+    }
 
-            snapshots[readIndex] = null;
-            count--;
+    public List<StatusSnapshot> getSnapshots(final List<Date> timestamps, final boolean includeCounters, final Set<MetricDescriptor<?>> defaultStatusMetrics) {
+        if (this.timestamps == null) {
+            return Collections.emptyList();
+        }
+
+        final List<StatusSnapshot> list = new ArrayList<>(timestamps.size());
 
-            readIndex++;
-            if (readIndex >= snapshots.length) {
-                readIndex = 0;
+        // Both the requested timestamps and the snapshots are in ascending order, so they can be matched in a single pass
+        int readOffset = 0;
+        for (final Date timestamp : timestamps) {
+            final long time = timestamp.getTime();
+            while (readOffset < count && this.timestamps[physicalIndex(readOffset)] < time) {
+                readOffset++;
             }
-        }
 
-        if (count < snapshots.length / 4 || snapshots.length - count > 128) {
-            // If we're using less than 1/4 of the array or we have at least 128 null entries, compact.
-            compact();
+            if (readOffset < count && this.timestamps[physicalIndex(readOffset)] == time) {
+                list.add(createSnapshot(physicalIndex(readOffset), timestamp, includeCounters));
+                readOffset++;
+            } else {
+                list.add(new EmptyStatusSnapshot(timestamp, defaultStatusMetrics));
+            }
         }
-    }
 
-    private void grow() {
-        final int initialSize = snapshots.length;
-        final int newSize = Math.min(capacity, snapshots.length + 64);
-        final StatusSnapshot[] newArray = new StatusSnapshot[newSize];
-        System.arraycopy(snapshots, 0, newArray, 0, snapshots.length);
-        snapshots = newArray;
-        writeIndex = initialSize;
+        return list;
     }
 
-    @SuppressWarnings("PMD.ForLoopCanBeForeach")
-    private void compact() {
-        final StatusSnapshot[] newArray = new StatusSnapshot[count + 1];
-        int insertionIndex = 0;
+    private StatusSnapshot createSnapshot(final int index, final Date timestamp, final boolean includeCounters) {
+        final StandardStatusSnapshot snapshot = new StandardStatusSnapshot(metricDescriptorSet);
+        snapshot.setTimestamp(timestamp);
 
-        int readIndex = writeIndex;
-        for (int i = 0; i < snapshots.length; i++) {
-            final StatusSnapshot snapshot = snapshots[readIndex];
-            if (snapshot != null) {
-                newArray[insertionIndex++] = snapshot;
+        for (int i = 0; i < metricDescriptors.length; i++) {
+            final long value = metricValues[i][index];
+            if (metricDescriptors[i] != null && value != NO_VALUE) {
+                snapshot.addStatusMetric(metricDescriptors[i], value);
             }
+        }
 
-            readIndex++;
-            if (readIndex >= snapshots.length) {
-                readIndex = 0;
+        if (includeCounters) {
+            for (final Map.Entry<MetricDescriptor<?>, long[]> entry : counterValues.entrySet()) {
+                final long value = entry.getValue()[index];
+                if (value != NO_VALUE) {
+                    snapshot.addStatusMetric(entry.getKey(), value);
+                }
             }
         }
 
-        snapshots = newArray;
-        writeIndex = count;
-        count = newArray.length - 1;
+        return snapshot;
     }
 
-    public List<StatusSnapshot> getSnapshots(final List<Date> timestamps, final boolean includeCounters, final Set<MetricDescriptor<?>> defaultStatusMetrics) {
-        if (snapshots == null) {
-            return Collections.emptyList();
+    private long[] getMetricValues(final MetricDescriptor<?> descriptor) {
+        final int metricIdentifier = descriptor.getMetricIdentifier();
+        if (metricIdentifier >= metricDescriptors.length) {
+            final int previousLength = metricDescriptors.length;
+            metricDescriptors = Arrays.copyOf(metricDescriptors, metricIdentifier + 1);
+            metricValues = Arrays.copyOf(metricValues, metricIdentifier + 1);
+            for (int i = previousLength; i < metricValues.length; i++) {
+                metricValues[i] = createValues(timestamps.length);
+            }
         }
 
-        final List<StatusSnapshot> list = new ArrayList<>(snapshots.length);
+        if (!descriptor.equals(metricDescriptors[metricIdentifier])) {
+            metricDescriptors[metricIdentifier] = descriptor;
 
-        resetRead();
-
-        for (final Date timestamp : timestamps) {
-            final StatusSnapshot snapshot = getSnapshotForTimestamp(timestamp);
-            if (snapshot == null) {
-                list.add(new EmptyStatusSnapshot(timestamp, defaultStatusMetrics));
-            } else {
-                list.add(includeCounters ? snapshot : snapshot.withoutCounters());
+            final Set<MetricDescriptor<?>> descriptorSet = new LinkedHashSet<>();
+            for (final MetricDescriptor<?> metricDescriptor : metricDescriptors) {
+                if (metricDescriptor != null) {
+                    descriptorSet.add(metricDescriptor);
+                }
             }
+            metricDescriptorSet = descriptorSet;
         }
 
-        return list;
+        return metricValues[metricIdentifier];
     }
 
-    private StatusSnapshot getSnapshotForTimestamp(final Date timestamp) {
-        while (!readExhausted) {
-            final StatusSnapshot snapshot = snapshots[readIndex];
-            if (snapshot == null) {
-                advanceRead();
-                continue;
-            }
+    private long[] getCounterValues(final MetricDescriptor<?> descriptor) {
+        return counterValues.computeIfAbsent(descriptor, key -> createValues(timestamps.length));
+    }
 
-            final Date snapshotTimestamp = snapshot.getTimestamp();
-            if (snapshotTimestamp.before(timestamp)) {
-                advanceRead();
-                continue;
+    private void removeExpiredCounters() {
+        final Iterator<long[]> itr = counterValues.values().iterator();
+        while (itr.hasNext()) {
+            final long[] values = itr.next();
+            boolean hasValue = false;
+            for (int offset = 0; offset < count; offset++) {
+                if (values[physicalIndex(offset)] != NO_VALUE) {
+                    hasValue = true;
+                    break;
+                }
             }
 
-            if (snapshotTimestamp.after(timestamp)) {
-                return null;
+            if (!hasValue) {
+                itr.remove();
             }
+        }
+    }
+
+    /**
+     * Copies the snapshots into arrays of the given size, with the oldest snapshot at index 0
+     */
+    private void resize(final int size) {
+        final long[] resizedTimestamps = new long[size];
+        if (timestamps != null) {
+            copyInOrder(timestamps, resizedTimestamps);
+        }
+
+        for (int i = 0; i < metricValues.length; i++) {
+            final long[] resizedValues = createValues(size);
+            copyInOrder(metricValues[i], resizedValues);
+            metricValues[i] = resizedValues;
+        }
 
-            advanceRead();
-            return snapshot;
+        for (final Map.Entry<MetricDescriptor<?>, long[]> entry : counterValues.entrySet()) {
+            final long[] resizedValues = createValues(size);
+            copyInOrder(entry.getValue(), resizedValues);
+            entry.setValue(resizedValues);
         }
 
-        return null;
+        timestamps = resizedTimestamps;
+        headIndex = 0;
     }
 
-    private void resetRead() {
-        readIndex = writeIndex;
-        readExhausted = false;
+    private void copyInOrder(final long[] source, final long[] destination) {
+        final int firstPart = Math.min(count, source.length - headIndex);
+        System.arraycopy(source, headIndex, destination, 0, firstPart);
+        System.arraycopy(source, 0, destination, firstPart, count - firstPart);
     }
 
-    private void advanceRead() {
-        readIndex++;
+    private static long[] createValues(final int size) {
+        final long[] values = new long[size];
+        Arrays.fill(values, NO_VALUE);
+        return values;
+    }
 
-        if (readIndex >= snapshots.length) {
-            readIndex = 0;
-        }
+    private int physicalIndex(final int offset) {
+        final int index = headIndex + offset;
+        return index >= timestamps.length ? index - timestamps.length : index;
+    }
 
-        if (readIndex == writeIndex) {
-            readExhausted = true;
-        }
+    private int nextIndex(final int index) {
+        return index + 1 >= timestamps.length ? 0 : index + 1;
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.repository.schema.Record;
+import org.apache.nifi.repository.schema.RecordSchema;
+
+/**
+ * A Record that returns the given value for one field and delegates to another Record for all other fields
+ */
+class FieldOverrideRecord implements Record {
+    private final Record delegate;
+    private final String fieldName;
+    private final Object value;
+
+    FieldOverrideRecord(final Record delegate, final String fieldName, final Object value) {
+        this.delegate = delegate;
+        this.fieldName = fieldName;
+        this.value = value;
+    }
+
+    @Override
+    public RecordSchema getSchema() {
+        return delegate.getSchema();
+    }
+
+    @Override
+    public Object getFieldValue(final String fieldName) {
+        return this.fieldName.equals(fieldName) ? value : delegate.getFieldValue(fieldName);
+    }
+}
@@ -17,18 +17,22 @@
 
 package org.apache.nifi.controller.swap;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.io.StringDictionaryDecoder;
 import org.apache.nifi.controller.repository.schema.FlowFileRecordFieldMap;
+import org.apache.nifi.controller.repository.schema.FlowFileSchema;
 import org.apache.nifi.repository.schema.ComplexRecordField;
 import org.apache.nifi.repository.schema.FieldCache;
 import org.apache.nifi.repository.schema.NoOpFieldCache;
@@ -58,9 +62,28 @@ public class SchemaSwapDeserializer implements SwapDeserializer {
         final Record parentRecord = reader.readRecord(in);
         final List<Record> flowFileRecords = (List<Record>) parentRecord.getFieldValue(SwapSchema.FLOWFILE_CONTENTS);
 
+        // Swap files written before the attribute encoding was introduced do not have the field and store the attributes as a map.
+        final Integer attributeEncoding = schema.getField(SwapSchema.ATTRIBUTE_ENCODING) == null ? null : (Integer) parentRecord.getFieldValue(SwapSchema.ATTRIBUTE_ENCODING);
+
         final List<FlowFileRecord> flowFiles = new ArrayList<>(flowFileRecords.size());
-        for (final Record record : flowFileRecords) {
-            flowFiles.add(FlowFileRecordFieldMap.getFlowFile(record, claimManager));
+        if (attributeEncoding == null) {
+            for (final Record record : flowFileRecords) {
+                flowFiles.add(FlowFileRecordFieldMap.getFlowFile(record, claimManager));
+            }
+
+            // These swap files were written with the FlowFiles in reverse priority order. Swap files with an attribute encoding are written in
+            // priority order, which is the order in which FlowFiles are expected to be swapped in, so that FIFO queues retain their order.
+            Collections.reverse(flowFiles);
+        } else if (attributeEncoding == SwapSchema.DICTIONARY_ATTRIBUTE_ENCODING) {
+            // Any dictionary size that is at least as large as the serializer's will reproduce the same references
+            final StringDictionaryDecoder attributeDictionary = new StringDictionaryDecoder(Integer.MAX_VALUE);
+            for (final Record record : flowFileRecords) {
+                final byte[] encodedAttributes = (byte[]) record.getFieldValue(SwapSchema.ENCODED_ATTRIBUTES);
+                final Map<String, String> attributes = attributeDictionary.readStringMap(new DataInputStream(new ByteArrayInputStream(encodedAttributes)));
+                flowFiles.add(FlowFileRecordFieldMap.getFlowFile(new FieldOverrideRecord(record, FlowFileSchema.ATTRIBUTES, attributes), claimManager));
+            }
+        } else {
+            throw new IOException("Cannot read Swap File " + swapLocation + " because its FlowFile attributes use an unknown encoding (" + attributeEncoding + ")");
         }
 
         final Record summaryRecord = (Record) parentRecord.getFieldValue(SwapSchema.SWAP_SUMMARY);
@@ -17,13 +17,14 @@
 
 package org.apache.nifi.controller.swap;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.apache.nifi.controller.queue.FlowFileQueue;
 import org.apache.nifi.controller.queue.QueueSize;
@@ -31,8 +32,8 @@ import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.io.StringDictionaryEncoder;
 import org.apache.nifi.controller.repository.schema.FlowFileRecordFieldMap;
-import org.apache.nifi.controller.repository.schema.FlowFileSchema;
 import org.apache.nifi.repository.schema.ComplexRecordField;
 import org.apache.nifi.repository.schema.FieldMapRecord;
 import org.apache.nifi.repository.schema.FieldType;
@@ -46,7 +47,11 @@ import org.apache.nifi.repository.schema.SimpleRecordField;
 public class SchemaSwapSerializer implements SwapSerializer {
     static final String SERIALIZATION_NAME = "Schema Swap Serialization";
 
-    private final RecordSchema schema = SwapSchema.FULL_SWAP_FILE_SCHEMA_V3;
+    // A swap file holds at most a few swap batches worth of FlowFiles, and the dictionary only references Strings that are held by those FlowFiles anyway,
+    // so the dictionary is allowed to grow large enough that unique values, such as UUIDs, do not crowd out the values that are repeated.
+    static final int MAX_ATTRIBUTE_DICTIONARY_ENTRIES = 1024 * 1024;
+
+    private final RecordSchema schema = SwapSchema.FULL_SWAP_FILE_SCHEMA_V4;
     private final RecordSchema flowFileSchema = new RecordSchema(schema.getField(SwapSchema.FLOWFILE_CONTENTS).getSubFields());
 
     @Override
@@ -78,19 +83,32 @@ public class SchemaSwapSerializer implements SwapSerializer {
         final SwapSummary swapSummary = new StandardSwapSummary(queueSize, maxFlowFileId, resourceClaims, minLastQueueDate, totalLastQueuedate);
         final Record summaryRecord = new SwapSummaryFieldMap(swapSummary, queue.getIdentifier(), SwapSchema.SWAP_SUMMARY_SCHEMA_V3);
 
-        final List<Record> flowFileRecords = toSwap.stream()
-            .map(flowFile -> new FlowFileRecordFieldMap(flowFile, flowFileSchema))
-            .collect(Collectors.toList());
+        // The attributes must be encoded in the same order in which the FlowFiles are written, so that the deserializer can rebuild the dictionary as it reads them.
+        final StringDictionaryEncoder attributeDictionary = new StringDictionaryEncoder(MAX_ATTRIBUTE_DICTIONARY_ENTRIES);
+        final ByteArrayOutputStream attributeBytes = new ByteArrayOutputStream();
+        final DataOutputStream attributeOut = new DataOutputStream(attributeBytes);
+
+        final List<Record> flowFileRecords = new ArrayList<>(toSwap.size());
+        for (final FlowFileRecord flowFile : toSwap) {
+            attributeBytes.reset();
+            attributeDictionary.writeStringMap(flowFile.getAttributes(), attributeOut);
+
+            final Record flowFileRecord = new FlowFileRecordFieldMap(flowFile, flowFileSchema);
+            flowFileRecords.add(new FieldOverrideRecord(flowFileRecord, SwapSchema.ENCODED_ATTRIBUTES, attributeBytes.toByteArray()));
+        }
 
-        // Create a simple record to hold the summary and the flowfile contents
+        // Create a simple record to hold the summary, the attribute encoding, and the flowfile contents
         final RecordField summaryField = new SimpleRecordField(SwapSchema.SWAP_SUMMARY, FieldType.COMPLEX, Repetition.EXACTLY_ONE);
-        final RecordField contentsField = new ComplexRecordField(SwapSchema.FLOWFILE_CONTENTS, Repetition.ZERO_OR_MORE, FlowFileSchema.FLOWFILE_SCHEMA_V2.getFields());
-        final List<RecordField> fields = new ArrayList<>(2);
+        final RecordField encodingField = schema.getField(SwapSchema.ATTRIBUTE_ENCODING);
+        final RecordField contentsField = new ComplexRecordField(SwapSchema.FLOWFILE_CONTENTS, Repetition.ZERO_OR_MORE, flowFileSchema.getFields());
+        final List<RecordField> fields = new ArrayList<>(3);
         fields.add(summaryField);
+        fields.add(encodingField);
         fields.add(contentsField);
 
         final Map<RecordField, Object> swapFileMap = new LinkedHashMap<>();
         swapFileMap.put(summaryField, summaryRecord);
+        swapFileMap.put(encodingField, SwapSchema.DICTIONARY_ATTRIBUTE_ENCODING);
         swapFileMap.put(contentsField, flowFileRecords);
         final Record swapFileRecord = new FieldMapRecord(swapFileMap, new RecordSchema(fields));
 
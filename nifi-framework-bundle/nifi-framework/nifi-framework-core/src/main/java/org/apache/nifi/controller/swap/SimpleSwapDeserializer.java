@@ -247,12 +247,16 @@ public class SimpleSwapDeserializer implements SwapDeserializer {
 
                 flowFiles.add(record);
             } catch (final EOFException eof) {
+                Collections.reverse(flowFiles);
                 final SwapSummary swapSummary = new StandardSwapSummary(queueSize, maxId, resourceClaims, 0L, 0L);
                 final SwapContents partialContents = new StandardSwapContents(swapSummary, flowFiles);
                 throw new IncompleteSwapFileException(location, partialContents);
             }
         }
 
+        // FlowFiles were written in reverse priority order in this format, but are expected to be swapped in in priority order
+        Collections.reverse(flowFiles);
+
         final SwapSummary swapSummary = new StandardSwapSummary(queueSize, maxId, resourceClaims, 0L, 0L);
         return new StandardSwapContents(swapSummary, flowFiles);
     }
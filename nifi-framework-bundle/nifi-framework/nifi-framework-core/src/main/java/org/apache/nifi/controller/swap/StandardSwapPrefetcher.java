@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapPrefetcher;
+import org.apache.nifi.engine.FlowEngine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A {@link SwapPrefetcher} that reads swap files using a fixed number of threads and allows a fixed number of swap files to be held
+ * in memory at any one time, across all of the Swap Managers that share it.
+ */
+public class StandardSwapPrefetcher implements SwapPrefetcher {
+    private final int maxPrefetchedSwapFiles;
+    private final Semaphore prefetchPermits;
+    private final FlowEngine executor;
+
+    public StandardSwapPrefetcher(final int threadCount, final int maxPrefetchedSwapFiles) {
+        this.maxPrefetchedSwapFiles = maxPrefetchedSwapFiles;
+        this.prefetchPermits = new Semaphore(maxPrefetchedSwapFiles);
+        this.executor = new FlowEngine(threadCount, "Swap Prefetch", true);
+    }
+
+    @Override
+    public Future<SwapContents> submit(final Callable<SwapContents> read) {
+        if (!prefetchPermits.tryAcquire()) {
+            return null;
+        }
+
+        try {
+            return executor.submit(read);
+        } catch (final RejectedExecutionException e) {
+            prefetchPermits.release();
+            return null;
+        }
+    }
+
+    @Override
+    public void release() {
+        prefetchPermits.release();
+    }
+
+    /**
+     * @return the number of swap files whose contents may currently be held in memory, or are being read
+     */
+    public int getPrefetchedCount() {
+        return maxPrefetchedSwapFiles - prefetchPermits.availablePermits();
+    }
+
+    /**
+     * Stops accepting new reads. Reads that were already submitted are allowed to complete, as a swap-in may be waiting for one of them.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
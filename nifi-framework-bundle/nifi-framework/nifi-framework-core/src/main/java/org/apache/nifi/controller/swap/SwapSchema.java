@@ -43,6 +43,9 @@ public class SwapSchema {
     public static final RecordSchema SWAP_SUMMARY_SCHEMA_V3;
     public static final RecordSchema FULL_SWAP_FILE_SCHEMA_V3;
 
+    public static final RecordSchema FLOWFILE_SCHEMA_V4;
+    public static final RecordSchema FULL_SWAP_FILE_SCHEMA_V4;
+
     public static final String RESOURCE_CLAIMS = "Resource Claims";
     public static final String RESOURCE_CLAIM = "Resource Claim";
     public static final String RESOURCE_CLAIM_COUNT = "Claim Count";
@@ -55,6 +58,15 @@ public class SwapSchema {
     public static final String TOTAL_LAST_QUEUE_DATE = "Total Last Queue Date";
     public static final String SWAP_SUMMARY = "Swap Summary";
     public static final String FLOWFILE_CONTENTS = "FlowFiles";
+    public static final String ATTRIBUTE_ENCODING = "Attribute Encoding";
+    public static final String ENCODED_ATTRIBUTES = "Encoded Attributes";
+
+    /**
+     * Value of the {@value #ATTRIBUTE_ENCODING} field indicating that the attributes of each FlowFile are written to the {@value #ENCODED_ATTRIBUTES}
+     * field using a {@link org.apache.nifi.controller.repository.io.StringDictionaryEncoder StringDictionaryEncoder} that is shared by all FlowFiles
+     * in the swap file, in the order in which the FlowFiles are written
+     */
+    public static final int DICTIONARY_ATTRIBUTE_ENCODING = 1;
 
     static {
         final RecordField queueIdentifier = new SimpleRecordField(QUEUE_IDENTIFIER, FieldType.STRING, Repetition.EXACTLY_ONE);
@@ -139,4 +151,23 @@ public class SwapSchema {
         fullSchemaFields.add(new ComplexRecordField(FLOWFILE_CONTENTS, Repetition.ZERO_OR_MORE, FlowFileSchema.FLOWFILE_SCHEMA_V2.getFields()));
         FULL_SWAP_FILE_SCHEMA_V3 = new RecordSchema(fullSchemaFields);
     }
+
+    static {
+        // Version 4 uses the same summary as version 3 but writes each FlowFile's attributes as a dictionary-encoded byte array
+        // instead of a map, as the attribute names and many of their values tend to be repeated across the FlowFiles in a swap file.
+        final List<RecordField> flowFileFields = new ArrayList<>();
+        for (final RecordField field : FlowFileSchema.FLOWFILE_SCHEMA_V2.getFields()) {
+            if (!FlowFileSchema.ATTRIBUTES.equals(field.getFieldName())) {
+                flowFileFields.add(field);
+            }
+        }
+        flowFileFields.add(new SimpleRecordField(ENCODED_ATTRIBUTES, FieldType.BYTE_ARRAY, Repetition.EXACTLY_ONE));
+        FLOWFILE_SCHEMA_V4 = new RecordSchema(flowFileFields);
+
+        final List<RecordField> fullSchemaFields = new ArrayList<>();
+        fullSchemaFields.add(new ComplexRecordField(SWAP_SUMMARY, Repetition.EXACTLY_ONE, SWAP_SUMMARY_SCHEMA_V3.getFields()));
+        fullSchemaFields.add(new SimpleRecordField(ATTRIBUTE_ENCODING, FieldType.INT, Repetition.EXACTLY_ONE));
+        fullSchemaFields.add(new ComplexRecordField(FLOWFILE_CONTENTS, Repetition.ZERO_OR_MORE, flowFileFields));
+        FULL_SWAP_FILE_SCHEMA_V4 = new RecordSchema(fullSchemaFields);
+    }
 }
@@ -39,6 +39,7 @@ import org.apache.nifi.diagnostics.bootstrap.tasks.OperatingSystemDiagnosticTask
 import org.apache.nifi.diagnostics.bootstrap.tasks.ProcessorTimingDiagnosticTask;
 import org.apache.nifi.diagnostics.bootstrap.tasks.PythonBridgeDiagnosticTask;
 import org.apache.nifi.diagnostics.bootstrap.tasks.RepositoryDiagnosticTask;
+import org.apache.nifi.diagnostics.bootstrap.tasks.SchedulingDiagnosticTask;
 import org.apache.nifi.util.NiFiProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,6 +80,7 @@ public class BootstrapDiagnosticsFactory implements DiagnosticsFactory {
         tasks.add(new FlowConfigurationDiagnosticTask(flowController));
         tasks.add(new ProcessorTimingDiagnosticTask(flowController.getFlowFileEventRepository(), flowController.getFlowManager()));
         tasks.add(new LongRunningProcessorTask(flowController));
+        tasks.add(new SchedulingDiagnosticTask(flowController));
         tasks.add(new ClusterDiagnosticTask(flowController));
         tasks.add(new GarbageCollectionDiagnosticTask(flowController));
         tasks.add(new MemoryPoolPeakUsageTask());
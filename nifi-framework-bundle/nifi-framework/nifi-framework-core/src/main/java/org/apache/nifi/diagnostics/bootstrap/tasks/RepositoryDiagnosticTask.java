@@ -19,6 +19,7 @@ package org.apache.nifi.diagnostics.bootstrap.tasks;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.repository.ContentRepository;
 import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.WriteAheadFlowFileRepository;
 import org.apache.nifi.controller.scheduling.RepositoryContextFactory;
 import org.apache.nifi.controller.status.ProcessGroupStatus;
 import org.apache.nifi.diagnostics.DiagnosticTask;
@@ -26,6 +27,7 @@ import org.apache.nifi.diagnostics.DiagnosticsDumpElement;
 import org.apache.nifi.diagnostics.StandardDiagnosticsDumpElement;
 import org.apache.nifi.provenance.ProvenanceRepository;
 import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.wali.GroupCommitStatistics;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -74,6 +76,19 @@ public class RepositoryDiagnosticTask implements DiagnosticTask {
         details.add("FlowFile Repository File Store: " + repository.getFileStoreName());
         details.add("FlowFile Repository Storage Capacity: " + FormatUtils.formatDataSize(repository.getStorageCapacity()));
         details.add("FlowFile Repository Usable Space: " + FormatUtils.formatDataSize(repository.getUsableStorageSpace()));
+
+        if (repository instanceof WriteAheadFlowFileRepository writeAheadRepository) {
+            final GroupCommitStatistics groupCommitStatistics = writeAheadRepository.getGroupCommitStatistics();
+            if (groupCommitStatistics != null) {
+                details.add("FlowFile Repository Group Commit Max Delay: " + FormatUtils.formatNanos(groupCommitStatistics.getMaxDelayNanos(), false));
+                details.add("FlowFile Repository Group Commit Syncs: " + groupCommitStatistics.getSyncCount());
+                details.add("FlowFile Repository Group Commit Transactions: " + groupCommitStatistics.getTransactionCount());
+                details.add("FlowFile Repository Group Commit Average Transactions per Sync: " + String.format("%.2f", groupCommitStatistics.getAverageBatchSize()));
+                details.add("FlowFile Repository Group Commit Largest Transactions per Sync: " + groupCommitStatistics.getLargestBatchSize());
+                details.add("FlowFile Repository Group Commit Average Sync Time: " + FormatUtils.formatNanos(groupCommitStatistics.getAverageSyncNanos(), false));
+                details.add("FlowFile Repository Group Commit Average Commit Latency: " + FormatUtils.formatNanos(groupCommitStatistics.getAverageWaitNanos(), false));
+            }
+        }
     }
 
     private void captureDiagnostics(final ContentRepository repository, final ProcessGroupStatus status, final List<String> details) throws IOException {
@@ -95,6 +110,10 @@ public class RepositoryDiagnosticTask implements DiagnosticTask {
             details.add("Provenance Repository <" + containerName + "> Storage Capacity: " + FormatUtils.formatDataSize(repository.getContainerCapacity(containerName)));
             details.add("Provenance Repository <" + containerName + "> Usable Space: " + FormatUtils.formatDataSize(repository.getContainerUsableSpace(containerName)));
         }
+
+        for (final String detail : repository.getDiagnosticDetails()) {
+            details.add("Provenance Repository " + detail);
+        }
     }
 
 }
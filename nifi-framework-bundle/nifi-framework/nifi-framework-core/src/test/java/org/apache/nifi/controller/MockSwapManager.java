@@ -43,6 +43,8 @@ public class MockSwapManager implements FlowFileSwapManager {
     public final Map<String, List<FlowFileRecord>> swappedOut = new HashMap<>();
     public int swapOutCalledCount = 0;
     public int swapInCalledCount = 0;
+    public final List<String> prefetchedLocations = new ArrayList<>();
+    public boolean acceptPrefetch = true;
 
     public int incompleteSwapFileRecordsToInclude = -1;
 
@@ -129,6 +131,15 @@ public class MockSwapManager implements FlowFileSwapManager {
         return new StandardSwapContents(getSwapSummary(swapLocation), swappedOut.remove(swapLocation));
     }
 
+    @Override
+    public boolean prefetch(final String swapLocation, final FlowFileQueue flowFileQueue) {
+        if (acceptPrefetch) {
+            prefetchedLocations.add(swapLocation);
+        }
+
+        return acceptPrefetch;
+    }
+
     @Override
     public List<String> recoverSwapLocations(FlowFileQueue flowFileQueue, final String partitionName) throws IOException {
         return swappedOut.keySet().stream()
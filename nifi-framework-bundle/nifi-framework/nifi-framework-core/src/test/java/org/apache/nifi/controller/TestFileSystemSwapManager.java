@@ -21,10 +21,13 @@ import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
+import org.apache.nifi.controller.repository.SwapPrefetcher;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.swap.StandardSwapPrefetcher;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.stream.io.StreamUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -43,15 +46,24 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class TestFileSystemSwapManager {
+    private final StandardSwapPrefetcher swapPrefetcher = new StandardSwapPrefetcher(2, 8);
+
+    @AfterEach
+    public void shutdownPrefetcher() {
+        swapPrefetcher.shutdown();
+    }
 
     @Test
     public void testFlowFileQueueIdentifierNotValid() {
@@ -157,6 +169,145 @@ public class TestFileSystemSwapManager {
         assertEquals(10000, contents.getFlowFiles().size());
     }
 
+    @Test
+    public void testPrefetchedSwapFileSwappedIn() throws IOException {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+        final FileSystemSwapManager swapManager = createSwapManager(flowFileRepo);
+
+        final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            flowFileRecords.add(new MockFlowFileRecord(i));
+        }
+
+        final String swapLocation = swapManager.swapOut(flowFileRecords, flowFileQueue, null);
+        swapManager.prefetch(swapLocation, flowFileQueue);
+        swapManager.prefetch(swapLocation, flowFileQueue);
+
+        final SwapContents contents = swapManager.swapIn(swapLocation, flowFileQueue);
+        assertEquals(10000, contents.getFlowFiles().size());
+        assertEquals(10000, contents.getSummary().getQueueSize().getObjectCount());
+        assertFalse(new File(swapLocation).exists());
+        verify(flowFileRepo).swapFlowFilesIn(eq(new File(swapLocation).getAbsolutePath()), eq(contents.getFlowFiles()), eq(flowFileQueue));
+    }
+
+    @Test
+    public void testPrefetchDiscardedWhenPartitionNameChanges() throws IOException {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+        final FileSystemSwapManager swapManager = createSwapManager(flowFileRepo);
+
+        final List<String> swapLocations = new ArrayList<>();
+        for (int i = 0; i < FileSystemSwapManager.MAX_PREFETCHED_SWAP_FILES_PER_QUEUE; i++) {
+            final String swapLocation = swapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(i)), flowFileQueue, "partition-1");
+            swapManager.prefetch(swapLocation, flowFileQueue);
+            swapLocations.add(swapLocation);
+        }
+
+        final String renamedLocation = swapManager.changePartitionName(swapLocations.getFirst(), "partition-2");
+        swapManager.prefetch(renamedLocation, flowFileQueue);
+
+        final SwapContents renamedContents = swapManager.swapIn(renamedLocation, flowFileQueue);
+        assertEquals(1, renamedContents.getFlowFiles().size());
+        assertEquals(0L, renamedContents.getFlowFiles().getFirst().getSize());
+
+        for (int i = 1; i < swapLocations.size(); i++) {
+            final SwapContents contents = swapManager.swapIn(swapLocations.get(i), flowFileQueue);
+            assertEquals(1, contents.getFlowFiles().size());
+            assertEquals(i, contents.getFlowFiles().getFirst().getSize());
+        }
+    }
+
+    @Test
+    public void testPrefetchIgnoredAfterShutdown() throws IOException {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+        final FileSystemSwapManager swapManager = createSwapManager(flowFileRepo);
+
+        final String prefetchedLocation = swapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(1)), flowFileQueue, null);
+        assertTrue(swapManager.prefetch(prefetchedLocation, flowFileQueue));
+
+        swapManager.shutdown();
+
+        final String swapLocation = swapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(2)), flowFileQueue, null);
+        assertFalse(swapManager.prefetch(swapLocation, flowFileQueue));
+
+        // Swap files can still be swapped in, including one whose prefetch was discarded by the shutdown
+        assertEquals(1L, swapManager.swapIn(prefetchedLocation, flowFileQueue).getFlowFiles().getFirst().getSize());
+        assertEquals(2L, swapManager.swapIn(swapLocation, flowFileQueue).getFlowFiles().getFirst().getSize());
+    }
+
+    @Test
+    public void testPrefetchIgnoredWhenLimitReached() throws IOException {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+        final FileSystemSwapManager swapManager = createSwapManager(flowFileRepo);
+
+        for (int i = 0; i < FileSystemSwapManager.MAX_PREFETCHED_SWAP_FILES_PER_QUEUE; i++) {
+            final String swapLocation = swapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(i)), flowFileQueue, null);
+            assertTrue(swapManager.prefetch(swapLocation, flowFileQueue));
+        }
+
+        final String swapLocation = swapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(10)), flowFileQueue, null);
+        assertFalse(swapManager.prefetch(swapLocation, flowFileQueue));
+        swapManager.shutdown();
+        assertEquals(0, swapPrefetcher.getPrefetchedCount());
+    }
+
+    @Test
+    public void testPrefetchLimitSharedAcrossSwapManagers() throws IOException {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+
+        final StandardSwapPrefetcher sharedPrefetcher = new StandardSwapPrefetcher(1, 3);
+        try {
+            final FileSystemSwapManager firstSwapManager = createSwapManager(flowFileRepo, sharedPrefetcher);
+            final FileSystemSwapManager secondSwapManager = createSwapManager(flowFileRepo, sharedPrefetcher);
+
+            final List<String> firstLocations = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                final String swapLocation = firstSwapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(i)), flowFileQueue, null);
+                assertTrue(firstSwapManager.prefetch(swapLocation, flowFileQueue));
+                firstLocations.add(swapLocation);
+            }
+
+            final String secondLocation = secondSwapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(2)), flowFileQueue, null);
+            assertTrue(secondSwapManager.prefetch(secondLocation, flowFileQueue));
+
+            // The second Swap Manager is below its own limit, but the shared limit has been reached
+            final String rejectedLocation = secondSwapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(3)), flowFileQueue, null);
+            assertFalse(secondSwapManager.prefetch(rejectedLocation, flowFileQueue));
+            assertEquals(3, sharedPrefetcher.getPrefetchedCount());
+
+            // Swapping in a prefetched swap file makes room for another
+            assertEquals(0L, firstSwapManager.swapIn(firstLocations.getFirst(), flowFileQueue).getFlowFiles().getFirst().getSize());
+            assertEquals(2, sharedPrefetcher.getPrefetchedCount());
+            assertTrue(secondSwapManager.prefetch(rejectedLocation, flowFileQueue));
+
+            firstSwapManager.shutdown();
+            assertEquals(2, sharedPrefetcher.getPrefetchedCount());
+            secondSwapManager.purge();
+            assertEquals(0, sharedPrefetcher.getPrefetchedCount());
+        } finally {
+            sharedPrefetcher.shutdown();
+        }
+    }
+
     private FileSystemSwapManager createSwapManager() {
         final FlowFileRepository flowFileRepo = mock(FlowFileRepository.class);
         return createSwapManager(flowFileRepo);
@@ -166,6 +317,10 @@ public class TestFileSystemSwapManager {
     public Path temporaryFolder;
 
     private FileSystemSwapManager createSwapManager(final FlowFileRepository flowFileRepo) {
+        return createSwapManager(flowFileRepo, swapPrefetcher);
+    }
+
+    private FileSystemSwapManager createSwapManager(final FlowFileRepository flowFileRepo, final SwapPrefetcher prefetcher) {
         final FileSystemSwapManager swapManager = new FileSystemSwapManager(temporaryFolder);
         final ResourceClaimManager resourceClaimManager = new NopResourceClaimManager();
         swapManager.initialize(new SwapManagerInitializationContext() {
@@ -183,6 +338,11 @@ public class TestFileSystemSwapManager {
             public EventReporter getEventReporter() {
                 return EventReporter.NO_OP;
             }
+
+            @Override
+            public SwapPrefetcher getSwapPrefetcher() {
+                return prefetcher;
+            }
         });
 
         return swapManager;
@@ -17,6 +17,7 @@
 package org.apache.nifi.controller.queue;
 
 import org.apache.nifi.controller.MockFlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
 import org.apache.nifi.controller.repository.claim.StandardContentClaim;
@@ -77,6 +78,23 @@ class QueuePrioritizerTest {
         assertEquals(0, prioritizer.compare(longerPenalizedFlowFile, longerPenalizedFlowFile));
     }
 
+    @Test
+    void determinesPenaltyAsOfGivenTime() {
+        final long now = System.currentTimeMillis();
+        MockFlowFileRecord nonPenalizedFlowFile = new MockFlowFileRecord(Map.of(SORT_ATTRIBUTE, "B"), 0);
+        MockFlowFileRecord penalizedFlowFile = new MockFlowFileRecord(Map.of(SORT_ATTRIBUTE, "A"), 0);
+        penalizedFlowFile.setPenaltyExpiration(now + 1_000);
+
+        final Comparator<FlowFileRecord> beforeExpiration = prioritizer.asOf(now);
+        assertEquals(-1, beforeExpiration.compare(nonPenalizedFlowFile, penalizedFlowFile));
+        assertEquals(1, beforeExpiration.compare(penalizedFlowFile, nonPenalizedFlowFile));
+        assertEquals(0, beforeExpiration.compare(penalizedFlowFile, penalizedFlowFile));
+
+        final Comparator<FlowFileRecord> afterExpiration = prioritizer.asOf(now + 1_000);
+        assertTrue(afterExpiration.compare(nonPenalizedFlowFile, penalizedFlowFile) >= 1);
+        assertTrue(afterExpiration.compare(penalizedFlowFile, nonPenalizedFlowFile) <= -1);
+    }
+
     @Test
     void prioritizesNonPenalizedFlowFilesByProvidedPrioritizers() {
         MockFlowFileRecord flowFileC = new MockFlowFileRecord(Map.of(SORT_ATTRIBUTE, "C"), 0);
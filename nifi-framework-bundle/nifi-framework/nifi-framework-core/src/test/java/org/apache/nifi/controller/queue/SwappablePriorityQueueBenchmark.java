@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.MockFlowFileRecord;
+import org.apache.nifi.controller.MockSwapManager;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the throughput of polling FlowFiles from, and putting them back on, a queue that has no prioritizers, which uses a
+ * {@link FifoFlowFileQueue}, with that of a queue whose prioritizer does not order FlowFiles, which uses a heap guarded by the
+ * write lock. This is not run as part of the build. Run {@link #main(String[])} from the test classpath, after compiling the tests,
+ * to measure each queue with 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SwappablePriorityQueueBenchmark {
+    private static final int QUEUED_FLOWFILES = 10_000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"false", "true"})
+    public boolean prioritized;
+
+    private SwappablePriorityQueue queue;
+
+    @Setup
+    public void setup() {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("benchmark");
+
+        final DropFlowFileAction dropAction = (flowFiles, requestor) -> new QueueSize(flowFiles.size(), flowFiles.stream().mapToLong(FlowFileRecord::getSize).sum());
+        queue = new SwappablePriorityQueue(new MockSwapManager(), Integer.MAX_VALUE, (severity, category, message) -> { }, flowFileQueue, dropAction, "local");
+
+        if (prioritized) {
+            final FlowFilePrioritizer noOpPrioritizer = (o1, o2) -> 0;
+            queue.setPriorities(Collections.singletonList(noOpPrioritizer));
+        }
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(QUEUED_FLOWFILES);
+        for (int i = 0; i < QUEUED_FLOWFILES; i++) {
+            flowFiles.add(new MockFlowFileRecord(i));
+        }
+        queue.putAll(flowFiles);
+    }
+
+    @Benchmark
+    public FlowFileRecord pollAndPut() {
+        final FlowFileRecord flowFile = queue.poll(Set.of(), 0L);
+        if (flowFile != null) {
+            queue.put(flowFile);
+            queue.acknowledge(flowFile);
+        }
+
+        return flowFile;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        for (final int threadCount : THREAD_COUNTS) {
+            final Options options = new OptionsBuilder()
+                .include(SwappablePriorityQueueBenchmark.class.getSimpleName())
+                .threads(threadCount)
+                .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.nifi.controller.MockSwapManager;
 import org.apache.nifi.controller.queue.DropFlowFileAction;
 import org.apache.nifi.controller.queue.DropFlowFileRequest;
 import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.queue.FlowFileQueueSize;
 import org.apache.nifi.controller.queue.PollStrategy;
 import org.apache.nifi.controller.queue.QueueSize;
 import org.apache.nifi.controller.queue.SwappablePriorityQueue;
@@ -360,6 +361,150 @@ public class TestSwappablePriorityQueue {
         assertTrue(queue.isEmpty());
     }
 
+    @Test
+    public void testFifoOrderWithoutPrioritizers() {
+        // Add FlowFiles such that the identifiers are not in the same order as the FlowFiles are enqueued
+        final List<MockFlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            flowFiles.add(new MockFlowFileRecord(Map.of("i", String.valueOf(i)), i));
+        }
+        Collections.reverse(flowFiles);
+        flowFiles.forEach(queue::put);
+
+        for (int i = 99; i >= 0; i--) {
+            final FlowFileRecord polled = queue.poll(Set.of(), 0L);
+            assertEquals(String.valueOf(i), polled.getAttribute("i"));
+        }
+
+        assertNull(queue.poll(Set.of(), 0L));
+    }
+
+    @Test
+    public void testPenalizedFlowFileDoesNotBlockFifoQueue() {
+        final MockFlowFileRecord penalized = new MockFlowFileRecord(Map.of("i", "penalized"), 0L);
+        penalized.setPenaltyExpiration(System.currentTimeMillis() + 60_000L);
+        queue.put(penalized);
+
+        final MockFlowFileRecord unpenalized = new MockFlowFileRecord(Map.of("i", "unpenalized"), 0L);
+        queue.put(unpenalized);
+
+        assertSame(unpenalized, queue.poll(Set.of(), 0L));
+        assertNull(queue.poll(Set.of(), 0L));
+        assertSame(penalized, queue.poll(Set.of(), 0L, PollStrategy.ALL_FLOWFILES));
+
+        // Once the penalty has expired, the FlowFile is handed out ahead of FlowFiles that were queued after it
+        final MockFlowFileRecord expiredPenalty = new MockFlowFileRecord(Map.of("i", "expired"), 0L);
+        expiredPenalty.setPenaltyExpiration(System.currentTimeMillis() + 60_000L);
+        queue.put(expiredPenalty);
+        queue.put(unpenalized);
+        expiredPenalty.setPenaltyExpiration(0L);
+
+        assertSame(expiredPenalty, queue.poll(Set.of(), 0L));
+        assertSame(unpenalized, queue.poll(Set.of(), 0L));
+    }
+
+    @Test
+    public void testFilterPollRetainsFifoOrder() {
+        for (int i = 0; i < 5; i++) {
+            queue.put(new MockFlowFileRecord(Map.of("i", String.valueOf(i)), i));
+        }
+
+        final List<FlowFileRecord> selected = queue.poll(flowFile -> "3".equals(flowFile.getAttribute("i"))
+            ? FlowFileFilter.FlowFileFilterResult.ACCEPT_AND_TERMINATE : FlowFileFilter.FlowFileFilterResult.REJECT_AND_CONTINUE, Set.of(), 0L);
+        assertEquals(1, selected.size());
+        assertEquals("3", selected.get(0).getAttribute("i"));
+
+        for (final String expected : new String[] {"0", "1", "2", "4"}) {
+            assertEquals(expected, queue.poll(Set.of(), 0L).getAttribute("i"));
+        }
+    }
+
+    @Test
+    public void testRequeueReturnsFlowFilesToHeadOfFifoQueue() {
+        for (int i = 0; i < 5; i++) {
+            queue.put(new MockFlowFileRecord(Map.of("i", String.valueOf(i)), i));
+        }
+
+        final List<FlowFileRecord> polled = queue.poll(2, Set.of(), 0L);
+        assertEquals(2, polled.size());
+
+        queue.requeue(polled);
+        queue.acknowledge(polled);
+        assertEquals(5, queue.size().getObjectCount());
+        assertEquals(10L, queue.size().getByteCount());
+
+        for (int i = 0; i < 5; i++) {
+            final FlowFileRecord flowFile = queue.poll(Set.of(), 0L);
+            assertEquals(String.valueOf(i), flowFile.getAttribute("i"));
+            queue.acknowledge(flowFile);
+        }
+
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testSwapRetainsFifoOrder() {
+        // Add FlowFiles such that the identifiers are not in the same order as the FlowFiles are enqueued
+        final List<MockFlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 35_000; i++) {
+            flowFiles.add(new MockFlowFileRecord(Map.of("i", String.valueOf(i)), 0L));
+        }
+        Collections.reverse(flowFiles);
+        flowFiles.forEach(queue::put);
+
+        assertEquals(2, swapManager.swapOutCalledCount);
+
+        for (int i = 34_999; i >= 0; i--) {
+            final FlowFileRecord polled = queue.poll(Set.of(), 0L);
+            assertEquals(String.valueOf(i), polled.getAttribute("i"));
+        }
+
+        assertNull(queue.poll(Set.of(), 0L));
+        assertEquals(2, swapManager.swapInCalledCount);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testConcurrentPollAndPutWithoutPrioritizers() throws InterruptedException {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 100, eventReporter, flowFileQueue, dropAction, "local");
+        final int flowFileCount = 500;
+        for (int i = 0; i < flowFileCount; i++) {
+            queue.put(new MockFlowFileRecord(1L));
+        }
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    final FlowFileRecord flowFile = queue.poll(Set.of(), 0L);
+                    if (flowFile != null) {
+                        queue.put(flowFile);
+                        queue.acknowledge(flowFile);
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(flowFileCount, queue.size().getObjectCount());
+        assertEquals(flowFileCount, queue.size().getByteCount());
+        assertFalse(queue.isUnacknowledgedFlowFile());
+
+        final Set<Long> flowFileIds = new HashSet<>();
+        FlowFileRecord flowFile;
+        while ((flowFile = queue.poll(Set.of(), 0L)) != null) {
+            assertTrue(flowFileIds.add(flowFile.getId()));
+            queue.acknowledge(flowFile);
+        }
+
+        assertEquals(flowFileCount, flowFileIds.size());
+        assertTrue(queue.isEmpty());
+    }
+
     @Test
     public void testPollWithOnlyExpiredFlowFile() {
         final FlowFileRecord expiredFlowFile = mock(FlowFileRecord.class);
@@ -396,6 +541,52 @@ public class TestSwappablePriorityQueue {
         assertSame(expiredFlowFile, expired);
     }
 
+    @Test
+    public void testPollMultipleWithExpiredAndUnexpired() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 100, eventReporter, flowFileQueue, dropAction, "local");
+        final List<FlowFileRecord> unexpired = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queue.put(createFlowFile(System.currentTimeMillis() - 5000L, 100L));
+            final FlowFileRecord unexpiredFlowFile = createFlowFile(System.currentTimeMillis() + 500000L, 10L);
+            unexpired.add(unexpiredFlowFile);
+            queue.put(unexpiredFlowFile);
+        }
+
+        // Polling fewer FlowFiles than are queued drains the queue one FlowFile at a time
+        final Set<FlowFileRecord> expiredRecords = new HashSet<>();
+        final List<FlowFileRecord> polled = new ArrayList<>(queue.poll(2, expiredRecords, 4999));
+        assertEquals(2, polled.size());
+        assertEquals(4 - expiredRecords.size(), queue.getFlowFileQueueSize().getActiveCount());
+        assertEquals(2, queue.getFlowFileQueueSize().getUnacknowledgedCount());
+        assertEquals(20L, queue.getFlowFileQueueSize().getUnacknowledgedBytes());
+
+        // Polling all remaining FlowFiles drains the entire queue at once
+        final Set<FlowFileRecord> remainingExpiredRecords = new HashSet<>();
+        polled.addAll(queue.poll(10, remainingExpiredRecords, 4999));
+        assertEquals(3, expiredRecords.size() + remainingExpiredRecords.size());
+        assertEquals(3, polled.size());
+        assertTrue(polled.containsAll(unexpired));
+
+        final FlowFileQueueSize queueSize = queue.getFlowFileQueueSize();
+        assertEquals(0, queueSize.getActiveCount());
+        assertEquals(0L, queueSize.getActiveBytes());
+        assertEquals(3, queueSize.getUnacknowledgedCount());
+        assertEquals(30L, queueSize.getUnacknowledgedBytes());
+        assertEquals(3, queue.size().getObjectCount());
+        assertEquals(30L, queue.size().getByteCount());
+
+        queue.acknowledge(polled);
+        assertEquals(0L, queue.size().getByteCount());
+        assertTrue(queue.isEmpty());
+    }
+
+    private FlowFileRecord createFlowFile(final long entryDate, final long size) {
+        final FlowFileRecord flowFile = mock(FlowFileRecord.class);
+        when(flowFile.getEntryDate()).thenReturn(entryDate);
+        when(flowFile.getSize()).thenReturn(size);
+        return flowFile;
+    }
+
     @Test
     public void testEmpty() {
         assertTrue(queue.isEmpty());
@@ -483,6 +674,28 @@ public class TestSwappablePriorityQueue {
 
     }
 
+    @Test
+    public void testPollAllFromPrioritizedQueueLeavesPenalizedFlowFiles() {
+        queue.setPriorities(Collections.singletonList((o1, o2) -> Long.compare(o1.getSize(), o2.getSize())));
+
+        final MockFlowFileRecord penalized = new MockFlowFileRecord(0L);
+        penalized.setPenaltyExpiration(System.currentTimeMillis() + 60_000L);
+        queue.put(penalized);
+
+        for (int i = 100; i > 0; i--) {
+            queue.put(new MockFlowFileRecord(i));
+        }
+
+        final List<FlowFileRecord> polled = queue.poll(Integer.MAX_VALUE, Collections.emptySet(), 0L);
+        assertEquals(100, polled.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, polled.get(i).getSize());
+        }
+
+        assertEquals(1, queue.getActiveFlowFiles().size());
+        assertSame(penalized, queue.poll(Collections.emptySet(), 0L, PollStrategy.ALL_FLOWFILES));
+    }
+
     @Test
     public void testPrioritiesKeptIntactBeforeSwap() {
         final List<FlowFilePrioritizer> prioritizers = new ArrayList<>();
@@ -546,6 +759,57 @@ public class TestSwappablePriorityQueue {
         queue.poll(exp, 500000);
     }
 
+    @Test
+    public void testNextSwapFilePrefetchedAndSwapStallsCounted() {
+        for (int i = 0; i < 30000; i++) {
+            queue.put(new MockFlowFileRecord());
+        }
+
+        assertEquals(2, swapManager.swappedOut.size());
+
+        // Because the active queue holds no more than one swap file's worth of FlowFiles, the first swap file should be prefetched, but only once.
+        final Set<FlowFileRecord> exp = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            assertNotNull(queue.poll(exp, 500000));
+        }
+
+        assertEquals(1, swapManager.prefetchedLocations.size());
+        assertEquals(0, swapManager.swapInCalledCount);
+        assertEquals(0L, queue.getQueueDiagnostics().getSwapStallCount());
+
+        // The swap file was prefetched, so swapping it in is not a stall.
+        assertNotNull(queue.poll(exp, 500000));
+        assertEquals(1, swapManager.swapInCalledCount);
+        assertEquals(0L, queue.getQueueDiagnostics().getSwapStallCount());
+
+        // After swapping in, the next swap file should be prefetched immediately.
+        assertEquals(2, swapManager.prefetchedLocations.size());
+        assertFalse(swapManager.prefetchedLocations.get(0).equals(swapManager.prefetchedLocations.get(1)));
+        assertEquals(1, swapManager.swappedOut.size());
+        assertTrue(swapManager.swappedOut.containsKey(swapManager.prefetchedLocations.get(1)));
+    }
+
+    @Test
+    public void testSwapStallCountedWhenPrefetchIgnored() {
+        swapManager.acceptPrefetch = false;
+        for (int i = 0; i < 30000; i++) {
+            queue.put(new MockFlowFileRecord());
+        }
+
+        final Set<FlowFileRecord> exp = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            assertNotNull(queue.poll(exp, 500000));
+        }
+
+        assertTrue(swapManager.prefetchedLocations.isEmpty());
+        assertEquals(0L, queue.getQueueDiagnostics().getSwapStallCount());
+
+        // The Swap Manager ignored the prefetch, so swapping in the swap file is a stall.
+        assertNotNull(queue.poll(exp, 500000));
+        assertEquals(1, swapManager.swapInCalledCount);
+        assertEquals(1L, queue.getQueueDiagnostics().getSwapStallCount());
+    }
+
     @Test
     public void testSwapInWhenThresholdIsLessThanSwapSize() {
         // create a queue where the swap threshold is less than 10k
@@ -40,6 +40,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -77,16 +78,17 @@ public class TestLoadBalanceSession {
 
         serverSocket = new ServerSocket(0);
         port = serverSocket.getLocalPort();
+    }
 
+    private void startServer(final int... responses) {
         final Thread thread = new Thread(() -> assertDoesNotThrow(() -> {
             try (final Socket socket = serverSocket.accept()) {
                 final InputStream in = socket.getInputStream();
                 int data;
 
-                socket.getOutputStream().write(LoadBalanceProtocolConstants.VERSION_ACCEPTED);
-                socket.getOutputStream().write(LoadBalanceProtocolConstants.SPACE_AVAILABLE);
-                socket.getOutputStream().write(LoadBalanceProtocolConstants.CONFIRM_CHECKSUM);
-                socket.getOutputStream().write(LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION);
+                for (final int response : responses) {
+                    socket.getOutputStream().write(response);
+                }
 
                 while ((data = in.read()) != -1) {
                     received.write(data);
@@ -117,6 +119,9 @@ public class TestLoadBalanceSession {
 
         final FlowFileContentAccess contentAccess = contentMap::get;
 
+        startServer(LoadBalanceProtocolConstants.VERSION_ACCEPTED, LoadBalanceProtocolConstants.SPACE_AVAILABLE, LoadBalanceProtocolConstants.CONFIRM_CHECKSUM,
+            LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION);
+
         final RegisteredPartition partition = new RegisteredPartition("unit-test-connection", () -> false,
             flowFiles::poll, NOP_FAILURE_CALLBACK, (ff, nodeId) -> { }, () -> LoadBalanceCompression.DO_NOT_COMPRESS, () -> true);
 
@@ -124,8 +129,8 @@ public class TestLoadBalanceSession {
 
         socketChannel.configureBlocking(false);
         final PeerChannel peerChannel = new PeerChannel(socketChannel, null, "unit-test");
-        final LoadBalanceSession transaction = new LoadBalanceSession(partition, contentAccess, new StandardLoadBalanceFlowFileCodec(), peerChannel, 30000,
-            new SimpleLimitThreshold(100, 10_000_000));
+        final LoadBalanceSession transaction = new LoadBalanceSession(partition, Collections.emptyList(), contentAccess, new StandardLoadBalanceFlowFileCodec(), peerChannel, 30000,
+            new SimpleLimitThreshold(100, 10_000_000), LoadBalanceProtocolConstants.PROTOCOL_VERSION_1, false);
 
         Thread.sleep(100L);
 
@@ -186,7 +191,7 @@ public class TestLoadBalanceSession {
 
         assertArrayEquals(expectedSent, dataSent);
 
-        assertEquals(Arrays.asList(flowFile1, flowFile2), transaction.getAndPurgeFlowFilesSent());
+        assertEquals(Arrays.asList(flowFile1, flowFile2), transaction.getAndPurgeFlowFilesSent().get(partition));
     }
 
 
@@ -207,6 +212,9 @@ public class TestLoadBalanceSession {
 
         final FlowFileContentAccess contentAccess = contentMap::get;
 
+        startServer(LoadBalanceProtocolConstants.VERSION_ACCEPTED, LoadBalanceProtocolConstants.SPACE_AVAILABLE, LoadBalanceProtocolConstants.CONFIRM_CHECKSUM,
+            LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION);
+
         final RegisteredPartition partition = new RegisteredPartition("unit-test-connection", () -> false,
             flowFiles::poll, NOP_FAILURE_CALLBACK, (ff, nodeId) -> { }, () -> LoadBalanceCompression.DO_NOT_COMPRESS, () -> true);
 
@@ -214,8 +222,8 @@ public class TestLoadBalanceSession {
 
         socketChannel.configureBlocking(false);
         final PeerChannel peerChannel = new PeerChannel(socketChannel, null, "unit-test");
-        final LoadBalanceSession transaction = new LoadBalanceSession(partition, contentAccess, new StandardLoadBalanceFlowFileCodec(), peerChannel, 30000,
-            new SimpleLimitThreshold(100, 10_000_000));
+        final LoadBalanceSession transaction = new LoadBalanceSession(partition, Collections.emptyList(), contentAccess, new StandardLoadBalanceFlowFileCodec(), peerChannel, 30000,
+            new SimpleLimitThreshold(100, 10_000_000), LoadBalanceProtocolConstants.PROTOCOL_VERSION_1, false);
 
         Thread.sleep(100L);
 
@@ -268,6 +276,107 @@ public class TestLoadBalanceSession {
 
         assertArrayEquals(expectedSent, dataSent);
 
-        assertEquals(Arrays.asList(flowFile1), transaction.getAndPurgeFlowFilesSent());
+        assertEquals(Arrays.asList(flowFile1), transaction.getAndPurgeFlowFilesSent().get(partition));
+    }
+
+    @Test
+    @Timeout(10)
+    public void testMultipleConnectionsInTransaction() throws InterruptedException, IOException {
+        final FlowFileRecord flowFile1 = new MockFlowFileRecord(5);
+        final FlowFileRecord flowFile2 = new MockFlowFileRecord(8);
+        final Queue<FlowFileRecord> flowFiles1 = new LinkedList<>(List.of(flowFile1));
+        final Queue<FlowFileRecord> flowFiles2 = new LinkedList<>(List.of(flowFile2));
+
+        final Map<FlowFileRecord, InputStream> contentMap = new HashMap<>();
+        contentMap.put(flowFile1, new ByteArrayInputStream("hello".getBytes()));
+        contentMap.put(flowFile2, new ByteArrayInputStream("good-bye".getBytes()));
+
+        final FlowFileContentAccess contentAccess = contentMap::get;
+
+        // The peer accepts the FlowFiles for the first connection but aborts the transfer of those for the second connection
+        startServer(LoadBalanceProtocolConstants.VERSION_ACCEPTED, LoadBalanceProtocolConstants.SPACE_AVAILABLE, LoadBalanceProtocolConstants.CONFIRM_CHECKSUM,
+            LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION, LoadBalanceProtocolConstants.ABORT_TRANSACTION);
+
+        final RegisteredPartition partition1 = new RegisteredPartition("unit-test-connection-1", flowFiles1::isEmpty,
+            flowFiles1::poll, NOP_FAILURE_CALLBACK, (ff, nodeId) -> { }, () -> LoadBalanceCompression.DO_NOT_COMPRESS, () -> true);
+        final RegisteredPartition partition2 = new RegisteredPartition("unit-test-connection-2", flowFiles2::isEmpty,
+            flowFiles2::poll, NOP_FAILURE_CALLBACK, (ff, nodeId) -> { }, () -> LoadBalanceCompression.DO_NOT_COMPRESS, () -> false);
+
+        final SocketChannel socketChannel = SocketChannel.open(new InetSocketAddress("localhost", port));
+
+        socketChannel.configureBlocking(false);
+        final PeerChannel peerChannel = new PeerChannel(socketChannel, null, "unit-test");
+        final LoadBalanceSession transaction = new LoadBalanceSession(partition1, List.of(partition2), contentAccess, new StandardLoadBalanceFlowFileCodec(), peerChannel, 30000,
+            new SimpleLimitThreshold(100, 10_000_000), LoadBalanceProtocolConstants.PROTOCOL_VERSION_2, false);
+
+        Thread.sleep(100L);
+
+        while (transaction.communicate()) {
+        }
+
+        assertTrue(transaction.getSessionState().isComplete());
+        socketChannel.close();
+
+        final Checksum expectedChecksum = new CRC32();
+        final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+        expectedOut.write(2); // Protocol Version
+
+        final DataOutputStream expectedDos = new DataOutputStream(new CheckedOutputStream(expectedOut, expectedChecksum));
+        expectedDos.writeUTF("unit-test-connection-1");
+
+        expectedDos.write(LoadBalanceProtocolConstants.CHECK_SPACE);
+        expectedDos.write(LoadBalanceProtocolConstants.MORE_FLOWFILES);
+        expectedDos.writeInt(69); // metadata length
+        expectedDos.write(1); // 1 attribute
+        expectedDos.write(0); // literal
+        expectedDos.write(4); // length of attribute
+        expectedDos.write("uuid".getBytes());
+        expectedDos.write(0); // literal
+        expectedDos.write(flowFile1.getAttribute("uuid").length());
+        expectedDos.write(flowFile1.getAttribute("uuid").getBytes());
+        expectedDos.writeLong(flowFile1.getLineageStartDate()); // lineage start date
+        expectedDos.writeLong(flowFile1.getEntryDate()); // entry date
+        expectedDos.writeLong(flowFile1.getPenaltyExpirationMillis()); // penalty expiration time
+        expectedDos.write(LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS);
+        expectedDos.writeInt(5);
+        expectedDos.write("hello".getBytes());
+        expectedDos.write(LoadBalanceProtocolConstants.NO_DATA_FRAME);
+        expectedDos.write(LoadBalanceProtocolConstants.NO_MORE_FLOWFILES);
+
+        expectedDos.write(LoadBalanceProtocolConstants.MORE_CONNECTIONS);
+        expectedDos.writeUTF("unit-test-connection-2");
+        expectedDos.write(LoadBalanceProtocolConstants.SKIP_SPACE_CHECK);
+        expectedDos.write(LoadBalanceProtocolConstants.MORE_FLOWFILES);
+        expectedDos.writeInt(64); // metadata length
+        expectedDos.write(1); // 1 attribute
+        expectedDos.write(1); // reference to the first dictionary entry, "uuid"
+        expectedDos.write(0); // literal
+        expectedDos.write(flowFile2.getAttribute("uuid").length());
+        expectedDos.write(flowFile2.getAttribute("uuid").getBytes());
+        expectedDos.writeLong(flowFile2.getLineageStartDate()); // lineage start date
+        expectedDos.writeLong(flowFile2.getEntryDate()); // entry date
+        expectedDos.writeLong(flowFile2.getPenaltyExpirationMillis()); // penalty expiration time
+        expectedDos.write(LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS);
+        expectedDos.writeInt(8);
+        expectedDos.write("good-bye".getBytes());
+        expectedDos.write(LoadBalanceProtocolConstants.NO_DATA_FRAME);
+        expectedDos.write(LoadBalanceProtocolConstants.NO_MORE_FLOWFILES);
+
+        expectedDos.write(LoadBalanceProtocolConstants.NO_MORE_CONNECTIONS);
+        expectedDos.writeLong(expectedChecksum.getValue());
+        expectedDos.write(LoadBalanceProtocolConstants.COMPLETE_TRANSACTION);
+
+        final byte[] expectedSent = expectedOut.toByteArray();
+
+        while (received.size() < expectedSent.length) {
+            Thread.sleep(10L);
+        }
+        final byte[] dataSent = received.toByteArray();
+
+        assertArrayEquals(expectedSent, dataSent);
+
+        assertEquals(Map.of(partition1, List.of(flowFile1)), transaction.getAndPurgeFlowFilesSent());
+        assertEquals(Map.of(partition2, List.of(flowFile2)), transaction.getAndPurgeFlowFilesRejected());
+        assertEquals(LoadBalanceProtocolConstants.PROTOCOL_VERSION_2, transaction.getNegotiatedProtocolVersion());
     }
 }
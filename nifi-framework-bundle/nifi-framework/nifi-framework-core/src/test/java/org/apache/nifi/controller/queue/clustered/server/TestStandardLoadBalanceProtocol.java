@@ -29,6 +29,7 @@ import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.RepositoryRecord;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.io.StringDictionaryEncoder;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventType;
 import org.apache.nifi.provenance.ProvenanceRepository;
@@ -63,9 +64,12 @@ import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalancePro
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.CONFIRM_COMPLETE_TRANSACTION;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.DATA_FRAME_FOLLOWS;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_CONNECTIONS;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.MORE_FLOWFILES;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_DATA_FRAME;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_CONNECTIONS;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.NO_MORE_FLOWFILES;
+import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.QUEUE_FULL;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.REJECT_CHECKSUM;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.SKIP_SPACE_CHECK;
 import static org.apache.nifi.controller.queue.clustered.protocol.LoadBalanceProtocolConstants.SPACE_AVAILABLE;
@@ -588,6 +592,99 @@ public class TestStandardLoadBalanceProtocol {
         Mockito.verify(flowFileQueue, times(1)).receiveFromPeer(anyCollection());
     }
 
+    @Test
+    public void testMultipleConnectionsInTransaction() throws IOException, IllegalClusterStateException {
+        final LoadBalancedFlowFileQueue rejectingQueue = Mockito.mock(LoadBalancedFlowFileQueue.class);
+        when(rejectingQueue.getIdentifier()).thenReturn("rejecting-connection-id");
+        when(rejectingQueue.getLoadBalanceCompression()).thenReturn(LoadBalanceCompression.DO_NOT_COMPRESS);
+        Mockito.doThrow(new IllegalClusterStateException("Intentional Unit Test Exception")).when(rejectingQueue).receiveFromPeer(anyCollection());
+        final Connection rejectingConnection = Mockito.mock(Connection.class);
+        when(rejectingConnection.getFlowFileQueue()).thenReturn(rejectingQueue);
+        when(flowController.getFlowManager().getConnection("rejecting-connection-id")).thenReturn(rejectingConnection);
+
+        final LoadBalancedFlowFileQueue fullQueue = Mockito.mock(LoadBalancedFlowFileQueue.class);
+        when(fullQueue.isLocalPartitionFull()).thenReturn(true);
+        final Connection fullConnection = Mockito.mock(Connection.class);
+        when(fullConnection.getFlowFileQueue()).thenReturn(fullQueue);
+        when(flowController.getFlowManager().getConnection("full-connection-id")).thenReturn(fullConnection);
+
+        final StandardLoadBalanceProtocol protocol = new StandardLoadBalanceProtocol(flowFileRepo, contentRepo, provenanceRepo, flowController, ALWAYS_AUTHORIZED);
+
+        final PipedInputStream serverInput = new PipedInputStream();
+        final PipedOutputStream serverContentSource = new PipedOutputStream();
+        serverInput.connect(serverContentSource);
+
+        final ByteArrayOutputStream serverOutput = new ByteArrayOutputStream();
+
+        final Checksum checksum = new CRC32();
+        final OutputStream checkedOutput = new CheckedOutputStream(serverContentSource, checksum);
+        final DataOutputStream dos = new DataOutputStream(checkedOutput);
+        final StringDictionaryEncoder dictionary = new StringDictionaryEncoder();
+
+        dos.writeUTF("unit-test-connection-id");
+        dos.write(CHECK_SPACE);
+        dos.write(MORE_FLOWFILES);
+        writeAttributes(Collections.singletonMap("uuid", "unit-test-id-1"), dictionary, dos);
+        writeContent("hello".getBytes(), dos);
+        dos.write(MORE_FLOWFILES);
+        writeAttributes(Collections.singletonMap("uuid", "unit-test-id-2"), dictionary, dos);
+        writeContent(null, dos);
+        dos.write(NO_MORE_FLOWFILES);
+
+        dos.write(MORE_CONNECTIONS);
+        dos.writeUTF("rejecting-connection-id");
+        dos.write(SKIP_SPACE_CHECK);
+        dos.write(MORE_FLOWFILES);
+        writeAttributes(Collections.singletonMap("uuid", "unit-test-id-3"), dictionary, dos);
+        writeContent("greetings".getBytes(), dos);
+        dos.write(NO_MORE_FLOWFILES);
+
+        dos.write(MORE_CONNECTIONS);
+        dos.writeUTF("full-connection-id");
+        dos.write(CHECK_SPACE);
+        dos.write(NO_MORE_CONNECTIONS);
+
+        dos.writeLong(checksum.getValue());
+        dos.write(COMPLETE_TRANSACTION);
+
+        protocol.receiveFlowFiles(serverInput, serverOutput, "Unit Test", 2);
+
+        final byte[] serverResponse = serverOutput.toByteArray();
+        assertArrayEquals(new byte[] {SPACE_AVAILABLE, QUEUE_FULL, CONFIRM_CHECKSUM, CONFIRM_COMPLETE_TRANSACTION, ABORT_TRANSACTION, CONFIRM_COMPLETE_TRANSACTION}, serverResponse);
+
+        assertEquals(1, claimContents.size());
+        assertArrayEquals("hellogreetings".getBytes(), claimContents.values().iterator().next());
+
+        // All FlowFiles are persisted in a single update, after which those that could not be transferred are dropped
+        Mockito.verify(flowFileRepo, times(2)).updateRepository(anyCollection());
+        assertEquals(4, flowFileRepoUpdateRecords.size());
+        assertEquals(2, flowFileQueueReceiveRecords.size());
+        assertEquals(List.of("unit-test-id-1", "unit-test-id-2", "unit-test-id-3"), provRepoUpdateRecords.stream()
+            .filter(event -> event.getEventType() == ProvenanceEventType.RECEIVE)
+            .map(ProvenanceEventRecord::getSourceSystemFlowFileIdentifier)
+            .toList());
+        assertEquals(1, provRepoUpdateRecords.stream().filter(event -> event.getEventType() == ProvenanceEventType.DROP).count());
+    }
+
+    private void writeAttributes(final Map<String, String> attributes, final StringDictionaryEncoder dictionary, final DataOutputStream dos) throws IOException {
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             final DataOutputStream out = new DataOutputStream(baos)) {
+            StringDictionaryEncoder.writeVarInt(attributes.size(), out);
+
+            for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+                dictionary.writeString(entry.getKey(), out);
+                dictionary.writeString(entry.getValue(), out);
+            }
+
+            out.writeLong(0L); // lineage start date
+            out.writeLong(0L); // entry date
+            out.writeLong(0L); // penalty expiration time
+
+            dos.writeInt(baos.size());
+            baos.writeTo(dos);
+        }
+    }
+
     private void writeAttributes(final Map<String, String> attributes, final DataOutputStream dos) throws IOException {
         try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
              final DataOutputStream out = new DataOutputStream(baos)) {
@@ -64,6 +64,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -79,6 +80,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -114,6 +118,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
@@ -279,6 +284,9 @@ public class StandardProcessSessionIT {
         Mockito.doAnswer((Answer<List<FlowFileRecord>>) invocation ->
                 localFlowFileQueue.poll((FlowFileFilter) invocation.getArgument(0), invocation.getArgument(1))).when(connection).poll(any(FlowFileFilter.class), any(Set.class));
 
+        Mockito.doAnswer((Answer<List<FlowFileRecord>>) invocation ->
+                localFlowFileQueue.poll((int) invocation.getArgument(0), invocation.getArgument(1))).when(connection).poll(anyInt(), any(Set.class));
+
         Mockito.when(connection.getIdentifier()).thenReturn("conn-uuid");
         return connection;
     }
@@ -891,8 +899,8 @@ public class StandardProcessSessionIT {
         session.get(1);
         session.get(1);
 
-        verify(conn1, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
-        verify(conn2, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
+        verify(conn1, times(1)).poll(anyInt(), any(Set.class));
+        verify(conn2, times(1)).poll(anyInt(), any(Set.class));
     }
 
     @Test
@@ -923,8 +931,8 @@ public class StandardProcessSessionIT {
 
         assertEquals(1, result.size());
 
-        verify(conn1, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
-        verify(conn2, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
+        verify(conn1, times(1)).poll(anyInt(), any(Set.class));
+        verify(conn2, times(1)).poll(anyInt(), any(Set.class));
     }
 
     @Test
@@ -1239,11 +1247,38 @@ public class StandardProcessSessionIT {
         // should throw ProcessException because of IOException (from processor code)
         FileOutputStream mock = Mockito.mock(FileOutputStream.class);
         doThrow(new IOException()).when(mock).write(notNull(), any(Integer.class), any(Integer.class));
+        final FileChannel channel = Mockito.mock(FileChannel.class);
+        doThrow(new IOException()).when(channel).write(any(ByteBuffer.class));
+        when(mock.getChannel()).thenReturn(channel);
 
         final FlowFile finalFlowfile = flowFile;
         assertThrows(ProcessException.class, () -> session.exportTo(finalFlowfile, mock));
     }
 
+    @Test
+    public void testExportToFileOutputStream(@TempDir final Path tempDir) throws IOException {
+        final ContentClaim claim = contentRepo.create(false);
+        final FlowFileRecord flowFileRecord = new StandardFlowFileRecord.Builder()
+                .contentClaim(claim)
+                .addAttribute("uuid", "12345678-1234-1234-1234-123456789012")
+                .entryDate(System.currentTimeMillis())
+                .build();
+        flowFileQueue.put(flowFileRecord);
+        FlowFile flowFile = session.get();
+        assertNotNull(flowFile);
+
+        flowFile = session.write(flowFile, out -> out.write("Hello World".getBytes()));
+        flowFile = session.clone(flowFile, 6, 5);
+
+        final Path destination = tempDir.resolve("exported");
+        try (final FileOutputStream out = new FileOutputStream(destination.toFile())) {
+            out.write("Exported: ".getBytes());
+            session.exportTo(flowFile, out);
+        }
+
+        assertEquals("Exported: World", Files.readString(destination));
+    }
+
     @Test
     public void testReadAfterSessionClosesStream() throws IOException {
         final ContentClaim claim = contentRepo.create(false);
@@ -1857,6 +1892,32 @@ public class StandardProcessSessionIT {
         assertFalse(flowFileQueue.isUnacknowledgedFlowFile());
     }
 
+    @Test
+    public void testRollbackRetainsQueueOrder() {
+        final long queueDate = System.currentTimeMillis();
+        for (int i = 1; i <= 3; i++) {
+            flowFileQueue.put(new StandardFlowFileRecord.Builder()
+                .id(i)
+                .addAttribute("uuid", "12345678-1234-1234-1234-12345678901" + i)
+                .entryDate(queueDate)
+                .lastQueued(queueDate, i)
+                .build());
+        }
+
+        final FlowFile first = session.get();
+        final FlowFile second = session.get();
+        assertEquals(1L, first.getId());
+        assertEquals(2L, second.getId());
+
+        session.rollback();
+        assertEquals(3, flowFileQueue.size().getObjectCount());
+        assertFalse(flowFileQueue.isUnacknowledgedFlowFile());
+
+        for (long expectedId = 1L; expectedId <= 3L; expectedId++) {
+            assertEquals(expectedId, session.get().getId());
+        }
+    }
+
     @Test
     public void testRollbackAfterCheckpoint() {
         final StandardFlowFileRecord.Builder recordBuilder = new StandardFlowFileRecord.Builder()
@@ -2613,6 +2674,39 @@ public class StandardProcessSessionIT {
         }
     }
 
+    @Test
+    @EnabledIfSystemProperty(named = "nifi.test.performance", matches = "true",
+            disabledReason = "Intended for manual performance testing; should not be run in an automated environment")
+    public void testSplitAndCommitAllocations() {
+        final int childCount = 100_000;
+        final Relationship relationship = new Relationship.Builder().name("A").build();
+        final com.sun.management.ThreadMXBean threadMxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().threadId();
+
+        for (int iteration = 0; iteration < 5; iteration++) {
+            flowFileQueue.put(new MockFlowFileRecord());
+
+            final long allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+            final long start = System.nanoTime();
+
+            final FlowFile parent = session.get();
+            assertNotNull(parent);
+            for (int i = 0; i < childCount; i++) {
+                final FlowFile child = session.create(parent);
+                session.transfer(child, relationship);
+            }
+            session.remove(parent);
+            session.commit();
+
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            final long allocatedBytes = threadMxBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            logger.info("Split into {} FlowFiles and committed in {} millis, allocating {} MB", childCount, millis, allocatedBytes / 1024 / 1024);
+
+            // Drain the children so that the queue does not grow between iterations
+            flowFileQueue.poll(Integer.MAX_VALUE, new HashSet<>());
+        }
+    }
+
     private ContentClaim getContentClaim(final FlowFile flowFile) {
         return ((FlowFileRecord) flowFile).getContentClaim();
     }
@@ -3305,8 +3399,12 @@ public class StandardProcessSessionIT {
         }
 
         @Override
-        public long exportTo(ContentClaim claim, OutputStream destination, long offset, long length) {
-            throw new UnsupportedOperationException();
+        public long exportTo(ContentClaim claim, OutputStream destination, long offset, long length) throws IOException {
+            try (final InputStream in = read(claim)) {
+                StreamUtils.skip(in, offset);
+                StreamUtils.copy(in, destination, length);
+                return length;
+            }
         }
 
         @Override
@@ -24,6 +24,7 @@ import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
 import org.apache.nifi.controller.repository.util.DiskUtils;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.processor.DataUnit;
+import org.apache.nifi.stream.io.ByteCountingOutputStream;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.apache.nifi.util.NiFiProperties;
 import org.junit.jupiter.api.AfterEach;
@@ -38,12 +39,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -52,6 +57,7 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -535,6 +541,24 @@ public class TestFileSystemRepository {
         assertArrayEquals(expected, baos.toByteArray());
     }
 
+    @Test
+    public void testImportFromFileCountsBytesWrittenToResourceClaim() throws IOException {
+        final Path testFile = Paths.get("src/test/resources/hello.txt");
+        final long fileSize = Files.size(testFile);
+
+        final ContentClaim claim1 = repository.create(false);
+        assertEquals(fileSize, repository.importFrom(testFile, claim1));
+
+        final ContentClaim claim2 = repository.create(false);
+        assertEquals(claim1.getResourceClaim(), claim2.getResourceClaim());
+        assertEquals(fileSize, claim2.getOffset());
+
+        repository.importFrom(testFile, claim2);
+        final ByteCountingOutputStream out = repository.getWritableClaimStreamByResourceClaim(claim2.getResourceClaim());
+        assertEquals(2 * fileSize, out.getBytesWritten());
+        assertEquals(2 * fileSize, Files.size(getPath(claim2)));
+    }
+
     @Test
     public void testImportFromStream() throws IOException {
         final ContentClaim claim = repository.create(false);
@@ -583,6 +607,64 @@ public class TestFileSystemRepository {
         assertArrayEquals(doubleExpected, Files.readAllBytes(outPath));
     }
 
+    @Test
+    public void testExportToChannel() throws IOException {
+        final ContentClaim firstClaim = repository.create(true);
+        try (final OutputStream out = repository.write(firstClaim)) {
+            out.write("first".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // The second claim shares the first claim's Resource Claim, so it starts at a non-zero offset within the file
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            Files.copy(helloWorldFile.toPath(), out);
+        }
+        assertEquals(firstClaim.getResourceClaim(), claim.getResourceClaim());
+
+        final byte[] expected = Files.readAllBytes(helloWorldFile.toPath());
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final WritableByteChannel channel = Channels.newChannel(baos)) {
+            assertEquals(expected.length - 2, repository.exportTo(claim, channel, 1, expected.length - 2));
+        }
+        assertArrayEquals(Arrays.copyOfRange(expected, 1, expected.length - 1), baos.toByteArray());
+
+        final Path outPath = new File("target/testExportToChannel").toPath();
+        Files.deleteIfExists(outPath);
+        repository.exportTo(claim, outPath, false, 2, expected.length - 2);
+        assertArrayEquals(Arrays.copyOfRange(expected, 2, expected.length), Files.readAllBytes(outPath));
+
+        assertThrows(EOFException.class, () -> repository.exportTo(claim, outPath, false, 2, expected.length));
+    }
+
+    @Test
+    public void testExportBeyondClaimThatIsNotLastInResourceClaim() throws IOException {
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write("first".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // The following claim is written to the same Resource Claim, directly after the claim being exported
+        final ContentClaim followingClaim = repository.create(true);
+        try (final OutputStream out = repository.write(followingClaim)) {
+            out.write("second".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(claim.getResourceClaim(), followingClaim.getResourceClaim());
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final WritableByteChannel channel = Channels.newChannel(baos)) {
+            assertThrows(EOFException.class, () -> repository.exportTo(claim, channel, 1, 10));
+            assertThrows(EOFException.class, () -> repository.exportTo(claim, channel, 0, 6));
+        }
+        assertEquals(0, baos.size());
+
+        final Path outPath = new File("target/testExportBeyondClaimThatIsNotLastInResourceClaim").toPath();
+        Files.deleteIfExists(outPath);
+        assertThrows(EOFException.class, () -> repository.exportTo(claim, outPath, false, 2, 4));
+
+        assertEquals(4, repository.exportTo(claim, outPath, false, 1, 4));
+        assertEquals("irst", Files.readString(outPath));
+    }
+
     @Test
     public void testSize() throws IOException {
         final ContentClaim claim = repository.create(true);
@@ -632,6 +714,49 @@ public class TestFileSystemRepository {
         }
     }
 
+    @Test
+    public void testMemoryMappedReads() throws IOException {
+        recreateRepositoryWithPropertyOverrides(Map.of(NiFiProperties.CONTENT_REPOSITORY_MEMORY_MAPPED_READS, "true"));
+        assertFalse(repository.isResourceClaimStreamSupported());
+
+        final ContentClaim firstClaim = repository.create(false);
+        try (final OutputStream out = repository.write(firstClaim)) {
+            out.write("hello".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ContentClaim secondClaim = repository.create(false);
+        try (final OutputStream out = repository.write(secondClaim)) {
+            out.write("good-bye".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(firstClaim.getResourceClaim(), secondClaim.getResourceClaim());
+
+        // While the Resource Claim is still writable, content is read from the file rather than mapped
+        assertTrue(firstClaim.getResourceClaim().isWritable());
+        assertFalse(repository.readAsByteBuffer(secondClaim).isDirect());
+        try (final InputStream in = repository.read(secondClaim)) {
+            assertEquals("good-bye", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        claimManager.freeze(firstClaim.getResourceClaim());
+
+        final ByteBuffer secondBuffer = repository.readAsByteBuffer(secondClaim);
+        assertTrue(secondBuffer.isDirect());
+        assertTrue(secondBuffer.isReadOnly());
+        assertEquals("good-bye", StandardCharsets.UTF_8.decode(secondBuffer).toString());
+
+        try (final InputStream in = repository.read(firstClaim)) {
+            assertEquals("hello", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        try (final InputStream in = repository.read(secondClaim)) {
+            final byte[] buffer = new byte[4];
+            StreamUtils.fillBuffer(in, buffer);
+            assertEquals("good", new String(buffer, StandardCharsets.UTF_8));
+            assertEquals(4, in.available());
+        }
+    }
+
     @Test
     public void testReadWithContentArchived() throws IOException {
         final ContentClaim claim = repository.create(true);
@@ -314,7 +314,7 @@ public class TestWriteAheadFlowFileRepository {
             @Override
             public QueueDiagnostics getQueueDiagnostics() {
                 final FlowFileQueueSize size = new FlowFileQueueSize(size().getObjectCount(), size().getByteCount(), 0, 0, 0, 0, 0);
-                return new StandardQueueDiagnostics(new StandardLocalQueuePartitionDiagnostics(size, false, false), Collections.emptyList());
+                return new StandardQueueDiagnostics(new StandardLocalQueuePartitionDiagnostics(size, false, false, 0L, 0L), Collections.emptyList());
             }
 
             @Override
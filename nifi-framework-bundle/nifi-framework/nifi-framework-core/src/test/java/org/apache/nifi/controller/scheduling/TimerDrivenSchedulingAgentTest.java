@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.tasks.ConnectableTask;
+import org.apache.nifi.controller.tasks.InvocationResult;
+import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TimerDrivenSchedulingAgentTest {
+
+    private static final String BORED_YIELD_DURATION = "10 millis";
+
+    private static final String FIRST_QUEUE_ID = "first-queue";
+
+    private static final String SECOND_QUEUE_ID = "second-queue";
+
+    @Mock
+    private FlowController flowController;
+
+    @Mock
+    private FlowEngine flowEngine;
+
+    @Mock
+    private RepositoryContextFactory repositoryContextFactory;
+
+    @Mock
+    private NiFiProperties nifiProperties;
+
+    @Mock
+    private Connectable connectable;
+
+    @Mock
+    private ConnectableTask connectableTask;
+
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+
+    private final List<Long> scheduledDelays = new ArrayList<>();
+
+    private LifecycleState lifecycleState;
+
+    private TimerDrivenSchedulingAgent schedulingAgent;
+
+    @BeforeEach
+    void setSchedulingAgent() {
+        when(nifiProperties.getBoredYieldDuration()).thenReturn(BORED_YIELD_DURATION);
+        when(nifiProperties.isBoredYieldWakeOnEnqueue()).thenReturn(true);
+
+        when(flowEngine.scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            scheduledDelays.add(invocation.getArgument(1));
+
+            final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            when(future.cancel(false)).thenReturn(true);
+            return future;
+        });
+
+        final List<Connection> incomingConnections = List.of(createConnection(FIRST_QUEUE_ID), createConnection(SECOND_QUEUE_ID));
+        when(connectable.getMaxConcurrentTasks()).thenReturn(1);
+        when(connectable.getSchedulingPeriod(any(TimeUnit.class))).thenReturn(0L);
+        when(connectable.hasIncomingConnection()).thenReturn(true);
+        when(connectable.getIncomingConnections()).thenReturn(incomingConnections);
+        when(connectableTask.getConnectable()).thenReturn(connectable);
+        when(connectableTask.invoke()).thenReturn(InvocationResult.yield("No work"));
+
+        lifecycleState = new LifecycleState(UUID.randomUUID().toString());
+        lifecycleState.setScheduled(true);
+
+        schedulingAgent = new TimerDrivenSchedulingAgent(flowController, flowEngine, repositoryContextFactory, nifiProperties) {
+            @Override
+            ConnectableTask createConnectableTask(final Connectable connectable, final LifecycleState scheduleState) {
+                return connectableTask;
+            }
+        };
+        schedulingAgent.doSchedule(connectable, lifecycleState);
+    }
+
+    @Test
+    void testIdleComponentWokenUpOnEnqueue() {
+        triggerLatest();
+        assertEquals(1, schedulingAgent.getWastedTriggerCount());
+        assertEquals(2, schedulingAgent.getIdleTriggerRegistrationCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), scheduledDelays.getLast());
+
+        schedulingAgent.onFlowFilesEnqueued(FIRST_QUEUE_ID);
+        assertEquals(1, schedulingAgent.getWakeUpCount());
+        assertEquals(3, scheduledTasks.size());
+        assertEquals(0L, scheduledDelays.getLast());
+
+        // The component is no longer waiting on any of its queues once it has been woken up
+        assertEquals(0, schedulingAgent.getIdleTriggerRegistrationCount());
+        schedulingAgent.onFlowFilesEnqueued(SECOND_QUEUE_ID);
+        assertEquals(1, schedulingAgent.getWakeUpCount());
+        assertEquals(3, scheduledTasks.size());
+    }
+
+    @Test
+    void testRegistrationsRemovedWhenTriggeredByTimer() {
+        triggerLatest();
+        assertEquals(2, schedulingAgent.getIdleTriggerRegistrationCount());
+
+        when(connectableTask.invoke()).thenReturn(InvocationResult.DO_NOT_YIELD);
+        triggerLatest();
+        assertEquals(0, schedulingAgent.getIdleTriggerRegistrationCount());
+
+        schedulingAgent.onFlowFilesEnqueued(FIRST_QUEUE_ID);
+        assertEquals(0, schedulingAgent.getWakeUpCount());
+    }
+
+    @Test
+    void testRegistrationsRemovedOnUnschedule() {
+        triggerLatest();
+        assertEquals(2, schedulingAgent.getIdleTriggerRegistrationCount());
+
+        schedulingAgent.doUnschedule(connectable, lifecycleState);
+        assertEquals(0, schedulingAgent.getIdleTriggerRegistrationCount());
+
+        schedulingAgent.onFlowFilesEnqueued(FIRST_QUEUE_ID);
+        assertEquals(0, schedulingAgent.getWakeUpCount());
+    }
+
+    @Test
+    void testRegistrationsRemovedOnQueueRemoved() {
+        triggerLatest();
+        assertEquals(2, schedulingAgent.getIdleTriggerRegistrationCount());
+
+        schedulingAgent.onFlowFileQueueRemoved(FIRST_QUEUE_ID);
+        assertEquals(1, schedulingAgent.getIdleTriggerRegistrationCount());
+
+        // The component is still woken up by its remaining queue
+        schedulingAgent.onFlowFilesEnqueued(SECOND_QUEUE_ID);
+        assertEquals(1, schedulingAgent.getWakeUpCount());
+        assertEquals(0, schedulingAgent.getIdleTriggerRegistrationCount());
+    }
+
+    @Test
+    void testRunRejectedWhileRunningTriggersComponentAgain() {
+        final AtomicInteger invocations = new AtomicInteger();
+        when(connectableTask.invoke()).thenAnswer(invocation -> {
+            if (invocations.incrementAndGet() == 1) {
+                // A future that replaced the running one must not invoke the component concurrently
+                triggerLatest();
+                assertEquals(1, invocations.get());
+            }
+            return InvocationResult.DO_NOT_YIELD;
+        });
+
+        triggerLatest();
+        assertEquals(2, invocations.get());
+    }
+
+    private void triggerLatest() {
+        scheduledTasks.getLast().run();
+    }
+
+    private Connection createConnection(final String queueIdentifier) {
+        final FlowFileQueue flowFileQueue = mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn(queueIdentifier);
+
+        final Connection connection = mock(Connection.class);
+        when(connection.getFlowFileQueue()).thenReturn(flowFileQueue);
+        return connection;
+    }
+}
@@ -20,8 +20,12 @@ import org.apache.nifi.controller.flow.FlowManager;
 import org.apache.nifi.controller.status.history.StatusHistoryRepository;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class TestCachingConnectionStatusAnalyticsEngine extends TestStatusAnalyticsEngine {
 
@@ -46,4 +50,17 @@ public class TestCachingConnectionStatusAnalyticsEngine extends TestStatusAnalyt
         assertNotEquals(statusAnalyticsB, statusAnalyticsTest);
     }
 
+    @Test
+    public void testRetainStatusAnalytics() {
+        CachingConnectionStatusAnalyticsEngine statusAnalyticsEngine = new CachingConnectionStatusAnalyticsEngine(flowManager, statusRepository, statusAnalyticsModelMapFactory,
+                                                                                                    DEFAULT_PREDICT_INTERVAL_MILLIS, DEFAULT_QUERY_INTERVAL_MILLIS,
+                                                                                                    DEFAULT_SCORE_NAME, DEFAULT_SCORE_THRESHOLD);
+        StatusAnalytics statusAnalyticsA = statusAnalyticsEngine.getStatusAnalytics("A");
+        StatusAnalytics statusAnalyticsB = statusAnalyticsEngine.getStatusAnalytics("B");
+
+        statusAnalyticsEngine.retainStatusAnalytics(Set.of("A"));
+        assertSame(statusAnalyticsA, statusAnalyticsEngine.getStatusAnalytics("A"));
+        assertNotSame(statusAnalyticsB, statusAnalyticsEngine.getStatusAnalytics("B"));
+    }
+
 }
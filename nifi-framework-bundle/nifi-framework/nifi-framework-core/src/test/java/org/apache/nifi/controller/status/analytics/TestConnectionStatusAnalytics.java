@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
@@ -58,6 +59,11 @@ public class TestConnectionStatusAnalytics {
     final RepositoryStatusReport repositoryStatusReport = Mockito.mock(RepositoryStatusReport.class);
 
     protected ConnectionStatusAnalytics getConnectionStatusAnalytics(Map<String, Tuple<StatusAnalyticsModel, StatusMetricExtractFunction>> modelMap) {
+        return getConnectionStatusAnalytics(modelMap, false);
+    }
+
+    protected ConnectionStatusAnalytics getConnectionStatusAnalytics(Map<String, Tuple<StatusAnalyticsModel, StatusMetricExtractFunction>> modelMap,
+                                                                     boolean supportOnlineLearning) {
 
         StatusHistoryRepository statusRepository = Mockito.mock(StatusHistoryRepository.class);
         FlowManager flowManager;
@@ -91,7 +97,7 @@ public class TestConnectionStatusAnalytics {
         when(statusRepository.getConnectionStatusHistory(anyString(), any(), any(), anyInt())).thenReturn(statusHistory);
 
         ConnectionStatusAnalytics connectionStatusAnalytics = new ConnectionStatusAnalytics(statusRepository, flowManager,
-                                                                                            modelMap, connectionIdentifier, false);
+                                                                                            modelMap, connectionIdentifier, supportOnlineLearning);
         connectionStatusAnalytics.refresh();
         return connectionStatusAnalytics;
     }
@@ -131,6 +137,29 @@ public class TestConnectionStatusAnalytics {
         assertEquals(-1, countTime);
     }
 
+    @Test
+    public void testInvalidOnlineModelRetrainedFromQueryInterval() {
+        final Date now = new Date();
+        final long tomorrowMillis = DateUtils.addDays(now, 1).toInstant().toEpochMilli();
+        Map<String, Tuple<StatusAnalyticsModel, StatusMetricExtractFunction>> modelMap = getModelMap("queuedCount", .5, 100.0, tomorrowMillis);
+        final StatusAnalyticsModel model = modelMap.get("queuedCount").getKey();
+        when(model.supportsOnlineLearning()).thenReturn(true);
+
+        ConnectionStatusAnalytics connectionStatusAnalytics = getConnectionStatusAnalytics(modelMap, true);
+        Mockito.clearInvocations(model);
+        final long queryIntervalMillis = connectionStatusAnalytics.getQueryIntervalMillis();
+        final long previousEndMillis = connectionStatusAnalytics.getQueryWindow().getEndTimeMillis();
+        connectionStatusAnalytics.refresh();
+        assertEquals(previousEndMillis, connectionStatusAnalytics.getQueryWindow().getStartTimeMillis());
+
+        assertEquals(-1, connectionStatusAnalytics.getTimeToCountBackpressureMillis(connection, flowFileEvent));
+        verify(model).clear();
+
+        connectionStatusAnalytics.refresh();
+        final QueryWindow queryWindow = connectionStatusAnalytics.getQueryWindow();
+        assertTrue(queryWindow.getEndTimeMillis() - queryWindow.getStartTimeMillis() >= queryIntervalMillis);
+    }
+
     @Test
     public void testInvalidModelNaNScore() {
         Map<String, Tuple<StatusAnalyticsModel, StatusMetricExtractFunction>> modelMap = getModelMap("queuedCount", Double.NaN, Double.NaN, Double.NaN);
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.analytics;
+
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.flow.FlowManager;
+import org.apache.nifi.controller.repository.FlowFileEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestConnectionStatusPredictionTask {
+
+    private FlowManager flowManager;
+    private FlowFileEventRepository flowFileEventRepository;
+    private StatusAnalyticsEngine analyticsEngine;
+    private final Set<Connection> connections = new HashSet<>();
+    private final List<String> refreshed = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        flowManager = Mockito.mock(FlowManager.class);
+        flowFileEventRepository = Mockito.mock(FlowFileEventRepository.class);
+        analyticsEngine = Mockito.mock(CachingConnectionStatusAnalyticsEngine.class);
+
+        for (final String id : new String[] {"C", "A", "B"}) {
+            final Connection connection = Mockito.mock(Connection.class);
+            when(connection.getIdentifier()).thenReturn(id);
+            connections.add(connection);
+        }
+
+        when(flowManager.findAllConnections()).thenReturn(connections);
+        when(flowFileEventRepository.reportTransferEvents(anyLong())).thenReturn(null);
+        when(analyticsEngine.getStatusAnalytics(anyString())).thenAnswer(invocation -> {
+            final String id = invocation.getArgument(0);
+            final ConnectionStatusAnalytics analytics = Mockito.mock(ConnectionStatusAnalytics.class);
+            doAnswer(refreshInvocation -> refreshed.add(id)).when(analytics).refresh();
+            return analytics;
+        });
+    }
+
+    @Test
+    public void testRefreshesAllConnectionsWithinBudget() {
+        final ConnectionStatusPredictionTask task = new ConnectionStatusPredictionTask(flowManager, flowFileEventRepository, analyticsEngine, 60_000L);
+        task.run();
+        assertEquals(List.of("A", "B", "C"), refreshed);
+    }
+
+    @Test
+    public void testContinuesAfterBudgetExhausted() {
+        // With no budget, only one connection is refreshed each time that the task runs
+        final ConnectionStatusPredictionTask task = new ConnectionStatusPredictionTask(flowManager, flowFileEventRepository, analyticsEngine, 0L);
+        task.run();
+        task.run();
+        assertEquals(List.of("A", "B"), refreshed);
+
+        // Removing the connection that was refreshed last should not prevent the task from continuing with the next one
+        connections.removeIf(connection -> connection.getIdentifier().equals("B"));
+        task.run();
+        task.run();
+        assertEquals(List.of("A", "B", "C", "A"), refreshed);
+    }
+
+    @Test
+    public void testDiscardsAnalyticsOfRemovedConnections() {
+        final ConnectionStatusPredictionTask task = new ConnectionStatusPredictionTask(flowManager, flowFileEventRepository, analyticsEngine, 0L);
+        connections.removeIf(connection -> connection.getIdentifier().equals("B"));
+        task.run();
+        verify((CachingConnectionStatusAnalyticsEngine) analyticsEngine).retainStatusAnalytics(Set.of("A", "C"));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.analytics.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestIncrementalOrdinaryLeastSquares {
+
+    private static final double TIMESTAMP = 1565444720000.0;
+
+    @Test
+    public void testMatchesOrdinaryLeastSquares() {
+        final Random random = new Random(1L);
+        final List<Double[]> features = new ArrayList<>();
+        final List<Double> labels = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final double ratio = 0.5 + random.nextDouble();
+            features.add(new Double[] {TIMESTAMP + i * 60_000, ratio});
+            labels.add(1000 + i * 25 - ratio * 200 + random.nextDouble() * 10);
+        }
+
+        final OrdinaryLeastSquares ordinaryLeastSquares = new OrdinaryLeastSquares();
+        ordinaryLeastSquares.learn(features.stream(), labels.stream());
+
+        // Learning from the observations one at a time should give the same regression as learning from all of them at once
+        final IncrementalOrdinaryLeastSquares incremental = new IncrementalOrdinaryLeastSquares(Long.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> incremental.learn(features.subList(0, 1).stream(), labels.subList(0, 1).stream()));
+        for (int i = 1; i < features.size(); i++) {
+            try {
+                incremental.learn(Stream.<Double[]>of(features.get(i)), Stream.of(labels.get(i)));
+            } catch (final IllegalArgumentException ignored) {
+                // Not enough observations yet
+            }
+        }
+
+        assertEquals(features.size(), incremental.getObservationCount());
+        assertEquals(ordinaryLeastSquares.getScores().get("rSquared"), incremental.getScores().get("rSquared"), 1E-6);
+
+        final Double[] predictor = {TIMESTAMP + 15 * 60_000, 1.0};
+        assertEquals(ordinaryLeastSquares.predict(predictor), incremental.predict(predictor), 1E-3);
+
+        final Map<Integer, Double> predictorVars = new HashMap<>();
+        predictorVars.put(1, 1.0);
+        assertEquals(ordinaryLeastSquares.predictVariable(0, predictorVars, 2000.0), incremental.predictVariable(0, predictorVars, 2000.0), 1.0);
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        final IncrementalOrdinaryLeastSquares model = new IncrementalOrdinaryLeastSquares(5 * 60_000L);
+        final Random random = new Random(2L);
+
+        // The queue first shrinks and then grows; once the shrinking observations are outside the window, the model should only reflect the growth
+        final List<Double[]> features = new ArrayList<>();
+        final List<Double> labels = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final double ratio = 0.5 + random.nextDouble();
+            features.add(new Double[] {TIMESTAMP + i * 60_000, ratio});
+            labels.add(i < 10 ? 5000.0 - i * 100 + ratio : 4000.0 + (i - 10) * 50 + ratio);
+        }
+        model.learn(features.stream(), labels.stream());
+
+        assertEquals(6, model.getObservationCount());
+        assertEquals(1.0, model.getScores().get("rSquared"), 1E-6);
+        assertEquals(4000.0 + 20 * 50 + 1.0, model.predict(new Double[] {TIMESTAMP + 30 * 60_000, 1.0}), 1E-3);
+
+        // Observations that the model has already seen are ignored
+        model.learn(features.stream(), labels.stream());
+        assertEquals(6, model.getObservationCount());
+    }
+
+    @Test
+    public void testConstantFeature() {
+        final IncrementalOrdinaryLeastSquares model = new IncrementalOrdinaryLeastSquares(Long.MAX_VALUE);
+        final Double[][] features = {{TIMESTAMP, 1.0}, {TIMESTAMP + 1000, 1.0}, {TIMESTAMP + 2000, 1.0}, {TIMESTAMP + 3000, 1.0}};
+        final Double[] labels = {50.0, 60.0, 70.0, 80.0};
+
+        model.learn(Stream.of(features), Stream.of(labels));
+        assertNull(model.getScores());
+        assertNull(model.predict(new Double[] {TIMESTAMP + 4000, 1.0}));
+    }
+}
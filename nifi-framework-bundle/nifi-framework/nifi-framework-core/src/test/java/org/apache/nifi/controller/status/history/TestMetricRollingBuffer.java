@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,6 +29,8 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class TestMetricRollingBuffer {
     private static final Set<MetricDescriptor<?>> PROCESSOR_METRICS = Arrays.stream(ProcessorStatusDescriptor.values())
@@ -124,4 +127,80 @@ public class TestMetricRollingBuffer {
             assertEquals(Long.valueOf(i), snapshot.getStatusMetric(ProcessorStatusDescriptor.BYTES_WRITTEN.getDescriptor()));
         }
     }
+
+    @Test
+    public void testOverwrittenSnapshotValuesCleared() {
+        final int bufferCapacity = 4;
+        final MetricRollingBuffer buffer = new MetricRollingBuffer(bufferCapacity);
+        final MetricDescriptor<?> bytesWritten = ProcessorStatusDescriptor.BYTES_WRITTEN.getDescriptor();
+        final MetricDescriptor<?> inputCount = ProcessorStatusDescriptor.INPUT_COUNT.getDescriptor();
+
+        final Set<MetricDescriptor<?>> metricsWithoutInputCount = new HashSet<>(PROCESSOR_METRICS);
+        metricsWithoutInputCount.remove(inputCount);
+
+        final long startTime = System.currentTimeMillis();
+        final List<Date> timestamps = new ArrayList<>();
+        for (int i = 0; i < bufferCapacity * 2; i++) {
+            final Date timestamp = new Date(startTime + i * 1000);
+            timestamps.add(timestamp);
+
+            // Only the snapshots that are overwritten have a value for the input count
+            final StatusSnapshot snapshot = mock(StatusSnapshot.class);
+            when(snapshot.getTimestamp()).thenReturn(timestamp);
+            when(snapshot.getStatusMetric(bytesWritten)).thenReturn((long) i);
+            if (i < bufferCapacity) {
+                when(snapshot.getMetricDescriptors()).thenReturn(PROCESSOR_METRICS);
+                when(snapshot.getStatusMetric(inputCount)).thenReturn(100L + i);
+            } else {
+                when(snapshot.getMetricDescriptors()).thenReturn(metricsWithoutInputCount);
+            }
+
+            buffer.update(snapshot);
+        }
+
+        final List<StatusSnapshot> snapshots = buffer.getSnapshots(timestamps.subList(bufferCapacity, timestamps.size()), true, PROCESSOR_METRICS);
+        for (int i = 0; i < bufferCapacity; i++) {
+            final StatusSnapshot snapshot = snapshots.get(i);
+            assertEquals(Long.valueOf(bufferCapacity + i), snapshot.getStatusMetric(bytesWritten));
+            assertEquals(Long.valueOf(0L), snapshot.getStatusMetric(inputCount));
+        }
+    }
+
+    @Test
+    public void testCounters() {
+        final MetricRollingBuffer buffer = new MetricRollingBuffer(10);
+        final MetricDescriptor<?> counter = new CounterMetricDescriptor<>("records", "records (5 mins)", "records (5 mins)", MetricDescriptor.Formatter.COUNT, status -> null);
+
+        final long startTime = System.currentTimeMillis();
+        final List<Date> timestamps = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            final StandardStatusSnapshot snapshot = new StandardStatusSnapshot(PROCESSOR_METRICS);
+            snapshot.setTimestamp(new Date(startTime + i * 1000));
+            timestamps.add(snapshot.getTimestamp());
+
+            snapshot.addStatusMetric(ProcessorStatusDescriptor.INPUT_COUNT.getDescriptor(), (long) i);
+            if (i % 2 == 0) {
+                snapshot.addStatusMetric(counter, i * 10L);
+            }
+
+            buffer.update(snapshot);
+        }
+
+        assertEquals(10, buffer.size());
+
+        final List<StatusSnapshot> withCounters = buffer.getSnapshots(timestamps, true, PROCESSOR_METRICS);
+        for (int i = 5; i < 15; i++) {
+            final StatusSnapshot snapshot = withCounters.get(i);
+            assertEquals(timestamps.get(i), snapshot.getTimestamp());
+            assertEquals(Long.valueOf(i), snapshot.getStatusMetric(ProcessorStatusDescriptor.INPUT_COUNT.getDescriptor()));
+            assertEquals(i % 2 == 0, snapshot.getMetricDescriptors().contains(counter));
+            if (i % 2 == 0) {
+                assertEquals(Long.valueOf(i * 10L), snapshot.getStatusMetric(counter));
+            }
+        }
+
+        final List<StatusSnapshot> withoutCounters = buffer.getSnapshots(timestamps, false, PROCESSOR_METRICS);
+        assertFalse(withoutCounters.get(14).getMetricDescriptors().contains(counter));
+        assertEquals(Long.valueOf(14), withoutCounters.get(14).getStatusMetric(ProcessorStatusDescriptor.INPUT_COUNT.getDescriptor()));
+    }
 }
@@ -18,6 +18,7 @@
 package org.apache.nifi.controller.swap;
 
 import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.queue.QueueSize;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapSummary;
@@ -25,7 +26,12 @@ import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
 import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.controller.repository.schema.FlowFileRecordFieldMap;
 import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.repository.schema.FieldMapRecord;
+import org.apache.nifi.repository.schema.Record;
+import org.apache.nifi.repository.schema.RecordSchema;
+import org.apache.nifi.repository.schema.SchemaRecordWriter;
 import org.apache.nifi.stream.io.NullOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +42,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -45,6 +53,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -55,6 +64,8 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestSchemaSwapSerializerDeserializer {
 
@@ -169,6 +180,105 @@ public class TestSchemaSwapSerializerDeserializer {
         }
     }
 
+    @Test
+    public void testRepeatedAttributesAreDictionaryEncoded() throws IOException {
+        final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+
+        final List<FlowFileRecord> toSwap = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            final Map<String, String> attrs = new HashMap<>();
+            attrs.put("mime.type", "application/json");
+            attrs.put("kafka.topic", "topic-" + (i % 3));
+            attrs.put("i", String.valueOf(i));
+            toSwap.add(new MockFlowFile(attrs, i, resourceClaimManager));
+        }
+
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new SchemaSwapSerializer().serializeFlowFiles(toSwap, flowFileQueue, "target/testDictionary.swap", baos);
+
+        final ByteArrayOutputStream v3Out = new ByteArrayOutputStream();
+        writeVersion3SwapFile(toSwap, flowFileQueue, v3Out);
+        assertTrue(baos.size() < v3Out.size(), "Dictionary-encoded swap file of " + baos.size() + " bytes is not smaller than " + v3Out.size() + " bytes");
+
+        final SwapContents contents = new SchemaSwapDeserializer().deserializeFlowFiles(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())),
+            "target/testDictionary.swap", flowFileQueue, resourceClaimManager);
+        final List<FlowFileRecord> flowFiles = contents.getFlowFiles();
+        assertEquals(1000, flowFiles.size());
+
+        for (int i = 0; i < 1000; i++) {
+            final FlowFileRecord flowFile = flowFiles.get(i);
+            assertEquals(toSwap.get(i).getAttributes(), flowFile.getAttributes());
+        }
+
+        // Repeated values are read once and then shared by all FlowFiles that reference them
+        assertSame(flowFiles.get(0).getAttribute("mime.type"), flowFiles.get(999).getAttribute("mime.type"));
+    }
+
+    @Test
+    public void testReadVersion3SwapFile() throws IOException {
+        final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+
+        final List<FlowFileRecord> toSwap = new ArrayList<>(100);
+        final Map<String, String> attrs = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            attrs.put("i", String.valueOf(i));
+            toSwap.add(new MockFlowFile(attrs, i, resourceClaimManager));
+        }
+
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        // Swap files of this version were written with the FlowFiles in reverse priority order
+        final List<FlowFileRecord> reversed = new ArrayList<>(toSwap);
+        Collections.reverse(reversed);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeVersion3SwapFile(reversed, flowFileQueue, baos);
+
+        final SwapContents contents = new SchemaSwapDeserializer().deserializeFlowFiles(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())),
+            "target/testVersion3.swap", flowFileQueue, resourceClaimManager);
+        assertEquals(100, contents.getSummary().getQueueSize().getObjectCount());
+        assertEquals(100, contents.getFlowFiles().size());
+
+        // The FlowFiles are read back in priority order
+        int counter = 0;
+        for (final FlowFileRecord flowFile : contents.getFlowFiles()) {
+            final int i = counter++;
+            assertEquals(String.valueOf(i), flowFile.getAttribute("i"));
+            assertEquals(i, flowFile.getSize());
+        }
+    }
+
+    /**
+     * Writes the given FlowFiles the way that swap files were written before attributes were dictionary-encoded
+     */
+    private void writeVersion3SwapFile(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final OutputStream out) throws IOException {
+        final RecordSchema schema = SwapSchema.FULL_SWAP_FILE_SCHEMA_V3;
+        final RecordSchema flowFileSchema = new RecordSchema(schema.getField(SwapSchema.FLOWFILE_CONTENTS).getSubFields());
+        schema.writeTo(out);
+
+        final List<ResourceClaim> resourceClaims = new ArrayList<>();
+        long contentSize = 0L;
+        for (final FlowFileRecord flowFile : toSwap) {
+            contentSize += flowFile.getSize();
+            resourceClaims.add(flowFile.getContentClaim().getResourceClaim());
+        }
+
+        final SwapSummary swapSummary = new StandardSwapSummary(new QueueSize(toSwap.size(), contentSize), (long) toSwap.size() - 1, resourceClaims, 0L, 0L);
+        final Record summaryRecord = new SwapSummaryFieldMap(swapSummary, queue.getIdentifier(), SwapSchema.SWAP_SUMMARY_SCHEMA_V3);
+        final List<Record> flowFileRecords = toSwap.stream()
+            .map(flowFile -> (Record) new FlowFileRecordFieldMap(flowFile, flowFileSchema))
+            .toList();
+
+        final Map<String, Object> swapFileMap = new HashMap<>();
+        swapFileMap.put(SwapSchema.SWAP_SUMMARY, summaryRecord);
+        swapFileMap.put(SwapSchema.FLOWFILE_CONTENTS, flowFileRecords);
+        new SchemaRecordWriter().writeRecord(new FieldMapRecord(schema, swapFileMap), out);
+    }
+
     @Test
     @EnabledIfSystemProperty(named = "nifi.test.performance", matches = "true",
             disabledReason = "For manual testing, in order to ensure that changes do not negatively impact performance")
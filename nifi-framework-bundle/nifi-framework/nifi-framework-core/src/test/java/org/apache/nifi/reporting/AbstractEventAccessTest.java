@@ -24,6 +24,7 @@ import org.apache.nifi.controller.flow.FlowManager;
 import org.apache.nifi.controller.repository.FlowFileEventRepository;
 import org.apache.nifi.controller.repository.RepositoryStatusReport;
 import org.apache.nifi.controller.repository.StandardRepositoryStatusReport;
+import org.apache.nifi.controller.repository.metrics.StandardFlowFileEvent;
 import org.apache.nifi.controller.status.ProcessGroupStatus;
 import org.apache.nifi.controller.status.ProcessorStatus;
 import org.apache.nifi.controller.status.analytics.StatusAnalyticsEngine;
@@ -40,12 +41,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -65,6 +71,12 @@ class AbstractEventAccessTest {
 
     private static final int SINGLE_DEPTH = 1;
 
+    private static final String CHILD_GROUP_ID = UUID.randomUUID().toString();
+
+    private static final long BYTES_READ = 1024L;
+
+    private static final long PROCESSING_NANOS = 5000L;
+
     @Mock
     private ProcessScheduler processScheduler;
 
@@ -80,6 +92,9 @@ class AbstractEventAccessTest {
     @Mock
     private ProcessGroup processGroup;
 
+    @Mock
+    private ProcessGroup childGroup;
+
     @Mock
     private ProcessorNode processorNode;
 
@@ -117,7 +132,6 @@ class AbstractEventAccessTest {
         final Predicate<Authorizable> checkAuthorization = authorizables::add;
 
         when(processorNode.getIdentifier()).thenReturn(PROCESSOR_ID);
-        when(processorNode.getProcessGroup()).thenReturn(processGroup);
 
         when(processGroup.getProcessors()).thenReturn(List.of(processorNode));
         when(processGroup.getName()).thenReturn(PROCESS_GROUP_NAME);
@@ -192,6 +206,65 @@ class AbstractEventAccessTest {
         assertEquals(2, authorizables.size());
     }
 
+    @Test
+    void testGetGroupStatusDepthLimitedIncludesChildGroupTotals() {
+        final StandardRepositoryStatusReport repositoryStatusReport = new StandardRepositoryStatusReport();
+        repositoryStatusReport.addReportEntry(createEvent(), PROCESSOR_ID);
+
+        when(processorNode.getIdentifier()).thenReturn(PROCESSOR_ID);
+        when(childGroup.getIdentifier()).thenReturn(CHILD_GROUP_ID);
+        when(childGroup.getProcessors()).thenReturn(List.of(processorNode));
+        when(processGroup.getIdentifier()).thenReturn(PROCESS_GROUP_ID);
+        when(processGroup.getProcessGroups()).thenReturn(Set.of(childGroup));
+
+        final ProcessGroupStatus groupStatus = eventAccess.getGroupStatus(processGroup, repositoryStatusReport, authorizable -> false, SINGLE_DEPTH, SINGLE_DEPTH, INCLUDE_CONNECTION_DETAILS);
+
+        assertEquals(BYTES_READ, groupStatus.getBytesRead());
+        assertEquals(PROCESSING_NANOS, groupStatus.getProcessingNanos());
+        assertEquals(PROCESSING_NANOS, groupStatus.getProcessingPerformanceStatus().getCpuDuration());
+
+        final ProcessGroupStatus childGroupStatus = groupStatus.getProcessGroupStatus().iterator().next();
+        assertEquals(CHILD_GROUP_ID, childGroupStatus.getId());
+        assertEquals(BYTES_READ, childGroupStatus.getBytesRead());
+        assertTrue(childGroupStatus.getProcessorStatus().isEmpty());
+    }
+
+    @Test
+    void testGetGroupStatusReusesTotalsWithinSnapshot() {
+        final StandardRepositoryStatusReport repositoryStatusReport = new StandardRepositoryStatusReport();
+        repositoryStatusReport.addReportEntry(createEvent(), PROCESSOR_ID);
+        when(flowFileEventRepository.reportTransferEvents(anyLong())).thenReturn(repositoryStatusReport);
+
+        when(processorNode.getIdentifier()).thenReturn(PROCESSOR_ID);
+        when(childGroup.getIdentifier()).thenReturn(CHILD_GROUP_ID);
+        when(childGroup.getProcessors()).thenReturn(List.of(processorNode));
+        when(processGroup.getIdentifier()).thenReturn(PROCESS_GROUP_ID);
+        when(processGroup.getProcessGroups()).thenReturn(Set.of(childGroup));
+
+        final RepositoryStatusReport firstReport = eventAccess.generateRepositoryStatusReport();
+        final ProcessGroupStatus firstStatus = eventAccess.getGroupStatus(processGroup, firstReport, authorizable -> false, SINGLE_DEPTH, SINGLE_DEPTH, INCLUDE_CONNECTION_DETAILS);
+
+        final RepositoryStatusReport secondReport = eventAccess.generateRepositoryStatusReport();
+        final ProcessGroupStatus secondStatus = eventAccess.getGroupStatus(processGroup, secondReport, authorizable -> false, SINGLE_DEPTH, SINGLE_DEPTH, INCLUDE_CONNECTION_DETAILS);
+
+        assertSame(firstReport, secondReport);
+        assertEquals(BYTES_READ, firstStatus.getBytesRead());
+        assertEquals(BYTES_READ, secondStatus.getBytesRead());
+
+        // The totals of the child group were computed from the first request, so the child group is not traversed again
+        verify(childGroup, times(1)).getProcessors();
+        verify(flowFileEventRepository, times(1)).reportTransferEvents(anyLong());
+    }
+
+    private static StandardFlowFileEvent createEvent() {
+        final StandardFlowFileEvent event = new StandardFlowFileEvent();
+        event.setBytesRead(BYTES_READ);
+        event.setProcessingNanos(PROCESSING_NANOS);
+        event.setCpuNanoseconds(PROCESSING_NANOS);
+        event.setInvocations(1);
+        return event;
+    }
+
     private static class ConcreteEventAccess extends AbstractEventAccess {
 
         public ConcreteEventAccess(
@@ -4030,6 +4030,8 @@ public final class DtoFactory {
        dto.setSwapByteCount(swapSize.getByteCount());
        dto.setSwapFlowFileCount(swapSize.getObjectCount());
        dto.setSwapFiles(queueDiagnostics.getSwapFileCount());
+       dto.setSwapStallCount(queueDiagnostics.getSwapStallCount());
+       dto.setSwapStallMillis(queueDiagnostics.getSwapStallMillis());
 
        dto.setTotalByteCount(activeSize.getByteCount() + inFlightSize.getByteCount() + swapSize.getByteCount());
        dto.setTotalFlowFileCount(activeSize.getObjectCount() + inFlightSize.getObjectCount() + swapSize.getObjectCount());
@@ -22,6 +22,7 @@ import org.apache.nifi.annotation.lifecycle.OnShutdown;
 import org.apache.nifi.annotation.notification.PrimaryNodeState;
 import org.apache.nifi.components.validation.ValidationStatus;
 import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Funnel;
 import org.apache.nifi.connectable.Port;
 import org.apache.nifi.controller.ConfigurationContext;
@@ -286,6 +287,14 @@ public class StatelessProcessScheduler implements ProcessScheduler {
     public void yield(final ProcessorNode procNode) {
     }
 
+    @Override
+    public void onFlowFilesEnqueued(final String queueIdentifier) {
+    }
+
+    @Override
+    public void onConnectionRemoved(final Connection connection) {
+    }
+
     @Override
     public Future<Void> unschedule(final ReportingTaskNode taskNode) {
         return CompletableFuture.completedFuture(null);
@@ -57,6 +57,14 @@ public class StatelessSchedulingAgent implements SchedulingAgent {
     public void onEvent(final Connectable connectable) {
     }
 
+    @Override
+    public void onFlowFilesEnqueued(final String queueIdentifier) {
+    }
+
+    @Override
+    public void onFlowFileQueueRemoved(final String queueIdentifier) {
+    }
+
     @Override
     public void schedule(final ReportingTaskNode taskNode, final LifecycleState scheduleState) {
         final long schedulingMillis = taskNode.getSchedulingPeriod(TimeUnit.MILLISECONDS);